@@ -0,0 +1,75 @@
+package octguy.livanabe.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generating, validating and rejecting a token, the three JwtUtil paths hit on every login or request.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+
+    private UserDetails userDetails;
+
+    private String token;
+
+    private String forgedToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        setField("secretKey", "benchmark-secret-benchmark-secret-benchmark-secret");
+        setField("expiration", 3_600_000L);
+        jwtUtil.init();
+
+        userDetails = User.withUsername("benchmark@example.com").password("unused").build();
+        token = jwtUtil.generateToken(userDetails);
+        // Same header and claims, broken signature
+        forgedToken = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public Optional<Claims> validate() {
+        return jwtUtil.parseClaims(token);
+    }
+
+    @Benchmark
+    public Optional<Claims> reject() {
+        return jwtUtil.parseClaims(forgedToken);
+    }
+
+    private void setField(String name, Object value) {
+        Field field = ReflectionUtils.findField(JwtUtil.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, jwtUtil, value);
+    }
+}
@@ -0,0 +1,130 @@
+package octguy.livanabe.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The feature index's two queries over a catalog of 500k home listings, ListingBitmap against a plain BitSet:
+ * a filter on five amenities, intersected smallest first and then listed like HomeFeatureIndexServiceImpl.match,
+ * and the facet counts of every feature over the matching listings like countFeatures.
+ * The amenity mixes go from all common (wifi, kitchen) to mostly rare (hot tub, EV charger).
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingBitmapBenchmark {
+
+    private static final int LISTINGS = 500_000;
+    private static final int FEATURES = 40;
+
+    // Share of the listings having each of the five filtered amenities, in percent
+    @Param({"90:80:70:60:50", "90:70:40:15:5", "30:10:5:2:1"})
+    private String densities;
+
+    private ListingBitmap[] filter;
+    private BitSet[] filterBits;
+    private ListingBitmap[] features;
+    private BitSet[] featureBits;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int[] percents = Arrays.stream(densities.split(":")).mapToInt(Integer::parseInt).toArray();
+        filterBits = new BitSet[percents.length];
+        filter = new ListingBitmap[percents.length];
+        for (int i = 0; i < percents.length; i++) {
+            filterBits[i] = randomSet(random, percents[i]);
+            filter[i] = toBitmap(filterBits[i]);
+        }
+        featureBits = new BitSet[FEATURES];
+        features = new ListingBitmap[FEATURES];
+        for (int i = 0; i < FEATURES; i++) {
+            featureBits[i] = randomSet(random, 1 + random.nextInt(90));
+            features[i] = toBitmap(featureBits[i]);
+        }
+    }
+
+    @Benchmark
+    public void match(Blackhole blackhole) {
+        intersect(filter).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void matchBitSet(Blackhole blackhole) {
+        intersect(filterBits).stream().forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void countFeatures(Blackhole blackhole) {
+        ListingBitmap candidates = intersect(filter);
+        for (ListingBitmap feature : features) {
+            blackhole.consume(feature.andCardinality(candidates));
+        }
+    }
+
+    @Benchmark
+    public void countFeaturesBitSet(Blackhole blackhole) {
+        BitSet candidates = intersect(filterBits);
+        for (BitSet feature : featureBits) {
+            BitSet both = (BitSet) feature.clone();
+            both.and(candidates);
+            blackhole.consume(both.cardinality());
+        }
+    }
+
+    private static ListingBitmap intersect(ListingBitmap[] bitmaps) {
+        ListingBitmap[] sorted = bitmaps.clone();
+        Arrays.sort(sorted, Comparator.comparingInt(ListingBitmap::cardinality));
+        ListingBitmap result = sorted[0].and(sorted[1]);
+        for (int i = 2; i < sorted.length && !result.isEmpty(); i++) {
+            result = result.and(sorted[i]);
+        }
+        return result;
+    }
+
+    private static BitSet intersect(BitSet[] sets) {
+        BitSet[] sorted = sets.clone();
+        Arrays.sort(sorted, Comparator.comparingInt(BitSet::cardinality));
+        BitSet result = (BitSet) sorted[0].clone();
+        for (int i = 1; i < sorted.length && !result.isEmpty(); i++) {
+            result.and(sorted[i]);
+        }
+        return result;
+    }
+
+    private static BitSet randomSet(Random random, int percent) {
+        BitSet set = new BitSet(LISTINGS);
+        for (int i = 0; i < LISTINGS; i++) {
+            if (random.nextInt(100) < percent) {
+                set.set(i);
+            }
+        }
+        return set;
+    }
+
+    private static ListingBitmap toBitmap(BitSet set) {
+        ListingBitmap bitmap = new ListingBitmap();
+        set.stream().forEach(bitmap::add);
+        return bitmap;
+    }
+}
@@ -0,0 +1,162 @@
+package octguy.livanabe.service.implementation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import octguy.livanabe.config.RabbitMQConfig;
+import octguy.livanabe.dto.response.NotificationMessage;
+import octguy.livanabe.entity.NotificationOutbox;
+import octguy.livanabe.repository.NotificationOutboxRepository;
+import octguy.livanabe.support.EmbeddedAmqpBroker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishing booking notifications to an embedded AMQP broker, per notification: the outbox relay sending a batch
+ * over one channel with a single wait for the publisher confirms, against waiting for each confirm in turn, and
+ * against the former unconfirmed publish from the booking transaction.
+ * The outbox table is stubbed, so only serialization and broker round trips are measured. The exchange has no queue
+ * bound, which keeps the broker's memory flat; unroutable messages are still confirmed.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationRelayBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private CachingConnectionFactory connectionFactory;
+    private RabbitTemplate rabbitTemplate;
+    private NotificationOutboxServiceImpl outboxService;
+    private List<NotificationMessage> messages;
+
+    @Setup
+    public void setUp() throws Exception {
+        connectionFactory = new CachingConnectionFactory("localhost", EmbeddedAmqpBroker.port());
+        connectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.SIMPLE);
+        new RabbitAdmin(connectionFactory).declareExchange(new TopicExchange(RabbitMQConfig.NOTIFICATION_EXCHANGE));
+        rabbitTemplate = new RabbitTemplate(connectionFactory);
+        rabbitTemplate.setMessageConverter(new Jackson2JsonMessageConverter());
+
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        messages = new ArrayList<>();
+        List<NotificationOutbox> batch = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            NotificationMessage message = NotificationMessage.builder()
+                    .id(UUID.randomUUID())
+                    .recipientId(UUID.randomUUID())
+                    .type("BOOKING_HOME")
+                    .title("New booking!")
+                    .message("Guest " + i + " booked 'Riverside apartment' from 2026-11-02 to 2026-11-05")
+                    .data(Map.of("bookingId", UUID.randomUUID(), "guests", 2, "totalPrice", 360))
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            messages.add(message);
+            batch.add(NotificationOutbox.builder()
+                    .id(UUID.randomUUID())
+                    .recipientId(message.getRecipientId())
+                    .payload(objectMapper.writeValueAsString(message))
+                    .nextAttemptAt(LocalDateTime.now())
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+
+        // Every relay run leases the same batch; deletes are no-ops
+        NotificationOutboxRepository repository = (NotificationOutboxRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{NotificationOutboxRepository.class},
+                (proxy, method, args) -> method.getName().equals("lockDueBatch") ? batch : null);
+        outboxService = new NotificationOutboxServiceImpl(repository, rabbitTemplate, objectMapper,
+                new TransactionTemplate(new NoOpTransactionManager()));
+        setField("batchSize", BATCH_SIZE);
+        setField("confirmTimeoutMs", 5_000L);
+        setField("leaseMs", 60_000L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int relayBatch() {
+        return outboxService.relayPending();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void publishEachConfirmed() {
+        for (NotificationMessage message : messages) {
+            rabbitTemplate.invoke(operations -> {
+                operations.convertAndSend(RabbitMQConfig.NOTIFICATION_EXCHANGE,
+                        RabbitMQConfig.NOTIFICATION_ROUTING_KEY, message);
+                operations.waitForConfirmsOrDie(5_000);
+                return null;
+            });
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void publishUnconfirmed() {
+        for (NotificationMessage message : messages) {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.NOTIFICATION_EXCHANGE,
+                    RabbitMQConfig.NOTIFICATION_ROUTING_KEY, message);
+        }
+    }
+
+    private void setField(String name, Object value) {
+        Field field = ReflectionUtils.findField(NotificationOutboxServiceImpl.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, outboxService, value);
+    }
+
+    // The relay only uses transactions around the stubbed repository calls
+    private static class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -3,9 +3,11 @@ package octguy.livanabe;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaRepositories(basePackages = "octguy.livanabe.repository")
+@EnableScheduling
 public class LivanaBeApplication {
 
     public static void main(String[] args) {
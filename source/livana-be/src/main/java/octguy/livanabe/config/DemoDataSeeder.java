@@ -7,6 +7,10 @@ import octguy.livanabe.entity.composite_key.RoleUserId;
 import octguy.livanabe.entity.composite_key.UserInterestId;
 import octguy.livanabe.enums.*;
 import octguy.livanabe.repository.*;
+import octguy.livanabe.service.IChatService;
+import octguy.livanabe.service.IDailyMetricService;
+import octguy.livanabe.service.IHomeAvailabilityService;
+import octguy.livanabe.service.IListingRatingService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.annotation.Order;
@@ -64,6 +68,10 @@ public class DemoDataSeeder implements CommandLineRunner {
     private final NotificationRepository notificationRepository;
     private final PaymentRepository paymentRepository;
     private final PasswordEncoder passwordEncoder;
+    private final IHomeAvailabilityService homeAvailabilityService;
+    private final IListingRatingService listingRatingService;
+    private final IChatService chatService;
+    private final IDailyMetricService dailyMetricService;
 
     private final Random random = new Random();
 
@@ -107,11 +115,20 @@ public class DemoDataSeeder implements CommandLineRunner {
         seedReviews(customers, homeListings, experienceListings);
         seedConversations(users);
         seedNotifications(users, homeBookings, experienceBookings);
+        rebuildDerivedData();
 
         logSampleCredentials(users, hosts);
         log.info("Demo data seeding finished.");
     }
 
+    // The rows above bypass the services, so the state they keep in step is rebuilt once from the seeded data
+    private void rebuildDerivedData() {
+        homeAvailabilityService.resync();
+        listingRatingService.resync();
+        chatService.repairUnreadCounts();
+        dailyMetricService.rebuild(null, null);
+    }
+
     private List<User> seedUsers(Role userRole, List<Interest> interests) {
         List<User> users = new ArrayList<>();
         LocalDateTime now = LocalDateTime.now();
@@ -11,17 +11,27 @@ import java.util.Properties;
 @Configuration
 public class EmailConfig {
 
+    @Value("${spring.mail.host:smtp.gmail.com}")
+    private String host;
+
+    @Value("${spring.mail.port:587}")
+    private int port;
+
     @Value("${spring.mail.username}")
     private String username;
 
     @Value("${spring.mail.password}")
     private String password;
 
+    // Upper bound for one SMTP round trip, so an unreachable mail server cannot hold a sender thread
+    @Value("${app.email.smtp-timeout-ms:10000}")
+    private int smtpTimeoutMs;
+
     @Bean
     public JavaMailSender javaMailSender() {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
-        mailSender.setHost("smtp.gmail.com");
-        mailSender.setPort(587);
+        mailSender.setHost(host);
+        mailSender.setPort(port);
         mailSender.setUsername(username);
         mailSender.setPassword(password);
 
@@ -30,6 +40,9 @@ public class EmailConfig {
         props.put("mail.smtp.auth", "true");
         props.put("mail.smtp.starttls.enable", "true");
         props.put("mail.debug", "true");
+        props.put("mail.smtp.connectiontimeout", String.valueOf(smtpTimeoutMs));
+        props.put("mail.smtp.timeout", String.valueOf(smtpTimeoutMs));
+        props.put("mail.smtp.writetimeout", String.valueOf(smtpTimeoutMs));
 
         return mailSender;
     }
@@ -1,10 +1,18 @@
 package octguy.livanabe.config;
 
+import octguy.livanabe.service.IListingChangeService;
+import octguy.livanabe.service.IRealtimeDeliveryService;
+import octguy.livanabe.service.IReferenceCatalogService;
+import octguy.livanabe.service.implementation.UserDetailsServiceImpl;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -15,6 +23,33 @@ public class RabbitMQConfig {
     public static final String NOTIFICATION_EXCHANGE = "notification.exchange";
     public static final String NOTIFICATION_ROUTING_KEY = "notification.routing.key";
 
+    // Routed WebSocket delivery: one queue per node, bound with the node id as routing key
+    public static final String REALTIME_EXCHANGE = "realtime.delivery.exchange";
+    public static final String REALTIME_NODE_QUEUE_PREFIX = "realtime.node.";
+
+    // Reference catalog invalidation: broadcast to one queue per node
+    public static final String CATALOG_EXCHANGE = "catalog.invalidation.exchange";
+    public static final String CATALOG_NODE_QUEUE_PREFIX = "catalog.node.";
+
+    // Listing changes: broadcast to one queue per node so every in-memory listing index catches up
+    public static final String LISTING_CHANGE_EXCHANGE = "listing.change.exchange";
+    public static final String LISTING_INDEX_NODE_QUEUE_PREFIX = "listing.index.node.";
+
+    // Principal cache eviction: broadcast to one queue per node so no node keeps serving a changed user
+    public static final String PRINCIPAL_EXCHANGE = "principal.eviction.exchange";
+    public static final String PRINCIPAL_NODE_QUEUE_PREFIX = "principal.node.";
+
+    public static final String NOTIFICATION_LISTENER_FACTORY = "notificationListenerContainerFactory";
+
+    @Value("${app.notification.consumer.prefetch:50}")
+    private int notificationPrefetch;
+
+    @Value("${app.notification.consumer.concurrency:2}")
+    private int notificationConcurrency;
+
+    @Value("${app.notification.consumer.max-concurrency:8}")
+    private int notificationMaxConcurrency;
+
     @Bean
     public Queue notificationQueue() {
         return QueueBuilder.durable(NOTIFICATION_QUEUE).build();
@@ -33,6 +68,108 @@ public class RabbitMQConfig {
                 .with(NOTIFICATION_ROUTING_KEY);
     }
 
+    @Bean
+    @ConditionalOnProperty(name = "app.websocket.delivery", havingValue = "routed")
+    public DirectExchange realtimeExchange() {
+        return new DirectExchange(REALTIME_EXCHANGE);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.websocket.delivery", havingValue = "routed")
+    public Queue realtimeNodeQueue(IRealtimeDeliveryService realtimeDeliveryService) {
+        // Exclusive and auto-deleted: the queue disappears with the node, so messages for a dead node are dropped
+        return QueueBuilder.nonDurable(REALTIME_NODE_QUEUE_PREFIX + realtimeDeliveryService.getNodeId())
+                .exclusive()
+                .autoDelete()
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.websocket.delivery", havingValue = "routed")
+    public Binding realtimeNodeBinding(Queue realtimeNodeQueue, DirectExchange realtimeExchange,
+                                       IRealtimeDeliveryService realtimeDeliveryService) {
+        return BindingBuilder
+                .bind(realtimeNodeQueue)
+                .to(realtimeExchange)
+                .with(realtimeDeliveryService.getNodeId());
+    }
+
+    @Bean
+    public FanoutExchange catalogExchange() {
+        return new FanoutExchange(CATALOG_EXCHANGE);
+    }
+
+    @Bean
+    public Queue catalogInvalidationQueue(IReferenceCatalogService referenceCatalogService) {
+        // Exclusive and auto-deleted: a node only needs the invalidations sent while it is running
+        return QueueBuilder.nonDurable(CATALOG_NODE_QUEUE_PREFIX + referenceCatalogService.getNodeId())
+                .exclusive()
+                .autoDelete()
+                .build();
+    }
+
+    @Bean
+    public Binding catalogInvalidationBinding(Queue catalogInvalidationQueue, FanoutExchange catalogExchange) {
+        return BindingBuilder
+                .bind(catalogInvalidationQueue)
+                .to(catalogExchange);
+    }
+
+    @Bean
+    public FanoutExchange listingChangeExchange() {
+        return new FanoutExchange(LISTING_CHANGE_EXCHANGE);
+    }
+
+    @Bean
+    public Queue listingIndexQueue(IListingChangeService listingChangeService) {
+        // Exclusive and auto-deleted like the catalog queue; a restarted node rebuilds its index anyway
+        return QueueBuilder.nonDurable(LISTING_INDEX_NODE_QUEUE_PREFIX + listingChangeService.getNodeId())
+                .exclusive()
+                .autoDelete()
+                .build();
+    }
+
+    @Bean
+    public Binding listingIndexBinding(Queue listingIndexQueue, FanoutExchange listingChangeExchange) {
+        return BindingBuilder
+                .bind(listingIndexQueue)
+                .to(listingChangeExchange);
+    }
+
+    @Bean
+    public FanoutExchange principalEvictionExchange() {
+        return new FanoutExchange(PRINCIPAL_EXCHANGE);
+    }
+
+    @Bean
+    public Queue principalEvictionQueue(UserDetailsServiceImpl userDetailsService) {
+        // Exclusive and auto-deleted like the catalog queue; a restarted node starts with an empty cache
+        return QueueBuilder.nonDurable(PRINCIPAL_NODE_QUEUE_PREFIX + userDetailsService.getNodeId())
+                .exclusive()
+                .autoDelete()
+                .build();
+    }
+
+    @Bean
+    public Binding principalEvictionBinding(Queue principalEvictionQueue, FanoutExchange principalEvictionExchange) {
+        return BindingBuilder
+                .bind(principalEvictionQueue)
+                .to(principalEvictionExchange);
+    }
+
+    // Prefetch and extra consumers for the notification queue only; the other listeners use the default factory
+    // and pin a single consumer, since their messages must be handled in order
+    @Bean(NOTIFICATION_LISTENER_FACTORY)
+    public SimpleRabbitListenerContainerFactory notificationListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setPrefetchCount(notificationPrefetch);
+        factory.setConcurrentConsumers(notificationConcurrency);
+        factory.setMaxConcurrentConsumers(notificationMaxConcurrency);
+        return factory;
+    }
+
     @Bean
     public MessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
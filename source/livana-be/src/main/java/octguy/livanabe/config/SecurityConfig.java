@@ -114,6 +114,9 @@ public class SecurityConfig {
                         // ===== Public Reviews (GET listing reviews) =====
                         .requestMatchers(HttpMethod.GET, "/api/v1/reviews/listing/**").permitAll()
 
+                        // ===== Public listing rankings =====
+                        .requestMatchers(HttpMethod.GET, "/api/v1/rankings/**").permitAll()
+
                         // ===== Catalog GET (both role) =====
                         .requestMatchers(HttpMethod.GET, CATALOG).permitAll()
 
@@ -0,0 +1,49 @@
+package octguy.livanabe.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the warm-up work triggered by ApplicationReadyEvent (in-memory index and snapshot builds) in the
+ * background, one task at a time, so a slow or failing task never delays or aborts startup.
+ * <p>
+ * The executor is kept private instead of being exposed as a bean, which would make Spring Boot back off
+ * from its default application task executor.
+ */
+@Slf4j
+@Component
+public class StartupTasks {
+
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("startup-task-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    // Queues the task; failures are logged and left to the task's scheduled run to retry
+    public void run(String name, Runnable task) {
+        executor.execute(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                task.run();
+                log.info("Startup task '{}' finished in {} ms", name, System.currentTimeMillis() - start);
+            } catch (RuntimeException e) {
+                log.error("Startup task '{}' failed", name, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,20 @@
+package octguy.livanabe.consumer;
+
+import lombok.RequiredArgsConstructor;
+import octguy.livanabe.dto.dto.CatalogInvalidationMessage;
+import octguy.livanabe.service.IReferenceCatalogService;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CatalogInvalidationConsumer {
+
+    private final IReferenceCatalogService referenceCatalogService;
+
+    // Another node changed a reference table; reload this node's snapshot
+    @RabbitListener(queues = "#{catalogInvalidationQueue.name}", concurrency = "1-1")
+    public void consumeInvalidation(CatalogInvalidationMessage message) {
+        referenceCatalogService.onPeerInvalidation(message);
+    }
+}
@@ -0,0 +1,20 @@
+package octguy.livanabe.consumer;
+
+import lombok.RequiredArgsConstructor;
+import octguy.livanabe.dto.dto.ListingChangeMessage;
+import octguy.livanabe.service.IListingChangeService;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ListingChangeConsumer {
+
+    private final IListingChangeService listingChangeService;
+
+    // Another node changed a listing; refresh it in this node's indexes
+    @RabbitListener(queues = "#{listingIndexQueue.name}", concurrency = "1-1")
+    public void consumeChange(ListingChangeMessage message) {
+        listingChangeService.onPeerChange(message);
+    }
+}
@@ -15,7 +15,8 @@ public class NotificationConsumer {
 
     private final INotificationService notificationService;
 
-    @RabbitListener(queues = RabbitMQConfig.NOTIFICATION_QUEUE)
+    @RabbitListener(queues = RabbitMQConfig.NOTIFICATION_QUEUE,
+            containerFactory = RabbitMQConfig.NOTIFICATION_LISTENER_FACTORY)
     public void consumeNotification(NotificationMessage notification) {
         log.info("Received notification from RabbitMQ: {} for recipient: {}", 
                 notification.getTitle(), notification.getRecipientId());
@@ -0,0 +1,20 @@
+package octguy.livanabe.consumer;
+
+import lombok.RequiredArgsConstructor;
+import octguy.livanabe.dto.dto.PrincipalEvictionMessage;
+import octguy.livanabe.service.implementation.UserDetailsServiceImpl;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class PrincipalEvictionConsumer {
+
+    private final UserDetailsServiceImpl userDetailsService;
+
+    // Another node changed a user's roles or status; drop this node's cached principal
+    @RabbitListener(queues = "#{principalEvictionQueue.name}", concurrency = "1-1")
+    public void consumeEviction(PrincipalEvictionMessage message) {
+        userDetailsService.onPeerEviction(message);
+    }
+}
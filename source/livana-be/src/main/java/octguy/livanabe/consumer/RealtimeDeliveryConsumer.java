@@ -0,0 +1,23 @@
+package octguy.livanabe.consumer;
+
+import lombok.RequiredArgsConstructor;
+import octguy.livanabe.dto.dto.RealtimeDeliveryMessage;
+import octguy.livanabe.service.IRealtimeDeliveryService;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.websocket.delivery", havingValue = "routed")
+public class RealtimeDeliveryConsumer {
+
+    private final IRealtimeDeliveryService realtimeDeliveryService;
+
+    // Messages other nodes routed to this node because it holds the recipient's session.
+    // A single consumer keeps them in publish order.
+    @RabbitListener(queues = "#{realtimeNodeQueue.name}", concurrency = "1-1")
+    public void consumeDelivery(RealtimeDeliveryMessage message) {
+        realtimeDeliveryService.deliverLocally(message);
+    }
+}
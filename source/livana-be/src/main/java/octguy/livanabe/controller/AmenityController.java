@@ -1,10 +1,13 @@
 package octguy.livanabe.controller;
 
 import jakarta.validation.Valid;
+import octguy.livanabe.dto.dto.CatalogSection;
 import octguy.livanabe.dto.request.CreateAmenityRequest;
 import octguy.livanabe.dto.response.AmenityResponse;
 import octguy.livanabe.entity.ApiResponse;
 import octguy.livanabe.service.IAmenityService;
+import octguy.livanabe.service.IReferenceCatalogService;
+import octguy.livanabe.utils.HttpCacheUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,8 +22,11 @@ public class AmenityController {
 
     private final IAmenityService amenityService;
 
-    public AmenityController(IAmenityService amenityService) {
+    private final IReferenceCatalogService referenceCatalogService;
+
+    public AmenityController(IAmenityService amenityService, IReferenceCatalogService referenceCatalogService) {
         this.amenityService = amenityService;
+        this.referenceCatalogService = referenceCatalogService;
     }
 
     @GetMapping
@@ -28,30 +34,16 @@ public class AmenityController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "15") int size
     ) {
-        Page<AmenityResponse> amenities = amenityService.findAll(page, size);
-
-        ApiResponse<Page<AmenityResponse>> apiResponse = new ApiResponse<>(
-                HttpStatus.OK,
-                "Amenities fetched successfully",
-                amenities,
-                null
-        );
+        CatalogSection<AmenityResponse> amenities = referenceCatalogService.getCatalog().getAmenities();
 
-        return ResponseEntity.ok().body(apiResponse);
+        return HttpCacheUtils.catalogResponse(amenities.getEtag(), "Amenities fetched successfully", amenities.page(page, size));
     }
 
     @GetMapping("/all")
     public ResponseEntity<ApiResponse<List<AmenityResponse>>> getAllAmenitiesNoPagination() {
-        List<AmenityResponse> amenities = amenityService.findAll();
+        CatalogSection<AmenityResponse> amenities = referenceCatalogService.getCatalog().getAmenities();
 
-        ApiResponse<List<AmenityResponse>> apiResponse = new ApiResponse<>(
-                HttpStatus.OK,
-                "Amenities fetched successfully",
-                amenities,
-                null
-        );
-
-        return ResponseEntity.ok().body(apiResponse);
+        return HttpCacheUtils.catalogResponse(amenities.getEtag(), "Amenities fetched successfully", amenities.getItems());
     }
 
     @GetMapping("/{id}")
@@ -5,8 +5,10 @@ import lombok.RequiredArgsConstructor;
 import octguy.livanabe.dto.request.CreateConversationRequest;
 import octguy.livanabe.dto.request.SendMessageRequest;
 import octguy.livanabe.dto.response.ConversationResponse;
+import octguy.livanabe.dto.response.CursorPageResponse;
 import octguy.livanabe.dto.response.MessageResponse;
 import octguy.livanabe.entity.ApiResponse;
+import octguy.livanabe.exception.BadRequestException;
 import octguy.livanabe.service.IChatService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -58,6 +60,32 @@ public class ChatController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get the current user's conversations one page at a time
+     * @param cursor Cursor returned with the previous page, omit for the first page
+     * @param limit Page size (1-100)
+     */
+    @GetMapping("/conversations/paged")
+    public ResponseEntity<ApiResponse<CursorPageResponse<ConversationResponse>>> getConversationsPaged(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        if (limit < 1 || limit > 100) {
+            throw new BadRequestException("Limit must be between 1 and 100");
+        }
+
+        CursorPageResponse<ConversationResponse> conversations = chatService.getConversations(cursor, limit);
+
+        ApiResponse<CursorPageResponse<ConversationResponse>> response = new ApiResponse<>(
+                HttpStatus.OK,
+                "Conversations retrieved successfully",
+                conversations,
+                null
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get a specific conversation by ID
      */
@@ -98,6 +126,36 @@ public class ChatController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get messages in a conversation one page at a time, in chronological order.
+     * Every non-empty page carries the prevCursor of its oldest and the nextCursor of its newest message.
+     * @param before Cursor to load older messages (the prevCursor of a page)
+     * @param after Cursor to load newer messages (the nextCursor of a page, also on the newest page to poll)
+     * @param limit Page size (1-100)
+     */
+    @GetMapping("/conversations/{conversationId}/messages/paged")
+    public ResponseEntity<ApiResponse<CursorPageResponse<MessageResponse>>> getMessagesPaged(
+            @PathVariable UUID conversationId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        if (limit < 1 || limit > 100) {
+            throw new BadRequestException("Limit must be between 1 and 100");
+        }
+
+        CursorPageResponse<MessageResponse> messages = chatService.getMessages(conversationId, before, after, limit);
+
+        ApiResponse<CursorPageResponse<MessageResponse>> response = new ApiResponse<>(
+                HttpStatus.OK,
+                "Messages retrieved successfully",
+                messages,
+                null
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Send a message to a user
      */
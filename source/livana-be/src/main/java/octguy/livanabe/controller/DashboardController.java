@@ -5,6 +5,7 @@ import octguy.livanabe.dto.response.ComparisonStatsResponse;
 import octguy.livanabe.dto.response.DashboardStatsResponse;
 import octguy.livanabe.dto.response.PeriodStatsResponse;
 import octguy.livanabe.entity.ApiResponse;
+import octguy.livanabe.service.IDailyMetricService;
 import octguy.livanabe.service.IDashboardService;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
@@ -21,6 +22,8 @@ public class DashboardController {
 
     private final IDashboardService dashboardService;
 
+    private final IDailyMetricService dailyMetricService;
+
     /**
      * Get overall dashboard statistics
      */
@@ -88,4 +91,27 @@ public class DashboardController {
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Rebuild the daily metrics rollup from the source tables
+     * @param startDate Start date (format: yyyy-MM-dd), omit together with endDate to rebuild everything
+     * @param endDate End date (format: yyyy-MM-dd)
+     */
+    @PostMapping("/metrics/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> rebuildDailyMetrics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+    ) {
+        dailyMetricService.rebuild(startDate, endDate);
+
+        ApiResponse<Void> response = new ApiResponse<>(
+                HttpStatus.OK,
+                "Daily metrics rebuilt successfully",
+                null,
+                null
+        );
+
+        return ResponseEntity.ok(response);
+    }
 }
@@ -25,7 +25,7 @@ public class ExperienceBookingController {
     public ResponseEntity<ApiResponse<ExperienceBookingResponse>> createBooking(
         @Valid @RequestBody CreateExperienceBookingRequest request
     ) {
-        UUID customerId = SecurityUtils.getCurrentUser().getId();
+        UUID customerId = SecurityUtils.getCurrentUserId();
         ExperienceBookingResponse booking = experienceBookingService.createBooking(request, customerId);
         
         ApiResponse<ExperienceBookingResponse> response = new ApiResponse<>(
@@ -54,7 +54,7 @@ public class ExperienceBookingController {
 
     @GetMapping("/my-bookings")
     public ResponseEntity<ApiResponse<List<ExperienceBookingResponse>>> getMyBookings() {
-        UUID customerId = SecurityUtils.getCurrentUser().getId();
+        UUID customerId = SecurityUtils.getCurrentUserId();
         List<ExperienceBookingResponse> bookings = experienceBookingService.getCustomerBookings(customerId);
         
         ApiResponse<List<ExperienceBookingResponse>> response = new ApiResponse<>(
@@ -97,7 +97,7 @@ public class ExperienceBookingController {
 
     @GetMapping("/host-bookings")
     public ResponseEntity<ApiResponse<List<ExperienceBookingResponse>>> getHostBookings() {
-        UUID hostId = SecurityUtils.getCurrentUser().getId();
+        UUID hostId = SecurityUtils.getCurrentUserId();
         List<ExperienceBookingResponse> bookings = experienceBookingService.getHostBookings(hostId);
         
         ApiResponse<List<ExperienceBookingResponse>> response = new ApiResponse<>(
@@ -114,7 +114,7 @@ public class ExperienceBookingController {
     public ResponseEntity<ApiResponse<ExperienceBookingResponse>> confirmBooking(
         @PathVariable UUID id
     ) {
-        UUID hostId = SecurityUtils.getCurrentUser().getId();
+        UUID hostId = SecurityUtils.getCurrentUserId();
         ExperienceBookingResponse booking = experienceBookingService.confirmBooking(id, hostId);
         
         ApiResponse<ExperienceBookingResponse> response = new ApiResponse<>(
@@ -131,7 +131,7 @@ public class ExperienceBookingController {
     public ResponseEntity<ApiResponse<ExperienceBookingResponse>> cancelBooking(
         @PathVariable UUID id
     ) {
-        UUID customerId = SecurityUtils.getCurrentUser().getId();
+        UUID customerId = SecurityUtils.getCurrentUserId();
         ExperienceBookingResponse booking = experienceBookingService.cancelBooking(id, customerId);
         
         ApiResponse<ExperienceBookingResponse> response = new ApiResponse<>(
@@ -1,10 +1,13 @@
 package octguy.livanabe.controller;
 
 import jakarta.validation.Valid;
+import octguy.livanabe.dto.dto.CatalogSection;
 import octguy.livanabe.dto.request.CreateExperienceCategoryRequest;
 import octguy.livanabe.dto.response.ExperienceCategoryResponse;
 import octguy.livanabe.entity.ApiResponse;
 import octguy.livanabe.service.IExperienceCategoryService;
+import octguy.livanabe.service.IReferenceCatalogService;
+import octguy.livanabe.utils.HttpCacheUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,8 +22,11 @@ public class ExperienceCategoryController {
 
     private final IExperienceCategoryService experienceCategoryService;
 
-    public ExperienceCategoryController(IExperienceCategoryService experienceCategoryService) {
+    private final IReferenceCatalogService referenceCatalogService;
+
+    public ExperienceCategoryController(IExperienceCategoryService experienceCategoryService, IReferenceCatalogService referenceCatalogService) {
         this.experienceCategoryService = experienceCategoryService;
+        this.referenceCatalogService = referenceCatalogService;
     }
 
     @GetMapping
@@ -28,30 +34,16 @@ public class ExperienceCategoryController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "15") int size
     ) {
-        Page<ExperienceCategoryResponse> experienceCategories = experienceCategoryService.findAll(page, size);
-
-        ApiResponse<Page<ExperienceCategoryResponse>> apiResponse = new ApiResponse<>(
-                HttpStatus.OK,
-                "Experience categories fetched successfully",
-                experienceCategories,
-                null
-        );
+        CatalogSection<ExperienceCategoryResponse> experienceCategories = referenceCatalogService.getCatalog().getExperienceCategories();
 
-        return ResponseEntity.ok().body(apiResponse);
+        return HttpCacheUtils.catalogResponse(experienceCategories.getEtag(), "Experience categories fetched successfully", experienceCategories.page(page, size));
     }
 
     @GetMapping("/all")
     public ResponseEntity<ApiResponse<List<ExperienceCategoryResponse>>> getAllExperienceCategoriesNoPagination() {
-        List<ExperienceCategoryResponse> experienceCategories = experienceCategoryService.findAll();
-
-        ApiResponse<List<ExperienceCategoryResponse>> apiResponse = new ApiResponse<>(
-                HttpStatus.OK,
-                "Experience categories fetched successfully",
-                experienceCategories,
-                null
-        );
+        CatalogSection<ExperienceCategoryResponse> experienceCategories = referenceCatalogService.getCatalog().getExperienceCategories();
 
-        return ResponseEntity.ok().body(apiResponse);
+        return HttpCacheUtils.catalogResponse(experienceCategories.getEtag(), "Experience categories fetched successfully", experienceCategories.getItems());
     }
 
     @PostMapping
@@ -3,15 +3,21 @@ package octguy.livanabe.controller;
 import jakarta.validation.Valid;
 import octguy.livanabe.dto.request.CreateExperienceListingRequest;
 import octguy.livanabe.dto.request.LocationSearchRequest;
+import octguy.livanabe.dto.request.MapSearchRequest;
+import octguy.livanabe.dto.request.TextSearchRequest;
 import octguy.livanabe.dto.request.UpdateExperienceListingRequest;
 import octguy.livanabe.dto.response.ExperienceListingResponse;
+import octguy.livanabe.dto.response.ListingMapResponse;
+import octguy.livanabe.dto.response.ListingSearchPage;
 import octguy.livanabe.dto.response.ListingSearchResult;
 import octguy.livanabe.entity.ApiResponse;
+import octguy.livanabe.exception.BadRequestException;
 import octguy.livanabe.service.IExperienceListingService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -118,20 +124,93 @@ public class ExperienceListingController {
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) Integer minCapacity,
-            @RequestParam(required = false) String experienceCategoryId
+            @RequestParam(required = false) String experienceCategoryId,
+            @RequestParam(required = false) Integer limit
     ) {
-        LocationSearchRequest request = new LocationSearchRequest();
-        request.setLatitude(latitude);
-        request.setLongitude(longitude);
-        request.setRadiusKm(radiusKm);
+        LocationSearchRequest request = buildLocationSearchRequest(
+                latitude, longitude, radiusKm, minPrice, maxPrice, minCapacity, experienceCategoryId, null, limit);
+        
+        // Without a limit the whole result is returned, as before pagination existed
+        List<ListingSearchResult<ExperienceListingResponse>> results = limit != null
+                ? experienceListingService.searchByLocation(request).getResults()
+                : experienceListingService.searchAllByLocation(request);
+
+        ApiResponse<List<ListingSearchResult<ExperienceListingResponse>>> response = new ApiResponse<>(
+                HttpStatus.OK,
+                "Experience listings search completed successfully",
+                results,
+                null
+        );
+
+        // Point clients at the paginated endpoint, which returns bounded pages with a cursor
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "</api/v1/listings/experiences/search/paged>; rel=\"successor-version\"")
+                .body(response);
+    }
+    
+    @GetMapping("/search/paged")
+    public ResponseEntity<ApiResponse<ListingSearchPage<ExperienceListingResponse>>> searchByLocationPaged(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(required = false, defaultValue = "50") Double radiusKm,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Integer minCapacity,
+            @RequestParam(required = false) String experienceCategoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") Integer limit,
+            @RequestParam(required = false, defaultValue = "false") boolean facets
+    ) {
+        LocationSearchRequest request = buildLocationSearchRequest(
+                latitude, longitude, radiusKm, minPrice, maxPrice, minCapacity, experienceCategoryId, cursor, limit);
+        request.setIncludeFacets(facets);
+        
+        ListingSearchPage<ExperienceListingResponse> results = experienceListingService.searchByLocation(request);
+
+        ApiResponse<ListingSearchPage<ExperienceListingResponse>> response = new ApiResponse<>(
+                HttpStatus.OK,
+                "Experience listings search completed successfully",
+                results,
+                null
+        );
+
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/search/text")
+    public ResponseEntity<ApiResponse<ListingSearchPage<ExperienceListingResponse>>> searchByText(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Integer minCapacity,
+            @RequestParam(required = false) String experienceCategoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") Integer limit,
+            @RequestParam(required = false, defaultValue = "false") boolean facets
+    ) {
+        if (query.isBlank()) {
+            throw new BadRequestException("Search query is required");
+        }
+        if (query.length() > 200) {
+            throw new BadRequestException("Search query cannot exceed 200 characters");
+        }
+        if (limit < 1 || limit > 100) {
+            throw new BadRequestException("Limit must be between 1 and 100");
+        }
+        
+        TextSearchRequest request = new TextSearchRequest();
+        request.setQuery(query);
         request.setMinPrice(minPrice);
         request.setMaxPrice(maxPrice);
         request.setMinCapacity(minCapacity);
         request.setExperienceCategoryId(experienceCategoryId);
+        request.setCursor(cursor);
+        request.setLimit(limit);
+        request.setIncludeFacets(facets);
         
-        List<ListingSearchResult<ExperienceListingResponse>> results = experienceListingService.searchByLocation(request);
+        ListingSearchPage<ExperienceListingResponse> results = experienceListingService.searchByText(request);
 
-        ApiResponse<List<ListingSearchResult<ExperienceListingResponse>>> response = new ApiResponse<>(
+        ApiResponse<ListingSearchPage<ExperienceListingResponse>> response = new ApiResponse<>(
                 HttpStatus.OK,
                 "Experience listings search completed successfully",
                 results,
@@ -141,6 +220,62 @@ public class ExperienceListingController {
         return ResponseEntity.ok(response);
     }
     
+    // Map view: pins when the viewport holds few enough matching listings, grid clusters otherwise
+    @GetMapping("/search/map")
+    public ResponseEntity<ApiResponse<ListingMapResponse>> searchMap(
+            @RequestParam Double minLat,
+            @RequestParam Double maxLat,
+            @RequestParam Double minLon,
+            @RequestParam Double maxLon,
+            @RequestParam Integer zoom,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Integer minCapacity,
+            @RequestParam(required = false) String experienceCategoryId
+    ) {
+        MapSearchRequest request = new MapSearchRequest();
+        request.setMinLat(minLat);
+        request.setMaxLat(maxLat);
+        request.setMinLon(minLon);
+        request.setMaxLon(maxLon);
+        request.setZoom(zoom);
+        request.setMinPrice(minPrice);
+        request.setMaxPrice(maxPrice);
+        request.setMinCapacity(minCapacity);
+        request.setExperienceCategoryId(experienceCategoryId);
+        
+        ListingMapResponse result = experienceListingService.searchMap(request);
+
+        ApiResponse<ListingMapResponse> response = new ApiResponse<>(
+                HttpStatus.OK,
+                "Experience listings map search completed successfully",
+                result,
+                null
+        );
+
+        return ResponseEntity.ok(response);
+    }
+    
+    private LocationSearchRequest buildLocationSearchRequest(Double latitude, Double longitude, Double radiusKm,
+                                                             Double minPrice, Double maxPrice, Integer minCapacity,
+                                                             String experienceCategoryId, String cursor, Integer limit) {
+        if (limit != null && (limit < 1 || limit > 100)) {
+            throw new BadRequestException("Limit must be between 1 and 100");
+        }
+        
+        LocationSearchRequest request = new LocationSearchRequest();
+        request.setLatitude(latitude);
+        request.setLongitude(longitude);
+        request.setRadiusKm(radiusKm);
+        request.setMinPrice(minPrice);
+        request.setMaxPrice(maxPrice);
+        request.setMinCapacity(minCapacity);
+        request.setExperienceCategoryId(experienceCategoryId);
+        request.setCursor(cursor);
+        request.setLimit(limit);
+        return request;
+    }
+    
     // ==================== Admin Endpoints ====================
     
     @GetMapping("/admin/paginated")
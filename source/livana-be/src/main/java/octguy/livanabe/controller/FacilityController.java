@@ -1,10 +1,13 @@
 package octguy.livanabe.controller;
 
 import jakarta.validation.Valid;
+import octguy.livanabe.dto.dto.CatalogSection;
 import octguy.livanabe.dto.request.CreateFacilityRequest;
 import octguy.livanabe.dto.response.FacilityResponse;
 import octguy.livanabe.entity.ApiResponse;
 import octguy.livanabe.service.IFacilityService;
+import octguy.livanabe.service.IReferenceCatalogService;
+import octguy.livanabe.utils.HttpCacheUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,8 +22,11 @@ public class FacilityController {
 
     private final IFacilityService facilityService;
 
-    public FacilityController(IFacilityService facilityService) {
+    private final IReferenceCatalogService referenceCatalogService;
+
+    public FacilityController(IFacilityService facilityService, IReferenceCatalogService referenceCatalogService) {
         this.facilityService = facilityService;
+        this.referenceCatalogService = referenceCatalogService;
     }
 
     @GetMapping
@@ -28,30 +34,16 @@ public class FacilityController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "15") int size
     ) {
-        Page<FacilityResponse> facilities = facilityService.findAll(page, size);
-
-        ApiResponse<Page<FacilityResponse>> apiResponse = new ApiResponse<>(
-                HttpStatus.OK,
-                "Facilities fetched successfully",
-                facilities,
-                null
-        );
+        CatalogSection<FacilityResponse> facilities = referenceCatalogService.getCatalog().getFacilities();
 
-        return ResponseEntity.ok().body(apiResponse);
+        return HttpCacheUtils.catalogResponse(facilities.getEtag(), "Facilities fetched successfully", facilities.page(page, size));
     }
 
     @GetMapping("/all")
     public ResponseEntity<ApiResponse<List<FacilityResponse>>> getAllFacilitiesNoPagination() {
-        List<FacilityResponse> facilities = facilityService.findAll();
+        CatalogSection<FacilityResponse> facilities = referenceCatalogService.getCatalog().getFacilities();
 
-        ApiResponse<List<FacilityResponse>> apiResponse = new ApiResponse<>(
-                HttpStatus.OK,
-                "Facilities fetched successfully",
-                facilities,
-                null
-        );
-
-        return ResponseEntity.ok().body(apiResponse);
+        return HttpCacheUtils.catalogResponse(facilities.getEtag(), "Facilities fetched successfully", facilities.getItems());
     }
 
     @GetMapping("/{id}")
@@ -25,7 +25,7 @@ public class HomeBookingController {
     public ResponseEntity<ApiResponse<HomeBookingResponse>> createBooking(
         @Valid @RequestBody CreateHomeBookingRequest request
     ) {
-        UUID customerId = SecurityUtils.getCurrentUser().getId();
+        UUID customerId = SecurityUtils.getCurrentUserId();
         HomeBookingResponse booking = homeBookingService.createBooking(request, customerId);
         
         ApiResponse<HomeBookingResponse> response = new ApiResponse<>(
@@ -54,7 +54,7 @@ public class HomeBookingController {
 
     @GetMapping("/my-bookings")
     public ResponseEntity<ApiResponse<List<HomeBookingResponse>>> getMyBookings() {
-        UUID customerId = SecurityUtils.getCurrentUser().getId();
+        UUID customerId = SecurityUtils.getCurrentUserId();
         List<HomeBookingResponse> bookings = homeBookingService.getCustomerBookings(customerId);
         
         ApiResponse<List<HomeBookingResponse>> response = new ApiResponse<>(
@@ -83,7 +83,7 @@ public class HomeBookingController {
 
     @GetMapping("/host-bookings")
     public ResponseEntity<ApiResponse<List<HomeBookingResponse>>> getHostBookings() {
-        UUID hostId = SecurityUtils.getCurrentUser().getId();
+        UUID hostId = SecurityUtils.getCurrentUserId();
         List<HomeBookingResponse> bookings = homeBookingService.getHostBookings(hostId);
         
         ApiResponse<List<HomeBookingResponse>> response = new ApiResponse<>(
@@ -100,7 +100,7 @@ public class HomeBookingController {
     public ResponseEntity<ApiResponse<HomeBookingResponse>> confirmBooking(
         @PathVariable UUID id
     ) {
-        UUID hostId = SecurityUtils.getCurrentUser().getId();
+        UUID hostId = SecurityUtils.getCurrentUserId();
         HomeBookingResponse booking = homeBookingService.confirmBooking(id, hostId);
         
         ApiResponse<HomeBookingResponse> response = new ApiResponse<>(
@@ -117,7 +117,7 @@ public class HomeBookingController {
     public ResponseEntity<ApiResponse<HomeBookingResponse>> cancelBooking(
         @PathVariable UUID id
     ) {
-        UUID customerId = SecurityUtils.getCurrentUser().getId();
+        UUID customerId = SecurityUtils.getCurrentUserId();
         HomeBookingResponse booking = homeBookingService.cancelBooking(id, customerId);
         
         ApiResponse<HomeBookingResponse> response = new ApiResponse<>(
@@ -3,21 +3,30 @@ package octguy.livanabe.controller;
 import jakarta.validation.Valid;
 import octguy.livanabe.dto.request.CreateHomeListingRequest;
 import octguy.livanabe.dto.request.LocationSearchRequest;
+import octguy.livanabe.dto.request.MapSearchRequest;
+import octguy.livanabe.dto.request.TextSearchRequest;
 import octguy.livanabe.dto.request.UpdateHomeListingRequest;
 import octguy.livanabe.dto.response.HomeListingResponse;
+import octguy.livanabe.dto.response.ListingMapResponse;
+import octguy.livanabe.dto.response.ListingSearchPage;
 import octguy.livanabe.dto.response.ListingSearchResult;
 import octguy.livanabe.entity.ApiResponse;
+import octguy.livanabe.exception.BadRequestException;
+import octguy.livanabe.service.IHomeAvailabilityService;
 import octguy.livanabe.service.IHomeListingService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -27,8 +36,12 @@ public class HomeListingController {
 
     private final IHomeListingService homeListingService;
 
-    public HomeListingController(IHomeListingService homeListingService) {
+    private final IHomeAvailabilityService homeAvailabilityService;
+
+    public HomeListingController(IHomeListingService homeListingService,
+                                 IHomeAvailabilityService homeAvailabilityService) {
         this.homeListingService = homeListingService;
+        this.homeAvailabilityService = homeAvailabilityService;
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -75,6 +88,25 @@ public class HomeListingController {
         return ResponseEntity.ok(response);
     }
 
+    // Booked nights of the listing in [from, to), for the availability calendar
+    @GetMapping("/{id}/booked-nights")
+    public ResponseEntity<ApiResponse<List<LocalDate>>> getBookedNights(
+            @PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        List<LocalDate> nights = homeAvailabilityService.getBookedNights(id, from, to);
+
+        ApiResponse<List<LocalDate>> response = new ApiResponse<>(
+                HttpStatus.OK,
+                "Booked nights retrieved successfully",
+                nights,
+                null
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/host/{hostId}")
     public ResponseEntity<ApiResponse<List<HomeListingResponse>>> getHomeListingsByHostId(@PathVariable UUID hostId) {
         List<HomeListingResponse> homeListings = homeListingService.getHomeListingsByHostId(hostId);
@@ -114,20 +146,109 @@ public class HomeListingController {
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) Integer minCapacity,
-            @RequestParam(required = false) String propertyTypeId
+            @RequestParam(required = false) String propertyTypeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam(required = false) List<UUID> amenityIds,
+            @RequestParam(required = false) List<UUID> facilityIds,
+            @RequestParam(required = false) Integer limit
     ) {
-        LocationSearchRequest request = new LocationSearchRequest();
-        request.setLatitude(latitude);
-        request.setLongitude(longitude);
-        request.setRadiusKm(radiusKm);
+        LocationSearchRequest request = buildLocationSearchRequest(
+                latitude, longitude, radiusKm, minPrice, maxPrice, minCapacity, propertyTypeId, checkIn, checkOut, null, limit);
+        request.setAmenityIds(amenityIds);
+        request.setFacilityIds(facilityIds);
+        
+        // Without a limit the whole result is returned, as before pagination existed
+        List<ListingSearchResult<HomeListingResponse>> results = limit != null
+                ? homeListingService.searchByLocation(request).getResults()
+                : homeListingService.searchAllByLocation(request);
+
+        ApiResponse<List<ListingSearchResult<HomeListingResponse>>> response = new ApiResponse<>(
+                HttpStatus.OK,
+                "Home listings search completed successfully",
+                results,
+                null
+        );
+
+        // Point clients at the paginated endpoint, which returns bounded pages with a cursor
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "</api/v1/listings/homes/search/paged>; rel=\"successor-version\"")
+                .body(response);
+    }
+    
+    @GetMapping("/search/paged")
+    public ResponseEntity<ApiResponse<ListingSearchPage<HomeListingResponse>>> searchByLocationPaged(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(required = false, defaultValue = "50") Double radiusKm,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Integer minCapacity,
+            @RequestParam(required = false) String propertyTypeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam(required = false) List<UUID> amenityIds,
+            @RequestParam(required = false) List<UUID> facilityIds,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") Integer limit,
+            @RequestParam(required = false, defaultValue = "false") boolean facets
+    ) {
+        LocationSearchRequest request = buildLocationSearchRequest(
+                latitude, longitude, radiusKm, minPrice, maxPrice, minCapacity, propertyTypeId, checkIn, checkOut, cursor, limit);
+        request.setAmenityIds(amenityIds);
+        request.setFacilityIds(facilityIds);
+        request.setIncludeFacets(facets);
+        
+        ListingSearchPage<HomeListingResponse> results = homeListingService.searchByLocation(request);
+
+        ApiResponse<ListingSearchPage<HomeListingResponse>> response = new ApiResponse<>(
+                HttpStatus.OK,
+                "Home listings search completed successfully",
+                results,
+                null
+        );
+
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/search/text")
+    public ResponseEntity<ApiResponse<ListingSearchPage<HomeListingResponse>>> searchByText(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Integer minCapacity,
+            @RequestParam(required = false) String propertyTypeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") Integer limit,
+            @RequestParam(required = false, defaultValue = "false") boolean facets
+    ) {
+        if (query.isBlank()) {
+            throw new BadRequestException("Search query is required");
+        }
+        if (query.length() > 200) {
+            throw new BadRequestException("Search query cannot exceed 200 characters");
+        }
+        if (limit < 1 || limit > 100) {
+            throw new BadRequestException("Limit must be between 1 and 100");
+        }
+        
+        TextSearchRequest request = new TextSearchRequest();
+        request.setQuery(query);
         request.setMinPrice(minPrice);
         request.setMaxPrice(maxPrice);
         request.setMinCapacity(minCapacity);
         request.setPropertyTypeId(propertyTypeId);
+        request.setCheckIn(checkIn);
+        request.setCheckOut(checkOut);
+        request.setCursor(cursor);
+        request.setLimit(limit);
+        request.setIncludeFacets(facets);
         
-        List<ListingSearchResult<HomeListingResponse>> results = homeListingService.searchByLocation(request);
+        ListingSearchPage<HomeListingResponse> results = homeListingService.searchByText(request);
 
-        ApiResponse<List<ListingSearchResult<HomeListingResponse>>> response = new ApiResponse<>(
+        ApiResponse<ListingSearchPage<HomeListingResponse>> response = new ApiResponse<>(
                 HttpStatus.OK,
                 "Home listings search completed successfully",
                 results,
@@ -137,6 +258,73 @@ public class HomeListingController {
         return ResponseEntity.ok(response);
     }
     
+    // Map view: pins when the viewport holds few enough matching listings, grid clusters otherwise
+    @GetMapping("/search/map")
+    public ResponseEntity<ApiResponse<ListingMapResponse>> searchMap(
+            @RequestParam Double minLat,
+            @RequestParam Double maxLat,
+            @RequestParam Double minLon,
+            @RequestParam Double maxLon,
+            @RequestParam Integer zoom,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Integer minCapacity,
+            @RequestParam(required = false) String propertyTypeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam(required = false) List<UUID> amenityIds,
+            @RequestParam(required = false) List<UUID> facilityIds
+    ) {
+        MapSearchRequest request = new MapSearchRequest();
+        request.setMinLat(minLat);
+        request.setMaxLat(maxLat);
+        request.setMinLon(minLon);
+        request.setMaxLon(maxLon);
+        request.setZoom(zoom);
+        request.setMinPrice(minPrice);
+        request.setMaxPrice(maxPrice);
+        request.setMinCapacity(minCapacity);
+        request.setPropertyTypeId(propertyTypeId);
+        request.setCheckIn(checkIn);
+        request.setCheckOut(checkOut);
+        request.setAmenityIds(amenityIds);
+        request.setFacilityIds(facilityIds);
+        
+        ListingMapResponse result = homeListingService.searchMap(request);
+
+        ApiResponse<ListingMapResponse> response = new ApiResponse<>(
+                HttpStatus.OK,
+                "Home listings map search completed successfully",
+                result,
+                null
+        );
+
+        return ResponseEntity.ok(response);
+    }
+    
+    private LocationSearchRequest buildLocationSearchRequest(Double latitude, Double longitude, Double radiusKm,
+                                                             Double minPrice, Double maxPrice, Integer minCapacity,
+                                                             String propertyTypeId, LocalDate checkIn, LocalDate checkOut,
+                                                             String cursor, Integer limit) {
+        if (limit != null && (limit < 1 || limit > 100)) {
+            throw new BadRequestException("Limit must be between 1 and 100");
+        }
+        
+        LocationSearchRequest request = new LocationSearchRequest();
+        request.setLatitude(latitude);
+        request.setLongitude(longitude);
+        request.setRadiusKm(radiusKm);
+        request.setMinPrice(minPrice);
+        request.setMaxPrice(maxPrice);
+        request.setMinCapacity(minCapacity);
+        request.setPropertyTypeId(propertyTypeId);
+        request.setCheckIn(checkIn);
+        request.setCheckOut(checkOut);
+        request.setCursor(cursor);
+        request.setLimit(limit);
+        return request;
+    }
+    
     // ==================== Admin Endpoints ====================
     
     @GetMapping("/admin/paginated")
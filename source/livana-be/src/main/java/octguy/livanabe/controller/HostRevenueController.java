@@ -28,7 +28,7 @@ public class HostRevenueController {
     @GetMapping("/stats")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<ApiResponse<HostRevenueStatsResponse>> getOverallStats() {
-        UUID hostId = SecurityUtils.getCurrentUser().getId();
+        UUID hostId = SecurityUtils.getCurrentUserId();
         HostRevenueStatsResponse stats = hostRevenueService.getHostOverallStats(hostId);
 
         ApiResponse<HostRevenueStatsResponse> response = new ApiResponse<>(
@@ -54,7 +54,7 @@ public class HostRevenueController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
     ) {
-        UUID hostId = SecurityUtils.getCurrentUser().getId();
+        UUID hostId = SecurityUtils.getCurrentUserId();
         HostRevenuePeriodResponse stats = hostRevenueService.getHostPeriodStats(hostId, period, startDate, endDate);
 
         ApiResponse<HostRevenuePeriodResponse> response = new ApiResponse<>(
@@ -1,10 +1,13 @@
 package octguy.livanabe.controller;
 
 import jakarta.validation.Valid;
+import octguy.livanabe.dto.dto.CatalogSection;
 import octguy.livanabe.dto.request.CreateInterestRequest;
 import octguy.livanabe.dto.response.InterestResponse;
 import octguy.livanabe.entity.ApiResponse;
 import octguy.livanabe.service.IInterestService;
+import octguy.livanabe.service.IReferenceCatalogService;
+import octguy.livanabe.utils.HttpCacheUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,39 +23,28 @@ public class InterestController {
 
     private final IInterestService interestService;
 
-    public InterestController(IInterestService interestService) {
+    private final IReferenceCatalogService referenceCatalogService;
+
+    public InterestController(IInterestService interestService, IReferenceCatalogService referenceCatalogService) {
         this.interestService = interestService;
+        this.referenceCatalogService = referenceCatalogService;
     }
 
     @GetMapping
-    public ResponseEntity<?> getAllInterests(
+    public ResponseEntity<ApiResponse<Page<InterestResponse>>> getAllInterests(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size
     ) {
-        Page<InterestResponse> interests = interestService.findAll(page, size);
-
-        ApiResponse<Page<InterestResponse>> response = new ApiResponse<>(
-                HttpStatus.OK,
-                "Interests fetched successfully",
-                interests,
-                null
-        );
+        CatalogSection<InterestResponse> interests = referenceCatalogService.getCatalog().getInterests();
 
-        return ResponseEntity.status(HttpStatus.OK).body(response);
+        return HttpCacheUtils.catalogResponse(interests.getEtag(), "Interests fetched successfully", interests.page(page, size));
     }
 
     @GetMapping("/all")
     public ResponseEntity<ApiResponse<List<InterestResponse>>> getAllInterestsNoPagination() {
-        List<InterestResponse> interests = interestService.findAll();
-
-        ApiResponse<List<InterestResponse>> apiResponse = new ApiResponse<>(
-                HttpStatus.OK,
-                "Interests fetched successfully",
-                interests,
-                null
-        );
+        CatalogSection<InterestResponse> interests = referenceCatalogService.getCatalog().getInterests();
 
-        return ResponseEntity.ok().body(apiResponse);
+        return HttpCacheUtils.catalogResponse(interests.getEtag(), "Interests fetched successfully", interests.getItems());
     }
 
     @PostMapping
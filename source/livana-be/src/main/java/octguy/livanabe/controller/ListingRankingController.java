@@ -0,0 +1,62 @@
+package octguy.livanabe.controller;
+
+import lombok.RequiredArgsConstructor;
+import octguy.livanabe.dto.response.RankedListingResponse;
+import octguy.livanabe.entity.ApiResponse;
+import octguy.livanabe.service.IListingRankingService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/rankings")
+@RequiredArgsConstructor
+public class ListingRankingController {
+
+    private final IListingRankingService listingRankingService;
+
+    // Most booked and best reviewed listings around the point, or everywhere without one
+    @GetMapping("/popular")
+    public ResponseEntity<ApiResponse<List<RankedListingResponse>>> getPopular(
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        List<RankedListingResponse> listings = listingRankingService.getPopular(latitude, longitude, type, limit);
+
+        ApiResponse<List<RankedListingResponse>> response = new ApiResponse<>(
+                HttpStatus.OK,
+                "Popular listings retrieved successfully",
+                listings,
+                null
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
+    // Listings with the most bookings and reviews in the last days, around the point or everywhere
+    @GetMapping("/trending")
+    public ResponseEntity<ApiResponse<List<RankedListingResponse>>> getTrending(
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        List<RankedListingResponse> listings = listingRankingService.getTrending(latitude, longitude, type, limit);
+
+        ApiResponse<List<RankedListingResponse>> response = new ApiResponse<>(
+                HttpStatus.OK,
+                "Trending listings retrieved successfully",
+                listings,
+                null
+        );
+
+        return ResponseEntity.ok(response);
+    }
+}
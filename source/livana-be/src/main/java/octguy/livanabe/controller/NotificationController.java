@@ -21,7 +21,7 @@ public class NotificationController {
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<NotificationResponse>>> getMyNotifications() {
-        UUID userId = SecurityUtils.getCurrentUser().getId();
+        UUID userId = SecurityUtils.getCurrentUserId();
         List<NotificationResponse> notifications = notificationService.getNotificationsByRecipientId(userId);
 
         ApiResponse<List<NotificationResponse>> response = new ApiResponse<>(
@@ -36,7 +36,7 @@ public class NotificationController {
 
     @GetMapping("/unread")
     public ResponseEntity<ApiResponse<List<NotificationResponse>>> getUnreadNotifications() {
-        UUID userId = SecurityUtils.getCurrentUser().getId();
+        UUID userId = SecurityUtils.getCurrentUserId();
         List<NotificationResponse> notifications = notificationService.getUnreadNotifications(userId);
 
         ApiResponse<List<NotificationResponse>> response = new ApiResponse<>(
@@ -51,7 +51,7 @@ public class NotificationController {
 
     @GetMapping("/unread/count")
     public ResponseEntity<ApiResponse<Long>> getUnreadCount() {
-        UUID userId = SecurityUtils.getCurrentUser().getId();
+        UUID userId = SecurityUtils.getCurrentUserId();
         long count = notificationService.countUnreadNotifications(userId);
 
         ApiResponse<Long> response = new ApiResponse<>(
@@ -80,7 +80,7 @@ public class NotificationController {
 
     @PutMapping("/read-all")
     public ResponseEntity<ApiResponse<Void>> markAllAsRead() {
-        UUID userId = SecurityUtils.getCurrentUser().getId();
+        UUID userId = SecurityUtils.getCurrentUserId();
         notificationService.markAllAsRead(userId);
 
         ApiResponse<Void> response = new ApiResponse<>(
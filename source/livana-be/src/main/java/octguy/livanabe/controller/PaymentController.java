@@ -38,7 +38,7 @@ public class PaymentController {
             @Valid @RequestBody CreatePaymentRequest request,
             HttpServletRequest servletRequest
     ) {
-        UUID userId = SecurityUtils.getCurrentUser().getId();
+        UUID userId = SecurityUtils.getCurrentUserId();
         VNPayCreateResponse paymentUrl = paymentService.createVNPayPayment(request, userId, servletRequest);
 
         ApiResponse<VNPayCreateResponse> response = new ApiResponse<>(
@@ -123,7 +123,7 @@ public class PaymentController {
 
     @GetMapping("/my-payments")
     public ResponseEntity<ApiResponse<List<PaymentResponse>>> getMyPayments() {
-        UUID userId = SecurityUtils.getCurrentUser().getId();
+        UUID userId = SecurityUtils.getCurrentUserId();
         List<PaymentResponse> payments = paymentService.getPaymentsByUserId(userId);
 
         ApiResponse<List<PaymentResponse>> response = new ApiResponse<>(
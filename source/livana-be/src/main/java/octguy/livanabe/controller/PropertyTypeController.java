@@ -1,10 +1,13 @@
 package octguy.livanabe.controller;
 
 import jakarta.validation.Valid;
+import octguy.livanabe.dto.dto.CatalogSection;
 import octguy.livanabe.dto.request.CreatePropertyTypeRequest;
 import octguy.livanabe.dto.response.PropertyTypeResponse;
 import octguy.livanabe.entity.ApiResponse;
 import octguy.livanabe.service.IPropertyTypeService;
+import octguy.livanabe.service.IReferenceCatalogService;
+import octguy.livanabe.utils.HttpCacheUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,8 +22,11 @@ public class PropertyTypeController {
 
     private final IPropertyTypeService propertyTypeService;
 
-    public PropertyTypeController(IPropertyTypeService propertyTypeService) {
+    private final IReferenceCatalogService referenceCatalogService;
+
+    public PropertyTypeController(IPropertyTypeService propertyTypeService, IReferenceCatalogService referenceCatalogService) {
         this.propertyTypeService = propertyTypeService;
+        this.referenceCatalogService = referenceCatalogService;
     }
 
     @GetMapping
@@ -28,30 +34,16 @@ public class PropertyTypeController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "15") int size
     ) {
-        Page<PropertyTypeResponse> propertyTypes = propertyTypeService.findAll(page, size);
-
-        ApiResponse<Page<PropertyTypeResponse>> apiResponse = new ApiResponse<>(
-                HttpStatus.OK,
-                "Property types fetched successfully",
-                propertyTypes,
-                null
-        );
+        CatalogSection<PropertyTypeResponse> propertyTypes = referenceCatalogService.getCatalog().getPropertyTypes();
 
-        return ResponseEntity.ok().body(apiResponse);
+        return HttpCacheUtils.catalogResponse(propertyTypes.getEtag(), "Property types fetched successfully", propertyTypes.page(page, size));
     }
 
     @GetMapping("/all")
     public ResponseEntity<ApiResponse<List<PropertyTypeResponse>>> getAllPropertyTypesNoPagination() {
-        List<PropertyTypeResponse> propertyTypes = propertyTypeService.findAll();
-
-        ApiResponse<List<PropertyTypeResponse>> apiResponse = new ApiResponse<>(
-                HttpStatus.OK,
-                "Property types fetched successfully",
-                propertyTypes,
-                null
-        );
+        CatalogSection<PropertyTypeResponse> propertyTypes = referenceCatalogService.getCatalog().getPropertyTypes();
 
-        return ResponseEntity.ok().body(apiResponse);
+        return HttpCacheUtils.catalogResponse(propertyTypes.getEtag(), "Property types fetched successfully", propertyTypes.getItems());
     }
 
     @PostMapping
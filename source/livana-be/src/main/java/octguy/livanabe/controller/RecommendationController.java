@@ -0,0 +1,43 @@
+package octguy.livanabe.controller;
+
+import lombok.RequiredArgsConstructor;
+import octguy.livanabe.dto.response.RecommendedListingResponse;
+import octguy.livanabe.entity.ApiResponse;
+import octguy.livanabe.service.IRecommendationService;
+import octguy.livanabe.utils.SecurityUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/recommendations")
+@RequiredArgsConstructor
+public class RecommendationController {
+
+    private final IRecommendationService recommendationService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<Page<RecommendedListingResponse>>> getRecommendations(
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        Page<RecommendedListingResponse> recommendations = recommendationService.recommend(userId, type, page, size);
+
+        ApiResponse<Page<RecommendedListingResponse>> response = new ApiResponse<>(
+                HttpStatus.OK,
+                "Recommendations retrieved successfully",
+                recommendations,
+                null
+        );
+
+        return ResponseEntity.ok(response);
+    }
+}
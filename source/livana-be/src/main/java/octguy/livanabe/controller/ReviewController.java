@@ -2,8 +2,10 @@ package octguy.livanabe.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import octguy.livanabe.dto.dto.ListingRatingDto;
 import octguy.livanabe.dto.request.CreateReviewRequest;
 import octguy.livanabe.dto.response.ListingRatingSummary;
+import octguy.livanabe.dto.response.ReviewPage;
 import octguy.livanabe.dto.response.ReviewResponse;
 import octguy.livanabe.entity.ApiResponse;
 import octguy.livanabe.service.IReviewService;
@@ -59,9 +61,44 @@ public class ReviewController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/listing/{listingId}/paged")
+    public ResponseEntity<ApiResponse<ReviewPage>> getListingReviewPage(
+            @PathVariable UUID listingId,
+            @RequestParam(required = false, defaultValue = "NEWEST") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "10") Integer limit
+    ) {
+        ReviewPage page = reviewService.getListingReviewPage(listingId, sort, cursor, limit);
+        
+        ApiResponse<ReviewPage> response = new ApiResponse<>(
+                HttpStatus.OK,
+                "Reviews retrieved successfully",
+                page,
+                null
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/listing/{listingId}/summary")
+    public ResponseEntity<ApiResponse<ListingRatingDto>> getListingRating(
+            @PathVariable UUID listingId
+    ) {
+        ListingRatingDto rating = reviewService.getListingRating(listingId);
+        
+        ApiResponse<ListingRatingDto> response = new ApiResponse<>(
+                HttpStatus.OK,
+                "Rating summary retrieved successfully",
+                rating,
+                null
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/my-reviews")
     public ResponseEntity<ApiResponse<List<ReviewResponse>>> getMyReviews() {
-        UUID reviewerId = SecurityUtils.getCurrentUser().getId();
+        UUID reviewerId = SecurityUtils.getCurrentUserId();
         List<ReviewResponse> reviews = reviewService.getReviewsByReviewer(reviewerId);
         
         ApiResponse<List<ReviewResponse>> response = new ApiResponse<>(
@@ -78,7 +115,7 @@ public class ReviewController {
     public ResponseEntity<ApiResponse<Boolean>> hasUserReviewedListing(
             @PathVariable UUID listingId
     ) {
-        UUID reviewerId = SecurityUtils.getCurrentUser().getId();
+        UUID reviewerId = SecurityUtils.getCurrentUserId();
         boolean hasReviewed = reviewService.hasUserReviewedListing(listingId, reviewerId);
         
         ApiResponse<Boolean> response = new ApiResponse<>(
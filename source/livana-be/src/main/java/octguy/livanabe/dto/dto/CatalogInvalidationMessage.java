@@ -0,0 +1,19 @@
+package octguy.livanabe.dto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO broadcast to every node after a reference table changed, so they reload their catalog
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogInvalidationMessage {
+
+    // The node that made the change has already reloaded and ignores its own message
+    private String originNodeId;
+}
@@ -0,0 +1,66 @@
+package octguy.livanabe.dto.dto;
+
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * One reference table of the catalog snapshot, in creation order.
+ * Immutable once built; the items are shared between requests and must not be modified.
+ */
+@Getter
+public class CatalogSection<T> {
+
+    private final List<T> items;
+
+    private final Map<UUID, T> byId;
+
+    // Hash of the content, so every node holding the same rows serves the same ETag
+    private final String etag;
+
+    public CatalogSection(List<T> items, Function<T, UUID> idOf, Function<T, String> fingerprint) {
+        this.items = List.copyOf(items);
+
+        Map<UUID, T> index = new LinkedHashMap<>();
+        StringBuilder content = new StringBuilder();
+        for (T item : items) {
+            index.put(idOf.apply(item), item);
+            content.append(fingerprint.apply(item)).append('\n');
+        }
+        this.byId = Map.copyOf(index);
+        this.etag = DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Optional<T> find(UUID id) {
+        return Optional.ofNullable(id == null ? null : byId.get(id));
+    }
+
+    public boolean contains(UUID id) {
+        return id != null && byId.containsKey(id);
+    }
+
+    public boolean containsAll(Collection<UUID> ids) {
+        return ids.stream().allMatch(this::contains);
+    }
+
+    // Same paging the repositories did, items are already in createdAt order
+    public Page<T> page(int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").ascending());
+        int from = (int) Math.min(pageable.getOffset(), items.size());
+        int to = Math.min(from + size, items.size());
+        return new PageImpl<>(items.subList(from, to), pageable, items.size());
+    }
+}
@@ -30,4 +30,7 @@ public class ChatMessageDto {
     private Long fileSize;
     private String fileType;
     private LocalDateTime createdAt;
+    // Receiver's unread counters after this message, so clients can update badges without polling
+    private Integer conversationUnreadCount;
+    private Long totalUnreadCount;
 }
@@ -0,0 +1,22 @@
+package octguy.livanabe.dto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO for real-time unread badge updates via WebSocket
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatUnreadCountDto {
+
+    private UUID conversationId;
+    private Integer conversationUnreadCount;
+    private Long totalUnreadCount;
+}
@@ -0,0 +1,16 @@
+package octguy.livanabe.dto.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projection for the bookings of one listing grouped by creation day: booking count and confirmed revenue.
+ */
+public interface DailyBookingSummaryDto {
+
+    LocalDate getDay();
+
+    Long getBookings();
+
+    BigDecimal getRevenue();
+}
@@ -0,0 +1,15 @@
+package octguy.livanabe.dto.dto;
+
+import java.util.UUID;
+
+/**
+ * Projection returned by the interest candidate query: a listing favoured by users sharing the interest.
+ */
+public interface InterestCandidateRowDto {
+
+    UUID getInterestId();
+
+    UUID getListingId();
+
+    Double getScore();
+}
@@ -0,0 +1,24 @@
+package octguy.livanabe.dto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO broadcast to every node after a listing was created, updated or deleted,
+ * so they refresh their in-memory listing indexes
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingChangeMessage {
+
+    // The node that made the change has already refreshed and ignores its own message
+    private String originNodeId;
+
+    private UUID listingId;
+}
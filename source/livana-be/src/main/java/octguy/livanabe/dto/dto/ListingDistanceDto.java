@@ -0,0 +1,13 @@
+package octguy.livanabe.dto.dto;
+
+import java.util.UUID;
+
+/**
+ * Projection returned by the nearest-listing queries: the listing id and its distance from the search center.
+ */
+public interface ListingDistanceDto {
+
+    UUID getId();
+
+    Double getDistanceKm();
+}
@@ -0,0 +1,25 @@
+package octguy.livanabe.dto.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Projection for one facet value of a search: the facet (PRICE or GROUP), its key and the number of candidate
+ * listings with it. Price rows also carry the lowest and highest candidate price. Home searches add a LISTINGS
+ * row holding the candidate ids, which the amenity and facility facets are counted over.
+ */
+public interface ListingFacetCountDto {
+
+    String getFacet();
+
+    String getValueKey();
+
+    Long getValueCount();
+
+    BigDecimal getLowerBound();
+
+    BigDecimal getUpperBound();
+
+    // Only selected by the home facet queries
+    UUID[] getListingIds();
+}
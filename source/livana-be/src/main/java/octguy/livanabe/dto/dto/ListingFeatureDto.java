@@ -0,0 +1,15 @@
+package octguy.livanabe.dto.dto;
+
+import java.util.UUID;
+
+/**
+ * Projection of the amenity and facility ids of one home listing, used to build the in-memory feature index.
+ */
+public interface ListingFeatureDto {
+
+    UUID getListingId();
+
+    UUID[] getAmenityIds();
+
+    UUID[] getFacilityIds();
+}
@@ -0,0 +1,22 @@
+package octguy.livanabe.dto.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection returned by the map clustering queries: one grid cell ({@code floor(latitude / cellSize)},
+ * {@code floor(longitude / cellSize)}) with the number, centroid and lowest price of the listings inside it.
+ */
+public interface ListingMapCellDto {
+
+    Long getLatCell();
+
+    Long getLonCell();
+
+    Long getListingCount();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    BigDecimal getMinPrice();
+}
@@ -0,0 +1,18 @@
+package octguy.livanabe.dto.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Projection returned by the map pin queries: where a listing is and what it costs, nothing to hydrate.
+ */
+public interface ListingMapPinDto {
+
+    UUID getId();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    BigDecimal getPrice();
+}
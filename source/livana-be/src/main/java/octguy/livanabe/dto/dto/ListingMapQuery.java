@@ -0,0 +1,33 @@
+package octguy.livanabe.dto.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * DTO for a map viewport search answered by the in-memory search index, with the same filters as the
+ * map queries
+ */
+@Data
+@Builder
+public class ListingMapQuery {
+
+    private boolean home;
+
+    // Viewport as [minLat, maxLat, minLon, maxLon]
+    private double[] boundingBox;
+
+    // Grid cell side in degrees, for clustering
+    private double cellSize;
+
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer minCapacity;
+    private UUID groupId;
+
+    // Extra filter on the listing id, e.g. the home feature match
+    private Predicate<UUID> listingFilter;
+}
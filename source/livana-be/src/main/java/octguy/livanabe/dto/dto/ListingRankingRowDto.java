@@ -0,0 +1,26 @@
+package octguy.livanabe.dto.dto;
+
+import java.util.UUID;
+
+/**
+ * Projection of what the ranking snapshot needs to rank one live listing with engagements. The recent and
+ * overall engagements are its decayed sums with the trending and the popular half-life.
+ */
+public interface ListingRankingRowDto {
+
+    UUID getId();
+
+    Boolean getHome();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    Integer getRatingCount();
+
+    Integer getRatingSum();
+
+    Double getRecent();
+
+    Double getOverall();
+}
@@ -0,0 +1,19 @@
+package octguy.livanabe.dto.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ListingRatingDto {
+
+    // Mean star rating rounded to one decimal, null without reviews
+    private Double average;
+
+    private int count;
+
+    // Number of reviews giving 1, 2, 3, 4 and 5 stars, in that order
+    private List<Integer> histogram;
+}
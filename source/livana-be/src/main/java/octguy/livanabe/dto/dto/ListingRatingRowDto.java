@@ -0,0 +1,21 @@
+package octguy.livanabe.dto.dto;
+
+/**
+ * Projection of the review aggregates stored on a listing row, read without loading the listing.
+ */
+public interface ListingRatingRowDto {
+
+    Integer getRatingCount();
+
+    Integer getRatingSum();
+
+    Integer getRatingCount1();
+
+    Integer getRatingCount2();
+
+    Integer getRatingCount3();
+
+    Integer getRatingCount4();
+
+    Integer getRatingCount5();
+}
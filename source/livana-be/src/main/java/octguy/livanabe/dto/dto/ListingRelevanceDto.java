@@ -0,0 +1,13 @@
+package octguy.livanabe.dto.dto;
+
+import java.util.UUID;
+
+/**
+ * Projection returned by the keyword search queries: the listing id and its relevance to the query.
+ */
+public interface ListingRelevanceDto {
+
+    UUID getId();
+
+    Float getRelevance();
+}
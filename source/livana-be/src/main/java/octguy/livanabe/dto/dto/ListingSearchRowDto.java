@@ -0,0 +1,24 @@
+package octguy.livanabe.dto.dto;
+
+import java.util.UUID;
+
+/**
+ * Projection of the search attributes of one live listing, used to build the in-memory search index.
+ * The group is the property type of a home or the category of an experience.
+ */
+public interface ListingSearchRowDto {
+
+    UUID getId();
+
+    Boolean getHome();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    Long getPriceMinor();
+
+    Integer getCapacity();
+
+    UUID getGroupId();
+}
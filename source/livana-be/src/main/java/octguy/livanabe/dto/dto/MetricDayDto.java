@@ -0,0 +1,11 @@
+package octguy.livanabe.dto.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Projection for a single day returned by a native daily metrics query.
+ */
+public interface MetricDayDto {
+
+    LocalDate getDay();
+}
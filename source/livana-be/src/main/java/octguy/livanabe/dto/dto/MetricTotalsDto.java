@@ -0,0 +1,23 @@
+package octguy.livanabe.dto.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for the running totals of one daily metrics scope.
+ */
+public interface MetricTotalsDto {
+
+    Long getNewUsers();
+
+    Long getNewHomeListings();
+
+    Long getNewExperienceListings();
+
+    Long getHomeBookings();
+
+    Long getExperienceBookings();
+
+    BigDecimal getHomeRevenue();
+
+    BigDecimal getExperienceRevenue();
+}
@@ -0,0 +1,11 @@
+package octguy.livanabe.dto.dto;
+
+/**
+ * Projection for a grouped dashboard count: the period bucket index and the number of rows in it.
+ */
+public interface PeriodBucketCountDto {
+
+    Integer getBucket();
+
+    Long getValue();
+}
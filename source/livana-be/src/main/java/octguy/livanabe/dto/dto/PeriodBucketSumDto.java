@@ -0,0 +1,13 @@
+package octguy.livanabe.dto.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for a grouped dashboard sum: the period bucket index and the summed amount in it.
+ */
+public interface PeriodBucketSumDto {
+
+    Integer getBucket();
+
+    BigDecimal getValue();
+}
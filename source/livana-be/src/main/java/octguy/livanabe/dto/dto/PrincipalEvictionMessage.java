@@ -0,0 +1,23 @@
+package octguy.livanabe.dto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO broadcast to every node after a user's roles, status or enabled flag changed, so they drop its cached principal
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrincipalEvictionMessage {
+
+    // The node that made the change has already evicted and ignores its own message
+    private String originNodeId;
+
+    private UUID userId;
+}
@@ -0,0 +1,20 @@
+package octguy.livanabe.dto.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for forwarding a WebSocket message to the node holding the recipient's session
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RealtimeDeliveryMessage {
+
+    private String destination;
+    // Payload already serialized as JSON, so every node sends exactly the same frame
+    private String payload;
+}
@@ -0,0 +1,20 @@
+package octguy.livanabe.dto.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Projection of the display fields of a recommended listing, kept in the recommendation snapshot.
+ */
+public interface RecommendationCardRowDto {
+
+    UUID getId();
+
+    String getTitle();
+
+    String getAddress();
+
+    BigDecimal getPrice();
+
+    String getThumbnailUrl();
+}
@@ -0,0 +1,28 @@
+package octguy.livanabe.dto.dto;
+
+import java.util.UUID;
+
+/**
+ * Projection of what the recommendation snapshot needs to rank one live listing. The group is the property
+ * type of a home or the category of an experience; the engagement is the decayed sum of its engagements.
+ */
+public interface RecommendationStatsRowDto {
+
+    UUID getId();
+
+    Boolean getHome();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    UUID getGroupId();
+
+    UUID getHostId();
+
+    Integer getRatingCount();
+
+    Integer getRatingSum();
+
+    Double getEngagement();
+}
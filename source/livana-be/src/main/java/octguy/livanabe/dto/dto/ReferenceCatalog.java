@@ -0,0 +1,30 @@
+package octguy.livanabe.dto.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import octguy.livanabe.dto.response.AmenityResponse;
+import octguy.livanabe.dto.response.ExperienceCategoryResponse;
+import octguy.livanabe.dto.response.FacilityResponse;
+import octguy.livanabe.dto.response.InterestResponse;
+import octguy.livanabe.dto.response.PropertyTypeResponse;
+
+/**
+ * Immutable snapshot of the reference tables, replaced as a whole whenever one of them changes
+ */
+@Getter
+@Builder
+public class ReferenceCatalog {
+
+    // Increases with every reload on this node
+    private final long version;
+
+    private final CatalogSection<AmenityResponse> amenities;
+
+    private final CatalogSection<FacilityResponse> facilities;
+
+    private final CatalogSection<PropertyTypeResponse> propertyTypes;
+
+    private final CatalogSection<ExperienceCategoryResponse> experienceCategories;
+
+    private final CatalogSection<InterestResponse> interests;
+}
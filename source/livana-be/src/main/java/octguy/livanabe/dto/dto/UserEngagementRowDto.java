@@ -0,0 +1,22 @@
+package octguy.livanabe.dto.dto;
+
+import java.util.UUID;
+
+/**
+ * Projection of the decayed engagement of one user with one live listing, with where the listing is and
+ * its group, to derive the areas and groups the user favours.
+ */
+public interface UserEngagementRowDto {
+
+    UUID getUserId();
+
+    UUID getListingId();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    UUID getGroupId();
+
+    Double getWeight();
+}
@@ -5,6 +5,10 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
 @Data
 public class LocationSearchRequest {
     
@@ -28,4 +32,22 @@ public class LocationSearchRequest {
     private Integer minCapacity;
     private String propertyTypeId;
     private String experienceCategoryId;
+    
+    // Optional stay dates (home search only): keep listings free for every night in [checkIn, checkOut)
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+    
+    // Optional features (home search only): keep listings having every one of them
+    private List<UUID> amenityIds;
+    private List<UUID> facilityIds;
+    
+    // Also count matches per price range, type and amenity (ignored after the first page)
+    private boolean includeFacets;
+    
+    // Keyset pagination: opaque cursor from the previous page and page size
+    private String cursor;
+    
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 100, message = "Limit cannot exceed 100")
+    private Integer limit = 20;
 }
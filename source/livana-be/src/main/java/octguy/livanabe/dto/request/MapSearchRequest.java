@@ -0,0 +1,35 @@
+package octguy.livanabe.dto.request;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class MapSearchRequest {
+    
+    // Visible map area; a viewport crossing the antimeridian is sent as two requests
+    private Double minLat;
+    private Double maxLat;
+    private Double minLon;
+    private Double maxLon;
+    
+    // Map zoom level, 0 (whole world) to 22 (building)
+    private Integer zoom;
+    
+    // Optional filters
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer minCapacity;
+    private String propertyTypeId;
+    private String experienceCategoryId;
+    
+    // Optional stay dates (home search only): keep listings free for every night in [checkIn, checkOut)
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+    
+    // Optional features (home search only): keep listings having every one of them
+    private List<UUID> amenityIds;
+    private List<UUID> facilityIds;
+}
@@ -0,0 +1,39 @@
+package octguy.livanabe.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class TextSearchRequest {
+    
+    // Keywords matched against title, address and description, with or without Vietnamese diacritics
+    @NotBlank(message = "Search query is required")
+    @Size(max = 200, message = "Search query cannot exceed 200 characters")
+    private String query;
+    
+    // Optional filters
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer minCapacity;
+    private String propertyTypeId;
+    private String experienceCategoryId;
+    
+    // Optional stay dates (home search only): keep listings free for every night in [checkIn, checkOut)
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+    
+    // Also count matches per price range, type and amenity (ignored after the first page)
+    private boolean includeFacets;
+    
+    // Keyset pagination: opaque cursor from the previous page and page size
+    private String cursor;
+    
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 100, message = "Limit cannot exceed 100")
+    private Integer limit = 20;
+}
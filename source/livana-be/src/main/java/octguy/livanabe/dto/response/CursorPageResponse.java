@@ -0,0 +1,17 @@
+package octguy.livanabe.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CursorPageResponse<T> {
+    private List<T> items;
+    // Pages that can also be walked backwards (messages) set the previous side too
+    private String prevCursor;
+    private String nextCursor;
+    private boolean hasPrevious;
+    private boolean hasNext;
+}
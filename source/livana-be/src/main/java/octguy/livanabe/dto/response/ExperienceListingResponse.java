@@ -4,6 +4,7 @@ import lombok.Builder;
 import lombok.Data;
 import octguy.livanabe.dto.dto.ImageOrderResponse;
 import octguy.livanabe.dto.dto.ListingHostDto;
+import octguy.livanabe.dto.dto.ListingRatingDto;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -36,4 +37,7 @@ public class ExperienceListingResponse {
     private List<ImageOrderResponse> images;
     
     private List<SessionResponse> sessions;
+
+    // Review aggregates stored on the listing
+    private ListingRatingDto rating;
 }
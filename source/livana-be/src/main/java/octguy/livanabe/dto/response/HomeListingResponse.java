@@ -5,6 +5,7 @@ import lombok.Data;
 import octguy.livanabe.dto.dto.FacilityQuantityDto;
 import octguy.livanabe.dto.dto.ImageOrderResponse;
 import octguy.livanabe.dto.dto.ListingHostDto;
+import octguy.livanabe.dto.dto.ListingRatingDto;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -39,4 +40,7 @@ public class HomeListingResponse {
     private List<FacilityQuantityDto> facilities;
 
     private List<ImageOrderResponse> images;
+
+    // Review aggregates stored on the listing
+    private ListingRatingDto rating;
 }
@@ -0,0 +1,52 @@
+package octguy.livanabe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingFacetsResponse {
+    
+    // Number of listings matching the search and its filters
+    private Long totalCount;
+    
+    // Equal-width price buckets from the lowest to the highest matching price, empty buckets omitted
+    private List<PriceBucket> priceHistogram;
+    
+    // Home search only
+    private List<FacetValue> propertyTypes;
+    private List<FacetValue> amenities;
+    private List<FacetValue> facilities;
+    
+    // Experience search only
+    private List<FacetValue> experienceCategories;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBucket {
+        private BigDecimal minPrice;
+        private BigDecimal maxPrice;
+        private Long count;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetValue {
+        private UUID id;
+        private String name;
+        private String icon;
+        private Long count;
+    }
+}
@@ -0,0 +1,52 @@
+package octguy.livanabe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingMapResponse {
+    
+    // Number of listings in the viewport matching the filters
+    private Long totalCount;
+    
+    // Side of the square grid cells in degrees; cells are aligned on multiples of it, so clusters stay put while panning
+    private Double cellSize;
+    
+    // One cluster per non-empty grid cell, when the viewport holds more listings than pins are returned for
+    private List<Cluster> clusters;
+    
+    // Every matching listing, when there are few enough of them
+    private List<Pin> pins;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cluster {
+        // Centroid of the listings in the cell
+        private Double latitude;
+        private Double longitude;
+        private Long count;
+        private BigDecimal minPrice;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pin {
+        private UUID listingId;
+        private Double latitude;
+        private Double longitude;
+        private BigDecimal price;
+    }
+}
@@ -15,5 +15,7 @@ public class ListingRatingSummary {
     
     private Double averageRating;
     private Long totalReviews;
+    // Number of reviews giving 1, 2, 3, 4 and 5 stars, in that order
+    private List<Integer> ratingHistogram;
     private List<ReviewResponse> reviews;
 }
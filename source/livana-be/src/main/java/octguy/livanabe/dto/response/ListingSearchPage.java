@@ -0,0 +1,16 @@
+package octguy.livanabe.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ListingSearchPage<T> {
+    private List<ListingSearchResult<T>> results;
+    private String nextCursor;
+    private boolean hasNext;
+    // First page only, when requested
+    private ListingFacetsResponse facets;
+}
@@ -8,4 +8,6 @@ import lombok.Data;
 public class ListingSearchResult<T> {
     private T listing;
     private Double distanceKm;
+    // Set by keyword search only, higher is more relevant
+    private Double relevance;
 }
@@ -0,0 +1,26 @@
+package octguy.livanabe.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@Builder
+public class RankedListingResponse {
+    private UUID listingId;
+    // HOME or EXPERIENCE
+    private String listingType;
+    private String title;
+    private String address;
+    private BigDecimal price;
+    private Double latitude;
+    private Double longitude;
+    private String thumbnailUrl;
+    // Mean star rating rounded to one decimal, null without reviews
+    private Double averageRating;
+    private int ratingCount;
+    // Higher ranks first
+    private double score;
+}
@@ -0,0 +1,14 @@
+package octguy.livanabe.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ReviewPage {
+    private List<ReviewResponse> reviews;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name="base_listing")
+@Table(name="base_listing", indexes = {
+        @Index(name = "idx_base_listing_lat_lon", columnList = "latitude, longitude")
+})
 @Getter
 @Setter
 @SQLRestriction("deleted_at IS NULL")
@@ -49,4 +51,26 @@ public abstract class BaseListing extends BaseEntity {
 
     @Column(name="is_available", nullable = false)
     private Boolean isAvailable;
+
+    // Review aggregates, adjusted by the review service with atomic updates and never written through the entity
+    @Column(name="rating_count", nullable = false, insertable = false, updatable = false)
+    private int ratingCount;
+
+    @Column(name="rating_sum", nullable = false, insertable = false, updatable = false)
+    private int ratingSum;
+
+    @Column(name="rating_count_1", nullable = false, insertable = false, updatable = false)
+    private int ratingCount1;
+
+    @Column(name="rating_count_2", nullable = false, insertable = false, updatable = false)
+    private int ratingCount2;
+
+    @Column(name="rating_count_3", nullable = false, insertable = false, updatable = false)
+    private int ratingCount3;
+
+    @Column(name="rating_count_4", nullable = false, insertable = false, updatable = false)
+    private int ratingCount4;
+
+    @Column(name="rating_count_5", nullable = false, insertable = false, updatable = false)
+    private int ratingCount5;
 }
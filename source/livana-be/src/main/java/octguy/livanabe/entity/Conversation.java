@@ -2,6 +2,7 @@ package octguy.livanabe.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.SQLRestriction;
 
 import java.util.ArrayList;
@@ -39,6 +40,17 @@ public class Conversation extends BaseEntity {
     @Column(name = "last_message_at")
     private java.time.LocalDateTime lastMessageAt;
 
+    // Unread counters per participant, changed only through atomic UPDATEs in ConversationRepository
+    @Column(name = "user1_unread_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer user1UnreadCount = 0;
+
+    @Column(name = "user2_unread_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer user2UnreadCount = 0;
+
     @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("createdAt ASC")
     @Builder.Default
@@ -52,6 +64,16 @@ public class Conversation extends BaseEntity {
                (user2 != null && user2.getId().equals(userId));
     }
 
+    /**
+     * Get the number of messages the given participant has not read yet
+     */
+    public int getUnreadCountFor(UUID userId) {
+        if (user1 != null && user1.getId().equals(userId)) {
+            return user1UnreadCount;
+        }
+        return user2UnreadCount;
+    }
+
     /**
      * Get the other participant in the conversation
      */
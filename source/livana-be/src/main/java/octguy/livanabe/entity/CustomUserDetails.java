@@ -1,43 +1,37 @@
 package octguy.livanabe.entity;
 
 import lombok.Getter;
-import lombok.Setter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import java.util.Collection;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.UUID;
 
+/**
+ * Immutable snapshot of the authenticated user: id, username, roles and enabled flag, copied from the entity
+ * when the principal is built. JWT principals are cached and shared between requests, so they never hold
+ * the entity itself; code that needs the user loads it by id.
+ */
 @Getter
-@Setter
 public class CustomUserDetails implements UserDetails {
 
-    private final User user;
+    private final UUID id;
+    private final String username;
+    private final List<GrantedAuthority> authorities;
+    private final boolean enabled;
     private final String password;
 
     public CustomUserDetails(User user, String password) {
-        this.user = user;
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.authorities = user.getRoleUsers().stream()
+                .<GrantedAuthority>map(roleUser -> new SimpleGrantedAuthority(roleUser.getRole().getName().toString()))
+                .toList();
+        this.enabled = user.isEnabled();
         this.password = password;
     }
 
-    @Override
-    public Collection<? extends GrantedAuthority> getAuthorities() {
-        return user.getRoleUsers().stream()
-                .map(roleUser -> new SimpleGrantedAuthority(roleUser.getRole().getName().toString()))
-                .collect(Collectors.toList());
-    }
-
-    @Override
-    public String getPassword() {
-        return password;
-    }
-
-    @Override
-    public String getUsername() {
-        return user.getUsername();
-    }
-
     @Override
     public boolean isAccountNonExpired() {
         return true;
@@ -52,9 +46,4 @@ public class CustomUserDetails implements UserDetails {
     public boolean isCredentialsNonExpired() {
         return true;
     }
-
-    @Override
-    public boolean isEnabled() {
-        return user.isEnabled();
-    }
 }
@@ -0,0 +1,58 @@
+package octguy.livanabe.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Pre-aggregated dashboard counters for one day.
+ * <p>
+ * Rows with {@link #GLOBAL_SCOPE} hold platform-wide totals, other rows hold the totals of one host
+ * (scope id = host user id). Rows are incremented by the write paths and rebuilt nightly from the source tables.
+ */
+@Entity
+@Table(name = "daily_metrics", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_metrics_scope_date", columnNames = {"scope_id", "metric_date"})
+})
+@Getter
+@Setter
+public class DailyMetric {
+
+    public static final UUID GLOBAL_SCOPE = new UUID(0L, 0L);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "scope_id", columnDefinition = "uuid", nullable = false)
+    private UUID scopeId;
+
+    @Column(name = "metric_date", nullable = false)
+    private LocalDate metricDate;
+
+    @Column(name = "new_users", nullable = false)
+    private long newUsers;
+
+    @Column(name = "new_home_listings", nullable = false)
+    private long newHomeListings;
+
+    @Column(name = "new_experience_listings", nullable = false)
+    private long newExperienceListings;
+
+    @Column(name = "home_bookings", nullable = false)
+    private long homeBookings;
+
+    @Column(name = "experience_bookings", nullable = false)
+    private long experienceBookings;
+
+    @Column(name = "home_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal homeRevenue;
+
+    @Column(name = "experience_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal experienceRevenue;
+}
@@ -0,0 +1,40 @@
+package octguy.livanabe.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One booked night of a home listing.
+ * <p>
+ * A non-cancelled home booking owns one row per night between its check-in and check-out dates.
+ * The unique (listing, night) key makes overlapping bookings impossible even under concurrent requests,
+ * and availability of a date range is an index lookup of at most one row per night.
+ */
+@Entity
+@Table(name = "home_listing_night", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_home_listing_night_listing_night", columnNames = {"home_listing_id", "night"})
+}, indexes = {
+        @Index(name = "idx_home_listing_night_booking", columnList = "booking_id")
+})
+@Getter
+@Setter
+public class HomeListingNight {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "home_listing_id", columnDefinition = "uuid", nullable = false)
+    private UUID homeListingId;
+
+    @Column(name = "night", nullable = false)
+    private LocalDate night;
+
+    @Column(name = "booking_id", columnDefinition = "uuid", nullable = false)
+    private UUID bookingId;
+}
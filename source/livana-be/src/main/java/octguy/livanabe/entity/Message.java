@@ -8,7 +8,9 @@ import org.hibernate.annotations.SQLRestriction;
 import java.util.UUID;
 
 @Entity
-@Table(name = "message")
+@Table(name = "message", indexes = {
+        @Index(name = "idx_message_conversation_created_id", columnList = "conversation_id, created_at, id")
+})
 @Getter
 @Setter
 @Builder
@@ -0,0 +1,56 @@
+package octguy.livanabe.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Notification waiting to be published to RabbitMQ.
+ * <p>
+ * Rows are written in the same transaction as the notification itself and deleted by the relay once the broker
+ * has confirmed them, so a rolled back booking never publishes and a committed one always does (at least once).
+ * {@link #nextAttemptAt} is pushed forward while a batch is being published (a lease) and with exponential backoff
+ * after a failed publish.
+ */
+@Entity
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_notification_outbox_next_attempt_at", columnList = "next_attempt_at")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationOutbox implements OutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "recipient_id", columnDefinition = "uuid", nullable = false)
+    private UUID recipientId;
+
+    // NotificationMessage serialized as JSON
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
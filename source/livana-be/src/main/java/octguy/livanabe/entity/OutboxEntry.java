@@ -0,0 +1,21 @@
+package octguy.livanabe.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Row of an outbox table (emails, notifications): the retry state shared by every outbox, so leasing and backoff
+ * are implemented once in {@link octguy.livanabe.utils.OutboxUtils}.
+ */
+public interface OutboxEntry {
+
+    UUID getId();
+
+    int getAttempts();
+
+    void setAttempts(int attempts);
+
+    void setNextAttemptAt(LocalDateTime nextAttemptAt);
+
+    void setLastError(String lastError);
+}
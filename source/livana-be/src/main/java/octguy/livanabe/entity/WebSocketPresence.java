@@ -0,0 +1,43 @@
+package octguy.livanabe.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Which backend node holds a WebSocket session subscribed to a user's destinations.
+ * <p>
+ * Used in routed delivery mode so a message is published only to the nodes that can deliver it.
+ * Rows are removed on disconnect; rows of crashed nodes expire once their node stops refreshing them.
+ */
+@Entity
+@Table(name = "websocket_presence", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_websocket_presence_session_user", columnNames = {"session_id", "user_id"})
+}, indexes = {
+        @Index(name = "idx_websocket_presence_user_id", columnList = "user_id"),
+        @Index(name = "idx_websocket_presence_node_id", columnList = "node_id")
+})
+@Getter
+@Setter
+public class WebSocketPresence {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "user_id", columnDefinition = "uuid", nullable = false)
+    private UUID userId;
+
+    @Column(name = "node_id", nullable = false, length = 100)
+    private String nodeId;
+
+    @Column(name = "session_id", nullable = false, length = 100)
+    private String sessionId;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
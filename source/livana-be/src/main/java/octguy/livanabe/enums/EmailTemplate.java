@@ -0,0 +1,19 @@
+package octguy.livanabe.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum EmailTemplate {
+    VERIFICATION("templates/email/verification.html", "Account Verification"),
+    PASSWORD_RESET("templates/email/password-reset.html", "Password Reset Request");
+
+    // Classpath location of the HTML body, with {{name}} placeholders
+    private final String path;
+
+    private final String subject;
+
+    EmailTemplate(String path, String subject) {
+        this.path = path;
+        this.subject = subject;
+    }
+}
@@ -0,0 +1,7 @@
+package octguy.livanabe.enums;
+
+public enum ReviewSort {
+    NEWEST,
+    HIGHEST,
+    LOWEST
+}
@@ -1,5 +1,6 @@
 package octguy.livanabe.jwt;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -35,23 +36,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String authHeader = request.getHeader("Authorization");
 
         String email = null;
-        String jwt = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
-            try {
-                email = jwtUtil.extractUsername(jwt);
-            }
-            catch (Exception e) {
-                // Log the exception or handle it as needed
-                System.err.println("Invalid JWT Token: " + e.getMessage());
-            }
+            // One parse verifies the signature and expiry and yields the subject
+            email = jwtUtil.parseClaims(authHeader.substring(7))
+                    .map(Claims::getSubject)
+                    .orElse(null);
         }
 
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            // Cached principal without the password hash; the signed token stands in for the credentials
+            UserDetails userDetails = userDetailsService.loadPrincipal(email).orElse(null);
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (userDetails != null && userDetails.isEnabled()) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
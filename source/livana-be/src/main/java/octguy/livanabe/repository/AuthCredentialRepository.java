@@ -12,5 +12,7 @@ public interface AuthCredentialRepository extends JpaRepository<AuthCredential,
 
     Optional<AuthCredential> findByUser(User user);
 
+    Optional<AuthCredential> findByUserId(UUID userId);
+
     List<AuthCredential> findAllByUserIn(List<User> users);
 }
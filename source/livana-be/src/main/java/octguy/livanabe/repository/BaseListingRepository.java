@@ -1,11 +1,149 @@
 package octguy.livanabe.repository;
 
+import jakarta.persistence.QueryHint;
+import octguy.livanabe.dto.dto.ListingRankingRowDto;
+import octguy.livanabe.dto.dto.ListingRatingRowDto;
+import octguy.livanabe.dto.dto.ListingSearchRowDto;
+import octguy.livanabe.dto.dto.RecommendationCardRowDto;
+import octguy.livanabe.dto.dto.RecommendationStatsRowDto;
+import octguy.livanabe.dto.dto.UserEngagementRowDto;
 import octguy.livanabe.entity.BaseListing;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface BaseListingRepository extends JpaRepository<BaseListing, UUID> {
+
+    // Search attributes of every searchable listing, streamed to build the in-memory search index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query(value = ListingSearchIndexQueries.SEARCH_ROWS +
+           "WHERE b.deleted_at IS NULL AND b.is_available = true",
+           nativeQuery = true)
+    Stream<ListingSearchRowDto> streamAllSearchRows();
+
+    // Same for one listing, empty once it is deleted or unavailable
+    @Query(value = ListingSearchIndexQueries.SEARCH_ROWS +
+           "WHERE b.id = :listingId AND b.deleted_at IS NULL AND b.is_available = true",
+           nativeQuery = true)
+    Optional<ListingSearchRowDto> findSearchRowById(@Param("listingId") UUID listingId);
+
+    // Stored review aggregates of one listing, a primary key lookup
+    @Query(value = "SELECT rating_count AS ratingCount, rating_sum AS ratingSum, " +
+           "rating_count_1 AS ratingCount1, rating_count_2 AS ratingCount2, rating_count_3 AS ratingCount3, " +
+           "rating_count_4 AS ratingCount4, rating_count_5 AS ratingCount5 " +
+           "FROM base_listing WHERE id = :listingId AND deleted_at IS NULL",
+           nativeQuery = true)
+    Optional<ListingRatingRowDto> findRatingById(@Param("listingId") UUID listingId);
+
+    // Adjusts the review aggregates of one listing in place, so concurrent review writes never lose an update
+    @Modifying
+    @Query(value = "UPDATE base_listing SET " + ListingRatingQueries.CHANGE + "WHERE id = :listingId",
+           nativeQuery = true)
+    int applyRatingChange(@Param("listingId") UUID listingId,
+                          @Param("added") Integer added,
+                          @Param("removed") Integer removed);
+
+    // Listings whose stored review aggregates differ from a recount of their reviews; read only
+    @Query(value = "SELECT b.id FROM base_listing b JOIN (" + ListingRatingQueries.TOTALS + "GROUP BY l.id) t " +
+           "ON t.listing_id = b.id " +
+           "WHERE " + ListingRatingQueries.STORED + " IS DISTINCT FROM " + ListingRatingQueries.TOTALS_COLUMNS,
+           nativeQuery = true)
+    List<UUID> findIdsWithRatingDrift();
+
+    // Row locks held until commit: a review write on these listings waits, and the recount that follows sees it
+    @Query(value = "SELECT id FROM base_listing WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<UUID> lockForRatingRecount(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "UPDATE base_listing b SET rating_count = t.total_count, rating_sum = t.total_sum, " +
+           "rating_count_1 = t.count_1, rating_count_2 = t.count_2, rating_count_3 = t.count_3, " +
+           "rating_count_4 = t.count_4, rating_count_5 = t.count_5 " +
+           "FROM (" + ListingRatingQueries.TOTALS + "WHERE l.id IN (:ids) GROUP BY l.id) t " +
+           "WHERE t.listing_id = b.id " +
+           "AND " + ListingRatingQueries.STORED + " IS DISTINCT FROM " + ListingRatingQueries.TOTALS_COLUMNS,
+           nativeQuery = true)
+    int recountRatings(@Param("ids") Collection<UUID> ids);
+
+    // Ranking attributes of every live listing with its decayed engagement, streamed to build recommendations
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query(value = "SELECT b.id AS id, h.id IS NOT NULL AS home, b.latitude AS latitude, b.longitude AS longitude, " +
+           "COALESCE(h.property_type_id, x.experience_category_id) AS groupId, b.host_id AS hostId, " +
+           "b.rating_count AS ratingCount, b.rating_sum AS ratingSum, COALESCE(p.weight, 0) AS engagement " +
+           "FROM base_listing b " +
+           "LEFT JOIN home_listing h ON h.id = b.id " +
+           "LEFT JOIN experience_listing x ON x.id = b.id " +
+           "LEFT JOIN (SELECT e.listing_id, SUM(e.weight) AS weight FROM (" + RecommendationQueries.ENGAGEMENTS + ") e " +
+           "GROUP BY e.listing_id) p ON p.listing_id = b.id " +
+           "WHERE " + RecommendationQueries.LIVE_LISTING,
+           nativeQuery = true)
+    Stream<RecommendationStatsRowDto> streamRecommendationStats(@Param("halfLifeDays") double halfLifeDays);
+
+    // Every live listing with engagements and its engagement decayed with both half-lives, to build the rankings
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query(value = "SELECT b.id AS id, h.id IS NOT NULL AS home, b.latitude AS latitude, b.longitude AS longitude, " +
+           "b.rating_count AS ratingCount, b.rating_sum AS ratingSum, t.recent AS recent, t.overall AS overall " +
+           "FROM (SELECT g.listing_id, " +
+           "SUM(g.signal * POWER(CAST(0.5 AS double precision), " + RecommendationQueries.AGE_IN_HALF_LIVES +
+           "CAST(:recentHalfLifeDays AS double precision))) AS recent, " +
+           "SUM(g.signal * POWER(CAST(0.5 AS double precision), " + RecommendationQueries.AGE_IN_HALF_LIVES +
+           "CAST(:overallHalfLifeDays AS double precision))) AS overall " +
+           "FROM (" + RecommendationQueries.SIGNALS + ") g GROUP BY g.listing_id) t " +
+           "JOIN base_listing b ON b.id = t.listing_id " +
+           "LEFT JOIN home_listing h ON h.id = b.id " +
+           "WHERE " + RecommendationQueries.LIVE_LISTING,
+           nativeQuery = true)
+    Stream<ListingRankingRowDto> streamRankingRows(@Param("recentHalfLifeDays") double recentHalfLifeDays,
+                                                   @Param("overallHalfLifeDays") double overallHalfLifeDays);
+
+    // Display fields of recommended or ranked listings, thumbnail first
+    @Query(value = "SELECT b.id AS id, b.title AS title, b.address AS address, b.base_price AS price, " +
+           "(SELECT i.image_url FROM listing_image i WHERE i.listing_id = b.id AND i.deleted_at IS NULL " +
+           "ORDER BY i.is_thumbnail DESC, i.image_order LIMIT 1) AS thumbnailUrl " +
+           "FROM base_listing b WHERE b.id IN (:ids)",
+           nativeQuery = true)
+    List<RecommendationCardRowDto> findRecommendationCards(@Param("ids") Collection<UUID> ids);
+
+    // Decayed engagement of every user with every live listing they engaged with
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query(value = "SELECT e.user_id AS userId, e.listing_id AS listingId, b.latitude AS latitude, " +
+           "b.longitude AS longitude, COALESCE(h.property_type_id, x.experience_category_id) AS groupId, " +
+           "SUM(e.weight) AS weight " +
+           "FROM (" + RecommendationQueries.ENGAGEMENTS + ") e " +
+           "JOIN base_listing b ON b.id = e.listing_id " +
+           "LEFT JOIN home_listing h ON h.id = b.id " +
+           "LEFT JOIN experience_listing x ON x.id = b.id " +
+           "WHERE " + RecommendationQueries.LIVE_LISTING +
+           "GROUP BY e.user_id, e.listing_id, b.latitude, b.longitude, h.property_type_id, x.experience_category_id",
+           nativeQuery = true)
+    Stream<UserEngagementRowDto> streamUserEngagements(@Param("halfLifeDays") double halfLifeDays);
+
+    // Whether a listing can still be recommended, checked when a listing write reaches the snapshot
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM base_listing b WHERE b.id = :id AND " +
+           RecommendationQueries.LIVE_LISTING + ")",
+           nativeQuery = true)
+    boolean isRecommendable(@Param("id") UUID id);
+
+    // Listings a user booked since a time, for the bookings the recommendation snapshot does not know yet
+    @Query(value = "SELECT hb.home_listing_id FROM booking bk JOIN home_booking hb ON hb.id = bk.id " +
+           "WHERE bk.host_id = :userId AND bk.created_at >= :since " +
+           "AND bk.deleted_at IS NULL AND bk.status <> 'CANCELLED' " +
+           "UNION " +
+           "SELECT s.experience_listing_id FROM booking bk JOIN experience_booking eb ON eb.id = bk.id " +
+           "JOIN experience_session s ON s.id = eb.session_id " +
+           "WHERE bk.host_id = :userId AND bk.created_at >= :since " +
+           "AND bk.deleted_at IS NULL AND bk.status <> 'CANCELLED'",
+           nativeQuery = true)
+    List<UUID> findListingIdsBookedSince(@Param("userId") UUID userId, @Param("since") LocalDateTime since);
 }
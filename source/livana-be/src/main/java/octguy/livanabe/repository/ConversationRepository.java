@@ -1,11 +1,15 @@
 package octguy.livanabe.repository;
 
 import octguy.livanabe.entity.Conversation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,21 +23,118 @@ public interface ConversationRepository extends JpaRepository<Conversation, UUID
     @Query("SELECT c FROM Conversation c LEFT JOIN FETCH c.user1 LEFT JOIN FETCH c.user2 WHERE c.id = :id")
     Optional<Conversation> findByIdWithUsers(@Param("id") UUID id);
 
+    // Participants are matched in a subquery without the fetch joins: there p.user1.id is the conversation's own
+    // column, covered by the (user1_id, user2_id) and user2_id indexes, whereas c.user1.id next to JOIN FETCH c.user1
+    // compares the joined users' ids and leaves the OR spanning two tables
+
     /**
      * Find all conversations for a user (as either user1 or user2)
      */
-    @Query("SELECT c FROM Conversation c LEFT JOIN FETCH c.user1 LEFT JOIN FETCH c.user2 WHERE c.user1.id = :userId OR c.user2.id = :userId ORDER BY c.lastMessageAt DESC NULLS LAST")
+    @Query("SELECT c FROM Conversation c LEFT JOIN FETCH c.user1 LEFT JOIN FETCH c.user2 WHERE c.id IN (SELECT p.id FROM Conversation p WHERE p.user1.id = :userId OR p.user2.id = :userId) ORDER BY c.lastMessageAt DESC NULLS LAST")
     List<Conversation> findByUserId(@Param("userId") UUID userId);
 
+    /**
+     * First page of a user's inbox, newest activity first (conversations without messages last)
+     */
+    @Query("SELECT c FROM Conversation c JOIN FETCH c.user1 JOIN FETCH c.user2 " +
+           "WHERE c.id IN (SELECT p.id FROM Conversation p WHERE p.user1.id = :userId OR p.user2.id = :userId) " +
+           "ORDER BY c.lastMessageAt DESC NULLS LAST, c.id DESC")
+    List<Conversation> findInboxPage(@Param("userId") UUID userId, Pageable pageable);
+
+    /**
+     * Inbox page after a cursor pointing at a conversation that has messages
+     */
+    @Query("SELECT c FROM Conversation c JOIN FETCH c.user1 JOIN FETCH c.user2 " +
+           "WHERE c.id IN (SELECT p.id FROM Conversation p WHERE p.user1.id = :userId OR p.user2.id = :userId) " +
+           "AND (c.lastMessageAt < :cursorAt OR (c.lastMessageAt = :cursorAt AND c.id < :cursorId) OR c.lastMessageAt IS NULL) " +
+           "ORDER BY c.lastMessageAt DESC NULLS LAST, c.id DESC")
+    List<Conversation> findInboxPageAfter(@Param("userId") UUID userId,
+                                          @Param("cursorAt") LocalDateTime cursorAt,
+                                          @Param("cursorId") UUID cursorId,
+                                          Pageable pageable);
+
+    /**
+     * Inbox page after a cursor pointing at a conversation without messages (the tail of the inbox)
+     */
+    @Query("SELECT c FROM Conversation c JOIN FETCH c.user1 JOIN FETCH c.user2 " +
+           "WHERE c.id IN (SELECT p.id FROM Conversation p WHERE p.user1.id = :userId OR p.user2.id = :userId) " +
+           "AND c.lastMessageAt IS NULL AND c.id < :cursorId " +
+           "ORDER BY c.id DESC")
+    List<Conversation> findInboxPageAfterEmpty(@Param("userId") UUID userId,
+                                               @Param("cursorId") UUID cursorId,
+                                               Pageable pageable);
+
     /**
      * Find conversation between two users (regardless of order)
      */
-    @Query("SELECT c FROM Conversation c LEFT JOIN FETCH c.user1 LEFT JOIN FETCH c.user2 WHERE (c.user1.id = :userId1 AND c.user2.id = :userId2) OR (c.user1.id = :userId2 AND c.user2.id = :userId1)")
+    @Query("SELECT c FROM Conversation c LEFT JOIN FETCH c.user1 LEFT JOIN FETCH c.user2 WHERE c.id IN (SELECT p.id FROM Conversation p WHERE (p.user1.id = :userId1 AND p.user2.id = :userId2) OR (p.user1.id = :userId2 AND p.user2.id = :userId1))")
     Optional<Conversation> findByUserIds(@Param("userId1") UUID userId1, @Param("userId2") UUID userId2);
 
+    /**
+     * Add one unread message to the receiver's counter
+     */
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+           "c.user1UnreadCount = c.user1UnreadCount + CASE WHEN c.user1.id = :receiverId THEN 1 ELSE 0 END, " +
+           "c.user2UnreadCount = c.user2UnreadCount + CASE WHEN c.user2.id = :receiverId THEN 1 ELSE 0 END " +
+           "WHERE c.id = :conversationId")
+    void incrementUnreadCount(@Param("conversationId") UUID conversationId, @Param("receiverId") UUID receiverId);
+
+    /**
+     * Reset a participant's unread counter after they read the conversation
+     */
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+           "c.user1UnreadCount = CASE WHEN c.user1.id = :userId THEN 0 ELSE c.user1UnreadCount END, " +
+           "c.user2UnreadCount = CASE WHEN c.user2.id = :userId THEN 0 ELSE c.user2UnreadCount END " +
+           "WHERE c.id = :conversationId")
+    void resetUnreadCount(@Param("conversationId") UUID conversationId, @Param("userId") UUID userId);
+
+    /**
+     * Get a participant's unread counter for one conversation
+     */
+    @Query("SELECT CASE WHEN c.user1.id = :userId THEN c.user1UnreadCount ELSE c.user2UnreadCount END " +
+           "FROM Conversation c WHERE c.id = :conversationId")
+    int getUnreadCount(@Param("conversationId") UUID conversationId, @Param("userId") UUID userId);
+
+    /**
+     * Sum a user's unread counters over all their conversations
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN c.user1.id = :userId THEN c.user1UnreadCount ELSE c.user2UnreadCount END), 0) " +
+           "FROM Conversation c WHERE c.user1.id = :userId OR c.user2.id = :userId")
+    long sumUnreadCountByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Find the conversations whose unread counters differ from a count of their unread messages; read only
+     */
+    @Query(value = "SELECT c.id FROM conversation c JOIN (" + ConversationUnreadQueries.COUNTS + "GROUP BY cv.id) counts " +
+           "ON counts.id = c.id " +
+           "WHERE " + ConversationUnreadQueries.DRIFTED,
+           nativeQuery = true)
+    List<UUID> findIdsWithUnreadDrift();
+
+    /**
+     * Lock the given conversations until commit: sending or reading a message in them waits, and the recount that
+     * follows sees it
+     */
+    @Query(value = "SELECT id FROM conversation WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<UUID> lockForUnreadRecount(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Recompute the unread counters of the given conversations from the message table
+     * @return Number of conversations whose counters were wrong
+     */
+    @Modifying
+    @Query(value = "UPDATE conversation c SET user1_unread_count = counts.user1_unread, user2_unread_count = counts.user2_unread " +
+           "FROM (" + ConversationUnreadQueries.COUNTS + "WHERE cv.id IN (:ids) GROUP BY cv.id) counts " +
+           "WHERE c.id = counts.id " +
+           "AND " + ConversationUnreadQueries.DRIFTED,
+           nativeQuery = true)
+    int recountUnread(@Param("ids") Collection<UUID> ids);
+
     /**
      * Check if conversation exists between two users
      */
-    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM Conversation c WHERE (c.user1.id = :userId1 AND c.user2.id = :userId2) OR (c.user1.id = :userId2 AND c.user2.id = :userId1)")
+    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM Conversation c WHERE c.id IN (SELECT p.id FROM Conversation p WHERE (p.user1.id = :userId1 AND p.user2.id = :userId2) OR (p.user1.id = :userId2 AND p.user2.id = :userId1))")
     boolean existsByUserIds(@Param("userId1") UUID userId1, @Param("userId2") UUID userId2);
 }
@@ -0,0 +1,23 @@
+package octguy.livanabe.repository;
+
+/**
+ * Shared SQL fragments for the per-participant unread counters stored on {@code conversation}.
+ * <p>
+ * Both the drift check and the recount read the same per-conversation counts of unread live messages.
+ */
+final class ConversationUnreadQueries {
+
+    // Unread messages of each participant of conversation cv, zero for a conversation without any
+    static final String COUNTS = "SELECT cv.id, " +
+            "COUNT(m.id) FILTER (WHERE m.sender_id <> cv.user1_id) AS user1_unread, " +
+            "COUNT(m.id) FILTER (WHERE m.sender_id <> cv.user2_id) AS user2_unread " +
+            "FROM conversation cv " +
+            "LEFT JOIN message m ON m.conversation_id = cv.id AND m.is_read = false AND m.deleted_at IS NULL ";
+
+    // Stored counters of conversation c that differ from the counts above
+    static final String DRIFTED = "(c.user1_unread_count <> counts.user1_unread " +
+            "OR c.user2_unread_count <> counts.user2_unread)";
+
+    private ConversationUnreadQueries() {
+    }
+}
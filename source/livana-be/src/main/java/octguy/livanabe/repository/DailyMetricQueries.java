@@ -0,0 +1,75 @@
+package octguy.livanabe.repository;
+
+/**
+ * Shared SQL fragments for the daily metrics rollup.
+ * <p>
+ * Each fragment aggregates the source tables between {@code :startDate} and {@code :endDate} into rows shaped
+ * like daily_metrics (scope_id, day and the seven counters), so the same rows feed both the rebuild and the
+ * drift check.
+ */
+final class DailyMetricQueries {
+
+    static final String GLOBAL_ROWS = "SELECT CAST(:globalScope AS uuid) AS scope_id, s.day AS day, " +
+            "SUM(s.users) AS new_users, SUM(s.home_listings) AS new_home_listings, " +
+            "SUM(s.experience_listings) AS new_experience_listings, SUM(s.home_bookings) AS home_bookings, " +
+            "SUM(s.experience_bookings) AS experience_bookings, " +
+            "SUM(s.home_revenue) AS home_revenue, SUM(s.experience_revenue) AS experience_revenue FROM (" +
+            "SELECT CAST(u.created_at AS date) AS day, 1 AS users, 0 AS home_listings, 0 AS experience_listings, " +
+            "0 AS home_bookings, 0 AS experience_bookings, 0 AS home_revenue, 0 AS experience_revenue " +
+            "FROM \"user\" u WHERE u.deleted_at IS NULL AND u.created_at >= :startDate AND u.created_at < :endDate " +
+            "UNION ALL " +
+            "SELECT CAST(l.created_at AS date), 0, 1, 0, 0, 0, 0, 0 " +
+            "FROM base_listing l JOIN home_listing h ON h.id = l.id " +
+            "WHERE l.deleted_at IS NULL AND l.created_at >= :startDate AND l.created_at < :endDate " +
+            "UNION ALL " +
+            "SELECT CAST(l.created_at AS date), 0, 0, 1, 0, 0, 0, 0 " +
+            "FROM base_listing l JOIN experience_listing e ON e.id = l.id " +
+            "WHERE l.deleted_at IS NULL AND l.created_at >= :startDate AND l.created_at < :endDate " +
+            "UNION ALL " +
+            "SELECT CAST(b.created_at AS date), 0, 0, 0, 1, 0, " +
+            "CASE WHEN b.status = 'CONFIRMED' THEN b.total_price ELSE 0 END, 0 " +
+            "FROM booking b JOIN home_booking hb ON hb.id = b.id " +
+            "WHERE b.deleted_at IS NULL AND b.created_at >= :startDate AND b.created_at < :endDate " +
+            "UNION ALL " +
+            "SELECT CAST(b.created_at AS date), 0, 0, 0, 0, 1, " +
+            "0, CASE WHEN b.status = 'CONFIRMED' THEN b.total_price ELSE 0 END " +
+            "FROM booking b JOIN experience_booking eb ON eb.id = b.id " +
+            "WHERE b.deleted_at IS NULL AND b.created_at >= :startDate AND b.created_at < :endDate" +
+            ") s GROUP BY s.day";
+
+    static final String PER_HOST_ROWS = "SELECT s.host_id AS scope_id, s.day AS day, 0 AS new_users, " +
+            "SUM(s.home_listings) AS new_home_listings, SUM(s.experience_listings) AS new_experience_listings, " +
+            "SUM(s.home_bookings) AS home_bookings, SUM(s.experience_bookings) AS experience_bookings, " +
+            "SUM(s.home_revenue) AS home_revenue, SUM(s.experience_revenue) AS experience_revenue FROM (" +
+            "SELECT l.host_id AS host_id, CAST(l.created_at AS date) AS day, 1 AS home_listings, " +
+            "0 AS experience_listings, 0 AS home_bookings, 0 AS experience_bookings, " +
+            "0 AS home_revenue, 0 AS experience_revenue " +
+            "FROM base_listing l JOIN home_listing h ON h.id = l.id " +
+            "WHERE l.deleted_at IS NULL AND l.created_at >= :startDate AND l.created_at < :endDate " +
+            "UNION ALL " +
+            "SELECT l.host_id, CAST(l.created_at AS date), 0, 1, 0, 0, 0, 0 " +
+            "FROM base_listing l JOIN experience_listing e ON e.id = l.id " +
+            "WHERE l.deleted_at IS NULL AND l.created_at >= :startDate AND l.created_at < :endDate " +
+            "UNION ALL " +
+            "SELECT l.host_id, CAST(b.created_at AS date), 0, 0, 1, 0, " +
+            "CASE WHEN b.status = 'CONFIRMED' THEN b.total_price ELSE 0 END, 0 " +
+            "FROM booking b JOIN home_booking hb ON hb.id = b.id " +
+            "JOIN base_listing l ON l.id = hb.home_listing_id " +
+            "WHERE b.deleted_at IS NULL AND l.deleted_at IS NULL " +
+            "AND b.created_at >= :startDate AND b.created_at < :endDate " +
+            "UNION ALL " +
+            "SELECT l.host_id, CAST(b.created_at AS date), 0, 0, 0, 1, " +
+            "0, CASE WHEN b.status = 'CONFIRMED' THEN b.total_price ELSE 0 END " +
+            "FROM booking b JOIN experience_booking eb ON eb.id = b.id " +
+            "JOIN experience_session es ON es.id = eb.session_id " +
+            "JOIN base_listing l ON l.id = es.experience_listing_id " +
+            "WHERE b.deleted_at IS NULL AND es.deleted_at IS NULL AND l.deleted_at IS NULL " +
+            "AND b.created_at >= :startDate AND b.created_at < :endDate" +
+            ") s GROUP BY s.host_id, s.day";
+
+    static final String COLUMNS = "scope_id, metric_date, new_users, new_home_listings, new_experience_listings, " +
+            "home_bookings, experience_bookings, home_revenue, experience_revenue";
+
+    private DailyMetricQueries() {
+    }
+}
@@ -0,0 +1,108 @@
+package octguy.livanabe.repository;
+
+import octguy.livanabe.dto.dto.MetricDayDto;
+import octguy.livanabe.dto.dto.MetricTotalsDto;
+import octguy.livanabe.entity.DailyMetric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface DailyMetricRepository extends JpaRepository<DailyMetric, UUID> {
+
+    List<DailyMetric> findByScopeIdAndMetricDateBetweenOrderByMetricDateAsc(UUID scopeId, LocalDate startDate, LocalDate endDate);
+
+    Optional<DailyMetric> findByScopeIdAndMetricDate(UUID scopeId, LocalDate metricDate);
+
+    @Query("SELECT COALESCE(SUM(m.newUsers), 0) AS newUsers, " +
+           "COALESCE(SUM(m.newHomeListings), 0) AS newHomeListings, " +
+           "COALESCE(SUM(m.newExperienceListings), 0) AS newExperienceListings, " +
+           "COALESCE(SUM(m.homeBookings), 0) AS homeBookings, " +
+           "COALESCE(SUM(m.experienceBookings), 0) AS experienceBookings, " +
+           "COALESCE(SUM(m.homeRevenue), 0) AS homeRevenue, " +
+           "COALESCE(SUM(m.experienceRevenue), 0) AS experienceRevenue " +
+           "FROM DailyMetric m WHERE m.scopeId = :scopeId")
+    MetricTotalsDto sumTotalsByScopeId(@Param("scopeId") UUID scopeId);
+
+    // Atomic upsert: adds the deltas to the (scope, day) row, creating it if needed
+    @Modifying
+    @Query(value = "INSERT INTO daily_metrics (id, scope_id, metric_date, new_users, new_home_listings, " +
+           "new_experience_listings, home_bookings, experience_bookings, home_revenue, experience_revenue) " +
+           "VALUES (gen_random_uuid(), :scopeId, :metricDate, :newUsers, :newHomeListings, " +
+           ":newExperienceListings, :homeBookings, :experienceBookings, :homeRevenue, :experienceRevenue) " +
+           "ON CONFLICT (scope_id, metric_date) DO UPDATE SET " +
+           "new_users = daily_metrics.new_users + EXCLUDED.new_users, " +
+           "new_home_listings = daily_metrics.new_home_listings + EXCLUDED.new_home_listings, " +
+           "new_experience_listings = daily_metrics.new_experience_listings + EXCLUDED.new_experience_listings, " +
+           "home_bookings = daily_metrics.home_bookings + EXCLUDED.home_bookings, " +
+           "experience_bookings = daily_metrics.experience_bookings + EXCLUDED.experience_bookings, " +
+           "home_revenue = daily_metrics.home_revenue + EXCLUDED.home_revenue, " +
+           "experience_revenue = daily_metrics.experience_revenue + EXCLUDED.experience_revenue",
+           nativeQuery = true)
+    void increment(@Param("scopeId") UUID scopeId,
+                   @Param("metricDate") LocalDate metricDate,
+                   @Param("newUsers") long newUsers,
+                   @Param("newHomeListings") long newHomeListings,
+                   @Param("newExperienceListings") long newExperienceListings,
+                   @Param("homeBookings") long homeBookings,
+                   @Param("experienceBookings") long experienceBookings,
+                   @Param("homeRevenue") BigDecimal homeRevenue,
+                   @Param("experienceRevenue") BigDecimal experienceRevenue);
+
+    // ==================== Rebuild from source tables ====================
+
+    // Transaction-scoped advisory lock serializing rebuilds across nodes; false when another node holds it
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryLockRebuild(@Param("key") long key);
+
+    // Same lock, waiting for the holder to commit
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:key)) l", nativeQuery = true)
+    int lockRebuild(@Param("key") long key);
+
+    // Days between the dates where some scope's row differs from what the source tables add up to
+    // (a missing row counts as zeros)
+    @Query(value = "SELECT DISTINCT COALESCE(f.day, m.metric_date) AS day FROM (" +
+           DailyMetricQueries.GLOBAL_ROWS + " UNION ALL " + DailyMetricQueries.PER_HOST_ROWS + ") f " +
+           "FULL JOIN (SELECT * FROM daily_metrics " +
+           "WHERE metric_date >= CAST(:startDate AS date) AND metric_date < CAST(:endDate AS date)) m " +
+           "ON m.scope_id = f.scope_id AND m.metric_date = f.day " +
+           "WHERE COALESCE(f.new_users, 0) <> COALESCE(m.new_users, 0) " +
+           "OR COALESCE(f.new_home_listings, 0) <> COALESCE(m.new_home_listings, 0) " +
+           "OR COALESCE(f.new_experience_listings, 0) <> COALESCE(m.new_experience_listings, 0) " +
+           "OR COALESCE(f.home_bookings, 0) <> COALESCE(m.home_bookings, 0) " +
+           "OR COALESCE(f.experience_bookings, 0) <> COALESCE(m.experience_bookings, 0) " +
+           "OR COALESCE(f.home_revenue, 0) <> COALESCE(m.home_revenue, 0) " +
+           "OR COALESCE(f.experience_revenue, 0) <> COALESCE(m.experience_revenue, 0) " +
+           "ORDER BY 1",
+           nativeQuery = true)
+    List<MetricDayDto> findDriftedDays(@Param("globalScope") UUID globalScope,
+                                       @Param("startDate") LocalDateTime startDate,
+                                       @Param("endDate") LocalDateTime endDate);
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_metrics WHERE metric_date >= CAST(:startDate AS date) AND metric_date < CAST(:endDate AS date)",
+           nativeQuery = true)
+    void deleteBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_metrics (id, " + DailyMetricQueries.COLUMNS + ") " +
+           "SELECT gen_random_uuid(), g.* FROM (" + DailyMetricQueries.GLOBAL_ROWS + ") g",
+           nativeQuery = true)
+    void rebuildGlobal(@Param("globalScope") UUID globalScope,
+                       @Param("startDate") LocalDateTime startDate,
+                       @Param("endDate") LocalDateTime endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_metrics (id, " + DailyMetricQueries.COLUMNS + ") " +
+           "SELECT gen_random_uuid(), h.* FROM (" + DailyMetricQueries.PER_HOST_ROWS + ") h",
+           nativeQuery = true)
+    void rebuildPerHost(@Param("startDate") LocalDateTime startDate,
+                        @Param("endDate") LocalDateTime endDate);
+}
@@ -0,0 +1,23 @@
+package octguy.livanabe.repository;
+
+import octguy.livanabe.entity.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, UUID> {
+
+    /**
+     * Lock the oldest emails that are due. Rows locked by another instance are skipped.
+     */
+    @Query(value = "SELECT * FROM email_outbox WHERE next_attempt_at <= :now " +
+           "ORDER BY next_attempt_at LIMIT :batchSize FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<EmailOutbox> lockDueBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+}
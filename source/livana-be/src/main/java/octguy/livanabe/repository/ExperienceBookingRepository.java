@@ -1,5 +1,8 @@
 package octguy.livanabe.repository;
 
+import octguy.livanabe.dto.dto.DailyBookingSummaryDto;
+import octguy.livanabe.dto.dto.PeriodBucketCountDto;
+import octguy.livanabe.dto.dto.PeriodBucketSumDto;
 import octguy.livanabe.entity.ExperienceBooking;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -26,31 +29,39 @@ public interface ExperienceBookingRepository extends JpaRepository<ExperienceBoo
     @Query("DELETE FROM ExperienceBooking eb WHERE eb.session.experienceListing.id = :experienceListingId")
     void deleteByExperienceListingId(@Param("experienceListingId") UUID experienceListingId);
     
+    // Bookings of a listing grouped by creation day, used to roll back daily metrics when the listing is deleted
+    @Query(value = "SELECT CAST(b.created_at AS date) AS day, COUNT(*) AS bookings, " +
+           "COALESCE(SUM(CASE WHEN b.status = 'CONFIRMED' THEN b.total_price ELSE 0 END), 0) AS revenue " +
+           "FROM booking b JOIN experience_booking eb ON eb.id = b.id " +
+           "JOIN experience_session es ON es.id = eb.session_id " +
+           "WHERE es.experience_listing_id = :experienceListingId AND b.deleted_at IS NULL " +
+           "GROUP BY 1",
+           nativeQuery = true)
+    List<DailyBookingSummaryDto> summarizeDailyByExperienceListingId(@Param("experienceListingId") UUID experienceListingId);
+    
     @Query("SELECT eb FROM ExperienceBooking eb WHERE eb.session.experienceListing.host.id = :hostId ORDER BY eb.createdAt DESC")
     List<ExperienceBooking> findByHostId(@Param("hostId") UUID hostId);
     
-    @Query("SELECT COALESCE(SUM(eb.quantity), 0) FROM ExperienceBooking eb " +
-           "WHERE eb.session.id = :sessionId AND eb.status != 'CANCELLED'")
-    int countBookedParticipants(@Param("sessionId") UUID sessionId);
-    
     // Dashboard statistics queries
-    @Query("SELECT COUNT(eb) FROM ExperienceBooking eb WHERE eb.deletedAt IS NULL")
-    Long countAllActiveExperienceBookings();
-    
     @Query("SELECT COUNT(eb) FROM ExperienceBooking eb WHERE eb.createdAt >= :startDate AND eb.deletedAt IS NULL")
     Long countExperienceBookingsCreatedAfter(@Param("startDate") LocalDateTime startDate);
     
-    @Query("SELECT COUNT(eb) FROM ExperienceBooking eb WHERE eb.createdAt >= :startDate AND eb.createdAt < :endDate AND eb.deletedAt IS NULL")
-    Long countExperienceBookingsCreatedBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-    
-    @Query("SELECT COALESCE(SUM(eb.totalPrice), 0) FROM ExperienceBooking eb WHERE eb.status = 'CONFIRMED' AND eb.deletedAt IS NULL")
-    BigDecimal sumAllExperienceRevenue();
-    
     @Query("SELECT COALESCE(SUM(eb.totalPrice), 0) FROM ExperienceBooking eb WHERE eb.status = 'CONFIRMED' AND eb.createdAt >= :startDate AND eb.deletedAt IS NULL")
     BigDecimal sumExperienceRevenueAfter(@Param("startDate") LocalDateTime startDate);
     
-    @Query("SELECT COALESCE(SUM(eb.totalPrice), 0) FROM ExperienceBooking eb WHERE eb.status = 'CONFIRMED' AND eb.createdAt >= :startDate AND eb.createdAt < :endDate AND eb.deletedAt IS NULL")
-    BigDecimal sumExperienceRevenueBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query(value = "SELECT " + PeriodBucketQueries.BUCKET + " AS bucket, COUNT(*) AS value " +
+           "FROM booking b JOIN experience_booking eb ON eb.id = b.id " +
+           "WHERE " + PeriodBucketQueries.IN_RANGE + " " +
+           "GROUP BY 1",
+           nativeQuery = true)
+    List<PeriodBucketCountDto> countExperienceBookingsCreatedPerBucket(@Param("unit") String unit, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @Query(value = "SELECT " + PeriodBucketQueries.BUCKET + " AS bucket, COALESCE(SUM(total_price), 0) AS value " +
+           "FROM booking b JOIN experience_booking eb ON eb.id = b.id " +
+           "WHERE " + PeriodBucketQueries.IN_RANGE + " AND status = 'CONFIRMED' " +
+           "GROUP BY 1",
+           nativeQuery = true)
+    List<PeriodBucketSumDto> sumExperienceRevenuePerBucket(@Param("unit") String unit, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
     // Host-specific revenue queries
     @Query("SELECT COUNT(eb) FROM ExperienceBooking eb WHERE eb.session.experienceListing.host.id = :hostId AND eb.deletedAt IS NULL")
@@ -1,5 +1,11 @@
 package octguy.livanabe.repository;
 
+import octguy.livanabe.dto.dto.PeriodBucketCountDto;
+import octguy.livanabe.dto.dto.ListingDistanceDto;
+import octguy.livanabe.dto.dto.ListingFacetCountDto;
+import octguy.livanabe.dto.dto.ListingMapCellDto;
+import octguy.livanabe.dto.dto.ListingMapPinDto;
+import octguy.livanabe.dto.dto.ListingRelevanceDto;
 import octguy.livanabe.entity.ExperienceListing;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -7,6 +13,7 @@ import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,6 +21,12 @@ public interface ExperienceListingRepository extends JpaRepository<ExperienceLis
     
     List<ExperienceListing> findByHostId(UUID hostId);
     
+    @Query("SELECT e FROM ExperienceListing e JOIN FETCH e.host JOIN FETCH e.experienceCategory WHERE e.host.id = :hostId")
+    List<ExperienceListing> findByHostIdWithHostAndCategory(@Param("hostId") UUID hostId);
+    
+    @Query("SELECT e FROM ExperienceListing e JOIN FETCH e.host JOIN FETCH e.experienceCategory WHERE e.id IN :ids")
+    List<ExperienceListing> findAllWithHostAndCategoryByIdIn(@Param("ids") Collection<UUID> ids);
+    
     // Search by bounding box (for location-based search)
     @Query("SELECT e FROM ExperienceListing e WHERE e.deletedAt IS NULL " +
            "AND e.isAvailable = true " +
@@ -26,16 +39,123 @@ public interface ExperienceListingRepository extends JpaRepository<ExperienceLis
             @Param("maxLon") Double maxLon
     );
     
-    // Search with filters
-    @Query("SELECT e FROM ExperienceListing e WHERE e.deletedAt IS NULL " +
-           "AND e.isAvailable = true " +
-           "AND e.latitude BETWEEN :minLat AND :maxLat " +
-           "AND e.longitude BETWEEN :minLon AND :maxLon " +
-           "AND (:minPrice IS NULL OR e.basePrice >= :minPrice) " +
-           "AND (:maxPrice IS NULL OR e.basePrice <= :maxPrice) " +
-           "AND (:minCapacity IS NULL OR e.capacity >= :minCapacity) " +
-           "AND (:categoryId IS NULL OR e.experienceCategory.id = :categoryId)")
-    List<ExperienceListing> findByLocationWithFilters(
+    // Nearest listings within a radius, sorted and paginated in the database.
+    // The bounding box is served by the (latitude, longitude) index, the Haversine distance is computed
+    // only for rows inside it, and ORDER BY ... LIMIT becomes a bounded top-N sort that returns ids only.
+    // The cursor is the (distance, id) of the last row of the previous page; a null limit returns every row
+    // after it.
+    @Query(value = "SELECT d.id AS id, d.distance_km AS distanceKm FROM (" +
+           "SELECT b.id AS id, " +
+           "6371.0 * 2 * ASIN(LEAST(1.0, SQRT(" +
+           "POWER(SIN(RADIANS(b.latitude - :lat) / 2), 2) + " +
+           "COS(RADIANS(:lat)) * COS(RADIANS(b.latitude)) * POWER(SIN(RADIANS(b.longitude - :lon) / 2), 2)" +
+           "))) AS distance_km " +
+           "FROM base_listing b JOIN experience_listing e ON e.id = b.id " +
+           "WHERE b.deleted_at IS NULL " +
+           "AND b.is_available = true " +
+           "AND b.latitude BETWEEN :minLat AND :maxLat " +
+           "AND b.longitude BETWEEN :minLon AND :maxLon " +
+           "AND (CAST(:minPrice AS numeric) IS NULL OR b.base_price >= CAST(:minPrice AS numeric)) " +
+           "AND (CAST(:maxPrice AS numeric) IS NULL OR b.base_price <= CAST(:maxPrice AS numeric)) " +
+           "AND (CAST(:minCapacity AS integer) IS NULL OR b.capacity >= CAST(:minCapacity AS integer)) " +
+           "AND (CAST(:categoryId AS uuid) IS NULL OR e.experience_category_id = CAST(:categoryId AS uuid))" +
+           ") d " +
+           "WHERE d.distance_km <= :radiusKm " +
+           "AND (CAST(:cursorDistance AS double precision) IS NULL " +
+           "OR d.distance_km > CAST(:cursorDistance AS double precision) " +
+           "OR (d.distance_km = CAST(:cursorDistance AS double precision) AND d.id > CAST(:cursorId AS uuid))) " +
+           "ORDER BY d.distance_km ASC, d.id ASC " +
+           "LIMIT CAST(:limit AS integer)",
+           nativeQuery = true)
+    List<ListingDistanceDto> findNearestWithFilters(
+            @Param("lat") Double lat,
+            @Param("lon") Double lon,
+            @Param("radiusKm") Double radiusKm,
+            @Param("minLat") Double minLat,
+            @Param("maxLat") Double maxLat,
+            @Param("minLon") Double minLon,
+            @Param("maxLon") Double maxLon,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minCapacity") Integer minCapacity,
+            @Param("categoryId") UUID categoryId,
+            @Param("cursorDistance") Double cursorDistance,
+            @Param("cursorId") UUID cursorId,
+            @Param("limit") Integer limit
+    );
+    
+    // Keyword search ranked by relevance, paginated in the database.
+    // Every term must match as a prefix in the search_vector GIN index (title > address > description).
+    // The cursor is the (relevance, id) of the last row of the previous page.
+    @Query(value = "SELECT r.id AS id, r.relevance AS relevance FROM (" +
+           "SELECT b.id AS id, CAST(" +
+           "ts_rank_cd(b.search_vector, to_tsquery('simple', immutable_unaccent(:tsQuery)), 32) AS real) AS relevance " +
+           "FROM base_listing b JOIN experience_listing e ON e.id = b.id " +
+           "WHERE b.deleted_at IS NULL " +
+           "AND b.is_available = true " +
+           "AND b.search_vector @@ to_tsquery('simple', immutable_unaccent(:tsQuery)) " +
+           "AND (CAST(:minPrice AS numeric) IS NULL OR b.base_price >= CAST(:minPrice AS numeric)) " +
+           "AND (CAST(:maxPrice AS numeric) IS NULL OR b.base_price <= CAST(:maxPrice AS numeric)) " +
+           "AND (CAST(:minCapacity AS integer) IS NULL OR b.capacity >= CAST(:minCapacity AS integer)) " +
+           "AND (CAST(:categoryId AS uuid) IS NULL OR e.experience_category_id = CAST(:categoryId AS uuid))" +
+           ") r " +
+           "WHERE CAST(:cursorRelevance AS real) IS NULL " +
+           "OR r.relevance < CAST(:cursorRelevance AS real) " +
+           "OR (r.relevance = CAST(:cursorRelevance AS real) AND r.id > CAST(:cursorId AS uuid)) " +
+           "ORDER BY r.relevance DESC, r.id ASC " +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<ListingRelevanceDto> searchByText(
+            @Param("tsQuery") String tsQuery,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minCapacity") Integer minCapacity,
+            @Param("categoryId") UUID categoryId,
+            @Param("cursorRelevance") Float cursorRelevance,
+            @Param("cursorId") UUID cursorId,
+            @Param("limit") int limit
+    );
+    
+    // Typo-tolerant fallback for keyword search: titles similar to the folded text, using the trigram index.
+    // Same filters and cursor as searchByText, ranked by word similarity.
+    @Query(value = "SELECT r.id AS id, r.relevance AS relevance FROM (" +
+           "SELECT b.id AS id, CAST(" +
+           "word_similarity(immutable_unaccent(:text), immutable_unaccent(lower(b.title))) AS real) AS relevance " +
+           "FROM base_listing b JOIN experience_listing e ON e.id = b.id " +
+           "WHERE b.deleted_at IS NULL " +
+           "AND b.is_available = true " +
+           "AND immutable_unaccent(:text) <% immutable_unaccent(lower(b.title)) " +
+           "AND (CAST(:minPrice AS numeric) IS NULL OR b.base_price >= CAST(:minPrice AS numeric)) " +
+           "AND (CAST(:maxPrice AS numeric) IS NULL OR b.base_price <= CAST(:maxPrice AS numeric)) " +
+           "AND (CAST(:minCapacity AS integer) IS NULL OR b.capacity >= CAST(:minCapacity AS integer)) " +
+           "AND (CAST(:categoryId AS uuid) IS NULL OR e.experience_category_id = CAST(:categoryId AS uuid))" +
+           ") r " +
+           "WHERE CAST(:cursorRelevance AS real) IS NULL " +
+           "OR r.relevance < CAST(:cursorRelevance AS real) " +
+           "OR (r.relevance = CAST(:cursorRelevance AS real) AND r.id > CAST(:cursorId AS uuid)) " +
+           "ORDER BY r.relevance DESC, r.id ASC " +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<ListingRelevanceDto> searchByTitleSimilarity(
+            @Param("text") String text,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minCapacity") Integer minCapacity,
+            @Param("categoryId") UUID categoryId,
+            @Param("cursorRelevance") Float cursorRelevance,
+            @Param("cursorId") UUID cursorId,
+            @Param("limit") int limit
+    );
+    
+    // Search facets over the same candidates as findNearestWithFilters, searchByText and searchByTitleSimilarity,
+    // aggregated in one statement (see ListingFacetQueries)
+    @Query(value = "WITH candidates AS MATERIALIZED (" + ListingFacetQueries.EXPERIENCE_CANDIDATES +
+           ListingFacetQueries.WITHIN_RADIUS + ListingFacetQueries.EXPERIENCE_FILTERS + ListingFacetQueries.EXPERIENCE_FACETS,
+           nativeQuery = true)
+    List<ListingFacetCountDto> countFacetsNearby(
+            @Param("lat") Double lat,
+            @Param("lon") Double lon,
+            @Param("radiusKm") Double radiusKm,
             @Param("minLat") Double minLat,
             @Param("maxLat") Double maxLat,
             @Param("minLon") Double minLon,
@@ -46,15 +166,75 @@ public interface ExperienceListingRepository extends JpaRepository<ExperienceLis
             @Param("categoryId") UUID categoryId
     );
     
-    // Dashboard statistics queries
-    @Query("SELECT COUNT(e) FROM ExperienceListing e WHERE e.deletedAt IS NULL")
-    Long countAllActiveExperienceListings();
+    @Query(value = "WITH candidates AS MATERIALIZED (" + ListingFacetQueries.EXPERIENCE_CANDIDATES +
+           ListingFacetQueries.TEXT_MATCH + ListingFacetQueries.EXPERIENCE_FILTERS + ListingFacetQueries.EXPERIENCE_FACETS,
+           nativeQuery = true)
+    List<ListingFacetCountDto> countFacetsByText(
+            @Param("tsQuery") String tsQuery,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minCapacity") Integer minCapacity,
+            @Param("categoryId") UUID categoryId
+    );
+    
+    @Query(value = "WITH candidates AS MATERIALIZED (" + ListingFacetQueries.EXPERIENCE_CANDIDATES +
+           ListingFacetQueries.TITLE_SIMILAR + ListingFacetQueries.EXPERIENCE_FILTERS + ListingFacetQueries.EXPERIENCE_FACETS,
+           nativeQuery = true)
+    List<ListingFacetCountDto> countFacetsByTitleSimilarity(
+            @Param("text") String text,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minCapacity") Integer minCapacity,
+            @Param("categoryId") UUID categoryId
+    );
+    
+    // Map viewport search: at most :limit pins, or one aggregate row per grid cell
+    @Query(value = ListingMapQueries.MAP_PINS +
+           "FROM base_listing b JOIN experience_listing e ON e.id = b.id " +
+           "WHERE b.deleted_at IS NULL AND b.is_available = true " +
+           ListingFacetQueries.IN_BOX + ListingFacetQueries.EXPERIENCE_FILTERS +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<ListingMapPinDto> findMapPins(
+            @Param("minLat") Double minLat,
+            @Param("maxLat") Double maxLat,
+            @Param("minLon") Double minLon,
+            @Param("maxLon") Double maxLon,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minCapacity") Integer minCapacity,
+            @Param("categoryId") UUID categoryId,
+            @Param("limit") int limit
+    );
+    
+    @Query(value = ListingMapQueries.MAP_CELLS +
+           "FROM base_listing b JOIN experience_listing e ON e.id = b.id " +
+           "WHERE b.deleted_at IS NULL AND b.is_available = true " +
+           ListingFacetQueries.IN_BOX + ListingFacetQueries.EXPERIENCE_FILTERS +
+           "GROUP BY 1, 2",
+           nativeQuery = true)
+    List<ListingMapCellDto> countMapCells(
+            @Param("cellSize") Double cellSize,
+            @Param("minLat") Double minLat,
+            @Param("maxLat") Double maxLat,
+            @Param("minLon") Double minLon,
+            @Param("maxLon") Double maxLon,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minCapacity") Integer minCapacity,
+            @Param("categoryId") UUID categoryId
+    );
     
+    // Dashboard statistics queries
     @Query("SELECT COUNT(e) FROM ExperienceListing e WHERE e.createdAt >= :startDate AND e.deletedAt IS NULL")
     Long countExperienceListingsCreatedAfter(@Param("startDate") LocalDateTime startDate);
     
-    @Query("SELECT COUNT(e) FROM ExperienceListing e WHERE e.createdAt >= :startDate AND e.createdAt < :endDate AND e.deletedAt IS NULL")
-    Long countExperienceListingsCreatedBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query(value = "SELECT " + PeriodBucketQueries.BUCKET + " AS bucket, COUNT(*) AS value " +
+           "FROM base_listing b JOIN experience_listing e ON e.id = b.id " +
+           "WHERE " + PeriodBucketQueries.IN_RANGE + " " +
+           "GROUP BY 1",
+           nativeQuery = true)
+    List<PeriodBucketCountDto> countExperienceListingsCreatedPerBucket(@Param("unit") String unit, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
     // Host-specific queries
     @Query("SELECT COUNT(e) FROM ExperienceListing e WHERE e.host.id = :hostId AND e.deletedAt IS NULL")
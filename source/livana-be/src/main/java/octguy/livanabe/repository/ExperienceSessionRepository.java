@@ -20,4 +20,31 @@ public interface ExperienceSessionRepository extends JpaRepository<ExperienceSes
     @Modifying
     @Query("DELETE FROM ExperienceSession s WHERE s.experienceListing.id = :listingId")
     void deleteByExperienceListingId(@Param("listingId") UUID listingId);
+    
+    // Atomically takes seats on an active session if they fit in the listing capacity, flipping it to FULL
+    // when the last seat goes. Concurrent reservations serialize on the session row and each one re-checks
+    // the capacity against the committed count, so the session can never be oversold.
+    // Returns 0 when the seats do not fit or the session is not active.
+    @Modifying
+    @Query(value = "UPDATE experience_session s SET " +
+           "booked_participants = s.booked_participants + :quantity, " +
+           "session_status = CASE WHEN s.booked_participants + :quantity >= b.capacity THEN 'FULL' ELSE s.session_status END " +
+           "FROM base_listing b " +
+           "WHERE s.id = :sessionId AND b.id = s.experience_listing_id " +
+           "AND s.deleted_at IS NULL AND s.session_status = 'ACTIVE' " +
+           "AND s.booked_participants + :quantity <= b.capacity",
+           nativeQuery = true)
+    int reserveSeats(@Param("sessionId") UUID sessionId, @Param("quantity") int quantity);
+    
+    // Gives seats back, reopening a FULL session
+    @Modifying
+    @Query(value = "UPDATE experience_session SET " +
+           "booked_participants = GREATEST(0, booked_participants - :quantity), " +
+           "session_status = CASE WHEN session_status = 'FULL' THEN 'ACTIVE' ELSE session_status END " +
+           "WHERE id = :sessionId",
+           nativeQuery = true)
+    int releaseSeats(@Param("sessionId") UUID sessionId, @Param("quantity") int quantity);
+    
+    @Query("SELECT s.bookedParticipants FROM ExperienceSession s WHERE s.id = :sessionId")
+    int findBookedParticipants(@Param("sessionId") UUID sessionId);
 }
@@ -6,11 +6,14 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public interface HomeAmenityRepository extends JpaRepository<HomeAmenity, UUID> {
     List<HomeAmenity> findByListingId(UUID listingId);
     
+    List<HomeAmenity> findByListingIdIn(Set<UUID> listingIds);
+    
     @Modifying
     @Query("DELETE FROM HomeAmenity ha WHERE ha.listing.id = :listingId")
     void deleteByListingId(UUID listingId);
@@ -1,5 +1,8 @@
 package octguy.livanabe.repository;
 
+import octguy.livanabe.dto.dto.DailyBookingSummaryDto;
+import octguy.livanabe.dto.dto.PeriodBucketCountDto;
+import octguy.livanabe.dto.dto.PeriodBucketSumDto;
 import octguy.livanabe.entity.HomeBooking;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -23,36 +26,38 @@ public interface HomeBookingRepository extends JpaRepository<HomeBooking, UUID>
     @Query("DELETE FROM HomeBooking hb WHERE hb.homeListing.id = :homeListingId")
     void deleteByHomeListingId(@Param("homeListingId") UUID homeListingId);
     
+    // Bookings of a listing grouped by creation day, used to roll back daily metrics when the listing is deleted
+    @Query(value = "SELECT CAST(b.created_at AS date) AS day, COUNT(*) AS bookings, " +
+           "COALESCE(SUM(CASE WHEN b.status = 'CONFIRMED' THEN b.total_price ELSE 0 END), 0) AS revenue " +
+           "FROM booking b JOIN home_booking hb ON hb.id = b.id " +
+           "WHERE hb.home_listing_id = :homeListingId AND b.deleted_at IS NULL " +
+           "GROUP BY 1",
+           nativeQuery = true)
+    List<DailyBookingSummaryDto> summarizeDailyByHomeListingId(@Param("homeListingId") UUID homeListingId);
+    
     @Query("SELECT hb FROM HomeBooking hb WHERE hb.homeListing.host.id = :hostId ORDER BY hb.createdAt DESC")
     List<HomeBooking> findByHostId(@Param("hostId") UUID hostId);
     
-    @Query("SELECT hb FROM HomeBooking hb WHERE hb.homeListing.id = :homeListingId " +
-           "AND hb.status != 'CANCELLED' " +
-           "AND ((hb.checkInTime < :checkOutTime AND hb.checkOutTime > :checkInTime))")
-    List<HomeBooking> findConflictingBookings(
-        @Param("homeListingId") UUID homeListingId,
-        @Param("checkInTime") LocalDateTime checkInTime,
-        @Param("checkOutTime") LocalDateTime checkOutTime
-    );
-    
     // Dashboard statistics queries
-    @Query("SELECT COUNT(hb) FROM HomeBooking hb WHERE hb.deletedAt IS NULL")
-    Long countAllActiveHomeBookings();
-    
     @Query("SELECT COUNT(hb) FROM HomeBooking hb WHERE hb.createdAt >= :startDate AND hb.deletedAt IS NULL")
     Long countHomeBookingsCreatedAfter(@Param("startDate") LocalDateTime startDate);
     
-    @Query("SELECT COUNT(hb) FROM HomeBooking hb WHERE hb.createdAt >= :startDate AND hb.createdAt < :endDate AND hb.deletedAt IS NULL")
-    Long countHomeBookingsCreatedBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-    
-    @Query("SELECT COALESCE(SUM(hb.totalPrice), 0) FROM HomeBooking hb WHERE hb.status = 'CONFIRMED' AND hb.deletedAt IS NULL")
-    BigDecimal sumAllHomeRevenue();
-    
     @Query("SELECT COALESCE(SUM(hb.totalPrice), 0) FROM HomeBooking hb WHERE hb.status = 'CONFIRMED' AND hb.createdAt >= :startDate AND hb.deletedAt IS NULL")
     BigDecimal sumHomeRevenueAfter(@Param("startDate") LocalDateTime startDate);
     
-    @Query("SELECT COALESCE(SUM(hb.totalPrice), 0) FROM HomeBooking hb WHERE hb.status = 'CONFIRMED' AND hb.createdAt >= :startDate AND hb.createdAt < :endDate AND hb.deletedAt IS NULL")
-    BigDecimal sumHomeRevenueBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query(value = "SELECT " + PeriodBucketQueries.BUCKET + " AS bucket, COUNT(*) AS value " +
+           "FROM booking b JOIN home_booking hb ON hb.id = b.id " +
+           "WHERE " + PeriodBucketQueries.IN_RANGE + " " +
+           "GROUP BY 1",
+           nativeQuery = true)
+    List<PeriodBucketCountDto> countHomeBookingsCreatedPerBucket(@Param("unit") String unit, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @Query(value = "SELECT " + PeriodBucketQueries.BUCKET + " AS bucket, COALESCE(SUM(total_price), 0) AS value " +
+           "FROM booking b JOIN home_booking hb ON hb.id = b.id " +
+           "WHERE " + PeriodBucketQueries.IN_RANGE + " AND status = 'CONFIRMED' " +
+           "GROUP BY 1",
+           nativeQuery = true)
+    List<PeriodBucketSumDto> sumHomeRevenuePerBucket(@Param("unit") String unit, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
     // Host-specific revenue queries
     @Query("SELECT COUNT(hb) FROM HomeBooking hb WHERE hb.homeListing.host.id = :hostId AND hb.deletedAt IS NULL")
@@ -6,11 +6,14 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public interface HomeFacilityRepository extends JpaRepository<HomeFacility, UUID> {
     List<HomeFacility> findByListingId(UUID listingId);
     
+    List<HomeFacility> findByListingIdIn(Set<UUID> listingIds);
+    
     @Modifying
     @Query("DELETE FROM HomeFacility hf WHERE hf.listing.id = :listingId")
     void deleteByListingId(UUID listingId);
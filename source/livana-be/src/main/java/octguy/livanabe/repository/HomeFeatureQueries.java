@@ -0,0 +1,35 @@
+package octguy.livanabe.repository;
+
+/**
+ * Shared SQL fragments for the home amenity and facility filters.
+ * <p>
+ * The in-memory feature index loads every home's feature ids with {@code HOME_FEATURE_IDS}; searches then filter
+ * on the listing ids it matched, or fall back to probing the feature tables per candidate.
+ */
+final class HomeFeatureQueries {
+
+    // Amenity and facility ids of listing b, probed on the (listing) indexes; also feeds the home feature index
+    static final String HOME_FEATURE_IDS = "ARRAY(SELECT ha.amenity_id FROM home_amenity ha " +
+            "WHERE ha.listing_id = b.id AND ha.deleted_at IS NULL) AS amenityIds, " +
+            "ARRAY(SELECT hf.facility_id FROM home_facility hf " +
+            "WHERE hf.listing_id = b.id AND hf.deleted_at IS NULL) AS facilityIds ";
+
+    // Comma-separated listing ids matched by the home feature index; the IN list is hashed once per statement
+    static final String IN_LISTING_IDS = "AND (CAST(:listingIds AS text) IS NULL OR b.id IN (" +
+            "SELECT CAST(unnest(string_to_array(CAST(:listingIds AS text), ',')) AS uuid))) ";
+
+    // Amenity and facility filters: either the listing ids matched by the feature index, when few enough to send,
+    // or one counting probe per candidate for the comma-separated (distinct) feature ids
+    static final String HOME_FEATURES = IN_LISTING_IDS +
+            "AND (CAST(:amenityIds AS text) IS NULL OR (SELECT COUNT(*) FROM home_amenity ha " +
+            "WHERE ha.listing_id = b.id AND ha.deleted_at IS NULL " +
+            "AND ha.amenity_id = ANY(CAST(string_to_array(CAST(:amenityIds AS text), ',') AS uuid[]))) " +
+            "= array_length(string_to_array(CAST(:amenityIds AS text), ','), 1)) " +
+            "AND (CAST(:facilityIds AS text) IS NULL OR (SELECT COUNT(*) FROM home_facility hf " +
+            "WHERE hf.listing_id = b.id AND hf.deleted_at IS NULL " +
+            "AND hf.facility_id = ANY(CAST(string_to_array(CAST(:facilityIds AS text), ',') AS uuid[]))) " +
+            "= array_length(string_to_array(CAST(:facilityIds AS text), ','), 1)) ";
+
+    private HomeFeatureQueries() {
+    }
+}
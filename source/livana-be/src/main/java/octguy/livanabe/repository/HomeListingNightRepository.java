@@ -0,0 +1,79 @@
+package octguy.livanabe.repository;
+
+import octguy.livanabe.entity.HomeListingNight;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface HomeListingNightRepository extends JpaRepository<HomeListingNight, UUID> {
+
+    // Claims every night in [checkIn, checkOut) for the booking. Nights already held by another booking are skipped,
+    // so a result lower than the number of nights means the range is not free. A concurrent uncommitted claim on the
+    // same night blocks this insert until that transaction ends, which is what makes the check race-free.
+    @Modifying
+    @Query(value = "INSERT INTO home_listing_night (id, home_listing_id, night, booking_id) " +
+           "SELECT gen_random_uuid(), :homeListingId, CAST(d AS date), :bookingId " +
+           "FROM generate_series(CAST(:checkIn AS date), CAST(:checkOut AS date) - 1, interval '1 day') d " +
+           "ON CONFLICT (home_listing_id, night) DO NOTHING",
+           nativeQuery = true)
+    int claimNights(@Param("homeListingId") UUID homeListingId,
+                    @Param("bookingId") UUID bookingId,
+                    @Param("checkIn") LocalDate checkIn,
+                    @Param("checkOut") LocalDate checkOut);
+
+    @Modifying
+    @Query("DELETE FROM HomeListingNight n WHERE n.bookingId = :bookingId")
+    int deleteByBookingId(@Param("bookingId") UUID bookingId);
+
+    @Modifying
+    @Query("DELETE FROM HomeListingNight n WHERE n.homeListingId = :homeListingId")
+    int deleteByHomeListingId(@Param("homeListingId") UUID homeListingId);
+
+    @Query("SELECT n.night FROM HomeListingNight n WHERE n.homeListingId = :homeListingId " +
+           "AND n.night >= :from AND n.night < :to ORDER BY n.night ASC")
+    List<LocalDate> findBookedNights(@Param("homeListingId") UUID homeListingId,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
+
+    @Query("SELECT COUNT(n) > 0 FROM HomeListingNight n WHERE n.homeListingId = :homeListingId " +
+           "AND n.night >= :from AND n.night < :to")
+    boolean existsBookedNight(@Param("homeListingId") UUID homeListingId,
+                              @Param("from") LocalDate from,
+                              @Param("to") LocalDate to);
+
+    // Listings among the given ids that have at least one booked night in [from, to)
+    @Query("SELECT DISTINCT n.homeListingId FROM HomeListingNight n WHERE n.homeListingId IN :homeListingIds " +
+           "AND n.night >= :from AND n.night < :to")
+    List<UUID> findBookedListingIds(@Param("homeListingIds") Collection<UUID> homeListingIds,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
+
+    // ==================== Resync from bookings ====================
+
+    // Drops nights whose booking is gone, soft-deleted or cancelled
+    @Modifying
+    @Query(value = "DELETE FROM home_listing_night n WHERE NOT EXISTS (" +
+           "SELECT 1 FROM booking b WHERE b.id = n.booking_id AND b.deleted_at IS NULL AND b.status <> 'CANCELLED')",
+           nativeQuery = true)
+    int deleteOrphanedNights();
+
+    // Adds the nights of active bookings that have none yet (bookings written by seeders or before the calendar existed).
+    // Nights already held by an earlier booking stay with that booking.
+    @Modifying
+    @Query(value = "INSERT INTO home_listing_night (id, home_listing_id, night, booking_id) " +
+           "SELECT gen_random_uuid(), hb.home_listing_id, CAST(d AS date), hb.id " +
+           "FROM home_booking hb JOIN booking b ON b.id = hb.id " +
+           "CROSS JOIN LATERAL generate_series(CAST(hb.check_in_time AS date), " +
+           "CAST(hb.check_out_time AS date) - 1, interval '1 day') d " +
+           "WHERE b.deleted_at IS NULL AND b.status <> 'CANCELLED' " +
+           "AND NOT EXISTS (SELECT 1 FROM home_listing_night n WHERE n.booking_id = hb.id) " +
+           "ON CONFLICT (home_listing_id, night) DO NOTHING",
+           nativeQuery = true)
+    int insertMissingNights();
+}
@@ -1,18 +1,48 @@
 package octguy.livanabe.repository;
 
+import jakarta.persistence.QueryHint;
+import octguy.livanabe.dto.dto.PeriodBucketCountDto;
+import octguy.livanabe.dto.dto.ListingDistanceDto;
+import octguy.livanabe.dto.dto.ListingFacetCountDto;
+import octguy.livanabe.dto.dto.ListingFeatureDto;
+import octguy.livanabe.dto.dto.ListingMapCellDto;
+import octguy.livanabe.dto.dto.ListingMapPinDto;
+import octguy.livanabe.dto.dto.ListingRelevanceDto;
 import octguy.livanabe.entity.HomeListing;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface HomeListingRepository extends JpaRepository<HomeListing, UUID> {
     List<HomeListing> findByHostId(UUID hostId);
     
+    @Query("SELECT h FROM HomeListing h JOIN FETCH h.host JOIN FETCH h.propertyType WHERE h.host.id = :hostId")
+    List<HomeListing> findByHostIdWithHostAndPropertyType(@Param("hostId") UUID hostId);
+    
+    // Fetch host and property type with the listing so response building does not lazy load them per row
+    @Query("SELECT h FROM HomeListing h JOIN FETCH h.host JOIN FETCH h.propertyType")
+    List<HomeListing> findAllWithHostAndPropertyType();
+    
+    @Query(value = "SELECT h FROM HomeListing h JOIN FETCH h.host JOIN FETCH h.propertyType",
+           countQuery = "SELECT COUNT(h) FROM HomeListing h")
+    Page<HomeListing> findAllWithHostAndPropertyType(Pageable pageable);
+    
+    @Query("SELECT h FROM HomeListing h JOIN FETCH h.host JOIN FETCH h.propertyType WHERE h.id IN :ids")
+    List<HomeListing> findAllWithHostAndPropertyTypeByIdIn(@Param("ids") Collection<UUID> ids);
+    
     // Search by bounding box (for location-based search)
     @Query("SELECT h FROM HomeListing h WHERE h.deletedAt IS NULL " +
            "AND h.isAvailable = true " +
@@ -25,16 +55,43 @@ public interface HomeListingRepository extends JpaRepository<HomeListing, UUID>
             @Param("maxLon") Double maxLon
     );
     
-    // Search with filters
-    @Query("SELECT h FROM HomeListing h WHERE h.deletedAt IS NULL " +
-           "AND h.isAvailable = true " +
-           "AND h.latitude BETWEEN :minLat AND :maxLat " +
-           "AND h.longitude BETWEEN :minLon AND :maxLon " +
-           "AND (:minPrice IS NULL OR h.basePrice >= :minPrice) " +
-           "AND (:maxPrice IS NULL OR h.basePrice <= :maxPrice) " +
-           "AND (:minCapacity IS NULL OR h.capacity >= :minCapacity) " +
-           "AND (:propertyTypeId IS NULL OR h.propertyType.id = :propertyTypeId)")
-    List<HomeListing> findByLocationWithFilters(
+    // Nearest listings within a radius, sorted and paginated in the database.
+    // The bounding box is served by the (latitude, longitude) index, the Haversine distance is computed
+    // only for rows inside it, and ORDER BY ... LIMIT becomes a bounded top-N sort that returns ids only.
+    // The cursor is the (distance, id) of the last row of the previous page; a null limit returns every row
+    // after it.
+    // Optional stay dates drop listings with a booked night in [checkIn, checkOut), probed on the calendar's (listing, night) key.
+    // Optional listingIds restricts the search to the listings matched by the home feature index.
+    @Query(value = "SELECT d.id AS id, d.distance_km AS distanceKm FROM (" +
+           "SELECT b.id AS id, " +
+           "6371.0 * 2 * ASIN(LEAST(1.0, SQRT(" +
+           "POWER(SIN(RADIANS(b.latitude - :lat) / 2), 2) + " +
+           "COS(RADIANS(:lat)) * COS(RADIANS(b.latitude)) * POWER(SIN(RADIANS(b.longitude - :lon) / 2), 2)" +
+           "))) AS distance_km " +
+           "FROM base_listing b JOIN home_listing h ON h.id = b.id " +
+           "WHERE b.deleted_at IS NULL " +
+           "AND b.is_available = true " +
+           "AND b.latitude BETWEEN :minLat AND :maxLat " +
+           "AND b.longitude BETWEEN :minLon AND :maxLon " +
+           "AND (CAST(:minPrice AS numeric) IS NULL OR b.base_price >= CAST(:minPrice AS numeric)) " +
+           "AND (CAST(:maxPrice AS numeric) IS NULL OR b.base_price <= CAST(:maxPrice AS numeric)) " +
+           "AND (CAST(:minCapacity AS integer) IS NULL OR b.capacity >= CAST(:minCapacity AS integer)) " +
+           "AND (CAST(:propertyTypeId AS uuid) IS NULL OR h.property_type_id = CAST(:propertyTypeId AS uuid)) " +
+           "AND (CAST(:checkIn AS date) IS NULL OR NOT EXISTS (SELECT 1 FROM home_listing_night n " +
+           "WHERE n.home_listing_id = b.id AND n.night >= CAST(:checkIn AS date) AND n.night < CAST(:checkOut AS date))) " +
+           HomeFeatureQueries.IN_LISTING_IDS +
+           ") d " +
+           "WHERE d.distance_km <= :radiusKm " +
+           "AND (CAST(:cursorDistance AS double precision) IS NULL " +
+           "OR d.distance_km > CAST(:cursorDistance AS double precision) " +
+           "OR (d.distance_km = CAST(:cursorDistance AS double precision) AND d.id > CAST(:cursorId AS uuid))) " +
+           "ORDER BY d.distance_km ASC, d.id ASC " +
+           "LIMIT CAST(:limit AS integer)",
+           nativeQuery = true)
+    List<ListingDistanceDto> findNearestWithFilters(
+            @Param("lat") Double lat,
+            @Param("lon") Double lon,
+            @Param("radiusKm") Double radiusKm,
             @Param("minLat") Double minLat,
             @Param("maxLat") Double maxLat,
             @Param("minLon") Double minLon,
@@ -42,18 +99,210 @@ public interface HomeListingRepository extends JpaRepository<HomeListing, UUID>
             @Param("minPrice") BigDecimal minPrice,
             @Param("maxPrice") BigDecimal maxPrice,
             @Param("minCapacity") Integer minCapacity,
-            @Param("propertyTypeId") UUID propertyTypeId
+            @Param("propertyTypeId") UUID propertyTypeId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut,
+            @Param("listingIds") String listingIds,
+            @Param("cursorDistance") Double cursorDistance,
+            @Param("cursorId") UUID cursorId,
+            @Param("limit") Integer limit
     );
     
-    // Dashboard statistics queries
-    @Query("SELECT COUNT(h) FROM HomeListing h WHERE h.deletedAt IS NULL")
-    Long countAllActiveHomeListings();
+    // Keyword search ranked by relevance, paginated in the database.
+    // Every term must match as a prefix in the search_vector GIN index (title > address > description).
+    // The cursor is the (relevance, id) of the last row of the previous page.
+    @Query(value = "SELECT r.id AS id, r.relevance AS relevance FROM (" +
+           "SELECT b.id AS id, CAST(" +
+           "ts_rank_cd(b.search_vector, to_tsquery('simple', immutable_unaccent(:tsQuery)), 32) AS real) AS relevance " +
+           "FROM base_listing b JOIN home_listing h ON h.id = b.id " +
+           "WHERE b.deleted_at IS NULL " +
+           "AND b.is_available = true " +
+           "AND b.search_vector @@ to_tsquery('simple', immutable_unaccent(:tsQuery)) " +
+           "AND (CAST(:minPrice AS numeric) IS NULL OR b.base_price >= CAST(:minPrice AS numeric)) " +
+           "AND (CAST(:maxPrice AS numeric) IS NULL OR b.base_price <= CAST(:maxPrice AS numeric)) " +
+           "AND (CAST(:minCapacity AS integer) IS NULL OR b.capacity >= CAST(:minCapacity AS integer)) " +
+           "AND (CAST(:propertyTypeId AS uuid) IS NULL OR h.property_type_id = CAST(:propertyTypeId AS uuid)) " +
+           "AND (CAST(:checkIn AS date) IS NULL OR NOT EXISTS (SELECT 1 FROM home_listing_night n " +
+           "WHERE n.home_listing_id = b.id AND n.night >= CAST(:checkIn AS date) AND n.night < CAST(:checkOut AS date)))" +
+           ") r " +
+           "WHERE CAST(:cursorRelevance AS real) IS NULL " +
+           "OR r.relevance < CAST(:cursorRelevance AS real) " +
+           "OR (r.relevance = CAST(:cursorRelevance AS real) AND r.id > CAST(:cursorId AS uuid)) " +
+           "ORDER BY r.relevance DESC, r.id ASC " +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<ListingRelevanceDto> searchByText(
+            @Param("tsQuery") String tsQuery,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minCapacity") Integer minCapacity,
+            @Param("propertyTypeId") UUID propertyTypeId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut,
+            @Param("cursorRelevance") Float cursorRelevance,
+            @Param("cursorId") UUID cursorId,
+            @Param("limit") int limit
+    );
     
+    // Typo-tolerant fallback for keyword search: titles similar to the folded text, using the trigram index.
+    // Same filters and cursor as searchByText, ranked by word similarity.
+    @Query(value = "SELECT r.id AS id, r.relevance AS relevance FROM (" +
+           "SELECT b.id AS id, CAST(" +
+           "word_similarity(immutable_unaccent(:text), immutable_unaccent(lower(b.title))) AS real) AS relevance " +
+           "FROM base_listing b JOIN home_listing h ON h.id = b.id " +
+           "WHERE b.deleted_at IS NULL " +
+           "AND b.is_available = true " +
+           "AND immutable_unaccent(:text) <% immutable_unaccent(lower(b.title)) " +
+           "AND (CAST(:minPrice AS numeric) IS NULL OR b.base_price >= CAST(:minPrice AS numeric)) " +
+           "AND (CAST(:maxPrice AS numeric) IS NULL OR b.base_price <= CAST(:maxPrice AS numeric)) " +
+           "AND (CAST(:minCapacity AS integer) IS NULL OR b.capacity >= CAST(:minCapacity AS integer)) " +
+           "AND (CAST(:propertyTypeId AS uuid) IS NULL OR h.property_type_id = CAST(:propertyTypeId AS uuid)) " +
+           "AND (CAST(:checkIn AS date) IS NULL OR NOT EXISTS (SELECT 1 FROM home_listing_night n " +
+           "WHERE n.home_listing_id = b.id AND n.night >= CAST(:checkIn AS date) AND n.night < CAST(:checkOut AS date)))" +
+           ") r " +
+           "WHERE CAST(:cursorRelevance AS real) IS NULL " +
+           "OR r.relevance < CAST(:cursorRelevance AS real) " +
+           "OR (r.relevance = CAST(:cursorRelevance AS real) AND r.id > CAST(:cursorId AS uuid)) " +
+           "ORDER BY r.relevance DESC, r.id ASC " +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<ListingRelevanceDto> searchByTitleSimilarity(
+            @Param("text") String text,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minCapacity") Integer minCapacity,
+            @Param("propertyTypeId") UUID propertyTypeId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut,
+            @Param("cursorRelevance") Float cursorRelevance,
+            @Param("cursorId") UUID cursorId,
+            @Param("limit") int limit
+    );
+    
+    // Search facets over the same candidates as findNearestWithFilters, searchByText and searchByTitleSimilarity,
+    // aggregated in one statement (see ListingFacetQueries)
+    @Query(value = "WITH candidates AS MATERIALIZED (" + ListingFacetQueries.HOME_CANDIDATES +
+           ListingFacetQueries.WITHIN_RADIUS + ListingFacetQueries.HOME_FILTERS + HomeFeatureQueries.HOME_FEATURES +
+           ListingFacetQueries.HOME_FACETS,
+           nativeQuery = true)
+    List<ListingFacetCountDto> countFacetsNearby(
+            @Param("lat") Double lat,
+            @Param("lon") Double lon,
+            @Param("radiusKm") Double radiusKm,
+            @Param("minLat") Double minLat,
+            @Param("maxLat") Double maxLat,
+            @Param("minLon") Double minLon,
+            @Param("maxLon") Double maxLon,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minCapacity") Integer minCapacity,
+            @Param("propertyTypeId") UUID propertyTypeId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut,
+            @Param("listingIds") String listingIds,
+            @Param("amenityIds") String amenityIds,
+            @Param("facilityIds") String facilityIds
+    );
+    
+    @Query(value = "WITH candidates AS MATERIALIZED (" + ListingFacetQueries.HOME_CANDIDATES +
+           ListingFacetQueries.TEXT_MATCH + ListingFacetQueries.HOME_FILTERS + ListingFacetQueries.HOME_FACETS,
+           nativeQuery = true)
+    List<ListingFacetCountDto> countFacetsByText(
+            @Param("tsQuery") String tsQuery,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minCapacity") Integer minCapacity,
+            @Param("propertyTypeId") UUID propertyTypeId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut
+    );
+    
+    @Query(value = "WITH candidates AS MATERIALIZED (" + ListingFacetQueries.HOME_CANDIDATES +
+           ListingFacetQueries.TITLE_SIMILAR + ListingFacetQueries.HOME_FILTERS + ListingFacetQueries.HOME_FACETS,
+           nativeQuery = true)
+    List<ListingFacetCountDto> countFacetsByTitleSimilarity(
+            @Param("text") String text,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minCapacity") Integer minCapacity,
+            @Param("propertyTypeId") UUID propertyTypeId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut
+    );
+    
+    // Map viewport search over the (latitude, longitude) index with the filters of findNearestWithFilters and
+    // countFacetsNearby: at most :limit pins, so a dense viewport stops early, or one aggregate row per grid cell
+    @Query(value = ListingMapQueries.MAP_PINS +
+           "FROM base_listing b JOIN home_listing h ON h.id = b.id " +
+           "WHERE b.deleted_at IS NULL AND b.is_available = true " +
+           ListingFacetQueries.IN_BOX + ListingFacetQueries.HOME_FILTERS + HomeFeatureQueries.HOME_FEATURES +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<ListingMapPinDto> findMapPins(
+            @Param("minLat") Double minLat,
+            @Param("maxLat") Double maxLat,
+            @Param("minLon") Double minLon,
+            @Param("maxLon") Double maxLon,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minCapacity") Integer minCapacity,
+            @Param("propertyTypeId") UUID propertyTypeId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut,
+            @Param("listingIds") String listingIds,
+            @Param("amenityIds") String amenityIds,
+            @Param("facilityIds") String facilityIds,
+            @Param("limit") int limit
+    );
+    
+    @Query(value = ListingMapQueries.MAP_CELLS +
+           "FROM base_listing b JOIN home_listing h ON h.id = b.id " +
+           "WHERE b.deleted_at IS NULL AND b.is_available = true " +
+           ListingFacetQueries.IN_BOX + ListingFacetQueries.HOME_FILTERS + HomeFeatureQueries.HOME_FEATURES +
+           "GROUP BY 1, 2",
+           nativeQuery = true)
+    List<ListingMapCellDto> countMapCells(
+            @Param("cellSize") Double cellSize,
+            @Param("minLat") Double minLat,
+            @Param("maxLat") Double maxLat,
+            @Param("minLon") Double minLon,
+            @Param("maxLon") Double maxLon,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minCapacity") Integer minCapacity,
+            @Param("propertyTypeId") UUID propertyTypeId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut,
+            @Param("listingIds") String listingIds,
+            @Param("amenityIds") String amenityIds,
+            @Param("facilityIds") String facilityIds
+    );
+    
+    // Amenity and facility ids of every live home listing, streamed to build the in-memory feature index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query(value = "SELECT b.id AS listingId, " + HomeFeatureQueries.HOME_FEATURE_IDS +
+           "FROM base_listing b JOIN home_listing h ON h.id = b.id " +
+           "WHERE b.deleted_at IS NULL",
+           nativeQuery = true)
+    Stream<ListingFeatureDto> streamAllFeatures();
+    
+    // Same for one listing, empty once it is deleted
+    @Query(value = "SELECT b.id AS listingId, " + HomeFeatureQueries.HOME_FEATURE_IDS +
+           "FROM base_listing b JOIN home_listing h ON h.id = b.id " +
+           "WHERE b.id = :listingId AND b.deleted_at IS NULL",
+           nativeQuery = true)
+    Optional<ListingFeatureDto> findFeaturesById(@Param("listingId") UUID listingId);
+    
+    // Dashboard statistics queries
     @Query("SELECT COUNT(h) FROM HomeListing h WHERE h.createdAt >= :startDate AND h.deletedAt IS NULL")
     Long countHomeListingsCreatedAfter(@Param("startDate") LocalDateTime startDate);
     
-    @Query("SELECT COUNT(h) FROM HomeListing h WHERE h.createdAt >= :startDate AND h.createdAt < :endDate AND h.deletedAt IS NULL")
-    Long countHomeListingsCreatedBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query(value = "SELECT " + PeriodBucketQueries.BUCKET + " AS bucket, COUNT(*) AS value " +
+           "FROM base_listing b JOIN home_listing h ON h.id = b.id " +
+           "WHERE " + PeriodBucketQueries.IN_RANGE + " " +
+           "GROUP BY 1",
+           nativeQuery = true)
+    List<PeriodBucketCountDto> countHomeListingsCreatedPerBucket(@Param("unit") String unit, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
     // Host-specific queries
     @Query("SELECT COUNT(h) FROM HomeListing h WHERE h.host.id = :hostId AND h.deletedAt IS NULL")
@@ -0,0 +1,77 @@
+package octguy.livanabe.repository;
+
+/**
+ * Shared SQL fragments for the search facets.
+ * <p>
+ * A facet query first collects the filtered candidate set ({@code id, price, group_id}) in a materialized CTE,
+ * exactly as the matching search would before sorting and paging, then aggregates every facet over it in a
+ * single statement. Each result row is one facet value: {@code facet, valueKey, valueCount} and, for price
+ * buckets, the {@code lowerBound} / {@code upperBound} of the candidate prices. Home facets add a LISTINGS row
+ * with the candidate ids for the amenity and facility counts.
+ */
+final class ListingFacetQueries {
+
+    static final int PRICE_BUCKETS = 10;
+
+    static final String HOME_CANDIDATES = "SELECT b.id AS id, b.base_price AS price, h.property_type_id AS group_id " +
+            "FROM base_listing b JOIN home_listing h ON h.id = b.id " +
+            "WHERE b.deleted_at IS NULL AND b.is_available = true ";
+
+    static final String EXPERIENCE_CANDIDATES = "SELECT b.id AS id, b.base_price AS price, e.experience_category_id AS group_id " +
+            "FROM base_listing b JOIN experience_listing e ON e.id = b.id " +
+            "WHERE b.deleted_at IS NULL AND b.is_available = true ";
+
+    static final String IN_BOX = "AND b.latitude BETWEEN :minLat AND :maxLat " +
+            "AND b.longitude BETWEEN :minLon AND :maxLon ";
+
+    static final String WITHIN_RADIUS = IN_BOX +
+            "AND 6371.0 * 2 * ASIN(LEAST(1.0, SQRT(" +
+            "POWER(SIN(RADIANS(b.latitude - :lat) / 2), 2) + " +
+            "COS(RADIANS(:lat)) * COS(RADIANS(b.latitude)) * POWER(SIN(RADIANS(b.longitude - :lon) / 2), 2)" +
+            "))) <= :radiusKm ";
+
+    static final String TEXT_MATCH = "AND b.search_vector @@ to_tsquery('simple', immutable_unaccent(:tsQuery)) ";
+
+    static final String TITLE_SIMILAR = "AND immutable_unaccent(:text) <% immutable_unaccent(lower(b.title)) ";
+
+    static final String PRICE_AND_CAPACITY = "AND (CAST(:minPrice AS numeric) IS NULL OR b.base_price >= CAST(:minPrice AS numeric)) " +
+            "AND (CAST(:maxPrice AS numeric) IS NULL OR b.base_price <= CAST(:maxPrice AS numeric)) " +
+            "AND (CAST(:minCapacity AS integer) IS NULL OR b.capacity >= CAST(:minCapacity AS integer)) ";
+
+    static final String HOME_FILTERS = PRICE_AND_CAPACITY +
+            "AND (CAST(:propertyTypeId AS uuid) IS NULL OR h.property_type_id = CAST(:propertyTypeId AS uuid)) " +
+            "AND (CAST(:checkIn AS date) IS NULL OR NOT EXISTS (SELECT 1 FROM home_listing_night n " +
+            "WHERE n.home_listing_id = b.id AND n.night >= CAST(:checkIn AS date) AND n.night < CAST(:checkOut AS date))) ";
+
+    static final String EXPERIENCE_FILTERS = PRICE_AND_CAPACITY +
+            "AND (CAST(:categoryId AS uuid) IS NULL OR e.experience_category_id = CAST(:categoryId AS uuid)) ";
+
+    // Equal-width buckets between the lowest and highest candidate price; a single price gives one bucket.
+    // bounds is materialized so the planner cannot re-aggregate it for every candidate row.
+    private static final String PRICE_FACET = ", bounds AS MATERIALIZED (SELECT MIN(price) AS lo, MAX(price) AS hi FROM candidates) " +
+            "SELECT 'PRICE' AS facet, " +
+            "CAST(CASE WHEN bo.hi = bo.lo THEN 1 ELSE LEAST(width_bucket(c.price, bo.lo, bo.hi, " + PRICE_BUCKETS + "), " +
+            PRICE_BUCKETS + ") END AS text) AS valueKey, " +
+            "COUNT(*) AS valueCount, MIN(bo.lo) AS lowerBound, MIN(bo.hi) AS upperBound";
+
+    private static final String PRICE_FACET_FROM = " FROM candidates c CROSS JOIN bounds bo GROUP BY 2 ";
+
+    private static final String GROUP_FACET = "SELECT 'GROUP', CAST(c.group_id AS text), COUNT(*), NULL, NULL";
+
+    private static final String GROUP_FACET_FROM = " FROM candidates c GROUP BY c.group_id ";
+
+    // Amenity and facility counts come from the in-memory feature index, so the candidate ids are returned in
+    // one LISTINGS row instead of joining every candidate to its amenities and facilities
+    static final String HOME_FACETS = ") " + PRICE_FACET + ", CAST(NULL AS uuid[]) AS listingIds" + PRICE_FACET_FROM +
+            "UNION ALL " +
+            GROUP_FACET + ", NULL" + GROUP_FACET_FROM +
+            "UNION ALL " +
+            "SELECT 'LISTINGS', NULL, COUNT(*), NULL, NULL, array_agg(c.id) FROM candidates c";
+
+    static final String EXPERIENCE_FACETS = ") " + PRICE_FACET + PRICE_FACET_FROM +
+            "UNION ALL " +
+            GROUP_FACET + GROUP_FACET_FROM;
+
+    private ListingFacetQueries() {
+    }
+}
@@ -0,0 +1,19 @@
+package octguy.livanabe.repository;
+
+/**
+ * Shared SQL fragments for the map viewport search. The select lists are followed by the listing's FROM clause
+ * and the same filters as the matching facet query.
+ */
+final class ListingMapQueries {
+
+    // Map viewport rows: a pin per listing, or one row per grid cell of side :cellSize aligned on multiples of it
+    static final String MAP_PINS = "SELECT b.id AS id, b.latitude AS latitude, b.longitude AS longitude, " +
+            "b.base_price AS price ";
+
+    static final String MAP_CELLS = "SELECT CAST(FLOOR(b.latitude / :cellSize) AS bigint) AS latCell, " +
+            "CAST(FLOOR(b.longitude / :cellSize) AS bigint) AS lonCell, COUNT(*) AS listingCount, " +
+            "AVG(b.latitude) AS latitude, AVG(b.longitude) AS longitude, MIN(b.base_price) AS minPrice ";
+
+    private ListingMapQueries() {
+    }
+}
@@ -0,0 +1,45 @@
+package octguy.livanabe.repository;
+
+/**
+ * Shared SQL fragments for the review aggregates stored on {@code base_listing}.
+ * <p>
+ * {@code rating_count} and {@code rating_sum} give the average, {@code rating_count_1} to {@code rating_count_5}
+ * the star histogram. Both the drift check and the recount read the same per-listing totals of live reviews.
+ */
+final class ListingRatingQueries {
+
+    // Aggregate columns of listing b, in the order of the totals below
+    static final String STORED = "(b.rating_count, b.rating_sum, b.rating_count_1, b.rating_count_2, " +
+            "b.rating_count_3, b.rating_count_4, b.rating_count_5)";
+
+    // Per-listing totals of live reviews, zero for a listing without any; joined to listing l
+    static final String TOTALS = "SELECT l.id AS listing_id, COUNT(r.id) AS total_count, " +
+            "COALESCE(SUM(r.rating), 0) AS total_sum, " +
+            "COUNT(*) FILTER (WHERE r.rating = 1) AS count_1, " +
+            "COUNT(*) FILTER (WHERE r.rating = 2) AS count_2, " +
+            "COUNT(*) FILTER (WHERE r.rating = 3) AS count_3, " +
+            "COUNT(*) FILTER (WHERE r.rating = 4) AS count_4, " +
+            "COUNT(*) FILTER (WHERE r.rating = 5) AS count_5 " +
+            "FROM base_listing l LEFT JOIN review r ON r.listing_id = l.id AND r.deleted_at IS NULL ";
+
+    static final String TOTALS_COLUMNS = "(t.total_count, t.total_sum, t.count_1, t.count_2, t.count_3, t.count_4, t.count_5)";
+
+    // Adds rating :added and takes away rating :removed, either of them null
+    static final String CHANGE = "rating_count = rating_count " +
+            "+ CASE WHEN CAST(:added AS integer) IS NULL THEN 0 ELSE 1 END " +
+            "- CASE WHEN CAST(:removed AS integer) IS NULL THEN 0 ELSE 1 END, " +
+            "rating_sum = rating_sum + COALESCE(CAST(:added AS integer), 0) - COALESCE(CAST(:removed AS integer), 0), " +
+            "rating_count_1 = rating_count_1 + CASE WHEN CAST(:added AS integer) = 1 THEN 1 ELSE 0 END " +
+            "- CASE WHEN CAST(:removed AS integer) = 1 THEN 1 ELSE 0 END, " +
+            "rating_count_2 = rating_count_2 + CASE WHEN CAST(:added AS integer) = 2 THEN 1 ELSE 0 END " +
+            "- CASE WHEN CAST(:removed AS integer) = 2 THEN 1 ELSE 0 END, " +
+            "rating_count_3 = rating_count_3 + CASE WHEN CAST(:added AS integer) = 3 THEN 1 ELSE 0 END " +
+            "- CASE WHEN CAST(:removed AS integer) = 3 THEN 1 ELSE 0 END, " +
+            "rating_count_4 = rating_count_4 + CASE WHEN CAST(:added AS integer) = 4 THEN 1 ELSE 0 END " +
+            "- CASE WHEN CAST(:removed AS integer) = 4 THEN 1 ELSE 0 END, " +
+            "rating_count_5 = rating_count_5 + CASE WHEN CAST(:added AS integer) = 5 THEN 1 ELSE 0 END " +
+            "- CASE WHEN CAST(:removed AS integer) = 5 THEN 1 ELSE 0 END ";
+
+    private ListingRatingQueries() {
+    }
+}
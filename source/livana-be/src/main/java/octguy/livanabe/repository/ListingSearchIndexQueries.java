@@ -0,0 +1,19 @@
+package octguy.livanabe.repository;
+
+/**
+ * Shared SQL fragments for the in-memory listing search index, which is loaded in full at startup and then
+ * refreshed one listing at a time.
+ */
+final class ListingSearchIndexQueries {
+
+    // Search attributes of listing b, homes and experiences alike; prices in minor units
+    static final String SEARCH_ROWS = "SELECT b.id AS id, h.id IS NOT NULL AS home, b.latitude AS latitude, " +
+            "b.longitude AS longitude, CAST(ROUND(b.base_price * 100) AS bigint) AS priceMinor, b.capacity AS capacity, " +
+            "COALESCE(h.property_type_id, e.experience_category_id) AS groupId " +
+            "FROM base_listing b " +
+            "LEFT JOIN home_listing h ON h.id = b.id " +
+            "LEFT JOIN experience_listing e ON e.id = b.id ";
+
+    private ListingSearchIndexQueries() {
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,10 +17,33 @@ import java.util.UUID;
 public interface MessageRepository extends JpaRepository<Message, UUID> {
 
     /**
-     * Find all messages in a conversation, ordered by creation time (with sender eagerly fetched)
+     * Find the newest messages in a conversation, newest first (with sender eagerly fetched)
      */
-    @Query("SELECT m FROM Message m LEFT JOIN FETCH m.sender LEFT JOIN FETCH m.conversation WHERE m.conversation.id = :conversationId ORDER BY m.createdAt ASC")
-    List<Message> findByConversationIdOrderByCreatedAtAsc(@Param("conversationId") UUID conversationId);
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.conversation.id = :conversationId " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findLatestByConversationId(@Param("conversationId") UUID conversationId, Pageable pageable);
+
+    /**
+     * Find messages older than a (createdAt, id) cursor, newest first (with sender eagerly fetched)
+     */
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.conversation.id = :conversationId " +
+           "AND (m.createdAt < :cursorAt OR (m.createdAt = :cursorAt AND m.id < :cursorId)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findBeforeCursor(@Param("conversationId") UUID conversationId,
+                                   @Param("cursorAt") LocalDateTime cursorAt,
+                                   @Param("cursorId") UUID cursorId,
+                                   Pageable pageable);
+
+    /**
+     * Find messages newer than a (createdAt, id) cursor, oldest first (with sender eagerly fetched)
+     */
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.conversation.id = :conversationId " +
+           "AND (m.createdAt > :cursorAt OR (m.createdAt = :cursorAt AND m.id > :cursorId)) " +
+           "ORDER BY m.createdAt ASC, m.id ASC")
+    List<Message> findAfterCursor(@Param("conversationId") UUID conversationId,
+                                  @Param("cursorAt") LocalDateTime cursorAt,
+                                  @Param("cursorId") UUID cursorId,
+                                  Pageable pageable);
 
     /**
      * Find messages in a conversation with pagination (with sender eagerly fetched)
@@ -0,0 +1,29 @@
+package octguy.livanabe.repository;
+
+import octguy.livanabe.entity.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, UUID> {
+
+    /**
+     * Lock the oldest notifications that are due. Rows locked by another relay instance are skipped.
+     */
+    @Query(value = "SELECT * FROM notification_outbox WHERE next_attempt_at <= :now " +
+           "ORDER BY next_attempt_at LIMIT :batchSize FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<NotificationOutbox> lockDueBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox o WHERE o.id IN :ids")
+    void deleteByIdIn(@Param("ids") Collection<UUID> ids);
+}
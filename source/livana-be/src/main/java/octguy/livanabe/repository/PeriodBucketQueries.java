@@ -0,0 +1,35 @@
+package octguy.livanabe.repository;
+
+/**
+ * Shared SQL fragments for the dashboard period statistics.
+ * <p>
+ * A bucket is the zero-based index of the DAY, MONTH or YEAR period (anchored at {@code :startDate})
+ * that a row's {@code created_at} falls into, so a whole range is aggregated with a single GROUP BY.
+ * Bucket i covers [startDate + i units, startDate + (i + 1) units), the rule of PeriodBucketUtils: interval
+ * addition clamps to the end of a shorter month like LocalDate.plusMonths, so both sides agree for start days
+ * after the 28th.
+ */
+final class PeriodBucketQueries {
+
+    private static final String START = "CAST(:startDate AS timestamp)";
+
+    // Calendar months and years between the start and the row, one too many when the row lies before the start
+    // day within its month (or year)
+    private static final String MONTHS = "CAST((EXTRACT(YEAR FROM created_at) - EXTRACT(YEAR FROM " + START + ")) * 12 + " +
+            "EXTRACT(MONTH FROM created_at) - EXTRACT(MONTH FROM " + START + ") AS integer)";
+
+    private static final String YEARS = "CAST(EXTRACT(YEAR FROM created_at) - EXTRACT(YEAR FROM " + START + ") AS integer)";
+
+    static final String BUCKET = "CAST(CASE " +
+            "WHEN :unit = 'MONTH' THEN " + MONTHS + " - " +
+            "CASE WHEN " + START + " + make_interval(months => " + MONTHS + ") > created_at THEN 1 ELSE 0 END " +
+            "WHEN :unit = 'YEAR' THEN " + YEARS + " - " +
+            "CASE WHEN " + START + " + make_interval(years => " + YEARS + ") > created_at THEN 1 ELSE 0 END " +
+            "ELSE CAST(created_at AS date) - CAST(:startDate AS date) " +
+            "END AS integer)";
+
+    static final String IN_RANGE = "created_at >= :startDate AND created_at < :endDate AND deleted_at IS NULL";
+
+    private PeriodBucketQueries() {
+    }
+}
@@ -0,0 +1,36 @@
+package octguy.livanabe.repository;
+
+/**
+ * Shared SQL fragments for the recommendation and ranking snapshots.
+ * <p>
+ * An engagement is one signal of a user for a listing: a booking that was not cancelled counts 3, a review its
+ * rating minus 3, so poor reviews count against the listing. Every signal weighs half as much each
+ * {@code :halfLifeDays} days after it was written.
+ */
+final class RecommendationQueries {
+
+    // Columns user_id, listing_id, signal, at; the signal in double precision, numeric POWER is far slower per row
+    static final String SIGNALS = "SELECT bk.host_id AS user_id, hb.home_listing_id AS listing_id, " +
+            "CAST(3 AS double precision) AS signal, bk.created_at AS at " +
+            "FROM booking bk JOIN home_booking hb ON hb.id = bk.id " +
+            "WHERE bk.deleted_at IS NULL AND bk.status <> 'CANCELLED' " +
+            "UNION ALL " +
+            "SELECT bk.host_id, s.experience_listing_id, 3, bk.created_at " +
+            "FROM booking bk JOIN experience_booking eb ON eb.id = bk.id " +
+            "JOIN experience_session s ON s.id = eb.session_id " +
+            "WHERE bk.deleted_at IS NULL AND bk.status <> 'CANCELLED' " +
+            "UNION ALL " +
+            "SELECT r.reviewer_id, r.listing_id, r.rating - 3, r.created_at " +
+            "FROM review r WHERE r.deleted_at IS NULL ";
+
+    // Days since signal g was written, divided by the half-life the caller appends
+    static final String AGE_IN_HALF_LIVES = "CAST(EXTRACT(EPOCH FROM (now() - g.at)) AS double precision) / 86400 / ";
+
+    // Columns user_id, listing_id, weight
+    static final String ENGAGEMENTS = "SELECT g.user_id, g.listing_id, " +
+            "g.signal * POWER(CAST(0.5 AS double precision), " + AGE_IN_HALF_LIVES +
+            "CAST(:halfLifeDays AS double precision)) AS weight " +
+            "FROM (" + SIGNALS + ") g ";
+
+    static final String LIVE_LISTING = "b.deleted_at IS NULL AND b.is_available = true ";
+}
@@ -1,34 +1,62 @@
 package octguy.livanabe.repository;
 
+import jakarta.persistence.LockModeType;
 import octguy.livanabe.entity.Review;
 import octguy.livanabe.enums.ReviewType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, UUID> {
+
+    // Keyset bound kept free of OR, so it stays an index condition under a generic plan
+    String KEYSET_AFTER = "COALESCE(CAST(:cursorCreatedAt AS timestamp), 'infinity'), " +
+            "COALESCE(CAST(:cursorId AS uuid), 'ffffffff-ffff-ffff-ffff-ffffffffffff')";
+    
+    // Row lock held until commit, so two writes of one review adjust the listing aggregates one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Review r WHERE r.id = :id")
+    Optional<Review> findByIdForUpdate(@Param("id") UUID id);
     
     List<Review> findByListingIdOrderByCreatedAtDesc(UUID listingId);
     
+    // Keyset page of the reviews of a listing, newest first, resuming after (cursorCreatedAt, cursorId);
+    // without a cursor the bounds lie past every review
+    @Query(value = "SELECT r.* FROM review r WHERE r.listing_id = :listingId AND r.deleted_at IS NULL " +
+           "AND (r.created_at, r.id) < (" + KEYSET_AFTER + ") " +
+           "ORDER BY r.created_at DESC, r.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Review> findNewestPage(@Param("listingId") UUID listingId,
+                                @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                @Param("cursorId") UUID cursorId,
+                                @Param("limit") int limit);
+
+    // Same, restricted to one star rating
+    @Query(value = "SELECT r.* FROM review r WHERE r.listing_id = :listingId AND r.deleted_at IS NULL " +
+           "AND r.rating = :rating AND (r.created_at, r.id) < (" + KEYSET_AFTER + ") " +
+           "ORDER BY r.created_at DESC, r.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Review> findNewestPageWithRating(@Param("listingId") UUID listingId,
+                                          @Param("rating") int rating,
+                                          @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                          @Param("cursorId") UUID cursorId,
+                                          @Param("limit") int limit);
+    
     List<Review> findByReviewerIdOrderByCreatedAtDesc(UUID reviewerId);
     
     Optional<Review> findByListingIdAndReviewerId(UUID listingId, UUID reviewerId);
     
     boolean existsByListingIdAndReviewerId(UUID listingId, UUID reviewerId);
     
-    @Query("SELECT AVG(r.rating) FROM Review r WHERE r.listing.id = :listingId")
-    Double getAverageRatingByListingId(@Param("listingId") UUID listingId);
-    
-    @Query("SELECT COUNT(r) FROM Review r WHERE r.listing.id = :listingId")
-    Long countByListingId(@Param("listingId") UUID listingId);
-    
     List<Review> findByListingIdAndReviewTypeOrderByCreatedAtDesc(UUID listingId, ReviewType reviewType);
     
     @Modifying
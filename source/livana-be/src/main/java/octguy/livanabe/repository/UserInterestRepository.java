@@ -1,10 +1,41 @@
 package octguy.livanabe.repository;
 
+import octguy.livanabe.dto.dto.InterestCandidateRowDto;
 import octguy.livanabe.entity.UserInterest;
 import octguy.livanabe.entity.composite_key.UserInterestId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.UUID;
+
 @Repository
 public interface UserInterestRepository extends JpaRepository<UserInterest, UserInterestId> {
+
+    @Query(value = "SELECT interest_id FROM user_interest WHERE user_id = :userId", nativeQuery = true)
+    List<UUID> findInterestIdsByUserId(@Param("userId") UUID userId);
+
+    // Per interest, the live homes and the live experiences most engaged with by users holding it, up to :perType
+    // each. The score divides by the root of the listing's overall engagement, so a listing popular with
+    // everyone does not top every interest; the constant keeps a single engagement from scoring high.
+    @Query(value = "WITH e AS MATERIALIZED (" + RecommendationQueries.ENGAGEMENTS + "), " +
+           "p AS (SELECT listing_id, SUM(weight) AS weight FROM e GROUP BY listing_id) " +
+           "SELECT t.interest_id AS interestId, t.listing_id AS listingId, t.score AS score FROM (" +
+           "SELECT ui.interest_id, e.listing_id, SUM(e.weight) / SQRT(GREATEST(p.weight, 0) + 10) AS score, " +
+           "ROW_NUMBER() OVER (PARTITION BY ui.interest_id, h.id IS NULL " +
+           "ORDER BY SUM(e.weight) / SQRT(GREATEST(p.weight, 0) + 10) DESC, e.listing_id) AS rank " +
+           "FROM user_interest ui " +
+           "JOIN e ON e.user_id = ui.user_id " +
+           "JOIN p ON p.listing_id = e.listing_id " +
+           "JOIN base_listing b ON b.id = e.listing_id " +
+           "LEFT JOIN home_listing h ON h.id = b.id " +
+           "WHERE " + RecommendationQueries.LIVE_LISTING +
+           "GROUP BY ui.interest_id, e.listing_id, h.id, p.weight " +
+           "HAVING SUM(e.weight) > 0) t " +
+           "WHERE t.rank <= :perType",
+           nativeQuery = true)
+    List<InterestCandidateRowDto> findInterestCandidates(@Param("halfLifeDays") double halfLifeDays,
+                                                         @Param("perType") int perType);
 }
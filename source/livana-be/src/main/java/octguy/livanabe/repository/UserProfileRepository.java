@@ -7,12 +7,15 @@ import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserProfileRepository extends JpaRepository<UserProfile, UUID> {
 
     Optional<UserProfile> findByUserId(UUID userId);
     
-    List<UserProfile> findByUserIdIn(java.util.Set<UUID> userIds);
+    // Fetches the users along, one query for the whole set
+    @Query("SELECT p FROM UserProfile p JOIN FETCH p.user u WHERE u.id IN :userIds")
+    List<UserProfile> findByUserIdIn(@Param("userIds") java.util.Set<UUID> userIds);
 
     @Query(value = "select * from user_profile", nativeQuery = true)
     List<UserProfile> findAll();
@@ -1,5 +1,6 @@
 package octguy.livanabe.repository;
 
+import octguy.livanabe.dto.dto.PeriodBucketCountDto;
 import octguy.livanabe.entity.User;
 import octguy.livanabe.enums.UserStatus;
 import org.springframework.data.domain.Page;
@@ -33,6 +34,15 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     """)
     Optional<User> findByUsernameWithRolesAndInterests(@Param("username") String username);
 
+    // Roles only, for building the authenticated principal
+    @Query("""
+        select distinct u from User u
+        left join fetch u.roleUsers ru
+        left join fetch ru.role
+        where u.username = :username
+    """)
+    Optional<User> findByUsernameWithRoles(@Param("username") String username);
+
     Boolean existsByEmail(String email);
 
     Boolean existsByUsername(String username);
@@ -41,14 +51,12 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     List<User> findPendingUserExceedOneDay();
     
     // Dashboard statistics queries
-    @Query("SELECT COUNT(u) FROM User u WHERE u.deletedAt IS NULL")
-    Long countAllActiveUsers();
-    
-    @Query("SELECT COUNT(u) FROM User u WHERE u.createdAt >= :startDate AND u.deletedAt IS NULL")
-    Long countUsersCreatedAfter(@Param("startDate") LocalDateTime startDate);
-    
-    @Query("SELECT COUNT(u) FROM User u WHERE u.createdAt >= :startDate AND u.createdAt < :endDate AND u.deletedAt IS NULL")
-    Long countUsersCreatedBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query(value = "SELECT " + PeriodBucketQueries.BUCKET + " AS bucket, COUNT(*) AS value " +
+           "FROM \"user\" " +
+           "WHERE " + PeriodBucketQueries.IN_RANGE + " " +
+           "GROUP BY 1",
+           nativeQuery = true)
+    List<PeriodBucketCountDto> countUsersCreatedPerBucket(@Param("unit") String unit, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
     // Admin user management queries
     @Query("""
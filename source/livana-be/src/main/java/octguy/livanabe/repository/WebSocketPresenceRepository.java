@@ -0,0 +1,48 @@
+package octguy.livanabe.repository;
+
+import octguy.livanabe.entity.WebSocketPresence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WebSocketPresenceRepository extends JpaRepository<WebSocketPresence, UUID> {
+
+    @Modifying
+    @Query(value = "INSERT INTO websocket_presence (id, user_id, node_id, session_id, refreshed_at) " +
+           "VALUES (gen_random_uuid(), :userId, :nodeId, :sessionId, :refreshedAt) " +
+           "ON CONFLICT (session_id, user_id) DO NOTHING",
+           nativeQuery = true)
+    void register(@Param("userId") UUID userId,
+                  @Param("nodeId") String nodeId,
+                  @Param("sessionId") String sessionId,
+                  @Param("refreshedAt") LocalDateTime refreshedAt);
+
+    @Modifying
+    @Query("DELETE FROM WebSocketPresence p WHERE p.sessionId = :sessionId")
+    void deleteBySessionId(@Param("sessionId") String sessionId);
+
+    @Modifying
+    @Query("DELETE FROM WebSocketPresence p WHERE p.nodeId = :nodeId")
+    void deleteByNodeId(@Param("nodeId") String nodeId);
+
+    /**
+     * Nodes currently holding at least one session of the user
+     */
+    @Query("SELECT DISTINCT p.nodeId FROM WebSocketPresence p WHERE p.userId = :userId AND p.refreshedAt >= :since")
+    List<String> findNodeIdsByUserId(@Param("userId") UUID userId, @Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("UPDATE WebSocketPresence p SET p.refreshedAt = :refreshedAt WHERE p.nodeId = :nodeId")
+    void refreshNode(@Param("nodeId") String nodeId, @Param("refreshedAt") LocalDateTime refreshedAt);
+
+    @Modifying
+    @Query("DELETE FROM WebSocketPresence p WHERE p.refreshedAt < :before")
+    int deleteStale(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,421 @@
+package octguy.livanabe.search;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of listing ordinals, laid out like a Roaring bitmap.
+ * <p>
+ * Ordinals are split into a 16-bit high key and a 16-bit low value. Each key owns a container that stores
+ * its low values either as a sorted array (up to 4096 values, 2 bytes each) or as a 65536-bit bitmap
+ * (8 KB), whichever is smaller. Intersections work container by container and only touch keys present in
+ * both sides. Not thread-safe; the owner guards it.
+ */
+public final class ListingBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    // Array intersections search the larger side instead of merging once it is this many times larger
+    private static final int GALLOP_RATIO = 32;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    public boolean contains(int ordinal) {
+        int i = indexOf((char) (ordinal >>> 16));
+        return i >= 0 && containers[i].contains((char) ordinal);
+    }
+
+    public void add(int ordinal) {
+        char key = (char) (ordinal >>> 16);
+        int i = indexOf(key);
+        if (i < 0) {
+            i = -i - 1;
+            insertAt(i, key, new ArrayContainer());
+        }
+        containers[i] = containers[i].add((char) ordinal);
+    }
+
+    public void remove(int ordinal) {
+        int i = indexOf((char) (ordinal >>> 16));
+        if (i < 0) {
+            return;
+        }
+        Container container = containers[i].remove((char) ordinal);
+        if (container.cardinality() == 0) {
+            removeAt(i);
+        } else {
+            containers[i] = container;
+        }
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * New bitmap holding the ordinals present in both bitmaps
+     */
+    public ListingBitmap and(ListingBitmap other) {
+        ListingBitmap result = new ListingBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            char a = keys[i];
+            char b = other.keys[j];
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                Container container = containers[i].and(other.containers[j]);
+                if (container.cardinality() > 0) {
+                    result.insertAt(result.size, a, container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of ordinals present in both bitmaps, without building the intersection
+     */
+    public int andCardinality(ListingBitmap other) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            char a = keys[i];
+            char b = other.keys[j];
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                total += containers[i].andCardinality(other.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    public ListingBitmap copy() {
+        ListingBitmap result = new ListingBitmap();
+        result.keys = Arrays.copyOf(keys, Math.max(size, 4));
+        result.containers = new Container[result.keys.length];
+        for (int i = 0; i < size; i++) {
+            result.containers[i] = containers[i].copy();
+        }
+        result.size = size;
+        return result;
+    }
+
+    /**
+     * Visit the ordinals in ascending order
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertAt(int i, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = key;
+        containers[i] = container;
+        size++;
+    }
+
+    private void removeAt(int i) {
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    // Containers return themselves, or their replacement when they switch representation
+    private abstract static sealed class Container permits ArrayContainer, BitmapContainer {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract Container and(Container other);
+
+        abstract int andCardinality(Container other);
+
+        abstract Container copy();
+
+        abstract void forEach(int high, IntConsumer action);
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            int i = Arrays.binarySearch(values, 0, cardinality, value);
+            if (i >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            i = -i - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(cardinality * 2, ARRAY_MAX));
+            }
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int i = Arrays.binarySearch(values, 0, cardinality, value);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(cardinality, other.cardinality())];
+            int n;
+            if (other instanceof ArrayContainer array) {
+                n = intersect(this, array, result);
+            } else {
+                // Branch-free: every value is written, and kept only when its bit is set
+                long[] words = ((BitmapContainer) other).words;
+                n = 0;
+                for (int i = 0; i < cardinality; i++) {
+                    char value = values[i];
+                    result[n] = value;
+                    n += (int) (words[value >>> 6] >>> value) & 1;
+                }
+            }
+            return new ArrayContainer(result, n);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer array) {
+                return intersect(this, array, null);
+            }
+            long[] words = ((BitmapContainer) other).words;
+            int n = 0;
+            for (int i = 0; i < cardinality; i++) {
+                char value = values[i];
+                n += (int) (words[value >>> 6] >>> value) & 1;
+            }
+            return n;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 4)), cardinality);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < cardinality; i++) {
+                action.accept(high | values[i]);
+            }
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer(new long[BITMAP_WORDS], 0);
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+
+        // Values present in both arrays, written to result unless it is null; returns their number
+        private static int intersect(ArrayContainer left, ArrayContainer right, char[] result) {
+            ArrayContainer small = left.cardinality <= right.cardinality ? left : right;
+            ArrayContainer large = small == left ? right : left;
+            if (small.cardinality * GALLOP_RATIO < large.cardinality) {
+                // Much smaller side: search each of its values in the rest of the larger one
+                int n = 0;
+                int from = 0;
+                for (int i = 0; i < small.cardinality && from < large.cardinality; i++) {
+                    char value = small.values[i];
+                    int j = Arrays.binarySearch(large.values, from, large.cardinality, value);
+                    if (j >= 0) {
+                        if (result != null) {
+                            result[n] = value;
+                        }
+                        n++;
+                        from = j + 1;
+                    } else {
+                        from = -j - 1;
+                    }
+                }
+                return n;
+            }
+            // Comparable sizes: mark the larger side in a scratch bitmap and probe it with the smaller one, branch-free
+            // and without the dependency of one step on the next that a merge has
+            long[] words = new long[BITMAP_WORDS];
+            for (int j = 0; j < large.cardinality; j++) {
+                char value = large.values[j];
+                words[value >>> 6] |= 1L << value;
+            }
+            int n = 0;
+            for (int i = 0; i < small.cardinality; i++) {
+                char value = small.values[i];
+                if (result != null) {
+                    result[n] = value;
+                }
+                n += (int) (words[value >>> 6] >>> value) & 1;
+            }
+            return n;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container add(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long before = words[value >>> 6];
+            long after = before & ~(1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            long[] result = new long[BITMAP_WORDS];
+            int n = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                result[w] = words[w] & otherWords[w];
+                n += Long.bitCount(result[w]);
+            }
+            BitmapContainer bitmap = new BitmapContainer(result, n);
+            return n <= ARRAY_MAX ? bitmap.toArray() : bitmap;
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int n = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                n += Long.bitCount(words[w] & otherWords[w]);
+            }
+            return n;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    action.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        private ArrayContainer toArray() {
+            char[] values = new char[Math.max(cardinality, 4)];
+            int[] n = {0};
+            forEach(0, value -> values[n[0]++] = (char) value);
+            return new ArrayContainer(values, cardinality);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package octguy.livanabe.search;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Search attributes of listings stored column by column in primitive arrays, one row per listing.
+ * <p>
+ * Besides latitude and longitude each row keeps its position on the unit sphere ({@code x, y, z}), so the
+ * squared chord to a search center is a handful of multiply-adds and orders rows exactly like their distance.
+ * Rows are grouped in blocks of {@link #BLOCK_SIZE} with the latitude and longitude range of each block;
+ * when rows are appended in space-filling-curve order a block covers a small area and a search can skip
+ * every block outside its bounding box. A removed row keeps its slot but gets a NaN latitude, which no
+ * bounding box contains. Not thread-safe; the owner guards it.
+ */
+public final class ListingColumns {
+
+    public static final int BLOCK_SIZE = 1024;
+    // Group of a row without property type or category
+    public static final int NO_GROUP = -2;
+
+    private long[] idHigh;
+    private long[] idLow;
+    private double[] latitudes;
+    private double[] longitudes;
+    private double[] xs;
+    private double[] ys;
+    private double[] zs;
+    private long[] prices;
+    private int[] capacities;
+    private int[] groups;
+    private int size;
+
+    private double[] blockMinLat;
+    private double[] blockMaxLat;
+    private double[] blockMinLon;
+    private double[] blockMaxLon;
+
+    public ListingColumns(int capacity) {
+        int rows = Math.max(capacity, BLOCK_SIZE);
+        idHigh = new long[rows];
+        idLow = new long[rows];
+        latitudes = new double[rows];
+        longitudes = new double[rows];
+        xs = new double[rows];
+        ys = new double[rows];
+        zs = new double[rows];
+        prices = new long[rows];
+        capacities = new int[rows];
+        groups = new int[rows];
+        int blocks = (rows + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        blockMinLat = new double[blocks];
+        blockMaxLat = new double[blocks];
+        blockMinLon = new double[blocks];
+        blockMaxLon = new double[blocks];
+    }
+
+    /**
+     * Append a row and return its index
+     */
+    public int append(UUID id, double latitude, double longitude, long priceMinor, int capacity, int group) {
+        if (size == latitudes.length) {
+            grow();
+        }
+        int row = size++;
+        idHigh[row] = id.getMostSignificantBits();
+        idLow[row] = id.getLeastSignificantBits();
+        latitudes[row] = latitude;
+        longitudes[row] = longitude;
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        xs[row] = Math.cos(lat) * Math.cos(lon);
+        ys[row] = Math.cos(lat) * Math.sin(lon);
+        zs[row] = Math.sin(lat);
+        prices[row] = priceMinor;
+        capacities[row] = capacity;
+        groups[row] = group;
+
+        int block = row / BLOCK_SIZE;
+        if (row % BLOCK_SIZE == 0) {
+            blockMinLat[block] = latitude;
+            blockMaxLat[block] = latitude;
+            blockMinLon[block] = longitude;
+            blockMaxLon[block] = longitude;
+        } else {
+            blockMinLat[block] = Math.min(blockMinLat[block], latitude);
+            blockMaxLat[block] = Math.max(blockMaxLat[block], latitude);
+            blockMinLon[block] = Math.min(blockMinLon[block], longitude);
+            blockMaxLon[block] = Math.max(blockMaxLon[block], longitude);
+        }
+        return row;
+    }
+
+    /**
+     * Remove every row of the listing by scanning the id columns
+     */
+    public void remove(UUID id) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        for (int row = 0; row < size; row++) {
+            if (idLow[row] == low && idHigh[row] == high) {
+                latitudes[row] = Double.NaN;
+            }
+        }
+    }
+
+    public UUID idAt(int row) {
+        return new UUID(idHigh[row], idLow[row]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int blockCount() {
+        return (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    }
+
+    /**
+     * Whether some row of the block may lie in the box; a block keeps the range of its removed rows
+     */
+    public boolean blockIntersects(int block, double minLat, double maxLat, double minLon, double maxLon) {
+        return blockMinLat[block] <= maxLat && blockMaxLat[block] >= minLat
+                && blockMinLon[block] <= maxLon && blockMaxLon[block] >= minLon;
+    }
+
+    public double[] latitudes() {
+        return latitudes;
+    }
+
+    public double[] longitudes() {
+        return longitudes;
+    }
+
+    public double[] xs() {
+        return xs;
+    }
+
+    public double[] ys() {
+        return ys;
+    }
+
+    public double[] zs() {
+        return zs;
+    }
+
+    public long[] prices() {
+        return prices;
+    }
+
+    public int[] capacities() {
+        return capacities;
+    }
+
+    public int[] groups() {
+        return groups;
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private void grow() {
+        int rows = size * 2;
+        idHigh = Arrays.copyOf(idHigh, rows);
+        idLow = Arrays.copyOf(idLow, rows);
+        latitudes = Arrays.copyOf(latitudes, rows);
+        longitudes = Arrays.copyOf(longitudes, rows);
+        xs = Arrays.copyOf(xs, rows);
+        ys = Arrays.copyOf(ys, rows);
+        zs = Arrays.copyOf(zs, rows);
+        prices = Arrays.copyOf(prices, rows);
+        capacities = Arrays.copyOf(capacities, rows);
+        groups = Arrays.copyOf(groups, rows);
+        int blocks = (rows + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        blockMinLat = Arrays.copyOf(blockMinLat, blocks);
+        blockMaxLat = Arrays.copyOf(blockMaxLat, blocks);
+        blockMinLon = Arrays.copyOf(blockMinLon, blocks);
+        blockMaxLon = Arrays.copyOf(blockMaxLon, blocks);
+    }
+}
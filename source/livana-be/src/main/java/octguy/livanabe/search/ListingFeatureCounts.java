@@ -0,0 +1,27 @@
+package octguy.livanabe.search;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Number of candidate listings having each amenity and facility, answered by the in-memory feature index.
+ * Features no candidate has are left out.
+ */
+public final class ListingFeatureCounts {
+
+    private final Map<UUID, Long> amenities;
+    private final Map<UUID, Long> facilities;
+
+    public ListingFeatureCounts(Map<UUID, Long> amenities, Map<UUID, Long> facilities) {
+        this.amenities = Map.copyOf(amenities);
+        this.facilities = Map.copyOf(facilities);
+    }
+
+    public Map<UUID, Long> amenities() {
+        return amenities;
+    }
+
+    public Map<UUID, Long> facilities() {
+        return facilities;
+    }
+}
@@ -0,0 +1,50 @@
+package octguy.livanabe.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Home listings having every requested amenity and facility, answered by the in-memory feature index.
+ * Immutable; holds its own copy of the matching ordinals.
+ */
+public final class ListingFeatureMatch {
+
+    private final ListingBitmap listings;
+    private final Map<UUID, Integer> ordinals;
+    private final UUID[] listingIdsByOrdinal;
+    private final int indexedListings;
+
+    public ListingFeatureMatch(ListingBitmap listings, Map<UUID, Integer> ordinals,
+                               UUID[] listingIdsByOrdinal, int indexedListings) {
+        this.listings = listings;
+        this.ordinals = ordinals;
+        this.listingIdsByOrdinal = listingIdsByOrdinal;
+        this.indexedListings = indexedListings;
+    }
+
+    public boolean contains(UUID listingId) {
+        Integer ordinal = ordinals.get(listingId);
+        return ordinal != null && listings.contains(ordinal);
+    }
+
+    public int size() {
+        return listings.cardinality();
+    }
+
+    public boolean isEmpty() {
+        return listings.isEmpty();
+    }
+
+    // Share of the indexed listings that match, used to size scans that filter by this match
+    public double selectivity() {
+        return indexedListings == 0 ? 0.0 : (double) size() / indexedListings;
+    }
+
+    public List<UUID> listingIds() {
+        List<UUID> ids = new ArrayList<>(size());
+        listings.forEach(ordinal -> ids.add(listingIdsByOrdinal[ordinal]));
+        return ids;
+    }
+}
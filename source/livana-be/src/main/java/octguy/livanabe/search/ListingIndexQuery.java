@@ -0,0 +1,40 @@
+package octguy.livanabe.search;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * DTO for a nearest-listing search answered by the in-memory search index, with the same filters and
+ * (distance, id) cursor as the database queries
+ */
+@Data
+@Builder
+public class ListingIndexQuery {
+
+    private boolean home;
+
+    private double latitude;
+    private double longitude;
+    private double radiusKm;
+
+    // Bounding box from GeoUtils.getBoundingBox, applied like the queries do
+    private double[] boundingBox;
+
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer minCapacity;
+    private UUID groupId;
+
+    // Extra filter on the listing id, e.g. the home feature match
+    private Predicate<UUID> listingFilter;
+
+    private Double cursorDistance;
+    private UUID cursorId;
+
+    // Integer.MAX_VALUE returns every match after the cursor
+    private int limit;
+}
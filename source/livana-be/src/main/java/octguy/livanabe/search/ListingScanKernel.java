@@ -0,0 +1,54 @@
+package octguy.livanabe.search;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Filter pass over a range of {@link ListingColumns} rows: keeps the rows inside the bounding box, within the
+ * chord range and matching the price, capacity and group filters, and writes their indexes to {@code out}.
+ * <p>
+ * {@link #create()} returns the SIMD kernel when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}, and the scalar one otherwise; both keep exactly the same rows.
+ */
+public sealed interface ListingScanKernel permits ScalarListingScanKernel, VectorListingScanKernel {
+
+    /**
+     * Scan rows {@code [from, to)} and return how many row indexes were written to {@code out}
+     */
+    int scan(ListingColumns columns, int from, int to, Bounds bounds, int[] out);
+
+    /**
+     * Squared chord from {@code (cx, cy, cz)} between {@code minChord2} and {@code maxChord2}; a group of -1
+     * accepts every group
+     */
+    record Bounds(double minLat, double maxLat, double minLon, double maxLon,
+                  double cx, double cy, double cz, double minChord2, double maxChord2,
+                  long minPrice, long maxPrice, int minCapacity, int group) {
+    }
+
+    static ListingScanKernel create() {
+        return Holder.KERNEL;
+    }
+
+    // Loads the vector kernel, and with it the incubator classes, only when the module is there
+    @Slf4j
+    final class Holder {
+
+        private static final ListingScanKernel KERNEL = select();
+
+        private Holder() {
+        }
+
+        private static ListingScanKernel select() {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+                try {
+                    VectorListingScanKernel kernel = new VectorListingScanKernel();
+                    log.info("Listing scans use the vector API with {} double lanes", kernel.lanes());
+                    return kernel;
+                } catch (LinkageError e) {
+                    log.warn("Vector API unavailable, listing scans fall back to scalar code: {}", e.getMessage());
+                }
+            }
+            return new ScalarListingScanKernel();
+        }
+    }
+}
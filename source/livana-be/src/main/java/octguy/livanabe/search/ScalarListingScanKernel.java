@@ -0,0 +1,43 @@
+package octguy.livanabe.search;
+
+
+/**
+ * Row-at-a-time {@link ListingScanKernel}, also used for the tail rows the vector kernel cannot fill a vector with
+ */
+final class ScalarListingScanKernel implements ListingScanKernel {
+
+    @Override
+    public int scan(ListingColumns columns, int from, int to, Bounds bounds, int[] out) {
+        return scanRows(columns, from, to, bounds, out, 0);
+    }
+
+    static int scanRows(ListingColumns columns, int from, int to, Bounds b, int[] out, int n) {
+        double[] latitudes = columns.latitudes();
+        double[] longitudes = columns.longitudes();
+        double[] xs = columns.xs();
+        double[] ys = columns.ys();
+        double[] zs = columns.zs();
+        long[] prices = columns.prices();
+        int[] capacities = columns.capacities();
+        int[] groups = columns.groups();
+        for (int row = from; row < to; row++) {
+            // Comparisons with the NaN latitude of a removed row are false
+            double lat = latitudes[row];
+            double lon = longitudes[row];
+            if (!(lat >= b.minLat() && lat <= b.maxLat() && lon >= b.minLon() && lon <= b.maxLon())) {
+                continue;
+            }
+            double dx = xs[row] - b.cx();
+            double dy = ys[row] - b.cy();
+            double dz = zs[row] - b.cz();
+            double chord2 = Math.fma(dx, dx, Math.fma(dy, dy, dz * dz));
+            if (chord2 >= b.minChord2() && chord2 <= b.maxChord2()
+                    && prices[row] >= b.minPrice() && prices[row] <= b.maxPrice()
+                    && capacities[row] >= b.minCapacity()
+                    && (b.group() == -1 || groups[row] == b.group())) {
+                out[n++] = row;
+            }
+        }
+        return n;
+    }
+}
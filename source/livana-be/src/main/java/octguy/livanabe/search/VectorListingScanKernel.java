@@ -0,0 +1,85 @@
+package octguy.livanabe.search;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link ListingScanKernel} testing as many rows at once as the CPU has double lanes.
+ * <p>
+ * Prices are compared in long vectors of the same shape and capacities and groups in int vectors of half the
+ * width, so every column has the same number of lanes and their masks combine lane by lane. Only loaded when
+ * the {@code jdk.incubator.vector} module is present.
+ */
+final class VectorListingScanKernel implements ListingScanKernel {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = VectorSpecies.of(long.class, DOUBLES.vectorShape());
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    int lanes() {
+        return DOUBLES.length();
+    }
+
+    @Override
+    public int scan(ListingColumns columns, int from, int to, Bounds b, int[] out) {
+        double[] latitudes = columns.latitudes();
+        double[] longitudes = columns.longitudes();
+        double[] xs = columns.xs();
+        double[] ys = columns.ys();
+        double[] zs = columns.zs();
+        long[] prices = columns.prices();
+        int[] capacities = columns.capacities();
+        int[] groups = columns.groups();
+
+        int n = 0;
+        int row = from;
+        int upper = from + (to - from) / DOUBLES.length() * DOUBLES.length();
+        for (; row < upper; row += DOUBLES.length()) {
+            // Bounding box first: rows of a block mostly fall outside it, and NaN latitudes of removed rows never match
+            DoubleVector lat = DoubleVector.fromArray(DOUBLES, latitudes, row);
+            VectorMask<Double> mask = lat.compare(VectorOperators.GE, b.minLat())
+                    .and(lat.compare(VectorOperators.LE, b.maxLat()));
+            if (!mask.anyTrue()) {
+                continue;
+            }
+            DoubleVector lon = DoubleVector.fromArray(DOUBLES, longitudes, row);
+            mask = mask.and(lon.compare(VectorOperators.GE, b.minLon()))
+                    .and(lon.compare(VectorOperators.LE, b.maxLon()));
+            if (!mask.anyTrue()) {
+                continue;
+            }
+
+            DoubleVector dx = DoubleVector.fromArray(DOUBLES, xs, row).sub(b.cx());
+            DoubleVector dy = DoubleVector.fromArray(DOUBLES, ys, row).sub(b.cy());
+            DoubleVector dz = DoubleVector.fromArray(DOUBLES, zs, row).sub(b.cz());
+            DoubleVector chord2 = dx.fma(dx, dy.fma(dy, dz.mul(dz)));
+            mask = mask.and(chord2.compare(VectorOperators.GE, b.minChord2()))
+                    .and(chord2.compare(VectorOperators.LE, b.maxChord2()));
+
+            LongVector price = LongVector.fromArray(LONGS, prices, row);
+            mask = mask.and(price.compare(VectorOperators.GE, b.minPrice())
+                    .and(price.compare(VectorOperators.LE, b.maxPrice()))
+                    .cast(DOUBLES));
+            IntVector capacity = IntVector.fromArray(INTS, capacities, row);
+            mask = mask.and(capacity.compare(VectorOperators.GE, b.minCapacity()).cast(DOUBLES));
+            if (b.group() != -1) {
+                mask = mask.and(IntVector.fromArray(INTS, groups, row)
+                        .compare(VectorOperators.EQ, b.group())
+                        .cast(DOUBLES));
+            }
+
+            long bits = mask.toLong();
+            while (bits != 0) {
+                out[n++] = row + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return ScalarListingScanKernel.scanRows(columns, row, to, b, out, n);
+    }
+}
@@ -2,6 +2,7 @@ package octguy.livanabe.service;
 
 import octguy.livanabe.dto.request.SendMessageRequest;
 import octguy.livanabe.dto.response.ConversationResponse;
+import octguy.livanabe.dto.response.CursorPageResponse;
 import octguy.livanabe.dto.response.MessageResponse;
 
 import java.util.List;
@@ -19,13 +20,20 @@ public interface IChatService {
      */
     List<ConversationResponse> getConversations();
 
+    /**
+     * Get one page of the current user's conversations, most recent activity first
+     * @param cursor Cursor returned with the previous page, null for the first page
+     * @param limit Maximum number of conversations to return
+     */
+    CursorPageResponse<ConversationResponse> getConversations(String cursor, Integer limit);
+
     /**
      * Get conversation by ID
      */
     ConversationResponse getConversationById(UUID conversationId);
 
     /**
-     * Get messages in a conversation
+     * Get the latest messages in a conversation (capped), in chronological order
      */
     List<MessageResponse> getMessages(UUID conversationId);
 
@@ -34,6 +42,16 @@ public interface IChatService {
      */
     List<MessageResponse> getMessages(UUID conversationId, int page, int size);
 
+    /**
+     * Get one page of messages around a cursor, in chronological order.
+     * Without a cursor the newest messages are returned.
+     * The page's prevCursor and nextCursor are the keys of its first and last message.
+     * @param before Cursor to load older messages, e.g. when scrolling up
+     * @param after Cursor to load newer messages
+     * @param limit Maximum number of messages to return
+     */
+    CursorPageResponse<MessageResponse> getMessages(UUID conversationId, String before, String after, Integer limit);
+
     /**
      * Send a message to a user (creates conversation if needed)
      */
@@ -53,4 +71,9 @@ public interface IChatService {
      * Get unread count for a specific conversation
      */
     long getUnreadCountForConversation(UUID conversationId);
+
+    /**
+     * Recompute the per-participant unread counters from the message table
+     */
+    void repairUnreadCounts();
 }
@@ -0,0 +1,58 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.entity.BaseListing;
+import octguy.livanabe.entity.Booking;
+import octguy.livanabe.entity.DailyMetric;
+import octguy.livanabe.entity.User;
+import octguy.livanabe.enums.BookingStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface IDailyMetricService {
+
+    /**
+     * Count a newly created user
+     */
+    void recordUserCreated(User user);
+
+    /**
+     * Remove soft-deleted users from the counters of the day they were created
+     */
+    void recordUsersDeleted(List<User> users);
+
+    /**
+     * Count a newly created home or experience listing, globally and for its host
+     */
+    void recordListingCreated(BaseListing listing);
+
+    /**
+     * Remove a deleted listing and all of its bookings from the counters
+     */
+    void recordListingDeleted(BaseListing listing);
+
+    /**
+     * Count a newly created booking, globally and for the host of the booked listing
+     * @param hostId Host of the booked listing
+     */
+    void recordBookingCreated(Booking booking, UUID hostId);
+
+    /**
+     * Move confirmed revenue in or out of the counters after a booking status change
+     * @param hostId Host of the booked listing
+     * @param previousStatus Status of the booking before the change
+     */
+    void recordBookingStatusChanged(Booking booking, UUID hostId, BookingStatus previousStatus);
+
+    /**
+     * Daily rows of one scope (a host id or {@link DailyMetric#GLOBAL_SCOPE}) between two dates, inclusive
+     */
+    List<DailyMetric> getDailyMetrics(UUID scopeId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Recompute the rows between two dates (inclusive) from the source tables.
+     * Passing null for both dates rebuilds the whole table.
+     */
+    void rebuild(LocalDate startDate, LocalDate endDate);
+}
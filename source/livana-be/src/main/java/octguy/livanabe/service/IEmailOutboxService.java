@@ -0,0 +1,21 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.enums.EmailTemplate;
+
+import java.util.Map;
+
+public interface IEmailOutboxService {
+
+    /**
+     * Render a template and queue the email for sending. Must be called inside the transaction
+     * that triggers it, so a rolled back request never sends.
+     * @param variables Values for the {{name}} placeholders of the template, HTML-escaped on render
+     */
+    void enqueue(String to, EmailTemplate template, Map<String, String> variables);
+
+    /**
+     * Hand the next batch of due emails to the sender pool
+     * @return Number of emails dispatched
+     */
+    int dispatchDue();
+}
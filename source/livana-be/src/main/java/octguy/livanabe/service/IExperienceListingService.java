@@ -2,8 +2,12 @@ package octguy.livanabe.service;
 
 import octguy.livanabe.dto.request.CreateExperienceListingRequest;
 import octguy.livanabe.dto.request.LocationSearchRequest;
+import octguy.livanabe.dto.request.MapSearchRequest;
+import octguy.livanabe.dto.request.TextSearchRequest;
 import octguy.livanabe.dto.request.UpdateExperienceListingRequest;
 import octguy.livanabe.dto.response.ExperienceListingResponse;
+import octguy.livanabe.dto.response.ListingMapResponse;
+import octguy.livanabe.dto.response.ListingSearchPage;
 import octguy.livanabe.dto.response.ListingSearchResult;
 
 import org.springframework.data.domain.Page;
@@ -26,7 +30,17 @@ public interface IExperienceListingService {
     
     List<ExperienceListingResponse> getExperienceListingsByHostId(UUID hostId);
     
-    List<ListingSearchResult<ExperienceListingResponse>> searchByLocation(LocationSearchRequest request);
+    ListingSearchPage<ExperienceListingResponse> searchByLocation(LocationSearchRequest request);
+    
+    /**
+     * Every match of a location search, nearest first, read page by page; the request's cursor and limit are
+     * replaced
+     */
+    List<ListingSearchResult<ExperienceListingResponse>> searchAllByLocation(LocationSearchRequest request);
+    
+    ListingSearchPage<ExperienceListingResponse> searchByText(TextSearchRequest request);
+    
+    ListingMapResponse searchMap(MapSearchRequest request);
     
     void deleteExperienceListing(UUID id);
 }
@@ -0,0 +1,49 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.entity.HomeBooking;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public interface IHomeAvailabilityService {
+
+    /**
+     * Claim the nights of a new booking on its listing's calendar.
+     * Must run in the transaction that saves the booking.
+     * @throws octguy.livanabe.exception.BadRequestException if any night is already booked
+     */
+    void reserveNights(HomeBooking booking);
+
+    /**
+     * Free the nights held by a booking (on cancellation)
+     */
+    void releaseNights(UUID bookingId);
+
+    /**
+     * Free every night of a listing (on listing deletion)
+     */
+    void releaseListingNights(UUID homeListingId);
+
+    /**
+     * Booked nights of a listing in [from, to), ascending
+     */
+    List<LocalDate> getBookedNights(UUID homeListingId, LocalDate from, LocalDate to);
+
+    /**
+     * Whether every night in [checkIn, checkOut) is free
+     */
+    boolean isAvailable(UUID homeListingId, LocalDate checkIn, LocalDate checkOut);
+
+    /**
+     * The subset of the given listings that are free for every night in [checkIn, checkOut)
+     */
+    Set<UUID> filterAvailable(Collection<UUID> homeListingIds, LocalDate checkIn, LocalDate checkOut);
+
+    /**
+     * Rebuild the calendar from the booking table
+     */
+    void resync();
+}
@@ -0,0 +1,31 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.search.ListingFeatureCounts;
+import octguy.livanabe.search.ListingFeatureMatch;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface IHomeFeatureIndexService {
+
+    /**
+     * Home listings having every given amenity and facility, or null when neither is given
+     */
+    ListingFeatureMatch match(Collection<UUID> amenityIds, Collection<UUID> facilityIds);
+
+    /**
+     * Number of the given listings having each amenity and facility, for the search facets; empty until the index
+     * is built
+     */
+    ListingFeatureCounts countFeatures(Collection<UUID> listingIds);
+
+    /**
+     * Re-read the amenities and facilities of one listing; a deleted listing is dropped
+     */
+    void refresh(UUID listingId);
+
+    /**
+     * Rebuild the whole index from the database on this node only
+     */
+    void rebuild();
+}
@@ -2,8 +2,12 @@ package octguy.livanabe.service;
 
 import octguy.livanabe.dto.request.CreateHomeListingRequest;
 import octguy.livanabe.dto.request.LocationSearchRequest;
+import octguy.livanabe.dto.request.MapSearchRequest;
+import octguy.livanabe.dto.request.TextSearchRequest;
 import octguy.livanabe.dto.request.UpdateHomeListingRequest;
 import octguy.livanabe.dto.response.HomeListingResponse;
+import octguy.livanabe.dto.response.ListingMapResponse;
+import octguy.livanabe.dto.response.ListingSearchPage;
 import octguy.livanabe.dto.response.ListingSearchResult;
 
 import org.springframework.data.domain.Page;
@@ -26,7 +30,17 @@ public interface IHomeListingService {
 
     List<HomeListingResponse> getHomeListingsByHostId(UUID hostId);
     
-    List<ListingSearchResult<HomeListingResponse>> searchByLocation(LocationSearchRequest request);
+    ListingSearchPage<HomeListingResponse> searchByLocation(LocationSearchRequest request);
+    
+    /**
+     * Every match of a location search, nearest first, read page by page; the request's cursor and limit are
+     * replaced
+     */
+    List<ListingSearchResult<HomeListingResponse>> searchAllByLocation(LocationSearchRequest request);
+    
+    ListingSearchPage<HomeListingResponse> searchByText(TextSearchRequest request);
+    
+    ListingMapResponse searchMap(MapSearchRequest request);
     
     void deleteHomeListing(UUID id);
 }
@@ -0,0 +1,24 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.dto.dto.ListingChangeMessage;
+
+import java.util.UUID;
+
+public interface IListingChangeService {
+
+    /**
+     * Refresh a listing in this node's in-memory listing indexes after it was created, updated or deleted,
+     * and tell the other nodes to do the same. Inside a transaction this happens after commit.
+     */
+    void onListingChanged(UUID listingId);
+
+    /**
+     * Handle a listing change broadcast by another node
+     */
+    void onPeerChange(ListingChangeMessage message);
+
+    /**
+     * Random id of this node, names its listing index queue
+     */
+    String getNodeId();
+}
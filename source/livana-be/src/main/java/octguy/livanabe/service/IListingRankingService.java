@@ -0,0 +1,33 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.dto.response.RankedListingResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface IListingRankingService {
+
+    /**
+     * Listings most booked and best reviewed over the popular half-life, near the point or everywhere without
+     * one; empty until the first build.
+     *
+     * @param type HOME, EXPERIENCE or null for both
+     */
+    List<RankedListingResponse> getPopular(Double latitude, Double longitude, String type, int limit);
+
+    /**
+     * Same as {@link #getPopular} over the much shorter trending half-life
+     */
+    List<RankedListingResponse> getTrending(Double latitude, Double longitude, String type, int limit);
+
+    /**
+     * Re-read one listing after a write: a deleted or unavailable listing leaves the rankings, another one gets
+     * its current title, price and thumbnail
+     */
+    void refresh(UUID listingId);
+
+    /**
+     * Recompute every ranking and swap them in
+     */
+    void rebuild();
+}
@@ -0,0 +1,17 @@
+package octguy.livanabe.service;
+
+import java.util.UUID;
+
+public interface IListingRatingService {
+
+    /**
+     * Adjust the review aggregates of a listing for one review write: a new review has no removed rating, a deleted
+     * one no added rating. Must run in the transaction that writes the review.
+     */
+    void recordRatingChange(UUID listingId, Integer removedRating, Integer addedRating);
+
+    /**
+     * Recount the review aggregates of every listing whose stored values drifted from its reviews
+     */
+    void resync();
+}
@@ -0,0 +1,43 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.dto.dto.ListingDistanceDto;
+import octguy.livanabe.dto.dto.ListingMapCellDto;
+import octguy.livanabe.dto.dto.ListingMapPinDto;
+import octguy.livanabe.dto.dto.ListingMapQuery;
+import octguy.livanabe.search.ListingIndexQuery;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface IListingSearchIndexService {
+
+    /**
+     * Whether the index is enabled and built, so searches may use it
+     */
+    boolean isReady();
+
+    /**
+     * Nearest listings matching the query, ordered by (distance, id) like the database queries
+     */
+    List<ListingDistanceDto> findNearest(ListingIndexQuery query);
+
+    /**
+     * At most {@code limit} listings in the viewport of the query, in no particular order
+     */
+    List<ListingMapPinDto> findMapPins(ListingMapQuery query, int limit);
+
+    /**
+     * Number, centroid and lowest price of the listings in each grid cell of the viewport, like the map cell queries
+     */
+    List<ListingMapCellDto> countMapCells(ListingMapQuery query);
+
+    /**
+     * Re-read the search attributes of one listing; a deleted or unavailable listing is dropped
+     */
+    void refresh(UUID listingId);
+
+    /**
+     * Rebuild the whole index from the database on this node only
+     */
+    void rebuild();
+}
@@ -0,0 +1,17 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.dto.response.NotificationMessage;
+
+public interface INotificationOutboxService {
+
+    /**
+     * Queue a notification for publishing. Must be called inside the transaction that created it.
+     */
+    void enqueue(NotificationMessage notification);
+
+    /**
+     * Publish the next batch of queued notifications and wait for the broker to confirm them
+     * @return Number of notifications published
+     */
+    int relayPending();
+}
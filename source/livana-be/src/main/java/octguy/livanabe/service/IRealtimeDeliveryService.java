@@ -0,0 +1,24 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.dto.dto.RealtimeDeliveryMessage;
+
+import java.util.UUID;
+
+public interface IRealtimeDeliveryService {
+
+    /**
+     * Send a message to a destination owned by a user (e.g. /topic/chat/{userId}).
+     * In routed mode it is forwarded only to the nodes holding one of the user's sessions.
+     */
+    void sendToUser(UUID userId, String destination, Object payload);
+
+    /**
+     * Deliver a message forwarded by another node to the sessions of this node
+     */
+    void deliverLocally(RealtimeDeliveryMessage message);
+
+    /**
+     * Identifier of this backend node, used as its routing key
+     */
+    String getNodeId();
+}
@@ -0,0 +1,26 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.dto.response.RecommendedListingResponse;
+import org.springframework.data.domain.Page;
+
+import java.util.UUID;
+
+public interface IRecommendationService {
+
+    /**
+     * Rank listings for a user from the precomputed candidate lists; an empty page until the first build.
+     *
+     * @param type HOME, EXPERIENCE or null for both
+     */
+    Page<RecommendedListingResponse> recommend(UUID userId, String type, int page, int size);
+
+    /**
+     * Re-check one listing after a write; a deleted or unavailable listing is no longer recommended
+     */
+    void refresh(UUID listingId);
+
+    /**
+     * Recompute the candidate lists and user histories and swap them in
+     */
+    void rebuild();
+}
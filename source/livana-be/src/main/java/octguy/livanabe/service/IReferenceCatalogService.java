@@ -0,0 +1,33 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.dto.dto.CatalogInvalidationMessage;
+import octguy.livanabe.dto.dto.ReferenceCatalog;
+
+public interface IReferenceCatalogService {
+
+    /**
+     * Current snapshot of amenities, facilities, property types, experience categories and interests
+     */
+    ReferenceCatalog getCatalog();
+
+    /**
+     * Reload the catalog after a write to one of its tables and tell the other nodes to do the same.
+     * Inside a transaction this happens after commit.
+     */
+    void invalidate();
+
+    /**
+     * Reload the catalog from the database on this node only
+     */
+    void reload();
+
+    /**
+     * Handle an invalidation broadcast by another node
+     */
+    void onPeerInvalidation(CatalogInvalidationMessage message);
+
+    /**
+     * Random id of this node, names its invalidation queue
+     */
+    String getNodeId();
+}
@@ -1,7 +1,9 @@
 package octguy.livanabe.service;
 
+import octguy.livanabe.dto.dto.ListingRatingDto;
 import octguy.livanabe.dto.request.CreateReviewRequest;
 import octguy.livanabe.dto.response.ListingRatingSummary;
+import octguy.livanabe.dto.response.ReviewPage;
 import octguy.livanabe.dto.response.ReviewResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -15,6 +17,17 @@ public interface IReviewService {
     
     ListingRatingSummary getListingReviews(UUID listingId);
     
+    /**
+     * One keyset page of the reviews of a listing.
+     *
+     * @param sort NEWEST, HIGHEST or LOWEST; rating sorts put the newest first within a rating
+     * @param cursor nextCursor of the previous page, null for the first page
+     */
+    ReviewPage getListingReviewPage(UUID listingId, String sort, String cursor, Integer limit);
+    
+    // Average, count and histogram stored on the listing, no review is read
+    ListingRatingDto getListingRating(UUID listingId);
+    
     List<ReviewResponse> getReviewsByReviewer(UUID reviewerId);
     
     ReviewResponse updateReview(UUID reviewId, CreateReviewRequest request);
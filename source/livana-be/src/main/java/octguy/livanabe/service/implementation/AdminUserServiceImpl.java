@@ -14,6 +14,7 @@ import octguy.livanabe.repository.RoleRepository;
 import octguy.livanabe.repository.UserProfileRepository;
 import octguy.livanabe.repository.UserRepository;
 import octguy.livanabe.service.IAdminUserService;
+import octguy.livanabe.service.IDailyMetricService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -31,13 +32,19 @@ public class AdminUserServiceImpl implements IAdminUserService {
     private final UserRepository userRepository;
     private final UserProfileRepository userProfileRepository;
     private final RoleRepository roleRepository;
+    private final IDailyMetricService dailyMetricService;
+    private final UserDetailsServiceImpl userDetailsService;
     
     public AdminUserServiceImpl(UserRepository userRepository, 
                                 UserProfileRepository userProfileRepository,
-                                RoleRepository roleRepository) {
+                                RoleRepository roleRepository,
+                                IDailyMetricService dailyMetricService,
+                                UserDetailsServiceImpl userDetailsService) {
         this.userRepository = userRepository;
         this.userProfileRepository = userProfileRepository;
         this.roleRepository = roleRepository;
+        this.dailyMetricService = dailyMetricService;
+        this.userDetailsService = userDetailsService;
     }
     
     @Override
@@ -99,6 +106,7 @@ public class AdminUserServiceImpl implements IAdminUserService {
         
         user.setUpdatedAt(LocalDateTime.now());
         User savedUser = userRepository.save(user);
+        userDetailsService.evictPrincipal(userId);
         
         UserProfile profile = userProfileRepository.findByUserId(userId).orElse(null);
         return mapToAdminUserResponse(savedUser, profile);
@@ -119,6 +127,7 @@ public class AdminUserServiceImpl implements IAdminUserService {
         }
         
         User savedUser = userRepository.save(user);
+        userDetailsService.evictPrincipal(userId);
         
         UserProfile profile = userProfileRepository.findByUserId(userId).orElse(null);
         return mapToAdminUserResponse(savedUser, profile);
@@ -134,6 +143,7 @@ public class AdminUserServiceImpl implements IAdminUserService {
         user.setUpdatedAt(LocalDateTime.now());
         
         User savedUser = userRepository.save(user);
+        userDetailsService.evictPrincipal(userId);
         
         UserProfile profile = userProfileRepository.findByUserId(userId).orElse(null);
         return mapToAdminUserResponse(savedUser, profile);
@@ -149,6 +159,8 @@ public class AdminUserServiceImpl implements IAdminUserService {
         user.setDeletedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        userDetailsService.evictPrincipal(userId);
+        dailyMetricService.recordUsersDeleted(List.of(user));
     }
     
     private AdminUserResponse mapToAdminUserResponse(User user, UserProfile profile) {
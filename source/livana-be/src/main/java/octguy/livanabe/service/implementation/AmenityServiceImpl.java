@@ -4,10 +4,8 @@ import octguy.livanabe.dto.response.AmenityResponse;
 import octguy.livanabe.entity.Amenity;
 import octguy.livanabe.repository.AmenityRepository;
 import octguy.livanabe.service.IAmenityService;
+import octguy.livanabe.service.IReferenceCatalogService;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,28 +19,26 @@ public class AmenityServiceImpl implements IAmenityService {
 
     private final AmenityRepository amenityRepository;
 
-    public AmenityServiceImpl(AmenityRepository amenityRepository) {
+    private final IReferenceCatalogService referenceCatalogService;
+
+    public AmenityServiceImpl(AmenityRepository amenityRepository, IReferenceCatalogService referenceCatalogService) {
         this.amenityRepository = amenityRepository;
+        this.referenceCatalogService = referenceCatalogService;
     }
 
     @Override
     public Page<AmenityResponse> findAll(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").ascending());
-        return amenityRepository.findAll(pageable)
-                .map(this::toResponse);
+        return referenceCatalogService.getCatalog().getAmenities().page(page, size);
     }
 
     @Override
     public List<AmenityResponse> findAll() {
-        return amenityRepository.findAll().stream()
-                .map(this::toResponse)
-                .toList();
+        return referenceCatalogService.getCatalog().getAmenities().getItems();
     }
 
     @Override
     public AmenityResponse findById(UUID id) {
-        return amenityRepository.findById(id)
-                .map(this::toResponse)
+        return referenceCatalogService.getCatalog().getAmenities().find(id)
                 .orElseThrow(() -> new RuntimeException("Amenity not found with id: " + id));
     }
 
@@ -54,6 +50,7 @@ public class AmenityServiceImpl implements IAmenityService {
         amenity.setIcon(icon);
         amenity.setUpdatedAt(LocalDateTime.now());
         amenityRepository.save(amenity);
+        referenceCatalogService.invalidate();
 
         return toResponse(amenity);
     }
@@ -68,6 +65,7 @@ public class AmenityServiceImpl implements IAmenityService {
         updatedAmenity.setName(name);
         updatedAmenity.setIcon(icon);
         amenityRepository.save(updatedAmenity);
+        referenceCatalogService.invalidate();
 
         return toResponse(updatedAmenity);
     }
@@ -80,6 +78,7 @@ public class AmenityServiceImpl implements IAmenityService {
             Amenity entity = amenity.get();
             entity.setDeletedAt(LocalDateTime.now());
             amenityRepository.save(entity);
+            referenceCatalogService.invalidate();
         }
     }
 
@@ -87,6 +86,7 @@ public class AmenityServiceImpl implements IAmenityService {
     @Transactional
     public void hardDelete(UUID id) {
         amenityRepository.hardDeleteById(id);
+        referenceCatalogService.invalidate();
     }
 
     @Override
@@ -96,12 +96,14 @@ public class AmenityServiceImpl implements IAmenityService {
         LocalDateTime now = LocalDateTime.now();
         amenities.forEach(amenity -> amenity.setDeletedAt(now));
         amenityRepository.saveAll(amenities);
+        referenceCatalogService.invalidate();
     }
 
     @Override
     @Transactional
     public void hardDeleteAll() {
         amenityRepository.hardDeleteAll();
+        referenceCatalogService.invalidate();
     }
 
     private AmenityResponse toResponse(Amenity amenity) {
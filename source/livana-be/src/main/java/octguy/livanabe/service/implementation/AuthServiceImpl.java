@@ -1,10 +1,10 @@
 package octguy.livanabe.service.implementation;
 
-import jakarta.mail.MessagingException;
 import lombok.extern.slf4j.Slf4j;
 import octguy.livanabe.dto.request.*;
 import octguy.livanabe.dto.response.AuthResponse;
 import octguy.livanabe.entity.*;
+import octguy.livanabe.enums.EmailTemplate;
 import octguy.livanabe.enums.UserRole;
 import octguy.livanabe.enums.UserStatus;
 import octguy.livanabe.exception.*;
@@ -50,7 +50,7 @@ public class AuthServiceImpl implements IAuthService {
 
     private final JwtUtil jwtUtil;
 
-    private final IEmailService emailService;
+    private final IEmailOutboxService emailOutboxService;
 
     private final AuthenticationManager authenticationManager;
 
@@ -60,16 +60,20 @@ public class AuthServiceImpl implements IAuthService {
 
     private final IUserProfileService userProfileService;
 
+    private final IDailyMetricService dailyMetricService;
+
 
     public AuthServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
-                           JwtUtil jwtUtil, IEmailService emailService,
+                           JwtUtil jwtUtil, IEmailOutboxService emailOutboxService,
                            AuthenticationManager authenticationManager,
                            AuthCredentialRepository authCredentialRepository,
                            IRefreshTokenService refreshTokenService,
                            RoleRepository roleRepository,
                            UserDetailsServiceImpl userDetailsService,
                            IPasswordResetTokenService passwordResetTokenService,
-                           IUserProfileService userProfileService) {
+                           IUserProfileService userProfileService,
+                           IDailyMetricService dailyMetricService) {
+        this.dailyMetricService = dailyMetricService;
         this.userProfileService = userProfileService;
         this.passwordResetTokenService = passwordResetTokenService;
         this.userDetailsService = userDetailsService;
@@ -79,7 +83,7 @@ public class AuthServiceImpl implements IAuthService {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
-        this.emailService = emailService;
+        this.emailOutboxService = emailOutboxService;
         this.authenticationManager = authenticationManager;
     }
 
@@ -186,7 +190,9 @@ public class AuthServiceImpl implements IAuthService {
                 .orElseThrow(() -> new RuntimeException("Role not found"));
         user.addRole(role);
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        dailyMetricService.recordUserCreated(savedUser);
+        return savedUser;
     }
 
     private AuthCredential createCredential(User user, String password, boolean requiresVerification) {
@@ -343,8 +349,7 @@ public class AuthServiceImpl implements IAuthService {
 
     @Override
     public void changePassword(ChangePasswordRequest request) {
-        User currentUser = SecurityUtils.getCurrentUser();
-        Optional<AuthCredential> authCredential = authCredentialRepository.findByUser(currentUser);
+        Optional<AuthCredential> authCredential = authCredentialRepository.findByUserId(SecurityUtils.getCurrentUserId());
 
         if (authCredential.isEmpty()) {
             throw new UserNotFoundException("User not found");
@@ -368,49 +373,12 @@ public class AuthServiceImpl implements IAuthService {
     }
 
     private void sendForgetPasswordEmail(String email, String token) {
-        String subject = "Password Reset Request";
-        String resetLink = frontendUrl + "/reset-password?token=" + token; // Replace with your frontend URL
-        String htmlMessage = "<html>"
-                + "<body style=\"font-family: Arial, sans-serif;\">"
-                + "<div style=\"background-color: #f5f5f5; padding: 20px;\">"
-                + "<h2 style=\"color: #333;\">Password Reset Request</h2>"
-                + "<p style=\"font-size: 16px;\">We received a request to reset your password. Click the link below to reset it:</p>"
-                + "<a href=\"" + resetLink + "\" style=\"display: inline-block; padding: 10px 20px; font-size: 16px; color: #fff; background-color: #007bff; text-decoration: none; border-radius: 5px;\">Reset Password</a>"
-                + "<p style=\"font-size: 14px; color: #777; margin-top: 20px;\">If you did not request a password reset, please ignore this email.</p>"
-                + "</div>"
-                + "</body>"
-                + "</html>";
-
-        try {
-            emailService.sendEmail(email, subject, htmlMessage);
-        } catch (MessagingException e) {
-            // Handle email sending exception
-            e.printStackTrace();
-        }
+        String resetLink = frontendUrl + "/reset-password?token=" + token;
+        emailOutboxService.enqueue(email, EmailTemplate.PASSWORD_RESET, Map.of("resetLink", resetLink));
     }
 
     private void sendVerificationEmail(String email, String code) {
-        String subject = "Account Verification";
-        String verificationCode = "VERIFICATION CODE " + code;
-        String htmlMessage = "<html>"
-                + "<body style=\"font-family: Arial, sans-serif;\">"
-                + "<div style=\"background-color: #f5f5f5; padding: 20px;\">"
-                + "<h2 style=\"color: #333;\">Welcome to our app!</h2>"
-                + "<p style=\"font-size: 16px;\">Please enter the verification code below to continue:</p>"
-                + "<div style=\"background-color: #fff; padding: 20px; border-radius: 5px; box-shadow: 0 0 10px rgba(0,0,0,0.1);\">"
-                + "<h3 style=\"color: #333;\">Verification Code:</h3>"
-                + "<p style=\"font-size: 18px; font-weight: bold; color: #007bff;\">" + verificationCode + "</p>"
-                + "</div>"
-                + "</div>"
-                + "</body>"
-                + "</html>";
-
-        try {
-            emailService.sendEmail(email, subject, htmlMessage);
-        } catch (MessagingException e) {
-            // Handle email sending exception
-            e.printStackTrace();
-        }
+        emailOutboxService.enqueue(email, EmailTemplate.VERIFICATION, Map.of("code", code));
     }
 
     private String generateVerificationCode() {
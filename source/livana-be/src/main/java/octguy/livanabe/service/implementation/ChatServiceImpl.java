@@ -1,10 +1,11 @@
 package octguy.livanabe.service.implementation;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import octguy.livanabe.dto.dto.ChatMessageDto;
+import octguy.livanabe.dto.dto.ChatUnreadCountDto;
 import octguy.livanabe.dto.request.SendMessageRequest;
 import octguy.livanabe.dto.response.ConversationResponse;
+import octguy.livanabe.dto.response.CursorPageResponse;
 import octguy.livanabe.dto.response.MessageResponse;
 import octguy.livanabe.entity.Conversation;
 import octguy.livanabe.entity.Message;
@@ -18,19 +19,23 @@ import octguy.livanabe.repository.MessageRepository;
 import octguy.livanabe.repository.UserProfileRepository;
 import octguy.livanabe.repository.UserRepository;
 import octguy.livanabe.service.IChatService;
+import octguy.livanabe.service.IRealtimeDeliveryService;
+import octguy.livanabe.utils.CursorUtils;
 import octguy.livanabe.utils.SecurityUtils;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ChatServiceImpl implements IChatService {
 
@@ -38,12 +43,36 @@ public class ChatServiceImpl implements IChatService {
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
     private final UserProfileRepository userProfileRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final IRealtimeDeliveryService realtimeDeliveryService;
+    private final TransactionTemplate transactionTemplate;
+
+    public ChatServiceImpl(ConversationRepository conversationRepository,
+                           MessageRepository messageRepository,
+                           UserRepository userRepository,
+                           UserProfileRepository userProfileRepository,
+                           IRealtimeDeliveryService realtimeDeliveryService,
+                           PlatformTransactionManager transactionManager) {
+        this.conversationRepository = conversationRepository;
+        this.messageRepository = messageRepository;
+        this.userRepository = userRepository;
+        this.userProfileRepository = userProfileRepository;
+        this.realtimeDeliveryService = realtimeDeliveryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private static final int DEFAULT_INBOX_LIMIT = 20;
+
+    private static final int DEFAULT_MESSAGE_LIMIT = 50;
+
+    // Upper bound for the unpaged history overload
+    private static final int MAX_UNPAGED_MESSAGES = 200;
+
+    private static final int UNREAD_RECOUNT_BATCH_SIZE = 1000;
 
     @Override
     @Transactional
     public ConversationResponse getOrCreateConversation(UUID participantId) {
-        UUID currentUserId = SecurityUtils.getCurrentUser().getId();
+        UUID currentUserId = SecurityUtils.getCurrentUserId();
 
         if (currentUserId.equals(participantId)) {
             throw new BadRequestException("Cannot create conversation with yourself");
@@ -75,17 +104,54 @@ public class ChatServiceImpl implements IChatService {
 
     @Override
     public List<ConversationResponse> getConversations() {
-        UUID currentUserId = SecurityUtils.getCurrentUser().getId();
+        UUID currentUserId = SecurityUtils.getCurrentUserId();
         List<Conversation> conversations = conversationRepository.findByUserId(currentUserId);
 
-        return conversations.stream()
-                .map(conv -> convertToConversationResponse(conv, currentUserId))
-                .collect(Collectors.toList());
+        return convertToConversationResponses(conversations, currentUserId);
+    }
+
+    @Override
+    public CursorPageResponse<ConversationResponse> getConversations(String cursor, Integer limit) {
+        UUID currentUserId = SecurityUtils.getCurrentUserId();
+        int pageSize = limit != null ? limit : DEFAULT_INBOX_LIMIT;
+
+        // Fetch one extra row to know whether another page exists
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<Conversation> conversations;
+        if (cursor == null || cursor.isBlank()) {
+            conversations = conversationRepository.findInboxPage(currentUserId, pageable);
+        } else {
+            String[] parts = CursorUtils.decode(cursor, 2);
+            UUID cursorId = parseCursorId(parts[1]);
+            if ("null".equals(parts[0])) {
+                conversations = conversationRepository.findInboxPageAfterEmpty(currentUserId, cursorId, pageable);
+            } else {
+                conversations = conversationRepository.findInboxPageAfter(
+                        currentUserId, parseCursorTime(parts[0]), cursorId, pageable);
+            }
+        }
+
+        boolean hasNext = conversations.size() > pageSize;
+        if (hasNext) {
+            conversations = conversations.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            Conversation last = conversations.get(conversations.size() - 1);
+            nextCursor = CursorUtils.encode(last.getLastMessageAt(), last.getId());
+        }
+
+        return CursorPageResponse.<ConversationResponse>builder()
+                .items(convertToConversationResponses(conversations, currentUserId))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
     }
 
     @Override
     public ConversationResponse getConversationById(UUID conversationId) {
-        UUID currentUserId = SecurityUtils.getCurrentUser().getId();
+        UUID currentUserId = SecurityUtils.getCurrentUserId();
 
         Conversation conversation = conversationRepository.findByIdWithUsers(conversationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversation not found"));
@@ -99,7 +165,7 @@ public class ChatServiceImpl implements IChatService {
 
     @Override
     public List<MessageResponse> getMessages(UUID conversationId) {
-        UUID currentUserId = SecurityUtils.getCurrentUser().getId();
+        UUID currentUserId = SecurityUtils.getCurrentUserId();
         
         Conversation conversation = conversationRepository.findByIdWithUsers(conversationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversation not found"));
@@ -108,22 +174,86 @@ public class ChatServiceImpl implements IChatService {
             throw new BadRequestException("You are not a participant of this conversation");
         }
 
-        List<Message> messages = messageRepository.findByConversationIdOrderByCreatedAtAsc(conversationId);
-        
-        // Get all sender profiles
-        Set<UUID> senderIds = messages.stream()
-                .map(m -> m.getSender().getId())
-                .collect(Collectors.toSet());
-        Map<UUID, UserProfile> profileMap = getProfileMap(senderIds);
+        List<Message> messages = messageRepository.findLatestByConversationId(
+                conversationId, PageRequest.of(0, MAX_UNPAGED_MESSAGES));
 
-        return messages.stream()
-                .map(msg -> convertToMessageResponse(msg, profileMap))
-                .collect(Collectors.toList());
+        // Reverse to get chronological order
+        Collections.reverse(messages);
+
+        return convertToMessageResponses(messages);
+    }
+
+    @Override
+    public CursorPageResponse<MessageResponse> getMessages(UUID conversationId, String before, String after, Integer limit) {
+        UUID currentUserId = SecurityUtils.getCurrentUserId();
+
+        Conversation conversation = conversationRepository.findByIdWithUsers(conversationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation not found"));
+
+        if (!conversation.hasParticipant(currentUserId)) {
+            throw new BadRequestException("You are not a participant of this conversation");
+        }
+
+        if (before != null && after != null) {
+            throw new BadRequestException("Only one of before and after can be set");
+        }
+
+        int pageSize = limit != null ? limit : DEFAULT_MESSAGE_LIMIT;
+
+        // Fetch one extra row to know whether another page exists
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        boolean forward = after != null;
+        List<Message> messages;
+        if (forward) {
+            String[] parts = CursorUtils.decode(after, 2);
+            messages = messageRepository.findAfterCursor(
+                    conversationId, parseCursorTime(parts[0]), parseCursorId(parts[1]), pageable);
+        } else if (before != null) {
+            String[] parts = CursorUtils.decode(before, 2);
+            messages = messageRepository.findBeforeCursor(
+                    conversationId, parseCursorTime(parts[0]), parseCursorId(parts[1]), pageable);
+        } else {
+            messages = messageRepository.findLatestByConversationId(conversationId, pageable);
+        }
+
+        // The extra row tells whether more messages exist in the direction fetched
+        boolean hasMore = messages.size() > pageSize;
+        if (hasMore) {
+            messages = new ArrayList<>(messages.subList(0, pageSize));
+        }
+
+        // Backward pages come newest first, reverse to get chronological order
+        if (!forward) {
+            Collections.reverse(messages);
+        }
+
+        // Older messages exist behind a forward page's cursor, newer ones in front of a backward page's cursor
+        boolean hasPrevious = forward || hasMore;
+        boolean hasNext = forward ? hasMore : before != null;
+
+        // The first and last rows key the pages before and after this one; the newest page still gets a next
+        // cursor so clients can poll for new messages, an empty page hands the request cursor back
+        String prevCursor = before;
+        String nextCursor = after;
+        if (!messages.isEmpty()) {
+            Message first = messages.get(0);
+            Message last = messages.get(messages.size() - 1);
+            prevCursor = CursorUtils.encode(first.getCreatedAt(), first.getId());
+            nextCursor = CursorUtils.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return CursorPageResponse.<MessageResponse>builder()
+                .items(convertToMessageResponses(messages))
+                .prevCursor(prevCursor)
+                .nextCursor(nextCursor)
+                .hasPrevious(hasPrevious)
+                .hasNext(hasNext)
+                .build();
     }
 
     @Override
     public List<MessageResponse> getMessages(UUID conversationId, int page, int size) {
-        UUID currentUserId = SecurityUtils.getCurrentUser().getId();
+        UUID currentUserId = SecurityUtils.getCurrentUserId();
 
         Conversation conversation = conversationRepository.findByIdWithUsers(conversationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversation not found"));
@@ -138,21 +268,13 @@ public class ChatServiceImpl implements IChatService {
         // Reverse to get chronological order
         Collections.reverse(messages);
 
-        // Get all sender profiles
-        Set<UUID> senderIds = messages.stream()
-                .map(m -> m.getSender().getId())
-                .collect(Collectors.toSet());
-        Map<UUID, UserProfile> profileMap = getProfileMap(senderIds);
-
-        return messages.stream()
-                .map(msg -> convertToMessageResponse(msg, profileMap))
-                .collect(Collectors.toList());
+        return convertToMessageResponses(messages);
     }
 
     @Override
     @Transactional
     public MessageResponse sendMessage(SendMessageRequest request) {
-        UUID currentUserId = SecurityUtils.getCurrentUser().getId();
+        UUID currentUserId = SecurityUtils.getCurrentUserId();
         User currentUser = userRepository.findById(currentUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("Current user not found"));
 
@@ -212,14 +334,16 @@ public class ChatServiceImpl implements IChatService {
         conversation.setLastMessageAt(LocalDateTime.now());
         conversationRepository.save(conversation);
 
+        UUID receiverId = conversation.getOtherParticipant(currentUserId).getId();
+        conversationRepository.incrementUnreadCount(conversation.getId(), receiverId);
+
         log.info("Message {} sent from {} to conversation {}", saved.getId(), currentUserId, conversation.getId());
 
         // Get sender profile for response
         UserProfile senderProfile = userProfileRepository.findByUserId(currentUserId).orElse(null);
         MessageResponse response = convertToMessageResponse(saved, Map.of(currentUserId, senderProfile));
 
-        // Send real-time notification to receiver via WebSocket
-        UUID receiverId = conversation.getOtherParticipant(currentUserId).getId();
+        // Send real-time notification to receiver via WebSocket, with their badge counts
         ChatMessageDto chatMessage = ChatMessageDto.builder()
                 .id(saved.getId())
                 .conversationId(conversation.getId())
@@ -234,9 +358,11 @@ public class ChatServiceImpl implements IChatService {
                 .fileSize(request.getFileSize())
                 .fileType(request.getFileType())
                 .createdAt(saved.getCreatedAt())
+                .conversationUnreadCount(conversationRepository.getUnreadCount(conversation.getId(), receiverId))
+                .totalUnreadCount(conversationRepository.sumUnreadCountByUserId(receiverId))
                 .build();
 
-        messagingTemplate.convertAndSend("/topic/chat/" + receiverId.toString(), chatMessage);
+        realtimeDeliveryService.sendToUser(receiverId, "/topic/chat/" + receiverId.toString(), chatMessage);
         log.debug("Sent WebSocket message to /topic/chat/{}", receiverId);
 
         return response;
@@ -245,7 +371,7 @@ public class ChatServiceImpl implements IChatService {
     @Override
     @Transactional
     public void markMessagesAsRead(UUID conversationId) {
-        UUID currentUserId = SecurityUtils.getCurrentUser().getId();
+        UUID currentUserId = SecurityUtils.getCurrentUserId();
 
         Conversation conversation = conversationRepository.findByIdWithUsers(conversationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversation not found"));
@@ -254,19 +380,29 @@ public class ChatServiceImpl implements IChatService {
             throw new BadRequestException("You are not a participant of this conversation");
         }
 
+        // Reset the counter first: it locks the conversation row, so a concurrent send waits for this to commit
+        conversationRepository.resetUnreadCount(conversationId, currentUserId);
         messageRepository.markAsReadByConversationIdAndUserId(conversationId, currentUserId);
         log.debug("Marked messages as read in conversation {} for user {}", conversationId, currentUserId);
+
+        // Keep the badge in sync on the user's other open sessions
+        ChatUnreadCountDto unreadCount = ChatUnreadCountDto.builder()
+                .conversationId(conversationId)
+                .conversationUnreadCount(0)
+                .totalUnreadCount(conversationRepository.sumUnreadCountByUserId(currentUserId))
+                .build();
+        realtimeDeliveryService.sendToUser(currentUserId, "/topic/chat/" + currentUserId + "/unread", unreadCount);
     }
 
     @Override
     public long getUnreadMessageCount() {
-        UUID currentUserId = SecurityUtils.getCurrentUser().getId();
-        return messageRepository.countTotalUnreadByUserId(currentUserId);
+        UUID currentUserId = SecurityUtils.getCurrentUserId();
+        return conversationRepository.sumUnreadCountByUserId(currentUserId);
     }
 
     @Override
     public long getUnreadCountForConversation(UUID conversationId) {
-        UUID currentUserId = SecurityUtils.getCurrentUser().getId();
+        UUID currentUserId = SecurityUtils.getCurrentUserId();
 
         Conversation conversation = conversationRepository.findByIdWithUsers(conversationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversation not found"));
@@ -275,7 +411,27 @@ public class ChatServiceImpl implements IChatService {
             throw new BadRequestException("You are not a participant of this conversation");
         }
 
-        return messageRepository.countUnreadByConversationIdAndUserId(conversationId, currentUserId);
+        return conversation.getUnreadCountFor(currentUserId);
+    }
+
+    @Override
+    @Scheduled(cron = "0 0 4 * * *") // runs every day at 04:00
+    public void repairUnreadCounts() {
+        // Drift is rare, so one read-only query finds it and only the drifted conversations are locked and recounted.
+        // The recount runs after the lock, so it sees every message whose send or read already updated the counters.
+        List<UUID> drifted = conversationRepository.findIdsWithUnreadDrift();
+        int repaired = 0;
+        for (int from = 0; from < drifted.size(); from += UNREAD_RECOUNT_BATCH_SIZE) {
+            List<UUID> batch = drifted.subList(from, Math.min(from + UNREAD_RECOUNT_BATCH_SIZE, drifted.size()));
+            Integer updated = transactionTemplate.execute(status -> {
+                conversationRepository.lockForUnreadRecount(batch);
+                return conversationRepository.recountUnread(batch);
+            });
+            repaired += updated != null ? updated : 0;
+        }
+        if (repaired > 0) {
+            log.warn("Repaired unread counters of {} conversations", repaired);
+        }
     }
 
     // Helper methods
@@ -288,11 +444,51 @@ public class ChatServiceImpl implements IChatService {
                 .collect(Collectors.toMap(p -> p.getUser().getId(), p -> p));
     }
 
+    private UUID parseCursorId(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    private LocalDateTime parseCursorTime(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Build inbox rows with one batched profile lookup, whatever the number of rows
+     */
+    private List<ConversationResponse> convertToConversationResponses(List<Conversation> conversations, UUID currentUserId) {
+        if (conversations.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<UUID> otherUserIds = conversations.stream()
+                .map(conv -> conv.getOtherParticipant(currentUserId).getId())
+                .collect(Collectors.toSet());
+        Map<UUID, UserProfile> profileMap = getProfileMap(otherUserIds);
+
+        return conversations.stream()
+                .map(conv -> buildConversationResponse(conv, currentUserId,
+                        profileMap.get(conv.getOtherParticipant(currentUserId).getId())))
+                .collect(Collectors.toList());
+    }
+
     private ConversationResponse convertToConversationResponse(Conversation conversation, UUID currentUserId) {
         User otherUser = conversation.getOtherParticipant(currentUserId);
         UserProfile otherProfile = userProfileRepository.findByUserId(otherUser.getId()).orElse(null);
 
-        long unreadCount = messageRepository.countUnreadByConversationIdAndUserId(conversation.getId(), currentUserId);
+        return buildConversationResponse(conversation, currentUserId, otherProfile);
+    }
+
+    private ConversationResponse buildConversationResponse(Conversation conversation, UUID currentUserId,
+                                                           UserProfile otherProfile) {
+        User otherUser = conversation.getOtherParticipant(currentUserId);
 
         ConversationResponse.ParticipantInfo participantInfo = ConversationResponse.ParticipantInfo.builder()
                 .id(otherUser.getId())
@@ -305,11 +501,22 @@ public class ChatServiceImpl implements IChatService {
                 .participant(participantInfo)
                 .lastMessageContent(conversation.getLastMessageContent())
                 .lastMessageAt(conversation.getLastMessageAt())
-                .unreadCount((int) unreadCount)
+                .unreadCount(conversation.getUnreadCountFor(currentUserId))
                 .createdAt(conversation.getCreatedAt())
                 .build();
     }
 
+    private List<MessageResponse> convertToMessageResponses(List<Message> messages) {
+        Set<UUID> senderIds = messages.stream()
+                .map(m -> m.getSender().getId())
+                .collect(Collectors.toSet());
+        Map<UUID, UserProfile> profileMap = getProfileMap(senderIds);
+
+        return messages.stream()
+                .map(msg -> convertToMessageResponse(msg, profileMap))
+                .collect(Collectors.toList());
+    }
+
     private MessageResponse convertToMessageResponse(Message message, Map<UUID, UserProfile> profileMap) {
         UUID senderId = message.getSender().getId();
         UserProfile senderProfile = profileMap.get(senderId);
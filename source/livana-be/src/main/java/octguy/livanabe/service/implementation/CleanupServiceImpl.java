@@ -1,5 +1,6 @@
 package octguy.livanabe.service.implementation;
 
+import lombok.extern.slf4j.Slf4j;
 import octguy.livanabe.entity.AuthCredential;
 import octguy.livanabe.entity.PasswordResetToken;
 import octguy.livanabe.entity.RefreshToken;
@@ -9,6 +10,7 @@ import octguy.livanabe.repository.PasswordResetTokenRepository;
 import octguy.livanabe.repository.RefreshTokenRepository;
 import octguy.livanabe.repository.UserRepository;
 import octguy.livanabe.service.ICleanupService;
+import octguy.livanabe.service.IDailyMetricService;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,6 +19,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
+@Slf4j
 public class CleanupServiceImpl implements ICleanupService {
 
     private final UserRepository userRepository;
@@ -27,10 +30,14 @@ public class CleanupServiceImpl implements ICleanupService {
 
     private final PasswordResetTokenRepository passwordResetTokenRepository;
 
+    private final IDailyMetricService dailyMetricService;
+
     public CleanupServiceImpl(UserRepository userRepository,
                               AuthCredentialRepository authCredentialRepository,
                               RefreshTokenRepository refreshTokenRepository,
-                              PasswordResetTokenRepository passwordResetTokenRepository) {
+                              PasswordResetTokenRepository passwordResetTokenRepository,
+                              IDailyMetricService dailyMetricService) {
+        this.dailyMetricService = dailyMetricService;
         this.authCredentialRepository = authCredentialRepository;
         this.userRepository = userRepository;
         this.refreshTokenRepository = refreshTokenRepository;
@@ -39,13 +46,13 @@ public class CleanupServiceImpl implements ICleanupService {
 
     @Override
     @Transactional
-    @Scheduled(cron = "0 0 0 * * *") // runs every 1 day at midnight
+    @Scheduled(cron = "${app.cleanup.cron:0 0 0 * * *}") // runs every 1 day at midnight unless configured otherwise
     public void cleanupPendingUsers() {
         LocalDateTime now = LocalDateTime.now();
         List<User> users = userRepository.findPendingUserExceedOneDay();
 
         if (users.isEmpty()) {
-            System.out.println("No unverified users to clean up.");
+            log.info("No unverified users to clean up");
         } else {
             List<AuthCredential> authCredentials = authCredentialRepository.findAllByUserIn(users);
 
@@ -55,36 +62,37 @@ public class CleanupServiceImpl implements ICleanupService {
 
             userRepository.saveAll(users);
             authCredentialRepository.saveAll(authCredentials);
+            dailyMetricService.recordUsersDeleted(users);
 
-            System.out.println("Cleaned up " + users.size() + " unverified users and their credentials.");
+            log.info("Cleaned up {} unverified users and their credentials", users.size());
         }
     }
 
     @Override
     @Transactional
-    @Scheduled(cron = "0 0 0 * * *") // runs every 1 day at midnight
+    @Scheduled(cron = "${app.cleanup.cron:0 0 0 * * *}") // runs every 1 day at midnight unless configured otherwise
     public void cleanupExpiredRefreshTokens() {
         List<RefreshToken> expiredTokens = refreshTokenRepository.findAllTokenExpiredAfter24Hours();
 
         if (expiredTokens.isEmpty()) {
-            System.out.println("No expired refresh tokens to clean up.");
+            log.info("No expired refresh tokens to clean up");
         } else {
             refreshTokenRepository.deleteAll(expiredTokens);
-            System.out.println("Cleaned up " + expiredTokens.size() + " expired refresh tokens.");
+            log.info("Cleaned up {} expired refresh tokens", expiredTokens.size());
         }
     }
 
     @Override
     @Transactional
-    @Scheduled(cron = "0 0 0 * * *") // runs every 1 day at midnight
+    @Scheduled(cron = "${app.cleanup.cron:0 0 0 * * *}") // runs every 1 day at midnight unless configured otherwise
     public void cleanupExpiredPasswordResetTokens() {
         List<PasswordResetToken> expiredTokens = passwordResetTokenRepository.findAllTokenExpiredAfter24Hours();
 
         if (expiredTokens.isEmpty()) {
-            System.out.println("No expired password reset tokens to clean up.");
+            log.info("No expired password reset tokens to clean up");
         } else {
             passwordResetTokenRepository.deleteAll(expiredTokens);
-            System.out.println("Cleaned up " + expiredTokens.size() + " expired password reset tokens.");
+            log.info("Cleaned up {} expired password reset tokens", expiredTokens.size());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,222 @@
+package octguy.livanabe.service.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import octguy.livanabe.dto.dto.DailyBookingSummaryDto;
+import octguy.livanabe.dto.dto.MetricDayDto;
+import octguy.livanabe.entity.*;
+import octguy.livanabe.enums.BookingStatus;
+import octguy.livanabe.exception.BadRequestException;
+import octguy.livanabe.repository.DailyMetricRepository;
+import octguy.livanabe.repository.ExperienceBookingRepository;
+import octguy.livanabe.repository.HomeBookingRepository;
+import octguy.livanabe.service.IDailyMetricService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@Slf4j
+public class DailyMetricServiceImpl implements IDailyMetricService {
+
+    // Lower bound used when rebuilding the whole table
+    private static final LocalDate EPOCH = LocalDate.of(2000, 1, 1);
+
+    // pg advisory lock key shared by every node rebuilding the rollup
+    private static final long REBUILD_LOCK_KEY = 0x6461696c796d6574L;
+
+    private final DailyMetricRepository dailyMetricRepository;
+    private final HomeBookingRepository homeBookingRepository;
+    private final ExperienceBookingRepository experienceBookingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public DailyMetricServiceImpl(DailyMetricRepository dailyMetricRepository,
+                                  HomeBookingRepository homeBookingRepository,
+                                  ExperienceBookingRepository experienceBookingRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.dailyMetricRepository = dailyMetricRepository;
+        this.homeBookingRepository = homeBookingRepository;
+        this.experienceBookingRepository = experienceBookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional
+    public void recordUserCreated(User user) {
+        increment(DailyMetric.GLOBAL_SCOPE, user.getCreatedAt(), 1, 0, 0, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    @Override
+    @Transactional
+    public void recordUsersDeleted(List<User> users) {
+        users.forEach(user ->
+                increment(DailyMetric.GLOBAL_SCOPE, user.getCreatedAt(), -1, 0, 0, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO));
+    }
+
+    @Override
+    @Transactional
+    public void recordListingCreated(BaseListing listing) {
+        long home = listing instanceof HomeListing ? 1 : 0;
+        long experience = listing instanceof ExperienceListing ? 1 : 0;
+
+        incrementGlobalAndHost(listing.getHost().getId(), listing.getCreatedAt(),
+                0, home, experience, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    @Override
+    @Transactional
+    public void recordListingDeleted(BaseListing listing) {
+        UUID hostId = listing.getHost().getId();
+        boolean isHome = listing instanceof HomeListing;
+
+        incrementGlobalAndHost(hostId, listing.getCreatedAt(),
+                0, isHome ? -1 : 0, isHome ? 0 : -1, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO);
+
+        // The listing's bookings are hard-deleted with it, so take them out day by day
+        List<DailyBookingSummaryDto> bookingDays = isHome
+                ? homeBookingRepository.summarizeDailyByHomeListingId(listing.getId())
+                : experienceBookingRepository.summarizeDailyByExperienceListingId(listing.getId());
+
+        for (DailyBookingSummaryDto day : bookingDays) {
+            long bookings = -day.getBookings();
+            BigDecimal revenue = day.getRevenue().negate();
+            LocalDateTime dayStart = day.getDay().atStartOfDay();
+
+            if (isHome) {
+                incrementGlobalAndHost(hostId, dayStart, 0, 0, 0, bookings, 0, revenue, BigDecimal.ZERO);
+            } else {
+                incrementGlobalAndHost(hostId, dayStart, 0, 0, 0, 0, bookings, BigDecimal.ZERO, revenue);
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordBookingCreated(Booking booking, UUID hostId) {
+        boolean isHome = booking instanceof HomeBooking;
+        BigDecimal revenue = booking.getStatus() == BookingStatus.CONFIRMED ? booking.getTotalPrice() : BigDecimal.ZERO;
+
+        if (isHome) {
+            incrementGlobalAndHost(hostId, booking.getCreatedAt(), 0, 0, 0, 1, 0, revenue, BigDecimal.ZERO);
+        } else {
+            incrementGlobalAndHost(hostId, booking.getCreatedAt(), 0, 0, 0, 0, 1, BigDecimal.ZERO, revenue);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordBookingStatusChanged(Booking booking, UUID hostId, BookingStatus previousStatus) {
+        boolean wasConfirmed = previousStatus == BookingStatus.CONFIRMED;
+        boolean isConfirmed = booking.getStatus() == BookingStatus.CONFIRMED;
+
+        if (wasConfirmed == isConfirmed) {
+            return;
+        }
+
+        // Revenue is attributed to the day the booking was created
+        BigDecimal revenue = isConfirmed ? booking.getTotalPrice() : booking.getTotalPrice().negate();
+
+        if (booking instanceof HomeBooking) {
+            incrementGlobalAndHost(hostId, booking.getCreatedAt(), 0, 0, 0, 0, 0, revenue, BigDecimal.ZERO);
+        } else {
+            incrementGlobalAndHost(hostId, booking.getCreatedAt(), 0, 0, 0, 0, 0, BigDecimal.ZERO, revenue);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DailyMetric> getDailyMetrics(UUID scopeId, LocalDate startDate, LocalDate endDate) {
+        return dailyMetricRepository.findByScopeIdAndMetricDateBetweenOrderByMetricDateAsc(scopeId, startDate, endDate);
+    }
+
+    @Override
+    @Transactional
+    public void rebuild(LocalDate startDate, LocalDate endDate) {
+        LocalDate from = startDate != null ? startDate : EPOCH;
+        LocalDate to = endDate != null ? endDate : LocalDate.now();
+
+        if (to.isBefore(from)) {
+            throw new BadRequestException("End date must not be before start date");
+        }
+
+        // An explicit rebuild waits for a running one instead of interleaving its delete and inserts
+        dailyMetricRepository.lockRebuild(REBUILD_LOCK_KEY);
+        rebuildRange(from, to);
+    }
+
+    @Scheduled(cron = "0 30 3 * * *") // runs every day at 03:30, after the midnight cleanup jobs
+    public void reconcile() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Only one node reconciles; the others find the lock taken and skip this run
+            if (!dailyMetricRepository.tryLockRebuild(REBUILD_LOCK_KEY)) {
+                log.info("Daily metrics reconciliation already running on another node, skipping");
+                return;
+            }
+
+            LocalDate today = LocalDate.now();
+            List<LocalDate> drifted = dailyMetricRepository.findDriftedDays(DailyMetric.GLOBAL_SCOPE,
+                    EPOCH.atStartOfDay(), today.plusDays(1).atStartOfDay())
+                    .stream()
+                    .map(MetricDayDto::getDay)
+                    .toList();
+
+            if (drifted.isEmpty()) {
+                log.info("Daily metrics match the source tables");
+                return;
+            }
+
+            log.warn("Daily metrics drifted on {} day(s) between {} and {}, rebuilding them",
+                    drifted.size(), drifted.get(0), drifted.get(drifted.size() - 1));
+
+            // Rebuild each run of consecutive drifted days as one range
+            LocalDate runStart = drifted.get(0);
+            LocalDate runEnd = runStart;
+            for (LocalDate day : drifted.subList(1, drifted.size())) {
+                if (!day.equals(runEnd.plusDays(1))) {
+                    rebuildRange(runStart, runEnd);
+                    runStart = day;
+                }
+                runEnd = day;
+            }
+            rebuildRange(runStart, runEnd);
+        });
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private void rebuildRange(LocalDate from, LocalDate to) {
+        LocalDateTime rangeStart = from.atStartOfDay();
+        LocalDateTime rangeEnd = to.plusDays(1).atStartOfDay();
+
+        log.info("Rebuilding daily metrics from {} to {}", from, to);
+        dailyMetricRepository.deleteBetween(rangeStart, rangeEnd);
+        dailyMetricRepository.rebuildGlobal(DailyMetric.GLOBAL_SCOPE, rangeStart, rangeEnd);
+        dailyMetricRepository.rebuildPerHost(rangeStart, rangeEnd);
+    }
+
+    private void incrementGlobalAndHost(UUID hostId, LocalDateTime createdAt,
+                                        long users, long homeListings, long experienceListings,
+                                        long homeBookings, long experienceBookings,
+                                        BigDecimal homeRevenue, BigDecimal experienceRevenue) {
+        increment(DailyMetric.GLOBAL_SCOPE, createdAt, users, homeListings, experienceListings,
+                homeBookings, experienceBookings, homeRevenue, experienceRevenue);
+        increment(hostId, createdAt, 0, homeListings, experienceListings,
+                homeBookings, experienceBookings, homeRevenue, experienceRevenue);
+    }
+
+    private void increment(UUID scopeId, LocalDateTime createdAt,
+                           long users, long homeListings, long experienceListings,
+                           long homeBookings, long experienceBookings,
+                           BigDecimal homeRevenue, BigDecimal experienceRevenue) {
+        LocalDate day = createdAt != null ? createdAt.toLocalDate() : LocalDate.now();
+        dailyMetricRepository.increment(scopeId, day, users, homeListings, experienceListings,
+                homeBookings, experienceBookings, homeRevenue, experienceRevenue);
+    }
+}
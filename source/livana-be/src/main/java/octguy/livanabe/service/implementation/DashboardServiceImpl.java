@@ -2,22 +2,27 @@ package octguy.livanabe.service.implementation;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import octguy.livanabe.dto.dto.MetricTotalsDto;
+import octguy.livanabe.dto.dto.PeriodBucketCountDto;
+import octguy.livanabe.dto.dto.PeriodBucketSumDto;
 import octguy.livanabe.dto.response.ComparisonStatsResponse;
 import octguy.livanabe.dto.response.DashboardStatsResponse;
 import octguy.livanabe.dto.response.PeriodStatsResponse;
+import octguy.livanabe.entity.DailyMetric;
 import octguy.livanabe.repository.*;
 import octguy.livanabe.service.IDashboardService;
+import octguy.livanabe.utils.PeriodBucketUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -30,29 +35,34 @@ public class DashboardServiceImpl implements IDashboardService {
     private final ExperienceListingRepository experienceListingRepository;
     private final HomeBookingRepository homeBookingRepository;
     private final ExperienceBookingRepository experienceBookingRepository;
+    private final DailyMetricRepository dailyMetricRepository;
 
     @Override
     public DashboardStatsResponse getOverallStats() {
         log.debug("Getting overall dashboard statistics");
 
+        // Totals come from the daily rollup, one row per day instead of one per booking
+        MetricTotalsDto totals = dailyMetricRepository.sumTotalsByScopeId(DailyMetric.GLOBAL_SCOPE);
+
         // User statistics
-        Long totalUsers = userRepository.countAllActiveUsers();
-        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
-        Long newUsersToday = userRepository.countUsersCreatedAfter(todayStart);
+        Long totalUsers = totals.getNewUsers();
+        Long newUsersToday = dailyMetricRepository.findByScopeIdAndMetricDate(DailyMetric.GLOBAL_SCOPE, LocalDate.now())
+                .map(DailyMetric::getNewUsers)
+                .orElse(0L);
 
         // Listing statistics
-        Long totalHomeListings = homeListingRepository.countAllActiveHomeListings();
-        Long totalExperienceListings = experienceListingRepository.countAllActiveExperienceListings();
+        Long totalHomeListings = totals.getNewHomeListings();
+        Long totalExperienceListings = totals.getNewExperienceListings();
         Long totalListings = totalHomeListings + totalExperienceListings;
 
         // Booking statistics
-        Long totalHomeBookings = homeBookingRepository.countAllActiveHomeBookings();
-        Long totalExperienceBookings = experienceBookingRepository.countAllActiveExperienceBookings();
+        Long totalHomeBookings = totals.getHomeBookings();
+        Long totalExperienceBookings = totals.getExperienceBookings();
         Long totalBookings = totalHomeBookings + totalExperienceBookings;
 
         // Revenue statistics
-        BigDecimal totalHomeRevenue = homeBookingRepository.sumAllHomeRevenue();
-        BigDecimal totalExperienceRevenue = experienceBookingRepository.sumAllExperienceRevenue();
+        BigDecimal totalHomeRevenue = totals.getHomeRevenue();
+        BigDecimal totalExperienceRevenue = totals.getExperienceRevenue();
         BigDecimal totalRevenue = totalHomeRevenue.add(totalExperienceRevenue);
 
         return DashboardStatsResponse.builder()
@@ -75,6 +85,19 @@ public class DashboardServiceImpl implements IDashboardService {
     public PeriodStatsResponse getPeriodStats(String period, LocalDate startDate, LocalDate endDate) {
         log.debug("Getting period statistics: period={}, startDate={}, endDate={}", period, startDate, endDate);
 
+        String unit = getUnitForPeriod(period);
+        LocalDateTime rangeStart = startDate.atStartOfDay();
+        LocalDateTime rangeEnd = endDate.plusDays(1).atStartOfDay();
+
+        // One grouped query per metric, whatever the length of the range
+        Map<Integer, Long> users = toCountMap(userRepository.countUsersCreatedPerBucket(unit, rangeStart, rangeEnd));
+        Map<Integer, Long> homeListings = toCountMap(homeListingRepository.countHomeListingsCreatedPerBucket(unit, rangeStart, rangeEnd));
+        Map<Integer, Long> experienceListings = toCountMap(experienceListingRepository.countExperienceListingsCreatedPerBucket(unit, rangeStart, rangeEnd));
+        Map<Integer, Long> homeBookings = toCountMap(homeBookingRepository.countHomeBookingsCreatedPerBucket(unit, rangeStart, rangeEnd));
+        Map<Integer, Long> experienceBookings = toCountMap(experienceBookingRepository.countExperienceBookingsCreatedPerBucket(unit, rangeStart, rangeEnd));
+        Map<Integer, BigDecimal> homeRevenue = toSumMap(homeBookingRepository.sumHomeRevenuePerBucket(unit, rangeStart, rangeEnd));
+        Map<Integer, BigDecimal> experienceRevenue = toSumMap(experienceBookingRepository.sumExperienceRevenuePerBucket(unit, rangeStart, rangeEnd));
+
         List<PeriodStatsResponse.DataPoint> userGrowth = new ArrayList<>();
         List<PeriodStatsResponse.DataPoint> homeListingGrowth = new ArrayList<>();
         List<PeriodStatsResponse.DataPoint> experienceListingGrowth = new ArrayList<>();
@@ -83,69 +106,45 @@ public class DashboardServiceImpl implements IDashboardService {
         List<PeriodStatsResponse.RevenueDataPoint> homeRevenueGrowth = new ArrayList<>();
         List<PeriodStatsResponse.RevenueDataPoint> experienceRevenueGrowth = new ArrayList<>();
 
-        DateTimeFormatter formatter = getFormatterForPeriod(period);
-        
-        LocalDate current = startDate;
-        while (!current.isAfter(endDate)) {
-            LocalDate next = getNextDate(current, period);
-            if (next.isAfter(endDate)) {
-                next = endDate.plusDays(1);
-            }
-
-            LocalDateTime periodStart = current.atStartOfDay();
-            LocalDateTime periodEnd = next.atStartOfDay();
-            String label = current.format(formatter);
+        // Fill every bucket, including the empty ones
+        List<String> labels = getBucketLabels(period, startDate, endDate);
+        for (int bucket = 0; bucket < labels.size(); bucket++) {
+            String label = labels.get(bucket);
 
-            // User growth
-            Long userCount = userRepository.countUsersCreatedBetween(periodStart, periodEnd);
             userGrowth.add(PeriodStatsResponse.DataPoint.builder()
                     .label(label)
-                    .value(userCount)
+                    .value(users.getOrDefault(bucket, 0L))
                     .build());
 
-            // Home listing growth
-            Long homeListingCount = homeListingRepository.countHomeListingsCreatedBetween(periodStart, periodEnd);
             homeListingGrowth.add(PeriodStatsResponse.DataPoint.builder()
                     .label(label)
-                    .value(homeListingCount)
+                    .value(homeListings.getOrDefault(bucket, 0L))
                     .build());
 
-            // Experience listing growth
-            Long experienceListingCount = experienceListingRepository.countExperienceListingsCreatedBetween(periodStart, periodEnd);
             experienceListingGrowth.add(PeriodStatsResponse.DataPoint.builder()
                     .label(label)
-                    .value(experienceListingCount)
+                    .value(experienceListings.getOrDefault(bucket, 0L))
                     .build());
 
-            // Home booking growth
-            Long homeBookingCount = homeBookingRepository.countHomeBookingsCreatedBetween(periodStart, periodEnd);
             homeBookingGrowth.add(PeriodStatsResponse.DataPoint.builder()
                     .label(label)
-                    .value(homeBookingCount)
+                    .value(homeBookings.getOrDefault(bucket, 0L))
                     .build());
 
-            // Experience booking growth
-            Long experienceBookingCount = experienceBookingRepository.countExperienceBookingsCreatedBetween(periodStart, periodEnd);
             experienceBookingGrowth.add(PeriodStatsResponse.DataPoint.builder()
                     .label(label)
-                    .value(experienceBookingCount)
+                    .value(experienceBookings.getOrDefault(bucket, 0L))
                     .build());
 
-            // Home revenue growth
-            BigDecimal homeRevenue = homeBookingRepository.sumHomeRevenueBetween(periodStart, periodEnd);
             homeRevenueGrowth.add(PeriodStatsResponse.RevenueDataPoint.builder()
                     .label(label)
-                    .value(homeRevenue)
+                    .value(homeRevenue.getOrDefault(bucket, BigDecimal.ZERO))
                     .build());
 
-            // Experience revenue growth
-            BigDecimal experienceRevenue = experienceBookingRepository.sumExperienceRevenueBetween(periodStart, periodEnd);
             experienceRevenueGrowth.add(PeriodStatsResponse.RevenueDataPoint.builder()
                     .label(label)
-                    .value(experienceRevenue)
+                    .value(experienceRevenue.getOrDefault(bucket, BigDecimal.ZERO))
                     .build());
-
-            current = next;
         }
 
         return PeriodStatsResponse.builder()
@@ -166,51 +165,42 @@ public class DashboardServiceImpl implements IDashboardService {
     public ComparisonStatsResponse getComparisonStats(String period, LocalDate startDate, LocalDate endDate) {
         log.debug("Getting comparison statistics: period={}, startDate={}, endDate={}", period, startDate, endDate);
 
+        String unit = getUnitForPeriod(period);
+        LocalDateTime rangeStart = startDate.atStartOfDay();
+        LocalDateTime rangeEnd = endDate.plusDays(1).atStartOfDay();
+
+        Map<Integer, Long> homeListings = toCountMap(homeListingRepository.countHomeListingsCreatedPerBucket(unit, rangeStart, rangeEnd));
+        Map<Integer, Long> experienceListings = toCountMap(experienceListingRepository.countExperienceListingsCreatedPerBucket(unit, rangeStart, rangeEnd));
+        Map<Integer, Long> homeBookings = toCountMap(homeBookingRepository.countHomeBookingsCreatedPerBucket(unit, rangeStart, rangeEnd));
+        Map<Integer, Long> experienceBookings = toCountMap(experienceBookingRepository.countExperienceBookingsCreatedPerBucket(unit, rangeStart, rangeEnd));
+        Map<Integer, BigDecimal> homeRevenue = toSumMap(homeBookingRepository.sumHomeRevenuePerBucket(unit, rangeStart, rangeEnd));
+        Map<Integer, BigDecimal> experienceRevenue = toSumMap(experienceBookingRepository.sumExperienceRevenuePerBucket(unit, rangeStart, rangeEnd));
+
         List<ComparisonStatsResponse.ComparisonDataPoint> listingComparison = new ArrayList<>();
         List<ComparisonStatsResponse.ComparisonDataPoint> bookingComparison = new ArrayList<>();
         List<ComparisonStatsResponse.RevenueComparisonDataPoint> revenueComparison = new ArrayList<>();
 
-        DateTimeFormatter formatter = getFormatterForPeriod(period);
+        List<String> labels = getBucketLabels(period, startDate, endDate);
+        for (int bucket = 0; bucket < labels.size(); bucket++) {
+            String label = labels.get(bucket);
 
-        LocalDate current = startDate;
-        while (!current.isAfter(endDate)) {
-            LocalDate next = getNextDate(current, period);
-            if (next.isAfter(endDate)) {
-                next = endDate.plusDays(1);
-            }
-
-            LocalDateTime periodStart = current.atStartOfDay();
-            LocalDateTime periodEnd = next.atStartOfDay();
-            String label = current.format(formatter);
-
-            // Listing comparison
-            Long homeListingCount = homeListingRepository.countHomeListingsCreatedBetween(periodStart, periodEnd);
-            Long experienceListingCount = experienceListingRepository.countExperienceListingsCreatedBetween(periodStart, periodEnd);
             listingComparison.add(ComparisonStatsResponse.ComparisonDataPoint.builder()
                     .label(label)
-                    .homeValue(homeListingCount)
-                    .experienceValue(experienceListingCount)
+                    .homeValue(homeListings.getOrDefault(bucket, 0L))
+                    .experienceValue(experienceListings.getOrDefault(bucket, 0L))
                     .build());
 
-            // Booking comparison
-            Long homeBookingCount = homeBookingRepository.countHomeBookingsCreatedBetween(periodStart, periodEnd);
-            Long experienceBookingCount = experienceBookingRepository.countExperienceBookingsCreatedBetween(periodStart, periodEnd);
             bookingComparison.add(ComparisonStatsResponse.ComparisonDataPoint.builder()
                     .label(label)
-                    .homeValue(homeBookingCount)
-                    .experienceValue(experienceBookingCount)
+                    .homeValue(homeBookings.getOrDefault(bucket, 0L))
+                    .experienceValue(experienceBookings.getOrDefault(bucket, 0L))
                     .build());
 
-            // Revenue comparison
-            BigDecimal homeRevenue = homeBookingRepository.sumHomeRevenueBetween(periodStart, periodEnd);
-            BigDecimal experienceRevenue = experienceBookingRepository.sumExperienceRevenueBetween(periodStart, periodEnd);
             revenueComparison.add(ComparisonStatsResponse.RevenueComparisonDataPoint.builder()
                     .label(label)
-                    .homeValue(homeRevenue)
-                    .experienceValue(experienceRevenue)
+                    .homeValue(homeRevenue.getOrDefault(bucket, BigDecimal.ZERO))
+                    .experienceValue(experienceRevenue.getOrDefault(bucket, BigDecimal.ZERO))
                     .build());
-
-            current = next;
         }
 
         return ComparisonStatsResponse.builder()
@@ -223,6 +213,39 @@ public class DashboardServiceImpl implements IDashboardService {
                 .build();
     }
 
+    // Labels of the buckets between startDate and endDate; bucket i starts i periods after startDate
+    private List<String> getBucketLabels(String period, LocalDate startDate, LocalDate endDate) {
+        DateTimeFormatter formatter = getFormatterForPeriod(period);
+        List<String> labels = new ArrayList<>();
+
+        LocalDate current = startDate;
+        while (!current.isAfter(endDate)) {
+            labels.add(current.format(formatter));
+            current = getBucketStart(startDate, period, labels.size());
+        }
+        return labels;
+    }
+
+    private Map<Integer, Long> toCountMap(List<PeriodBucketCountDto> rows) {
+        Map<Integer, Long> values = new HashMap<>();
+        rows.forEach(row -> values.put(row.getBucket(), row.getValue()));
+        return values;
+    }
+
+    private Map<Integer, BigDecimal> toSumMap(List<PeriodBucketSumDto> rows) {
+        Map<Integer, BigDecimal> values = new HashMap<>();
+        rows.forEach(row -> values.put(row.getBucket(), row.getValue()));
+        return values;
+    }
+
+    private String getUnitForPeriod(String period) {
+        return switch (period.toUpperCase()) {
+            case "MONTH" -> "MONTH";
+            case "YEAR" -> "YEAR";
+            default -> "DAY";
+        };
+    }
+
     private DateTimeFormatter getFormatterForPeriod(String period) {
         return switch (period.toUpperCase()) {
             case "DAY" -> DateTimeFormatter.ofPattern("dd/MM");
@@ -232,12 +255,7 @@ public class DashboardServiceImpl implements IDashboardService {
         };
     }
 
-    private LocalDate getNextDate(LocalDate current, String period) {
-        return switch (period.toUpperCase()) {
-            case "DAY" -> current.plusDays(1);
-            case "MONTH" -> current.plusMonths(1);
-            case "YEAR" -> current.plusYears(1);
-            default -> current.plusDays(1);
-        };
+    private LocalDate getBucketStart(LocalDate startDate, String period, int bucket) {
+        return PeriodBucketUtils.getBucketStart(startDate, PeriodBucketUtils.getUnit(period), bucket);
     }
 }
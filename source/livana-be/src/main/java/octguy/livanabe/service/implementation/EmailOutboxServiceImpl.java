@@ -0,0 +1,212 @@
+package octguy.livanabe.service.implementation;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import octguy.livanabe.entity.EmailOutbox;
+import octguy.livanabe.enums.EmailTemplate;
+import octguy.livanabe.repository.EmailOutboxRepository;
+import octguy.livanabe.service.IEmailOutboxService;
+import octguy.livanabe.service.IEmailService;
+import octguy.livanabe.utils.OutboxUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+@Slf4j
+public class EmailOutboxServiceImpl implements IEmailOutboxService {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{(\\w+)}}");
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final IEmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.backoff-base-ms:30000}")
+    private long backoffBaseMs;
+
+    @Value("${app.email.outbox.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    // How long a dispatched email stays invisible to other dispatchers; must exceed the SMTP timeouts
+    @Value("${app.email.outbox.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${app.email.sender.pool-size:4}")
+    private int senderPoolSize;
+
+    @Value("${app.email.sender.queue-capacity:200}")
+    private int senderQueueCapacity;
+
+    private final Map<EmailTemplate, CompiledTemplate> templates = new EnumMap<>(EmailTemplate.class);
+
+    private ThreadPoolTaskExecutor senderExecutor;
+
+    public EmailOutboxServiceImpl(EmailOutboxRepository emailOutboxRepository,
+                                  IEmailService emailService,
+                                  TransactionTemplate transactionTemplate) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    void init() {
+        // Templates are read and split around their placeholders once, rendering is then plain concatenation
+        for (EmailTemplate template : EmailTemplate.values()) {
+            templates.put(template, compile(template));
+        }
+
+        // Dedicated pool so SMTP round trips never run on request or scheduler threads
+        senderExecutor = new ThreadPoolTaskExecutor();
+        senderExecutor.setCorePoolSize(senderPoolSize);
+        senderExecutor.setMaxPoolSize(senderPoolSize);
+        senderExecutor.setQueueCapacity(senderQueueCapacity);
+        senderExecutor.setThreadNamePrefix("email-sender-");
+        senderExecutor.setWaitForTasksToCompleteOnShutdown(true);
+        senderExecutor.setAwaitTerminationSeconds(30);
+        senderExecutor.initialize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senderExecutor.shutdown();
+    }
+
+    // Joins the caller's transaction, so the row commits or rolls back with the change that triggered the email
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String to, EmailTemplate template, Map<String, String> variables) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutbox row = EmailOutbox.builder()
+                .recipient(to)
+                .subject(template.getSubject())
+                .body(templates.get(template).render(variables))
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+        emailOutboxRepository.save(row);
+    }
+
+    @Override
+    public int dispatchDue() {
+        List<EmailOutbox> batch = transactionTemplate.execute(status -> leaseDueBatch());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        int dispatched = 0;
+        for (EmailOutbox email : batch) {
+            try {
+                senderExecutor.execute(() -> send(email));
+                dispatched++;
+            } catch (TaskRejectedException e) {
+                // Sender queue is full; the remaining rows are retried once their lease runs out
+                log.warn("Email sender queue full, {} emails deferred", batch.size() - dispatched);
+                break;
+            }
+        }
+        return dispatched;
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        // Drain the backlog while full batches keep fitting in the sender queue
+        int dispatched;
+        do {
+            dispatched = dispatchDue();
+        } while (dispatched == batchSize);
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private List<EmailOutbox> leaseDueBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        return OutboxUtils.lease(emailOutboxRepository.lockDueBatch(now, batchSize), now, leaseMs);
+    }
+
+    private void send(EmailOutbox email) {
+        try {
+            emailService.sendEmail(email.getRecipient(), email.getSubject(), email.getBody());
+        } catch (Exception e) {
+            transactionTemplate.executeWithoutResult(status -> recordFailure(email.getId(), e));
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.deleteById(email.getId()));
+    }
+
+    private void recordFailure(UUID id, Exception error) {
+        emailOutboxRepository.findById(id).ifPresent(email -> {
+            if (!OutboxUtils.scheduleRetry(email, error, LocalDateTime.now(), maxAttempts, backoffBaseMs, backoffMaxMs)) {
+                log.error("Giving up on email {} to {} after {} attempts", id, email.getRecipient(), maxAttempts, error);
+                emailOutboxRepository.delete(email);
+                return;
+            }
+            log.warn("Sending email {} failed (attempt {}), retrying at {}: {}",
+                    id, email.getAttempts(), email.getNextAttemptAt(), error.getMessage());
+        });
+    }
+
+    private CompiledTemplate compile(EmailTemplate template) {
+        String source;
+        try {
+            source = new ClassPathResource(template.getPath()).getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read email template " + template.getPath(), e);
+        }
+
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(source);
+        int last = 0;
+        while (matcher.find()) {
+            literals.add(source.substring(last, matcher.start()));
+            names.add(matcher.group(1));
+            last = matcher.end();
+        }
+        literals.add(source.substring(last));
+        return new CompiledTemplate(literals, names);
+    }
+
+    // literals.size() == names.size() + 1; the body is literal[0] value[0] literal[1] ... literal[n]
+    private record CompiledTemplate(List<String> literals, List<String> names) {
+
+        String render(Map<String, String> variables) {
+            StringBuilder body = new StringBuilder();
+            for (int i = 0; i < names.size(); i++) {
+                String value = variables.get(names.get(i));
+                if (value == null) {
+                    throw new IllegalArgumentException("Missing email template variable " + names.get(i));
+                }
+                body.append(literals.get(i)).append(HtmlUtils.htmlEscape(value));
+            }
+            return body.append(literals.get(names.size())).toString();
+        }
+    }
+}
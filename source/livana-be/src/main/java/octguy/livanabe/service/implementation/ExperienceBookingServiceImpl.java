@@ -17,6 +17,7 @@ import octguy.livanabe.repository.ExperienceBookingRepository;
 import octguy.livanabe.repository.ExperienceSessionRepository;
 import octguy.livanabe.repository.UserRepository;
 import octguy.livanabe.repository.UserProfileRepository;
+import octguy.livanabe.service.IDailyMetricService;
 import octguy.livanabe.service.IExperienceBookingService;
 import octguy.livanabe.service.INotificationService;
 import org.springframework.stereotype.Service;
@@ -37,6 +38,7 @@ public class ExperienceBookingServiceImpl implements IExperienceBookingService {
     private final UserRepository userRepository;
     private final UserProfileRepository userProfileRepository;
     private final INotificationService notificationService;
+    private final IDailyMetricService dailyMetricService;
 
     @Override
     @Transactional
@@ -59,11 +61,10 @@ public class ExperienceBookingServiceImpl implements IExperienceBookingService {
             throw new BadRequestException("Session is not available for booking");
         }
 
-        // Check capacity
-        int bookedParticipants = experienceBookingRepository.countBookedParticipants(request.getSessionId());
-        int availableSlots = session.getExperienceListing().getCapacity() - bookedParticipants;
-
-        if (request.getQuantity() > availableSlots) {
+        // Take the seats in one conditional update; it only succeeds if they still fit in the capacity
+        if (experienceSessionRepository.reserveSeats(session.getId(), request.getQuantity()) == 0) {
+            int availableSlots = Math.max(0, session.getExperienceListing().getCapacity()
+                    - experienceSessionRepository.findBookedParticipants(session.getId()));
             throw new BadRequestException("Not enough available slots. Only " + availableSlots + " slots remaining");
         }
 
@@ -81,16 +82,7 @@ public class ExperienceBookingServiceImpl implements IExperienceBookingService {
         booking.setIsPaid(false);
 
         ExperienceBooking savedBooking = experienceBookingRepository.save(booking);
-
-        // Update session booked participants
-        int newBookedCount = bookedParticipants + request.getQuantity();
-        session.setBookedParticipants(newBookedCount);
-        
-        // Update session status if fully booked
-        if (newBookedCount >= session.getExperienceListing().getCapacity()) {
-            session.setSessionStatus(SessionStatus.FULL);
-        }
-        experienceSessionRepository.save(session);
+        dailyMetricService.recordBookingCreated(savedBooking, session.getExperienceListing().getHost().getId());
 
         // Send notification to host
         ExperienceBookingResponse bookingResponse = convertToResponse(savedBooking);
@@ -173,8 +165,10 @@ public class ExperienceBookingServiceImpl implements IExperienceBookingService {
             throw new BadRequestException("Cannot confirm a cancelled booking");
         }
 
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(BookingStatus.CONFIRMED);
         ExperienceBooking savedBooking = experienceBookingRepository.save(booking);
+        dailyMetricService.recordBookingStatusChanged(savedBooking, hostId, previousStatus);
         
         // Send notification to guest
         sendConfirmationNotificationToGuest(savedBooking);
@@ -215,19 +209,14 @@ public class ExperienceBookingServiceImpl implements IExperienceBookingService {
             throw new BadRequestException("Booking is already cancelled");
         }
 
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(BookingStatus.CANCELLED);
         ExperienceBooking savedBooking = experienceBookingRepository.save(booking);
+        dailyMetricService.recordBookingStatusChanged(savedBooking,
+                savedBooking.getSession().getExperienceListing().getHost().getId(), previousStatus);
 
-        // Update session booked participants
-        ExperienceSession session = booking.getSession();
-        int newBookedCount = session.getBookedParticipants() - booking.getQuantity();
-        session.setBookedParticipants(Math.max(0, newBookedCount));
-        
-        // Update session status if it was fully booked
-        if (session.getSessionStatus() == SessionStatus.FULL) {
-            session.setSessionStatus(SessionStatus.ACTIVE);
-        }
-        experienceSessionRepository.save(session);
+        // Give the seats back to the session
+        experienceSessionRepository.releaseSeats(booking.getSession().getId(), booking.getQuantity());
 
         return convertToResponse(savedBooking);
     }
@@ -4,10 +4,8 @@ import octguy.livanabe.dto.response.ExperienceCategoryResponse;
 import octguy.livanabe.entity.ExperienceCategory;
 import octguy.livanabe.repository.ExperienceCategoryRepository;
 import octguy.livanabe.service.IExperienceCategoryService;
+import octguy.livanabe.service.IReferenceCatalogService;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,22 +19,21 @@ public class ExperienceCategoryServiceImpl implements IExperienceCategoryService
 
     private final ExperienceCategoryRepository experienceCategoryRepository;
 
-    public ExperienceCategoryServiceImpl(ExperienceCategoryRepository experienceCategoryRepository) {
+    private final IReferenceCatalogService referenceCatalogService;
+
+    public ExperienceCategoryServiceImpl(ExperienceCategoryRepository experienceCategoryRepository, IReferenceCatalogService referenceCatalogService) {
         this.experienceCategoryRepository = experienceCategoryRepository;
+        this.referenceCatalogService = referenceCatalogService;
     }
 
     @Override
     public Page<ExperienceCategoryResponse> findAll(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").ascending());
-        return experienceCategoryRepository.findAll(pageable)
-                .map(this::toResponse);
+        return referenceCatalogService.getCatalog().getExperienceCategories().page(page, size);
     }
 
     @Override
     public List<ExperienceCategoryResponse> findAll() {
-        return experienceCategoryRepository.findAll().stream()
-                .map(this::toResponse)
-                .toList();
+        return referenceCatalogService.getCatalog().getExperienceCategories().getItems();
     }
 
     @Override
@@ -47,6 +44,7 @@ public class ExperienceCategoryServiceImpl implements IExperienceCategoryService
         experienceCategory.setIcon(icon);
         experienceCategory.setUpdatedAt(LocalDateTime.now());
         experienceCategoryRepository.save(experienceCategory);
+        referenceCatalogService.invalidate();
 
         return toResponse(experienceCategory);
     }
@@ -61,6 +59,7 @@ public class ExperienceCategoryServiceImpl implements IExperienceCategoryService
         updatedExperienceCategory.setName(name);
         updatedExperienceCategory.setIcon(icon);
         experienceCategoryRepository.save(updatedExperienceCategory);
+        referenceCatalogService.invalidate();
 
         return toResponse(updatedExperienceCategory);
     }
@@ -73,6 +72,7 @@ public class ExperienceCategoryServiceImpl implements IExperienceCategoryService
             ExperienceCategory entity = experienceCategory.get();
             entity.setDeletedAt(LocalDateTime.now());
             experienceCategoryRepository.save(entity);
+            referenceCatalogService.invalidate();
         }
     }
 
@@ -80,6 +80,7 @@ public class ExperienceCategoryServiceImpl implements IExperienceCategoryService
     @Transactional
     public void hardDelete(UUID id) {
         experienceCategoryRepository.hardDeleteById(id);
+        referenceCatalogService.invalidate();
     }
 
     @Override
@@ -89,12 +90,14 @@ public class ExperienceCategoryServiceImpl implements IExperienceCategoryService
         LocalDateTime now = LocalDateTime.now();
         experienceCategories.forEach(category -> category.setDeletedAt(now));
         experienceCategoryRepository.saveAll(experienceCategories);
+        referenceCatalogService.invalidate();
     }
 
     @Override
     @Transactional
     public void hardDeleteAll() {
         experienceCategoryRepository.hardDeleteAll();
+        referenceCatalogService.invalidate();
     }
 
     private ExperienceCategoryResponse toResponse(ExperienceCategory experienceCategory) {
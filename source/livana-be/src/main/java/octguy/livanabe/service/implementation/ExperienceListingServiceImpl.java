@@ -3,17 +3,29 @@ package octguy.livanabe.service.implementation;
 import lombok.extern.slf4j.Slf4j;
 import octguy.livanabe.dto.dto.ImageOrderDto;
 import octguy.livanabe.dto.dto.ImageOrderResponse;
+import octguy.livanabe.dto.dto.ListingDistanceDto;
+import octguy.livanabe.dto.dto.ListingFacetCountDto;
 import octguy.livanabe.dto.dto.ListingHostDto;
+import octguy.livanabe.dto.dto.ListingMapPinDto;
+import octguy.livanabe.dto.dto.ListingMapQuery;
+import octguy.livanabe.dto.dto.ListingRelevanceDto;
 import octguy.livanabe.dto.request.CreateExperienceListingRequest;
 import octguy.livanabe.dto.request.LocationSearchRequest;
+import octguy.livanabe.dto.request.MapSearchRequest;
+import octguy.livanabe.dto.request.TextSearchRequest;
 import octguy.livanabe.dto.request.UpdateExperienceListingRequest;
 import octguy.livanabe.dto.response.CloudinaryResponse;
 import octguy.livanabe.dto.response.ExperienceCategoryResponse;
 import octguy.livanabe.dto.response.ExperienceListingResponse;
+import octguy.livanabe.dto.response.ListingFacetsResponse;
+import octguy.livanabe.dto.response.ListingMapResponse;
+import octguy.livanabe.dto.response.ListingSearchPage;
 import octguy.livanabe.dto.response.ListingSearchResult;
 import octguy.livanabe.dto.response.SessionResponse;
 import octguy.livanabe.entity.*;
+import octguy.livanabe.exception.BadRequestException;
 import octguy.livanabe.exception.ResourceNotFoundException;
+import octguy.livanabe.exception.UserNotFoundException;
 import octguy.livanabe.repository.ExperienceBookingRepository;
 import octguy.livanabe.repository.ExperienceCategoryRepository;
 import octguy.livanabe.repository.ExperienceListingRepository;
@@ -21,9 +33,21 @@ import octguy.livanabe.repository.ExperienceSessionRepository;
 import octguy.livanabe.repository.ListingImageRepository;
 import octguy.livanabe.repository.ReviewRepository;
 import octguy.livanabe.repository.UserProfileRepository;
+import octguy.livanabe.repository.UserRepository;
+import octguy.livanabe.search.ListingIndexQuery;
+import octguy.livanabe.service.IDailyMetricService;
 import octguy.livanabe.service.IExperienceListingService;
+import octguy.livanabe.service.IListingChangeService;
+import octguy.livanabe.service.IListingSearchIndexService;
+import octguy.livanabe.service.IReferenceCatalogService;
+import octguy.livanabe.utils.CursorUtils;
 import octguy.livanabe.utils.GeoUtils;
+import octguy.livanabe.utils.ListingFacetUtils;
+import octguy.livanabe.utils.ListingMapUtils;
+import octguy.livanabe.utils.ListingRatingUtils;
 import octguy.livanabe.utils.SecurityUtils;
+import octguy.livanabe.utils.TextSearchUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -31,49 +55,79 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class ExperienceListingServiceImpl implements IExperienceListingService {
 
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int SEARCH_HYDRATE_BATCH_SIZE = 1000;
+    // Keyword search cursors remember which match mode produced the page
+    private static final String FULL_TEXT_MATCH = "f";
+    private static final String FUZZY_TEXT_MATCH = "t";
+
     private final ExperienceListingRepository experienceListingRepository;
     private final ExperienceCategoryRepository experienceCategoryRepository;
     private final ListingImageRepository listingImageRepository;
     private final ExperienceSessionRepository experienceSessionRepository;
     private final UserProfileRepository userProfileRepository;
+    private final UserRepository userRepository;
     private final ReviewRepository reviewRepository;
     private final ExperienceBookingRepository experienceBookingRepository;
+    private final IDailyMetricService dailyMetricService;
+    private final IReferenceCatalogService referenceCatalogService;
+    private final IListingSearchIndexService listingSearchIndexService;
+    private final IListingChangeService listingChangeService;
+
+    // A map viewport with more matching listings than this is returned as clusters
+    @Value("${app.listing-map.max-pins:200}")
+    private int mapMaxPins;
 
     public ExperienceListingServiceImpl(ExperienceListingRepository experienceListingRepository,
                                         ExperienceCategoryRepository experienceCategoryRepository,
                                         ListingImageRepository listingImageRepository,
                                         ExperienceSessionRepository experienceSessionRepository,
                                         UserProfileRepository userProfileRepository,
+                                        UserRepository userRepository,
                                         ReviewRepository reviewRepository,
-                                        ExperienceBookingRepository experienceBookingRepository) {
+                                        ExperienceBookingRepository experienceBookingRepository,
+                                        IDailyMetricService dailyMetricService,
+                                        IReferenceCatalogService referenceCatalogService,
+                                        IListingSearchIndexService listingSearchIndexService,
+                                        IListingChangeService listingChangeService) {
         this.experienceListingRepository = experienceListingRepository;
         this.experienceCategoryRepository = experienceCategoryRepository;
         this.listingImageRepository = listingImageRepository;
         this.experienceSessionRepository = experienceSessionRepository;
         this.userProfileRepository = userProfileRepository;
+        this.userRepository = userRepository;
         this.reviewRepository = reviewRepository;
         this.experienceBookingRepository = experienceBookingRepository;
+        this.dailyMetricService = dailyMetricService;
+        this.referenceCatalogService = referenceCatalogService;
+        this.listingSearchIndexService = listingSearchIndexService;
+        this.listingChangeService = listingChangeService;
     }
 
     @Override
     @Transactional
     public ExperienceListingResponse createExperienceListing(CreateExperienceListingRequest request) {
-        User user = SecurityUtils.getCurrentUser();
+        UUID userId = SecurityUtils.getCurrentUserId();
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User with id " + userId + " not found"));
 
-        ExperienceCategory category = experienceCategoryRepository.findById(request.getExperienceCategoryId())
+        ExperienceCategory category = findCategory(request.getExperienceCategoryId())
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Experience category not found: " + request.getExperienceCategoryId()));
 
         ExperienceListing experienceListing = buildExperienceListing(user, request, category);
         ExperienceListing savedListing = experienceListingRepository.save(experienceListing);
+        dailyMetricService.recordListingCreated(savedListing);
 
         List<ListingImage> listingImages = createListingImages(savedListing, request.getImages());
+        listingChangeService.onListingChanged(savedListing.getId());
 
         return buildResponse(savedListing, user, category, listingImages);
     }
@@ -105,7 +159,7 @@ public class ExperienceListingServiceImpl implements IExperienceListingService {
     @Transactional(readOnly = true)
     public List<ExperienceListingResponse> getExperienceListingsByHostId(UUID hostId) {
         log.info("Fetching experience listings for host {}", hostId);
-        List<ExperienceListing> listings = experienceListingRepository.findByHostId(hostId);
+        List<ExperienceListing> listings = experienceListingRepository.findByHostIdWithHostAndCategory(hostId);
 
         if (listings.isEmpty()) {
             return Collections.emptyList();
@@ -120,7 +174,7 @@ public class ExperienceListingServiceImpl implements IExperienceListingService {
         log.info("Updating experience listing with id {}", id);
         
         // Get current user and verify ownership
-        User currentUser = SecurityUtils.getCurrentUser();
+        UUID currentUserId = SecurityUtils.getCurrentUserId();
         
         ExperienceListing listing = experienceListingRepository.findById(id)
                 .orElseThrow(() -> {
@@ -129,14 +183,14 @@ public class ExperienceListingServiceImpl implements IExperienceListingService {
                 });
         
         // Verify the current user is the owner
-        if (!listing.getHost().getId().equals(currentUser.getId())) {
-            log.error("User {} is not the owner of listing {}", currentUser.getId(), id);
+        if (!listing.getHost().getId().equals(currentUserId)) {
+            log.error("User {} is not the owner of listing {}", currentUserId, id);
             throw new RuntimeException("You are not authorized to update this listing");
         }
         
         // Update category if changed
         if (request.getExperienceCategoryId() != null) {
-            ExperienceCategory category = experienceCategoryRepository.findById(request.getExperienceCategoryId())
+            ExperienceCategory category = findCategory(request.getExperienceCategoryId())
                     .orElseThrow(() -> new ResourceNotFoundException(
                             "Experience category not found: " + request.getExperienceCategoryId()));
             listing.setExperienceCategory(category);
@@ -152,6 +206,7 @@ public class ExperienceListingServiceImpl implements IExperienceListingService {
         listing.setBasePrice(request.getPrice());
         
         ExperienceListing savedListing = experienceListingRepository.save(listing);
+        listingChangeService.onListingChanged(savedListing.getId());
         
         // Update images - delete existing and create new
         if (request.getImages() != null && !request.getImages().isEmpty()) {
@@ -219,6 +274,25 @@ public class ExperienceListingServiceImpl implements IExperienceListingService {
 
     // ==================== Private Helper Methods ====================
 
+    // A category known to the catalog is attached as a proxy, so no SELECT is issued for it;
+    // an id it does not know yet (created on another node a moment ago) is looked up in the database
+    private Optional<ExperienceCategory> findCategory(UUID id) {
+        if (referenceCatalogService.getCatalog().getExperienceCategories().contains(id)) {
+            return Optional.of(experienceCategoryRepository.getReferenceById(id));
+        }
+        return experienceCategoryRepository.findById(id);
+    }
+
+    // Reading the id of a lazy category does not load it, the catalog provides the rest
+    private ExperienceCategoryResponse toCategoryResponse(ExperienceCategory category) {
+        return referenceCatalogService.getCatalog().getExperienceCategories().find(category.getId())
+                .orElseGet(() -> ExperienceCategoryResponse.builder()
+                        .id(category.getId())
+                        .name(category.getName())
+                        .icon(category.getIcon())
+                        .build());
+    }
+
     private ExperienceListing buildExperienceListing(User user, CreateExperienceListingRequest request,
                                                      ExperienceCategory category) {
         ExperienceListing listing = new ExperienceListing();
@@ -276,17 +350,10 @@ public class ExperienceListingServiceImpl implements IExperienceListingService {
                 .map(l -> l.getHost().getId())
                 .collect(Collectors.toSet());
 
-        Set<UUID> categoryIds = listings.stream()
-                .map(l -> l.getExperienceCategory().getId())
-                .collect(Collectors.toSet());
-
-        // Batch fetch all related data in 4 queries
+        // Batch fetch all related data in 3 queries, categories come from the catalog
         Map<UUID, UserProfile> profileMap = userProfileRepository.findByUserIdIn(hostIds).stream()
                 .collect(Collectors.toMap(p -> p.getUser().getId(), p -> p));
 
-        Map<UUID, ExperienceCategory> categoryMap = experienceCategoryRepository.findAllById(categoryIds).stream()
-                .collect(Collectors.toMap(ExperienceCategory::getId, c -> c));
-
         Map<UUID, List<ListingImage>> imagesMap = listingImageRepository
                 .findByListingIdInOrderByImageOrderAsc(listingIds).stream()
                 .collect(Collectors.groupingBy(img -> img.getListing().getId()));
@@ -299,7 +366,7 @@ public class ExperienceListingServiceImpl implements IExperienceListingService {
         return listings.stream()
                 .map(listing -> {
                     UserProfile profile = profileMap.get(listing.getHost().getId());
-                    ExperienceCategory category = categoryMap.get(listing.getExperienceCategory().getId());
+                    ExperienceCategoryResponse category = toCategoryResponse(listing.getExperienceCategory());
                     List<ListingImage> images = imagesMap.getOrDefault(listing.getId(), Collections.emptyList());
                     List<ExperienceSession> sessions = sessionsMap.getOrDefault(listing.getId(), Collections.emptyList());
 
@@ -319,7 +386,7 @@ public class ExperienceListingServiceImpl implements IExperienceListingService {
         UserProfile profile = userProfileRepository.findByUserId(host.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("User profile not found for user: " + host.getId()));
 
-        ExperienceCategory category = listing.getExperienceCategory();
+        ExperienceCategoryResponse category = toCategoryResponse(listing.getExperienceCategory());
 
         List<ListingImage> images = listingImageRepository
                 .findByListingIdOrderByImageOrderAsc(listing.getId());
@@ -338,11 +405,11 @@ public class ExperienceListingServiceImpl implements IExperienceListingService {
         List<ExperienceSession> sessions = experienceSessionRepository
                 .findByExperienceListingIdOrderByStartTimeAsc(listing.getId());
 
-        return buildResponseFromData(listing, host, profile, category, images, sessions);
+        return buildResponseFromData(listing, host, profile, toCategoryResponse(category), images, sessions);
     }
 
     private ExperienceListingResponse buildResponseFromData(ExperienceListing listing, User host,
-                                                            UserProfile profile, ExperienceCategory category,
+                                                            UserProfile profile, ExperienceCategoryResponse category,
                                                             List<ListingImage> images, List<ExperienceSession> sessions) {
         ListingHostDto hostDto = ListingHostDto.builder()
                 .hostId(host.getId())
@@ -361,11 +428,6 @@ public class ExperienceListingServiceImpl implements IExperienceListingService {
                         .build())
                 .toList();
 
-        ExperienceCategoryResponse categoryResponse = ExperienceCategoryResponse.builder()
-                .id(category.getId())
-                .name(category.getName())
-                .icon(category.getIcon())
-                .build();
 
         List<SessionResponse> sessionResponses = sessions.stream()
                 .map(this::buildSessionResponse)
@@ -381,9 +443,10 @@ public class ExperienceListingServiceImpl implements IExperienceListingService {
                 .address(listing.getAddress())
                 .latitude(listing.getLatitude())
                 .longitude(listing.getLongitude())
-                .experienceCategory(categoryResponse)
+                .experienceCategory(category)
                 .images(imageResponses)
                 .sessions(sessionResponses)
+                .rating(ListingRatingUtils.toRating(listing))
                 .build();
     }
 
@@ -405,8 +468,23 @@ public class ExperienceListingServiceImpl implements IExperienceListingService {
     }
     
     @Override
-    public List<ListingSearchResult<ExperienceListingResponse>> searchByLocation(LocationSearchRequest request) {
-        // Get bounding box for initial filtering
+    @Transactional(readOnly = true)
+    public List<ListingSearchResult<ExperienceListingResponse>> searchAllByLocation(LocationSearchRequest request) {
+        // Every match in one pass instead of page by page
+        return searchByLocation(request, null, null).getResults();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public ListingSearchPage<ExperienceListingResponse> searchByLocation(LocationSearchRequest request) {
+        int limit = request.getLimit() != null ? request.getLimit() : DEFAULT_SEARCH_LIMIT;
+        return searchByLocation(request, request.getCursor(), limit);
+    }
+    
+    // A null limit returns every match after the cursor as a single page, without facets
+    private ListingSearchPage<ExperienceListingResponse> searchByLocation(LocationSearchRequest request, String cursor,
+                                                                          Integer limit) {
+        // Get bounding box for index-backed prefiltering
         double[] bbox = GeoUtils.getBoundingBox(
                 request.getLatitude(), 
                 request.getLongitude(), 
@@ -418,30 +496,259 @@ public class ExperienceListingServiceImpl implements IExperienceListingService {
         BigDecimal maxPrice = request.getMaxPrice() != null ? BigDecimal.valueOf(request.getMaxPrice()) : null;
         UUID categoryId = request.getExperienceCategoryId() != null ? UUID.fromString(request.getExperienceCategoryId()) : null;
         
-        // Query with bounding box and filters
-        List<ExperienceListing> listings = experienceListingRepository.findByLocationWithFilters(
+        // Resume after the (distance, id) of the last row of the previous page
+        Double cursorDistance = null;
+        UUID cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorUtils.decode(cursor, 2);
+            try {
+                cursorDistance = Double.parseDouble(parts[0]);
+                cursorId = UUID.fromString(parts[1]);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+        Integer fetchLimit = limit != null ? limit + 1 : null;
+        
+        // Radius filter, distance sort and pagination are done by the search index when it is built, in the database
+        // otherwise; fetch one extra row to detect a next page
+        List<ListingDistanceDto> nearest;
+        if (listingSearchIndexService.isReady()) {
+            nearest = listingSearchIndexService.findNearest(ListingIndexQuery.builder()
+                    .home(false)
+                    .latitude(request.getLatitude())
+                    .longitude(request.getLongitude())
+                    .radiusKm(request.getRadiusKm())
+                    .boundingBox(bbox)
+                    .minPrice(minPrice)
+                    .maxPrice(maxPrice)
+                    .minCapacity(request.getMinCapacity())
+                    .groupId(categoryId)
+                    .cursorDistance(cursorDistance)
+                    .cursorId(cursorId)
+                    .limit(fetchLimit != null ? fetchLimit : Integer.MAX_VALUE)
+                    .build());
+        } else {
+            nearest = experienceListingRepository.findNearestWithFilters(
+                    request.getLatitude(), request.getLongitude(), request.getRadiusKm(),
+                    bbox[0], bbox[1], bbox[2], bbox[3],
+                    minPrice, maxPrice,
+                    request.getMinCapacity(),
+                    categoryId,
+                    cursorDistance, cursorId,
+                    fetchLimit
+            );
+        }
+        
+        boolean hasNext = limit != null && nearest.size() > limit;
+        List<ListingDistanceDto> page = hasNext ? nearest.subList(0, limit) : nearest;
+        
+        // Hydrate in batches so an unbounded page stays within the bind parameter limit
+        List<ListingSearchResult<ExperienceListingResponse>> results = new ArrayList<>(page.size());
+        for (int from = 0; from < page.size(); from += SEARCH_HYDRATE_BATCH_SIZE) {
+            int to = Math.min(from + SEARCH_HYDRATE_BATCH_SIZE, page.size());
+            results.addAll(toSearchResults(page.subList(from, to)));
+        }
+        
+        // Facets describe the whole result set, so they are only computed for the first page
+        ListingFacetsResponse facets = null;
+        if (limit != null && request.isIncludeFacets() && cursorId == null) {
+            facets = ListingFacetUtils.toExperienceFacets(experienceListingRepository.countFacetsNearby(
+                    request.getLatitude(), request.getLongitude(), request.getRadiusKm(),
+                    bbox[0], bbox[1], bbox[2], bbox[3],
+                    minPrice, maxPrice,
+                    request.getMinCapacity(),
+                    categoryId
+            ), referenceCatalogService.getCatalog());
+        }
+        
+        ListingDistanceDto last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return ListingSearchPage.<ExperienceListingResponse>builder()
+                .results(results)
+                .nextCursor(hasNext ? CursorUtils.encode(last.getDistanceKm(), last.getId()) : null)
+                .hasNext(hasNext)
+                .facets(facets)
+                .build();
+    }
+    
+    // Hydrates the listings of a page, keeping the distance order
+    private List<ListingSearchResult<ExperienceListingResponse>> toSearchResults(List<ListingDistanceDto> page) {
+        Set<UUID> ids = page.stream()
+                .map(ListingDistanceDto::getId)
+                .collect(Collectors.toSet());
+        Map<UUID, ExperienceListing> listingMap = ids.isEmpty()
+                ? Collections.emptyMap()
+                : experienceListingRepository.findAllWithHostAndCategoryByIdIn(ids).stream()
+                        .collect(Collectors.toMap(ExperienceListing::getId, Function.identity()));
+        List<ExperienceListing> listings = page.stream()
+                .map(d -> listingMap.get(d.getId()))
+                .filter(Objects::nonNull)
+                .toList();
+        
+        Map<UUID, Double> distances = page.stream()
+                .collect(Collectors.toMap(ListingDistanceDto::getId, ListingDistanceDto::getDistanceKm));
+        
+        return convertToResponsesBatch(listings).stream()
+                .map(response -> ListingSearchResult.<ExperienceListingResponse>builder()
+                        .listing(response)
+                        .distanceKm(Math.round(distances.get(response.getListingId()) * 100.0) / 100.0)
+                        .build())
+                .toList();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public ListingMapResponse searchMap(MapSearchRequest request) {
+        ListingMapUtils.validate(request);
+        double[] bbox = ListingMapUtils.boundingBox(request);
+        double cellSize = ListingMapUtils.cellSize(request);
+        
+        // Parse optional filters
+        BigDecimal minPrice = request.getMinPrice() != null ? BigDecimal.valueOf(request.getMinPrice()) : null;
+        BigDecimal maxPrice = request.getMaxPrice() != null ? BigDecimal.valueOf(request.getMaxPrice()) : null;
+        UUID categoryId = request.getExperienceCategoryId() != null ? UUID.fromString(request.getExperienceCategoryId()) : null;
+        
+        // Pins are fetched first, one more than returned so a denser viewport stops the scan early and is clustered
+        // instead. Both come from the search index when it is built, from the database otherwise.
+        if (listingSearchIndexService.isReady()) {
+            ListingMapQuery query = ListingMapQuery.builder()
+                    .home(false)
+                    .boundingBox(bbox)
+                    .cellSize(cellSize)
+                    .minPrice(minPrice)
+                    .maxPrice(maxPrice)
+                    .minCapacity(request.getMinCapacity())
+                    .groupId(categoryId)
+                    .build();
+            List<ListingMapPinDto> pins = listingSearchIndexService.findMapPins(query, mapMaxPins + 1);
+            return pins.size() <= mapMaxPins
+                    ? ListingMapUtils.toPinResponse(pins, cellSize)
+                    : ListingMapUtils.toClusterResponse(listingSearchIndexService.countMapCells(query), cellSize);
+        }
+        
+        List<ListingMapPinDto> pins = experienceListingRepository.findMapPins(
                 bbox[0], bbox[1], bbox[2], bbox[3],
                 minPrice, maxPrice,
                 request.getMinCapacity(),
-                categoryId
+                categoryId,
+                mapMaxPins + 1
         );
+        if (pins.size() <= mapMaxPins) {
+            return ListingMapUtils.toPinResponse(pins, cellSize);
+        }
+        return ListingMapUtils.toClusterResponse(experienceListingRepository.countMapCells(
+                cellSize,
+                bbox[0], bbox[1], bbox[2], bbox[3],
+                minPrice, maxPrice,
+                request.getMinCapacity(),
+                categoryId
+        ), cellSize);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public ListingSearchPage<ExperienceListingResponse> searchByText(TextSearchRequest request) {
+        String text = TextSearchUtils.normalize(request.getQuery());
+        String tsQuery = TextSearchUtils.toPrefixQuery(text);
         
-        // Calculate precise distance and filter by actual radius
-        List<ListingSearchResult<ExperienceListingResponse>> results = new java.util.ArrayList<>();
-        for (ExperienceListing listing : listings) {
-            double distance = GeoUtils.calculateDistance(
-                    request.getLatitude(), request.getLongitude(),
-                    listing.getLatitude(), listing.getLongitude()
+        // Parse optional filters
+        BigDecimal minPrice = request.getMinPrice() != null ? BigDecimal.valueOf(request.getMinPrice()) : null;
+        BigDecimal maxPrice = request.getMaxPrice() != null ? BigDecimal.valueOf(request.getMaxPrice()) : null;
+        UUID categoryId = request.getExperienceCategoryId() != null ? UUID.fromString(request.getExperienceCategoryId()) : null;
+        
+        // Resume after the (relevance, id) of the last row of the previous page, in the same match mode
+        boolean fuzzy = false;
+        Float cursorRelevance = null;
+        UUID cursorId = null;
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            String[] parts = CursorUtils.decode(request.getCursor(), 3);
+            try {
+                fuzzy = FUZZY_TEXT_MATCH.equals(parts[0]);
+                cursorRelevance = Float.parseFloat(parts[1]);
+                cursorId = UUID.fromString(parts[2]);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+        int limit = request.getLimit() != null ? request.getLimit() : DEFAULT_SEARCH_LIMIT;
+        
+        // Matching, ranking and pagination are done in the database; fetch one extra row to detect a next page.
+        // Only when no listing contains every term do we fall back to typo-tolerant title matching.
+        List<ListingRelevanceDto> ranked = fuzzy ? List.of() : experienceListingRepository.searchByText(
+                tsQuery,
+                minPrice, maxPrice,
+                request.getMinCapacity(),
+                categoryId,
+                cursorRelevance, cursorId,
+                limit + 1
+        );
+        if (fuzzy || (ranked.isEmpty() && cursorId == null)) {
+            fuzzy = true;
+            ranked = experienceListingRepository.searchByTitleSimilarity(
+                    text,
+                    minPrice, maxPrice,
+                    request.getMinCapacity(),
+                    categoryId,
+                    cursorRelevance, cursorId,
+                    limit + 1
             );
-            if (distance <= request.getRadiusKm()) {
-                results.add(ListingSearchResult.<ExperienceListingResponse>builder()
-                        .listing(convertToResponse(listing))
-                        .distanceKm(Math.round(distance * 100.0) / 100.0)
-                        .build());
+        }
+        
+        boolean hasNext = ranked.size() > limit;
+        List<ListingRelevanceDto> page = hasNext ? ranked.subList(0, limit) : ranked;
+        
+        // Hydrate only the listings of this page, keeping the relevance order
+        Set<UUID> ids = page.stream()
+                .map(ListingRelevanceDto::getId)
+                .collect(Collectors.toSet());
+        Map<UUID, ExperienceListing> listingMap = ids.isEmpty()
+                ? Collections.emptyMap()
+                : experienceListingRepository.findAllWithHostAndCategoryByIdIn(ids).stream()
+                        .collect(Collectors.toMap(ExperienceListing::getId, Function.identity()));
+        List<ExperienceListing> listings = page.stream()
+                .map(r -> listingMap.get(r.getId()))
+                .filter(Objects::nonNull)
+                .toList();
+        
+        Map<UUID, Float> relevances = page.stream()
+                .collect(Collectors.toMap(ListingRelevanceDto::getId, ListingRelevanceDto::getRelevance));
+        
+        List<ListingSearchResult<ExperienceListingResponse>> results = convertToResponsesBatch(listings).stream()
+                .map(response -> ListingSearchResult.<ExperienceListingResponse>builder()
+                        .listing(response)
+                        .relevance(Math.round(relevances.get(response.getListingId()) * 10000.0) / 10000.0)
+                        .build())
+                .toList();
+        
+        // Facets are counted over the same match mode as the results
+        ListingFacetsResponse facets = null;
+        if (request.isIncludeFacets() && cursorId == null) {
+            List<ListingFacetCountDto> facetCounts;
+            if (fuzzy) {
+                facetCounts = experienceListingRepository.countFacetsByTitleSimilarity(
+                        text,
+                        minPrice, maxPrice,
+                        request.getMinCapacity(),
+                        categoryId
+                );
+            } else {
+                facetCounts = experienceListingRepository.countFacetsByText(
+                        tsQuery,
+                        minPrice, maxPrice,
+                        request.getMinCapacity(),
+                        categoryId
+                );
             }
+            facets = ListingFacetUtils.toExperienceFacets(facetCounts, referenceCatalogService.getCatalog());
         }
-        results.sort(Comparator.comparingDouble(ListingSearchResult::getDistanceKm));
-        return results;
+        
+        ListingRelevanceDto last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return ListingSearchPage.<ExperienceListingResponse>builder()
+                .results(results)
+                .nextCursor(hasNext ? CursorUtils.encode(fuzzy ? FUZZY_TEXT_MATCH : FULL_TEXT_MATCH, last.getRelevance(), last.getId()) : null)
+                .hasNext(hasNext)
+                .facets(facets)
+                .build();
     }
     
     @Override
@@ -463,6 +770,8 @@ public class ExperienceListingServiceImpl implements IExperienceListingService {
                     return new ResourceNotFoundException("Experience listing not found: " + id);
                 });
         
+        dailyMetricService.recordListingDeleted(listing);
+
         // Delete related data first (cascade delete)
         experienceBookingRepository.deleteByExperienceListingId(id);
         reviewRepository.deleteByListingId(id);
@@ -471,6 +780,7 @@ public class ExperienceListingServiceImpl implements IExperienceListingService {
         
         // Delete the listing
         experienceListingRepository.delete(listing);
+        listingChangeService.onListingChanged(id);
         
         log.info("Successfully deleted experience listing with id {}", id);
     }
@@ -4,10 +4,8 @@ import octguy.livanabe.dto.response.FacilityResponse;
 import octguy.livanabe.entity.Facility;
 import octguy.livanabe.repository.FacilityRepository;
 import octguy.livanabe.service.IFacilityService;
+import octguy.livanabe.service.IReferenceCatalogService;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,28 +19,26 @@ public class FacilityServiceImpl implements IFacilityService {
 
     private final FacilityRepository facilityRepository;
 
-    public FacilityServiceImpl(FacilityRepository facilityRepository) {
+    private final IReferenceCatalogService referenceCatalogService;
+
+    public FacilityServiceImpl(FacilityRepository facilityRepository, IReferenceCatalogService referenceCatalogService) {
         this.facilityRepository = facilityRepository;
+        this.referenceCatalogService = referenceCatalogService;
     }
 
     @Override
     public Page<FacilityResponse> findAll(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").ascending());
-        return facilityRepository.findAll(pageable)
-                .map(this::toResponse);
+        return referenceCatalogService.getCatalog().getFacilities().page(page, size);
     }
 
     @Override
     public List<FacilityResponse> findAll() {
-        return facilityRepository.findAll().stream()
-                .map(this::toResponse)
-                .toList();
+        return referenceCatalogService.getCatalog().getFacilities().getItems();
     }
 
     @Override
     public FacilityResponse findById(UUID id) {
-        return facilityRepository.findById(id)
-                .map(this::toResponse)
+        return referenceCatalogService.getCatalog().getFacilities().find(id)
                 .orElseThrow(() -> new RuntimeException("Facility not found with id: " + id));
     }
 
@@ -54,6 +50,7 @@ public class FacilityServiceImpl implements IFacilityService {
         facility.setIcon(icon);
         facility.setUpdatedAt(LocalDateTime.now());
         facilityRepository.save(facility);
+        referenceCatalogService.invalidate();
 
         return toResponse(facility);
     }
@@ -68,6 +65,7 @@ public class FacilityServiceImpl implements IFacilityService {
         updatedFacility.setName(name);
         updatedFacility.setIcon(icon);
         facilityRepository.save(updatedFacility);
+        referenceCatalogService.invalidate();
 
         return toResponse(updatedFacility);
     }
@@ -80,6 +78,7 @@ public class FacilityServiceImpl implements IFacilityService {
             Facility entity = facility.get();
             entity.setDeletedAt(LocalDateTime.now());
             facilityRepository.save(entity);
+            referenceCatalogService.invalidate();
         }
     }
 
@@ -87,6 +86,7 @@ public class FacilityServiceImpl implements IFacilityService {
     @Transactional
     public void hardDelete(UUID id) {
         facilityRepository.hardDeleteById(id);
+        referenceCatalogService.invalidate();
     }
 
     @Override
@@ -96,12 +96,14 @@ public class FacilityServiceImpl implements IFacilityService {
         LocalDateTime now = LocalDateTime.now();
         facilities.forEach(facility -> facility.setDeletedAt(now));
         facilityRepository.saveAll(facilities);
+        referenceCatalogService.invalidate();
     }
 
     @Override
     @Transactional
     public void hardDeleteAll() {
         facilityRepository.hardDeleteAll();
+        referenceCatalogService.invalidate();
     }
 
     private FacilityResponse toResponse(Facility facility) {
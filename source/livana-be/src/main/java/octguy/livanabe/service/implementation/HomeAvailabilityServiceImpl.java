@@ -0,0 +1,106 @@
+package octguy.livanabe.service.implementation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import octguy.livanabe.entity.HomeBooking;
+import octguy.livanabe.exception.BadRequestException;
+import octguy.livanabe.repository.HomeListingNightRepository;
+import octguy.livanabe.service.IHomeAvailabilityService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HomeAvailabilityServiceImpl implements IHomeAvailabilityService {
+
+    // Longest range accepted by the calendar and search queries
+    private static final int MAX_RANGE_DAYS = 366;
+
+    private final HomeListingNightRepository homeListingNightRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserveNights(HomeBooking booking) {
+        LocalDate checkIn = booking.getCheckInTime().toLocalDate();
+        LocalDate checkOut = booking.getCheckOutTime().toLocalDate();
+        long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
+
+        int claimed = homeListingNightRepository.claimNights(
+                booking.getHomeListing().getId(), booking.getId(), checkIn, checkOut);
+
+        // Throwing rolls back the booking together with the nights claimed so far
+        if (claimed < nights) {
+            throw new BadRequestException("This listing is already booked for the selected dates");
+        }
+    }
+
+    @Override
+    @Transactional
+    public void releaseNights(UUID bookingId) {
+        homeListingNightRepository.deleteByBookingId(bookingId);
+    }
+
+    @Override
+    @Transactional
+    public void releaseListingNights(UUID homeListingId) {
+        homeListingNightRepository.deleteByHomeListingId(homeListingId);
+    }
+
+    @Override
+    public List<LocalDate> getBookedNights(UUID homeListingId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return homeListingNightRepository.findBookedNights(homeListingId, from, to);
+    }
+
+    @Override
+    public boolean isAvailable(UUID homeListingId, LocalDate checkIn, LocalDate checkOut) {
+        validateRange(checkIn, checkOut);
+        return !homeListingNightRepository.existsBookedNight(homeListingId, checkIn, checkOut);
+    }
+
+    @Override
+    public Set<UUID> filterAvailable(Collection<UUID> homeListingIds, LocalDate checkIn, LocalDate checkOut) {
+        validateRange(checkIn, checkOut);
+        Set<UUID> available = new HashSet<>(homeListingIds);
+        if (!available.isEmpty()) {
+            homeListingNightRepository.findBookedListingIds(available, checkIn, checkOut).forEach(available::remove);
+        }
+        return available;
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "0 30 4 * * *") // runs every day at 04:30
+    public void resync() {
+        int removed = homeListingNightRepository.deleteOrphanedNights();
+        int added = homeListingNightRepository.insertMissingNights();
+        if (removed > 0 || added > 0) {
+            log.info("Resynced booking calendar: {} nights removed, {} nights added", removed, added);
+        }
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new BadRequestException("Both dates are required");
+        }
+        if (!to.isAfter(from)) {
+            throw new BadRequestException("End date must be after start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new BadRequestException("Date range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+}
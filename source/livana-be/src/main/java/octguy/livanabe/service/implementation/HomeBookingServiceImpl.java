@@ -15,6 +15,8 @@ import octguy.livanabe.repository.HomeBookingRepository;
 import octguy.livanabe.repository.HomeListingRepository;
 import octguy.livanabe.repository.UserRepository;
 import octguy.livanabe.repository.UserProfileRepository;
+import octguy.livanabe.service.IDailyMetricService;
+import octguy.livanabe.service.IHomeAvailabilityService;
 import octguy.livanabe.service.IHomeBookingService;
 import octguy.livanabe.service.INotificationService;
 import org.springframework.stereotype.Service;
@@ -36,6 +38,8 @@ public class HomeBookingServiceImpl implements IHomeBookingService {
     private final UserRepository userRepository;
     private final UserProfileRepository userProfileRepository;
     private final INotificationService notificationService;
+    private final IDailyMetricService dailyMetricService;
+    private final IHomeAvailabilityService homeAvailabilityService;
 
     @Override
     @Transactional
@@ -58,27 +62,20 @@ public class HomeBookingServiceImpl implements IHomeBookingService {
             throw new BadRequestException("Check-out time must be after check-in time");
         }
 
+        long nights = ChronoUnit.DAYS.between(
+            request.getCheckInTime().toLocalDate(),
+            request.getCheckOutTime().toLocalDate()
+        );
+        if (nights < 1) {
+            throw new BadRequestException("A booking must cover at least one night");
+        }
+
         // Validate capacity
         if (request.getGuests() > homeListing.getCapacity()) {
             throw new BadRequestException("Number of guests exceeds listing capacity");
         }
 
-        // Check for conflicting bookings
-        List<HomeBooking> conflictingBookings = homeBookingRepository.findConflictingBookings(
-            request.getHomeListingId(),
-            request.getCheckInTime(),
-            request.getCheckOutTime()
-        );
-
-        if (!conflictingBookings.isEmpty()) {
-            throw new BadRequestException("This listing is already booked for the selected dates");
-        }
-
         // Calculate total price
-        long nights = ChronoUnit.DAYS.between(
-            request.getCheckInTime().toLocalDate(),
-            request.getCheckOutTime().toLocalDate()
-        );
         BigDecimal totalPrice = homeListing.getBasePrice().multiply(BigDecimal.valueOf(nights));
 
         // Create booking
@@ -93,6 +90,10 @@ public class HomeBookingServiceImpl implements IHomeBookingService {
         booking.setIsPaid(false);
 
         HomeBooking savedBooking = homeBookingRepository.save(booking);
+
+        // Claim the nights on the listing calendar; fails (and rolls back the booking) if any night is taken
+        homeAvailabilityService.reserveNights(savedBooking);
+        dailyMetricService.recordBookingCreated(savedBooking, homeListing.getHost().getId());
         
         // Send notification to host
         HomeBookingResponse bookingResponse = convertToResponse(savedBooking);
@@ -169,8 +170,10 @@ public class HomeBookingServiceImpl implements IHomeBookingService {
             throw new BadRequestException("Cannot confirm a cancelled booking");
         }
 
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(BookingStatus.CONFIRMED);
         HomeBooking savedBooking = homeBookingRepository.save(booking);
+        dailyMetricService.recordBookingStatusChanged(savedBooking, hostId, previousStatus);
         
         // Send notification to guest
         sendConfirmationNotificationToGuest(savedBooking);
@@ -211,8 +214,12 @@ public class HomeBookingServiceImpl implements IHomeBookingService {
             throw new BadRequestException("Booking is already cancelled");
         }
 
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(BookingStatus.CANCELLED);
         HomeBooking savedBooking = homeBookingRepository.save(booking);
+        homeAvailabilityService.releaseNights(savedBooking.getId());
+        dailyMetricService.recordBookingStatusChanged(savedBooking,
+                savedBooking.getHomeListing().getHost().getId(), previousStatus);
         return convertToResponse(savedBooking);
     }
 
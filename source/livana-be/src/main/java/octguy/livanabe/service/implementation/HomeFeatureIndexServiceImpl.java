@@ -0,0 +1,297 @@
+package octguy.livanabe.service.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import octguy.livanabe.config.StartupTasks;
+import octguy.livanabe.dto.dto.ListingFeatureDto;
+import octguy.livanabe.repository.HomeListingRepository;
+import octguy.livanabe.search.ListingBitmap;
+import octguy.livanabe.search.ListingFeatureCounts;
+import octguy.livanabe.search.ListingFeatureMatch;
+import octguy.livanabe.service.IHomeFeatureIndexService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of the amenities and facilities of every home listing.
+ * <p>
+ * Each listing gets a dense ordinal the first time it is seen, and each amenity and facility id maps to the
+ * {@link ListingBitmap} of the ordinals having it. A filter on several features is the intersection of their
+ * bitmaps, smallest first, so its cost depends on the matching listings rather than on the number of joins.
+ * Search facets count each feature over the candidates the same way, and are left out until the index is built.
+ * Built on startup (or by the first search needing it) and rebuilt periodically; listing writes refresh
+ * their listing in between through {@link octguy.livanabe.service.IListingChangeService}. Ordinals of deleted listings are only reclaimed by the next full rebuild.
+ */
+@Service
+@Slf4j
+public class HomeFeatureIndexServiceImpl implements IHomeFeatureIndexService {
+
+    private final HomeListingRepository homeListingRepository;
+    private final StartupTasks startupTasks;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+
+    // Null until the first build; guarded by lock
+    private Index index;
+    // Listings refreshed while a rebuild was reading, replayed on the rebuilt index; guarded by lock
+    private Set<UUID> changedDuringRebuild;
+
+    public HomeFeatureIndexServiceImpl(HomeListingRepository homeListingRepository,
+                                       StartupTasks startupTasks,
+                                       PlatformTransactionManager transactionManager) {
+        this.homeListingRepository = homeListingRepository;
+        this.startupTasks = startupTasks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public ListingFeatureMatch match(Collection<UUID> amenityIds, Collection<UUID> facilityIds) {
+        boolean noAmenities = amenityIds == null || amenityIds.isEmpty();
+        boolean noFacilities = facilityIds == null || facilityIds.isEmpty();
+        if (noAmenities && noFacilities) {
+            return null;
+        }
+
+        ensureBuilt();
+
+        lock.readLock().lock();
+        try {
+            List<ListingBitmap> bitmaps = new ArrayList<>();
+            boolean missing = collect(index.amenities, amenityIds, bitmaps) || collect(index.facilities, facilityIds, bitmaps);
+
+            ListingBitmap result;
+            if (missing) {
+                // A feature no listing has matches nothing
+                result = new ListingBitmap();
+            } else {
+                // Smallest first; and() builds a new bitmap, so only a single feature is copied
+                bitmaps.sort(Comparator.comparingInt(ListingBitmap::cardinality));
+                result = bitmaps.size() == 1 ? bitmaps.get(0).copy() : bitmaps.get(0).and(bitmaps.get(1));
+                for (int i = 2; i < bitmaps.size() && !result.isEmpty(); i++) {
+                    result = result.and(bitmaps.get(i));
+                }
+            }
+            return new ListingFeatureMatch(result, index.ordinals, index.listingIdsByOrdinal, index.ordinals.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // One intersection count per feature instead of joining every candidate to its amenities and facilities
+    @Override
+    public ListingFeatureCounts countFeatures(Collection<UUID> listingIds) {
+        lock.readLock().lock();
+        try {
+            // Facets are an extra, so they go without amenity and facility counts until the startup build is done
+            // instead of waiting for it like a filter does
+            if (index == null) {
+                return new ListingFeatureCounts(Map.of(), Map.of());
+            }
+            // Added in ascending order, so every ordinal is appended to its container
+            int[] ordinals = listingIds.stream()
+                    .map(index.ordinals::get)
+                    .filter(Objects::nonNull)
+                    .mapToInt(Integer::intValue)
+                    .sorted()
+                    .toArray();
+            ListingBitmap candidates = new ListingBitmap();
+            for (int ordinal : ordinals) {
+                candidates.add(ordinal);
+            }
+            return new ListingFeatureCounts(countEach(index.amenities, candidates), countEach(index.facilities, candidates));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Replace the features of one listing with what the database holds now; a deleted listing has none
+    @Override
+    public void refresh(UUID listingId) {
+        Optional<ListingFeatureDto> features = homeListingRepository.findFeaturesById(listingId);
+
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(listingId);
+            }
+            if (index == null) {
+                return;
+            }
+            Integer ordinal = index.ordinals.get(listingId);
+            if (ordinal != null) {
+                index.amenities.values().forEach(bitmap -> bitmap.remove(ordinal));
+                index.facilities.values().forEach(bitmap -> bitmap.remove(ordinal));
+            }
+            features.ifPresent(index::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        // Serialized so two rebuilds never race on the swap
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = new HashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Index next = new Index();
+            try {
+                // Streamed in a read-only transaction so the driver fetches the rows in batches
+                transactionTemplate.executeWithoutResult(status -> {
+                    try (Stream<ListingFeatureDto> features = homeListingRepository.streamAllFeatures()) {
+                        features.forEach(next::add);
+                    }
+                });
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    changedDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            Set<UUID> changed;
+            lock.writeLock().lock();
+            try {
+                index = next;
+                changed = changedDuringRebuild;
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            // The rebuild may have read these listings before their change committed
+            changed.forEach(this::refresh);
+            log.info("Home feature index rebuilt: {} listings in {} ms", next.ordinals.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    // Built in the background; a filter that arrives first builds it through ensureBuilt()
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        startupTasks.run("home feature index build", this::ensureBuilt);
+    }
+
+    // Safety net for changes lost while the broker was unreachable
+    @Scheduled(fixedDelayString = "${app.listing-index.rebuild-interval-ms:900000}",
+            initialDelayString = "${app.listing-index.rebuild-interval-ms:900000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    // Builds the index unless it exists, so a search and the startup build never both read every listing
+    private void ensureBuilt() {
+        if (isBuilt()) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            if (!isBuilt()) {
+                rebuild();
+            }
+        }
+    }
+
+    private boolean isBuilt() {
+        lock.readLock().lock();
+        try {
+            return index != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // True when one of the ids has no bitmap at all
+    private static boolean collect(Map<UUID, ListingBitmap> bitmapsById, Collection<UUID> ids, List<ListingBitmap> into) {
+        if (ids == null) {
+            return false;
+        }
+        for (UUID id : new HashSet<>(ids)) {
+            ListingBitmap bitmap = bitmapsById.get(id);
+            if (bitmap == null || bitmap.isEmpty()) {
+                return true;
+            }
+            into.add(bitmap);
+        }
+        return false;
+    }
+
+    private static Map<UUID, Long> countEach(Map<UUID, ListingBitmap> bitmapsById, ListingBitmap candidates) {
+        Map<UUID, Long> counts = new HashMap<>();
+        if (candidates.isEmpty()) {
+            return counts;
+        }
+        bitmapsById.forEach((id, bitmap) -> {
+            int count = bitmap.andCardinality(candidates);
+            if (count > 0) {
+                counts.put(id, (long) count);
+            }
+        });
+        return counts;
+    }
+
+    private static final class Index {
+
+        // Read without the lock by ListingFeatureMatch, hence concurrent; ordinals are never reassigned
+        private final Map<UUID, Integer> ordinals = new ConcurrentHashMap<>();
+        // Replaced by a larger copy when full, so a match keeps a consistent view of its own ordinals
+        private UUID[] listingIdsByOrdinal = new UUID[1024];
+        private final Map<UUID, ListingBitmap> amenities = new HashMap<>();
+        private final Map<UUID, ListingBitmap> facilities = new HashMap<>();
+
+        void add(ListingFeatureDto features) {
+            int ordinal = ordinalOf(features.getListingId());
+            for (UUID amenityId : features.getAmenityIds()) {
+                amenities.computeIfAbsent(amenityId, id -> new ListingBitmap()).add(ordinal);
+            }
+            for (UUID facilityId : features.getFacilityIds()) {
+                facilities.computeIfAbsent(facilityId, id -> new ListingBitmap()).add(ordinal);
+            }
+        }
+
+        private int ordinalOf(UUID listingId) {
+            Integer ordinal = ordinals.get(listingId);
+            if (ordinal != null) {
+                return ordinal;
+            }
+            int next = ordinals.size();
+            if (next == listingIdsByOrdinal.length) {
+                listingIdsByOrdinal = Arrays.copyOf(listingIdsByOrdinal, next * 2);
+            }
+            listingIdsByOrdinal[next] = listingId;
+            ordinals.put(listingId, next);
+            return next;
+        }
+    }
+}
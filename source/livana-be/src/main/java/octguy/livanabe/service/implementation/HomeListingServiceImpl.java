@@ -4,32 +4,64 @@ import lombok.extern.slf4j.Slf4j;
 import octguy.livanabe.dto.dto.FacilityQuantityDto;
 import octguy.livanabe.dto.dto.ImageOrderDto;
 import octguy.livanabe.dto.dto.ImageOrderResponse;
+import octguy.livanabe.dto.dto.ListingDistanceDto;
+import octguy.livanabe.dto.dto.ListingFacetCountDto;
 import octguy.livanabe.dto.dto.ListingHostDto;
+import octguy.livanabe.dto.dto.ListingMapPinDto;
+import octguy.livanabe.dto.dto.ListingMapQuery;
+import octguy.livanabe.dto.dto.ListingRelevanceDto;
 import octguy.livanabe.dto.request.CreateHomeListingRequest;
 import octguy.livanabe.dto.request.HomeFacilityRequest;
 import octguy.livanabe.dto.request.LocationSearchRequest;
+import octguy.livanabe.dto.request.MapSearchRequest;
+import octguy.livanabe.dto.request.TextSearchRequest;
 import octguy.livanabe.dto.request.UpdateHomeListingRequest;
 import octguy.livanabe.dto.response.CloudinaryResponse;
 import octguy.livanabe.dto.response.HomeListingResponse;
+import octguy.livanabe.dto.response.ListingFacetsResponse;
+import octguy.livanabe.dto.response.ListingMapResponse;
+import octguy.livanabe.dto.response.ListingSearchPage;
 import octguy.livanabe.dto.response.ListingSearchResult;
 import octguy.livanabe.entity.*;
+import octguy.livanabe.exception.BadRequestException;
 import octguy.livanabe.exception.ResourceNotFoundException;
+import octguy.livanabe.exception.UserNotFoundException;
 import octguy.livanabe.repository.*;
+import octguy.livanabe.search.ListingFeatureCounts;
+import octguy.livanabe.search.ListingFeatureMatch;
+import octguy.livanabe.search.ListingIndexQuery;
+import octguy.livanabe.service.IDailyMetricService;
+import octguy.livanabe.service.IHomeAvailabilityService;
+import octguy.livanabe.service.IHomeFeatureIndexService;
 import octguy.livanabe.service.IHomeListingService;
+import octguy.livanabe.service.IListingChangeService;
+import octguy.livanabe.service.IListingSearchIndexService;
+import octguy.livanabe.service.IReferenceCatalogService;
+import octguy.livanabe.utils.CursorUtils;
 import octguy.livanabe.utils.GeoUtils;
+import octguy.livanabe.utils.ListingFacetUtils;
+import octguy.livanabe.utils.ListingMapUtils;
+import octguy.livanabe.utils.ListingRatingUtils;
 import octguy.livanabe.utils.SecurityUtils;
+import octguy.livanabe.utils.TextSearchUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.toMap;
 
@@ -37,10 +69,22 @@ import static java.util.stream.Collectors.toMap;
 @Service
 public class HomeListingServiceImpl implements IHomeListingService {
 
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int SEARCH_HYDRATE_BATCH_SIZE = 1000;
+    // Feature matches up to this size are sent to the search query as listing ids
+    private static final int FEATURE_MATCH_PUSHDOWN_MAX = 2000;
+    private static final int FACET_MATCH_PUSHDOWN_MAX = 50000;
+    private static final int FEATURE_SCAN_MAX_BATCH = 5000;
+    // Keyword search cursors remember which match mode produced the page
+    private static final String FULL_TEXT_MATCH = "f";
+    private static final String FUZZY_TEXT_MATCH = "t";
+
     private final HomeListingRepository homeListingRepository;
 
     private final UserProfileRepository userProfileRepository;
 
+    private final UserRepository userRepository;
+
     private final PropertyTypeRepository propertyTypeRepository;
 
     private final FacilityRepository facilityRepository;
@@ -57,6 +101,22 @@ public class HomeListingServiceImpl implements IHomeListingService {
     
     private final HomeBookingRepository homeBookingRepository;
 
+    private final IDailyMetricService dailyMetricService;
+
+    private final IHomeAvailabilityService homeAvailabilityService;
+
+    private final IReferenceCatalogService referenceCatalogService;
+
+    private final IHomeFeatureIndexService homeFeatureIndexService;
+
+    private final IListingSearchIndexService listingSearchIndexService;
+
+    private final IListingChangeService listingChangeService;
+
+    // A map viewport with more matching listings than this is returned as clusters
+    @Value("${app.listing-map.max-pins:200}")
+    private int mapMaxPins;
+
     public HomeListingServiceImpl(HomeListingRepository homeListingRepository,
                                   PropertyTypeRepository propertyTypeRepository,
                                   FacilityRepository facilityRepository,
@@ -65,9 +125,17 @@ public class HomeListingServiceImpl implements IHomeListingService {
                                   HomeAmenityRepository homeAmenityRepository,
                                   ListingImageRepository listingImageRepository,
                                   UserProfileRepository userProfileRepository,
+                                  UserRepository userRepository,
                                   ReviewRepository reviewRepository,
-                                  HomeBookingRepository homeBookingRepository) {
+                                  HomeBookingRepository homeBookingRepository,
+                                  IDailyMetricService dailyMetricService,
+                                  IHomeAvailabilityService homeAvailabilityService,
+                                  IReferenceCatalogService referenceCatalogService,
+                                  IHomeFeatureIndexService homeFeatureIndexService,
+                                  IListingSearchIndexService listingSearchIndexService,
+                                  IListingChangeService listingChangeService) {
         this.userProfileRepository = userProfileRepository;
+        this.userRepository = userRepository;
         this.homeFacilityRepository = homeFacilityRepository;
         this.homeAmenityRepository = homeAmenityRepository;
         this.amenityRepository = amenityRepository;
@@ -77,15 +145,23 @@ public class HomeListingServiceImpl implements IHomeListingService {
         this.listingImageRepository = listingImageRepository;
         this.reviewRepository = reviewRepository;
         this.homeBookingRepository = homeBookingRepository;
+        this.dailyMetricService = dailyMetricService;
+        this.homeAvailabilityService = homeAvailabilityService;
+        this.referenceCatalogService = referenceCatalogService;
+        this.homeFeatureIndexService = homeFeatureIndexService;
+        this.listingSearchIndexService = listingSearchIndexService;
+        this.listingChangeService = listingChangeService;
     }
 
     @Override
     @Transactional
     public HomeListingResponse createHomeListing(CreateHomeListingRequest request) {
         // Get current user
-        User user = SecurityUtils.getCurrentUser();
+        UUID userId = SecurityUtils.getCurrentUserId();
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User with id " + userId + " not found"));
 
-        PropertyType propertyType = propertyTypeRepository.findById(request.getPropertyTypeId())
+        PropertyType propertyType = findPropertyType(request.getPropertyTypeId())
                 .orElseThrow(() -> {
                     log.error("Property type not found with id {}", request.getPropertyTypeId());
                     return new RuntimeException("Property type not found");
@@ -109,10 +185,12 @@ public class HomeListingServiceImpl implements IHomeListingService {
         homeListing.setIsAvailable(true);
 
         HomeListing savedListing = homeListingRepository.save(homeListing);
+        dailyMetricService.recordListingCreated(savedListing);
 
         createHomeFacilities(savedListing, request.getFacilityRequests(), facilities);
         createHomeAmenities(savedListing, amenities);
         List<ListingImage> listingImages = createListingImage(savedListing, request.getImages());
+        listingChangeService.onListingChanged(savedListing.getId());
 
         return buildHomeListingResponse(savedListing, request, listingImages, user);
     }
@@ -121,10 +199,8 @@ public class HomeListingServiceImpl implements IHomeListingService {
     @Transactional(readOnly = true)
     public List<HomeListingResponse> getAllHomeListings() {
         log.info("Fetching all home listings");
-        List<HomeListing> homeListings = homeListingRepository.findAll();
-        return homeListings.stream()
-                .map(this::convertToResponse)
-                .toList();
+        List<HomeListing> homeListings = homeListingRepository.findAllWithHostAndPropertyType();
+        return convertToResponsesBatch(homeListings);
     }
 
     @Override
@@ -143,10 +219,8 @@ public class HomeListingServiceImpl implements IHomeListingService {
     @Transactional(readOnly = true)
     public List<HomeListingResponse> getHomeListingsByHostId(UUID hostId) {
         log.info("Fetching home listings for host {}", hostId);
-        List<HomeListing> homeListings = homeListingRepository.findByHostId(hostId);
-        return homeListings.stream()
-                .map(this::convertToResponse)
-                .toList();
+        List<HomeListing> homeListings = homeListingRepository.findByHostIdWithHostAndPropertyType(hostId);
+        return convertToResponsesBatch(homeListings);
     }
 
     @Override
@@ -155,7 +229,7 @@ public class HomeListingServiceImpl implements IHomeListingService {
         log.info("Updating home listing with id {}", id);
         
         // Get current user and verify ownership
-        User currentUser = SecurityUtils.getCurrentUser();
+        UUID currentUserId = SecurityUtils.getCurrentUserId();
         
         HomeListing homeListing = homeListingRepository.findById(id)
                 .orElseThrow(() -> {
@@ -164,14 +238,14 @@ public class HomeListingServiceImpl implements IHomeListingService {
                 });
         
         // Verify the current user is the owner
-        if (!homeListing.getHost().getId().equals(currentUser.getId())) {
-            log.error("User {} is not the owner of listing {}", currentUser.getId(), id);
+        if (!homeListing.getHost().getId().equals(currentUserId)) {
+            log.error("User {} is not the owner of listing {}", currentUserId, id);
             throw new RuntimeException("You are not authorized to update this listing");
         }
         
         // Update property type if changed
         if (request.getPropertyTypeId() != null) {
-            PropertyType propertyType = propertyTypeRepository.findById(request.getPropertyTypeId())
+            PropertyType propertyType = findPropertyType(request.getPropertyTypeId())
                     .orElseThrow(() -> {
                         log.error("Property type not found with id {}", request.getPropertyTypeId());
                         return new ResourceNotFoundException("Property type not found");
@@ -204,6 +278,8 @@ public class HomeListingServiceImpl implements IHomeListingService {
             createHomeAmenities(savedListing, amenities);
         }
         
+        listingChangeService.onListingChanged(savedListing.getId());
+        
         // Update images - delete existing and create new
         if (request.getImages() != null && !request.getImages().isEmpty()) {
             listingImageRepository.deleteByListingId(savedListing.getId());
@@ -330,15 +406,27 @@ public class HomeListingServiceImpl implements IHomeListingService {
                 .amenityIds(request.getAmenityIds())
                 .facilities(facilityDtos)
                 .images(imageResponses)
+                .rating(ListingRatingUtils.toRating(homeListing))
                 .build();
     }
 
+    // Reference rows known to the catalog are attached as proxies, so no SELECT is issued for them;
+    // ids it does not know yet (created on another node a moment ago) are looked up in the database
+    private Optional<PropertyType> findPropertyType(UUID id) {
+        if (referenceCatalogService.getCatalog().getPropertyTypes().contains(id)) {
+            return Optional.of(propertyTypeRepository.getReferenceById(id));
+        }
+        return propertyTypeRepository.findById(id);
+    }
+
     private List<Facility> validateFacilities(List<HomeFacilityRequest> requests) {
         List<UUID> facilitiesIds = requests.stream()
                 .map(HomeFacilityRequest::getFacilityId)
                 .toList();
 
-        List<Facility> facilities = facilityRepository.findAllById(facilitiesIds);
+        List<Facility> facilities = referenceCatalogService.getCatalog().getFacilities().containsAll(facilitiesIds)
+                ? facilitiesIds.stream().distinct().map(facilityRepository::getReferenceById).toList()
+                : facilityRepository.findAllById(facilitiesIds);
 
         if (facilities.size() != facilitiesIds.size()) {
             log.error("Not all facilities found with ids {}", facilitiesIds);
@@ -349,7 +437,9 @@ public class HomeListingServiceImpl implements IHomeListingService {
     }
 
     private List<Amenity> validateAmenities(List<UUID> amenityIds) {
-        List<Amenity> amenities = amenityRepository.findAllById(amenityIds);
+        List<Amenity> amenities = referenceCatalogService.getCatalog().getAmenities().containsAll(amenityIds)
+                ? amenityIds.stream().distinct().map(amenityRepository::getReferenceById).toList()
+                : amenityRepository.findAllById(amenityIds);
 
         if (amenities.size() != amenityIds.size()) {
             log.error("Not all amenities found with ids {}", amenityIds);
@@ -359,6 +449,54 @@ public class HomeListingServiceImpl implements IHomeListingService {
         return amenities;
     }
 
+    // ==================== Response Building (Optimized for Batch) ====================
+
+    private List<HomeListingResponse> convertToResponsesBatch(List<HomeListing> homeListings) {
+        if (homeListings.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Extract all IDs
+        Set<UUID> listingIds = homeListings.stream()
+                .map(HomeListing::getId)
+                .collect(Collectors.toSet());
+
+        Set<UUID> hostIds = homeListings.stream()
+                .map(l -> l.getHost().getId())
+                .collect(Collectors.toSet());
+
+        // Batch fetch all related data in 4 queries
+        Map<UUID, UserProfile> profileMap = userProfileRepository.findByUserIdIn(hostIds).stream()
+                .collect(toMap(p -> p.getUser().getId(), Function.identity()));
+
+        Map<UUID, List<HomeFacility>> facilitiesMap = homeFacilityRepository.findByListingIdIn(listingIds).stream()
+                .collect(Collectors.groupingBy(hf -> hf.getListing().getId()));
+
+        Map<UUID, List<HomeAmenity>> amenitiesMap = homeAmenityRepository.findByListingIdIn(listingIds).stream()
+                .collect(Collectors.groupingBy(ha -> ha.getListing().getId()));
+
+        Map<UUID, List<ListingImage>> imagesMap = listingImageRepository
+                .findByListingIdInOrderByImageOrderAsc(listingIds).stream()
+                .collect(Collectors.groupingBy(img -> img.getListing().getId()));
+
+        // Build responses
+        return homeListings.stream()
+                .map(listing -> {
+                    UserProfile profile = profileMap.get(listing.getHost().getId());
+
+                    if (profile == null) {
+                        log.error("User profile not found for user {}", listing.getHost().getId());
+                        throw new RuntimeException("User profile not found");
+                    }
+
+                    return buildResponseFromData(listing, profile,
+                            facilitiesMap.getOrDefault(listing.getId(), Collections.emptyList()),
+                            amenitiesMap.getOrDefault(listing.getId(), Collections.emptyList()),
+                            imagesMap.getOrDefault(listing.getId(), Collections.emptyList()));
+                })
+                .toList();
+    }
+
     private HomeListingResponse convertToResponse(HomeListing homeListing) {
         // Get host information
         User host = homeListing.getHost();
@@ -368,6 +506,20 @@ public class HomeListingServiceImpl implements IHomeListingService {
                     return new RuntimeException("User profile not found");
                 });
 
+        List<HomeFacility> homeFacilities = homeFacilityRepository.findByListingId(homeListing.getId());
+        List<HomeAmenity> homeAmenities = homeAmenityRepository.findByListingId(homeListing.getId());
+        List<ListingImage> listingImages = listingImageRepository.findByListingIdOrderByImageOrderAsc(homeListing.getId());
+
+        return buildResponseFromData(homeListing, profile, homeFacilities, homeAmenities, listingImages);
+    }
+
+    private HomeListingResponse buildResponseFromData(HomeListing homeListing,
+                                                      UserProfile profile,
+                                                      List<HomeFacility> homeFacilities,
+                                                      List<HomeAmenity> homeAmenities,
+                                                      List<ListingImage> listingImages) {
+        User host = homeListing.getHost();
+
         ListingHostDto hostDto = ListingHostDto.builder()
                 .hostId(host.getId())
                 .hostDisplayName(profile.getDisplayName())
@@ -375,8 +527,7 @@ public class HomeListingServiceImpl implements IHomeListingService {
                 .phoneNumber(profile.getPhoneNumber())
                 .build();
 
-        // Get facilities
-        List<HomeFacility> homeFacilities = homeFacilityRepository.findByListingId(homeListing.getId());
+        // Facility and amenity ids come from the lazy proxies, so no extra query is issued here
         List<FacilityQuantityDto> facilityDtos = homeFacilities.stream()
                 .map(hf -> {
                     FacilityQuantityDto dto = new FacilityQuantityDto();
@@ -386,14 +537,10 @@ public class HomeListingServiceImpl implements IHomeListingService {
                 })
                 .toList();
 
-        // Get amenities
-        List<HomeAmenity> homeAmenities = homeAmenityRepository.findByListingId(homeListing.getId());
         List<UUID> amenityIds = homeAmenities.stream()
                 .map(ha -> ha.getAmenity().getId())
                 .toList();
 
-        // Get images
-        List<ListingImage> listingImages = listingImageRepository.findByListingIdOrderByImageOrderAsc(homeListing.getId());
         List<ImageOrderResponse> imageResponses = listingImages.stream()
                 .map(listingImage -> ImageOrderResponse.builder()
                         .image(CloudinaryResponse.builder()
@@ -418,12 +565,28 @@ public class HomeListingServiceImpl implements IHomeListingService {
                 .amenityIds(amenityIds)
                 .facilities(facilityDtos)
                 .images(imageResponses)
+                .rating(ListingRatingUtils.toRating(homeListing))
                 .build();
     }
     
     @Override
-    public List<ListingSearchResult<HomeListingResponse>> searchByLocation(LocationSearchRequest request) {
-        // Get bounding box for initial filtering
+    @Transactional(readOnly = true)
+    public List<ListingSearchResult<HomeListingResponse>> searchAllByLocation(LocationSearchRequest request) {
+        // Every match in one pass instead of page by page
+        return searchByLocation(request, null, null).getResults();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public ListingSearchPage<HomeListingResponse> searchByLocation(LocationSearchRequest request) {
+        int limit = request.getLimit() != null ? request.getLimit() : DEFAULT_SEARCH_LIMIT;
+        return searchByLocation(request, request.getCursor(), limit);
+    }
+    
+    // A null limit returns every match after the cursor as a single page, without facets
+    private ListingSearchPage<HomeListingResponse> searchByLocation(LocationSearchRequest request, String cursor,
+                                                                    Integer limit) {
+        // Get bounding box for index-backed prefiltering
         double[] bbox = GeoUtils.getBoundingBox(
                 request.getLatitude(), 
                 request.getLongitude(), 
@@ -435,38 +598,391 @@ public class HomeListingServiceImpl implements IHomeListingService {
         BigDecimal maxPrice = request.getMaxPrice() != null ? BigDecimal.valueOf(request.getMaxPrice()) : null;
         UUID propertyTypeId = request.getPropertyTypeId() != null ? UUID.fromString(request.getPropertyTypeId()) : null;
         
-        // Query with bounding box and filters
-        List<HomeListing> listings = homeListingRepository.findByLocationWithFilters(
+        // Stay dates are optional but go together
+        if ((request.getCheckIn() == null) != (request.getCheckOut() == null)) {
+            throw new BadRequestException("Check-in and check-out dates must be provided together");
+        }
+        if (request.getCheckIn() != null && !request.getCheckOut().isAfter(request.getCheckIn())) {
+            throw new BadRequestException("Check-out date must be after check-in date");
+        }
+        
+        // Resume after the (distance, id) of the last row of the previous page
+        Double cursorDistance = null;
+        UUID cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorUtils.decode(cursor, 2);
+            try {
+                cursorDistance = Double.parseDouble(parts[0]);
+                cursorId = UUID.fromString(parts[1]);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+        Integer fetchLimit = limit != null ? limit + 1 : null;
+        
+        // Amenity and facility filters are answered by the in-memory feature index. A short list of matches is sent
+        // along with the query; a long one means most nearby listings match, so they are filtered here instead.
+        ListingFeatureMatch features = homeFeatureIndexService.match(request.getAmenityIds(), request.getFacilityIds());
+        String listingIds = features != null && features.size() <= FEATURE_MATCH_PUSHDOWN_MAX
+                ? features.listingIds().stream().map(UUID::toString).collect(Collectors.joining(","))
+                : null;
+        
+        // Radius filter, distance sort and pagination are done by the search index when it is built, in the database
+        // otherwise or when stay dates are given; fetch one extra row to detect a next page
+        List<ListingDistanceDto> nearest;
+        if (features != null && features.isEmpty()) {
+            nearest = List.of();
+        } else if (request.getCheckIn() == null && listingSearchIndexService.isReady()) {
+            nearest = listingSearchIndexService.findNearest(ListingIndexQuery.builder()
+                    .home(true)
+                    .latitude(request.getLatitude())
+                    .longitude(request.getLongitude())
+                    .radiusKm(request.getRadiusKm())
+                    .boundingBox(bbox)
+                    .minPrice(minPrice)
+                    .maxPrice(maxPrice)
+                    .minCapacity(request.getMinCapacity())
+                    .groupId(propertyTypeId)
+                    .listingFilter(features != null ? features::contains : null)
+                    .cursorDistance(cursorDistance)
+                    .cursorId(cursorId)
+                    .limit(fetchLimit != null ? fetchLimit : Integer.MAX_VALUE)
+                    .build());
+        } else if (features == null || listingIds != null) {
+            nearest = findNearestHomes(request, bbox, minPrice, maxPrice, propertyTypeId, listingIds,
+                    cursorDistance, cursorId, fetchLimit);
+        } else if (fetchLimit == null) {
+            nearest = findNearestHomes(request, bbox, minPrice, maxPrice, propertyTypeId, null,
+                    cursorDistance, cursorId, null).stream()
+                    .filter(row -> features.contains(row.getId()))
+                    .toList();
+        } else {
+            nearest = findNearestMatching(request, bbox, minPrice, maxPrice, propertyTypeId, features,
+                    cursorDistance, cursorId, fetchLimit);
+        }
+        
+        boolean hasNext = limit != null && nearest.size() > limit;
+        List<ListingDistanceDto> page = hasNext ? nearest.subList(0, limit) : nearest;
+        
+        // Hydrate in batches so an unbounded page stays within the bind parameter limit
+        List<ListingSearchResult<HomeListingResponse>> results = new ArrayList<>(page.size());
+        for (int from = 0; from < page.size(); from += SEARCH_HYDRATE_BATCH_SIZE) {
+            int to = Math.min(from + SEARCH_HYDRATE_BATCH_SIZE, page.size());
+            results.addAll(toSearchResults(page.subList(from, to)));
+        }
+        
+        // Facets describe the whole result set, so they are only computed for the first page
+        ListingFacetsResponse facets = null;
+        if (limit != null && request.isIncludeFacets() && cursorId == null) {
+            // Facets cover every match, so a longer list of matches is still worth sending than probing each candidate
+            String facetListingIds = listingIds == null && features != null && features.size() <= FACET_MATCH_PUSHDOWN_MAX
+                    ? features.listingIds().stream().map(UUID::toString).collect(Collectors.joining(","))
+                    : listingIds;
+            List<ListingFacetCountDto> facetCounts = homeListingRepository.countFacetsNearby(
+                    request.getLatitude(), request.getLongitude(), request.getRadiusKm(),
+                    bbox[0], bbox[1], bbox[2], bbox[3],
+                    minPrice, maxPrice,
+                    request.getMinCapacity(),
+                    propertyTypeId,
+                    request.getCheckIn(), request.getCheckOut(),
+                    facetListingIds,
+                    facetListingIds == null ? joinDistinct(request.getAmenityIds()) : null,
+                    facetListingIds == null ? joinDistinct(request.getFacilityIds()) : null
+            );
+            facets = toHomeFacets(facetCounts);
+        }
+        
+        ListingDistanceDto last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return ListingSearchPage.<HomeListingResponse>builder()
+                .results(results)
+                .nextCursor(hasNext ? CursorUtils.encode(last.getDistanceKm(), last.getId()) : null)
+                .hasNext(hasNext)
+                .facets(facets)
+                .build();
+    }
+    
+    // Hydrates the listings of a page, keeping the distance order
+    private List<ListingSearchResult<HomeListingResponse>> toSearchResults(List<ListingDistanceDto> page) {
+        Set<UUID> ids = page.stream()
+                .map(ListingDistanceDto::getId)
+                .collect(Collectors.toSet());
+        Map<UUID, HomeListing> listingMap = ids.isEmpty()
+                ? Collections.emptyMap()
+                : homeListingRepository.findAllWithHostAndPropertyTypeByIdIn(ids).stream()
+                        .collect(Collectors.toMap(HomeListing::getId, Function.identity()));
+        List<HomeListing> listings = page.stream()
+                .map(d -> listingMap.get(d.getId()))
+                .filter(Objects::nonNull)
+                .toList();
+        
+        Map<UUID, Double> distances = page.stream()
+                .collect(Collectors.toMap(ListingDistanceDto::getId, ListingDistanceDto::getDistanceKm));
+        
+        return convertToResponsesBatch(listings).stream()
+                .map(response -> ListingSearchResult.<HomeListingResponse>builder()
+                        .listing(response)
+                        .distanceKm(Math.round(distances.get(response.getListingId()) * 100.0) / 100.0)
+                        .build())
+                .toList();
+    }
+    
+    private List<ListingDistanceDto> findNearestHomes(LocationSearchRequest request, double[] bbox,
+                                                      BigDecimal minPrice, BigDecimal maxPrice, UUID propertyTypeId,
+                                                      String listingIds, Double cursorDistance, UUID cursorId, Integer limit) {
+        return homeListingRepository.findNearestWithFilters(
+                request.getLatitude(), request.getLongitude(), request.getRadiusKm(),
                 bbox[0], bbox[1], bbox[2], bbox[3],
                 minPrice, maxPrice,
                 request.getMinCapacity(),
-                propertyTypeId
+                propertyTypeId,
+                request.getCheckIn(), request.getCheckOut(),
+                listingIds,
+                cursorDistance, cursorId,
+                limit
         );
+    }
+    
+    // Walks the nearest listings in keyset batches, keeping those in the feature match, until limit rows are found.
+    // Batches are sized from the match selectivity so one batch usually suffices.
+    private List<ListingDistanceDto> findNearestMatching(LocationSearchRequest request, double[] bbox,
+                                                         BigDecimal minPrice, BigDecimal maxPrice, UUID propertyTypeId,
+                                                         ListingFeatureMatch features,
+                                                         Double cursorDistance, UUID cursorId, int limit) {
+        int batchSize = (int) Math.min(FEATURE_SCAN_MAX_BATCH,
+                Math.max(limit, Math.ceil(limit * 1.5 / features.selectivity())));
+        List<ListingDistanceDto> matching = new ArrayList<>(limit);
+        while (true) {
+            List<ListingDistanceDto> batch = findNearestHomes(request, bbox, minPrice, maxPrice, propertyTypeId, null,
+                    cursorDistance, cursorId, batchSize);
+            for (ListingDistanceDto row : batch) {
+                if (features.contains(row.getId())) {
+                    matching.add(row);
+                    if (matching.size() == limit) {
+                        return matching;
+                    }
+                }
+            }
+            if (batch.size() < batchSize) {
+                return matching;
+            }
+            ListingDistanceDto last = batch.get(batch.size() - 1);
+            cursorDistance = last.getDistanceKm();
+            cursorId = last.getId();
+        }
+    }
+    
+    // Comma-separated distinct ids for the SQL feature filters, null when there are none
+    private static String joinDistinct(List<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return null;
+        }
+        return ids.stream().distinct().map(UUID::toString).collect(Collectors.joining(","));
+    }
+    
+    // Amenity and facility counts are taken from the feature index over the candidates the facet query returned
+    private ListingFacetsResponse toHomeFacets(List<ListingFacetCountDto> facetCounts) {
+        ListingFeatureCounts features = homeFeatureIndexService.countFeatures(ListingFacetUtils.candidateIds(facetCounts));
+        return ListingFacetUtils.toHomeFacets(facetCounts, features, referenceCatalogService.getCatalog());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public ListingMapResponse searchMap(MapSearchRequest request) {
+        ListingMapUtils.validate(request);
+        double[] bbox = ListingMapUtils.boundingBox(request);
+        double cellSize = ListingMapUtils.cellSize(request);
         
-        // Calculate precise distance and filter by actual radius
-        List<ListingSearchResult<HomeListingResponse>> results = new java.util.ArrayList<>();
-        for (HomeListing listing : listings) {
-            double distance = GeoUtils.calculateDistance(
-                    request.getLatitude(), request.getLongitude(),
-                    listing.getLatitude(), listing.getLongitude()
+        // Parse optional filters
+        BigDecimal minPrice = request.getMinPrice() != null ? BigDecimal.valueOf(request.getMinPrice()) : null;
+        BigDecimal maxPrice = request.getMaxPrice() != null ? BigDecimal.valueOf(request.getMaxPrice()) : null;
+        UUID propertyTypeId = request.getPropertyTypeId() != null ? UUID.fromString(request.getPropertyTypeId()) : null;
+        
+        // Stay dates are optional but go together
+        if ((request.getCheckIn() == null) != (request.getCheckOut() == null)) {
+            throw new BadRequestException("Check-in and check-out dates must be provided together");
+        }
+        if (request.getCheckIn() != null && !request.getCheckOut().isAfter(request.getCheckIn())) {
+            throw new BadRequestException("Check-out date must be after check-in date");
+        }
+        
+        ListingFeatureMatch features = homeFeatureIndexService.match(request.getAmenityIds(), request.getFacilityIds());
+        if (features != null && features.isEmpty()) {
+            return ListingMapUtils.toPinResponse(List.of(), cellSize);
+        }
+        
+        // Pins are fetched first, one more than returned so a denser viewport stops the scan early and is clustered
+        // instead. Both come from the search index when it is built, from the database otherwise or with stay dates.
+        if (request.getCheckIn() == null && listingSearchIndexService.isReady()) {
+            ListingMapQuery query = ListingMapQuery.builder()
+                    .home(true)
+                    .boundingBox(bbox)
+                    .cellSize(cellSize)
+                    .minPrice(minPrice)
+                    .maxPrice(maxPrice)
+                    .minCapacity(request.getMinCapacity())
+                    .groupId(propertyTypeId)
+                    .listingFilter(features != null ? features::contains : null)
+                    .build();
+            List<ListingMapPinDto> pins = listingSearchIndexService.findMapPins(query, mapMaxPins + 1);
+            return pins.size() <= mapMaxPins
+                    ? ListingMapUtils.toPinResponse(pins, cellSize)
+                    : ListingMapUtils.toClusterResponse(listingSearchIndexService.countMapCells(query), cellSize);
+        }
+        
+        // Every match in the viewport counts, so the matches are sent along up to the facet limit, as for facets
+        String listingIds = features != null && features.size() <= FACET_MATCH_PUSHDOWN_MAX
+                ? features.listingIds().stream().map(UUID::toString).collect(Collectors.joining(","))
+                : null;
+        String amenityIds = listingIds == null ? joinDistinct(request.getAmenityIds()) : null;
+        String facilityIds = listingIds == null ? joinDistinct(request.getFacilityIds()) : null;
+        List<ListingMapPinDto> pins = homeListingRepository.findMapPins(
+                bbox[0], bbox[1], bbox[2], bbox[3],
+                minPrice, maxPrice,
+                request.getMinCapacity(),
+                propertyTypeId,
+                request.getCheckIn(), request.getCheckOut(),
+                listingIds, amenityIds, facilityIds,
+                mapMaxPins + 1
+        );
+        if (pins.size() <= mapMaxPins) {
+            return ListingMapUtils.toPinResponse(pins, cellSize);
+        }
+        return ListingMapUtils.toClusterResponse(homeListingRepository.countMapCells(
+                cellSize,
+                bbox[0], bbox[1], bbox[2], bbox[3],
+                minPrice, maxPrice,
+                request.getMinCapacity(),
+                propertyTypeId,
+                request.getCheckIn(), request.getCheckOut(),
+                listingIds, amenityIds, facilityIds
+        ), cellSize);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public ListingSearchPage<HomeListingResponse> searchByText(TextSearchRequest request) {
+        String text = TextSearchUtils.normalize(request.getQuery());
+        String tsQuery = TextSearchUtils.toPrefixQuery(text);
+        
+        // Parse optional filters
+        BigDecimal minPrice = request.getMinPrice() != null ? BigDecimal.valueOf(request.getMinPrice()) : null;
+        BigDecimal maxPrice = request.getMaxPrice() != null ? BigDecimal.valueOf(request.getMaxPrice()) : null;
+        UUID propertyTypeId = request.getPropertyTypeId() != null ? UUID.fromString(request.getPropertyTypeId()) : null;
+        
+        // Stay dates are optional but go together
+        if ((request.getCheckIn() == null) != (request.getCheckOut() == null)) {
+            throw new BadRequestException("Check-in and check-out dates must be provided together");
+        }
+        if (request.getCheckIn() != null && !request.getCheckOut().isAfter(request.getCheckIn())) {
+            throw new BadRequestException("Check-out date must be after check-in date");
+        }
+        
+        // Resume after the (relevance, id) of the last row of the previous page, in the same match mode
+        boolean fuzzy = false;
+        Float cursorRelevance = null;
+        UUID cursorId = null;
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            String[] parts = CursorUtils.decode(request.getCursor(), 3);
+            try {
+                fuzzy = FUZZY_TEXT_MATCH.equals(parts[0]);
+                cursorRelevance = Float.parseFloat(parts[1]);
+                cursorId = UUID.fromString(parts[2]);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+        int limit = request.getLimit() != null ? request.getLimit() : DEFAULT_SEARCH_LIMIT;
+        
+        // Matching, ranking and pagination are done in the database; fetch one extra row to detect a next page.
+        // Only when no listing contains every term do we fall back to typo-tolerant title matching.
+        List<ListingRelevanceDto> ranked = fuzzy ? List.of() : homeListingRepository.searchByText(
+                tsQuery,
+                minPrice, maxPrice,
+                request.getMinCapacity(),
+                propertyTypeId,
+                request.getCheckIn(), request.getCheckOut(),
+                cursorRelevance, cursorId,
+                limit + 1
+        );
+        if (fuzzy || (ranked.isEmpty() && cursorId == null)) {
+            fuzzy = true;
+            ranked = homeListingRepository.searchByTitleSimilarity(
+                    text,
+                    minPrice, maxPrice,
+                    request.getMinCapacity(),
+                    propertyTypeId,
+                    request.getCheckIn(), request.getCheckOut(),
+                    cursorRelevance, cursorId,
+                    limit + 1
             );
-            if (distance <= request.getRadiusKm()) {
-                results.add(ListingSearchResult.<HomeListingResponse>builder()
-                        .listing(convertToResponse(listing))
-                        .distanceKm(Math.round(distance * 100.0) / 100.0)
-                        .build());
+        }
+        
+        boolean hasNext = ranked.size() > limit;
+        List<ListingRelevanceDto> page = hasNext ? ranked.subList(0, limit) : ranked;
+        
+        // Hydrate only the listings of this page, keeping the relevance order
+        Set<UUID> ids = page.stream()
+                .map(ListingRelevanceDto::getId)
+                .collect(Collectors.toSet());
+        Map<UUID, HomeListing> listingMap = ids.isEmpty()
+                ? Collections.emptyMap()
+                : homeListingRepository.findAllWithHostAndPropertyTypeByIdIn(ids).stream()
+                        .collect(Collectors.toMap(HomeListing::getId, Function.identity()));
+        List<HomeListing> listings = page.stream()
+                .map(r -> listingMap.get(r.getId()))
+                .filter(Objects::nonNull)
+                .toList();
+        
+        Map<UUID, Float> relevances = page.stream()
+                .collect(Collectors.toMap(ListingRelevanceDto::getId, ListingRelevanceDto::getRelevance));
+        
+        List<ListingSearchResult<HomeListingResponse>> results = convertToResponsesBatch(listings).stream()
+                .map(response -> ListingSearchResult.<HomeListingResponse>builder()
+                        .listing(response)
+                        .relevance(Math.round(relevances.get(response.getListingId()) * 10000.0) / 10000.0)
+                        .build())
+                .toList();
+        
+        // Facets are counted over the same match mode as the results
+        ListingFacetsResponse facets = null;
+        if (request.isIncludeFacets() && cursorId == null) {
+            List<ListingFacetCountDto> facetCounts;
+            if (fuzzy) {
+                facetCounts = homeListingRepository.countFacetsByTitleSimilarity(
+                        text,
+                        minPrice, maxPrice,
+                        request.getMinCapacity(),
+                        propertyTypeId,
+                        request.getCheckIn(), request.getCheckOut()
+                );
+            } else {
+                facetCounts = homeListingRepository.countFacetsByText(
+                        tsQuery,
+                        minPrice, maxPrice,
+                        request.getMinCapacity(),
+                        propertyTypeId,
+                        request.getCheckIn(), request.getCheckOut()
+                );
             }
+            facets = toHomeFacets(facetCounts);
         }
-        results.sort(Comparator.comparingDouble(ListingSearchResult::getDistanceKm));
-        return results;
+        
+        ListingRelevanceDto last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return ListingSearchPage.<HomeListingResponse>builder()
+                .results(results)
+                .nextCursor(hasNext ? CursorUtils.encode(fuzzy ? FUZZY_TEXT_MATCH : FULL_TEXT_MATCH, last.getRelevance(), last.getId()) : null)
+                .hasNext(hasNext)
+                .facets(facets)
+                .build();
     }
     
     @Override
     @Transactional(readOnly = true)
     public Page<HomeListingResponse> getAllHomeListingsPaginated(Pageable pageable) {
         log.info("Fetching paginated home listings");
-        Page<HomeListing> homeListings = homeListingRepository.findAll(pageable);
-        return homeListings.map(this::convertToResponse);
+        Page<HomeListing> homeListings = homeListingRepository.findAllWithHostAndPropertyType(pageable);
+        List<HomeListingResponse> content = convertToResponsesBatch(homeListings.getContent());
+        return new PageImpl<>(content, pageable, homeListings.getTotalElements());
     }
     
     @Override
@@ -480,7 +996,10 @@ public class HomeListingServiceImpl implements IHomeListingService {
                     return new ResourceNotFoundException("Home listing not found");
                 });
         
+        dailyMetricService.recordListingDeleted(homeListing);
+
         // Delete related data first (cascade delete)
+        homeAvailabilityService.releaseListingNights(id);
         homeBookingRepository.deleteByHomeListingId(id);
         reviewRepository.deleteByListingId(id);
         homeFacilityRepository.deleteByListingId(id);
@@ -489,6 +1008,7 @@ public class HomeListingServiceImpl implements IHomeListingService {
         
         // Delete the listing (soft delete via @SQLRestriction)
         homeListingRepository.delete(homeListing);
+        listingChangeService.onListingChanged(id);
         
         log.info("Successfully deleted home listing with id {}", id);
     }
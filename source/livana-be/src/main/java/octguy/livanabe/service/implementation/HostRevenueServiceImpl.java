@@ -2,21 +2,23 @@ package octguy.livanabe.service.implementation;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import octguy.livanabe.dto.dto.MetricTotalsDto;
 import octguy.livanabe.dto.response.HostRevenuePeriodResponse;
 import octguy.livanabe.dto.response.HostRevenueStatsResponse;
-import octguy.livanabe.repository.ExperienceBookingRepository;
-import octguy.livanabe.repository.ExperienceListingRepository;
-import octguy.livanabe.repository.HomeBookingRepository;
-import octguy.livanabe.repository.HomeListingRepository;
+import octguy.livanabe.entity.DailyMetric;
+import octguy.livanabe.repository.DailyMetricRepository;
+import octguy.livanabe.service.IDailyMetricService;
 import octguy.livanabe.service.IHostRevenueService;
+import octguy.livanabe.utils.PeriodBucketUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
@@ -26,28 +28,29 @@ import java.util.UUID;
 @Transactional(readOnly = true)
 public class HostRevenueServiceImpl implements IHostRevenueService {
 
-    private final HomeListingRepository homeListingRepository;
-    private final ExperienceListingRepository experienceListingRepository;
-    private final HomeBookingRepository homeBookingRepository;
-    private final ExperienceBookingRepository experienceBookingRepository;
+    private final DailyMetricRepository dailyMetricRepository;
+    private final IDailyMetricService dailyMetricService;
 
     @Override
     public HostRevenueStatsResponse getHostOverallStats(UUID hostId) {
         log.debug("Getting overall revenue statistics for host: {}", hostId);
 
+        // Totals come from the host's rows in the daily rollup
+        MetricTotalsDto totals = dailyMetricRepository.sumTotalsByScopeId(hostId);
+
         // Listing statistics
-        Long totalHomeListings = homeListingRepository.countByHostId(hostId);
-        Long totalExperienceListings = experienceListingRepository.countByHostId(hostId);
+        Long totalHomeListings = totals.getNewHomeListings();
+        Long totalExperienceListings = totals.getNewExperienceListings();
         Long totalListings = totalHomeListings + totalExperienceListings;
 
         // Booking statistics
-        Long totalHomeBookings = homeBookingRepository.countHomeBookingsByHostId(hostId);
-        Long totalExperienceBookings = experienceBookingRepository.countExperienceBookingsByHostId(hostId);
+        Long totalHomeBookings = totals.getHomeBookings();
+        Long totalExperienceBookings = totals.getExperienceBookings();
         Long totalBookings = totalHomeBookings + totalExperienceBookings;
 
         // Revenue statistics
-        BigDecimal totalHomeRevenue = homeBookingRepository.sumHomeRevenueByHostId(hostId);
-        BigDecimal totalExperienceRevenue = experienceBookingRepository.sumExperienceRevenueByHostId(hostId);
+        BigDecimal totalHomeRevenue = totals.getHomeRevenue();
+        BigDecimal totalExperienceRevenue = totals.getExperienceRevenue();
         BigDecimal totalRevenue = totalHomeRevenue.add(totalExperienceRevenue);
 
         return HostRevenueStatsResponse.builder()
@@ -68,53 +71,59 @@ public class HostRevenueServiceImpl implements IHostRevenueService {
         log.debug("Getting period revenue statistics for host: {}, period={}, startDate={}, endDate={}", 
                 hostId, period, startDate, endDate);
 
+        DateTimeFormatter formatter = getFormatterForPeriod(period);
+        ChronoUnit unit = PeriodBucketUtils.getUnit(period);
+
+        // Bucket i starts at startDate + i units
+        List<String> labels = new ArrayList<>();
+        for (LocalDate current = startDate; !current.isAfter(endDate);
+             current = PeriodBucketUtils.getBucketStart(startDate, unit, labels.size())) {
+            labels.add(current.format(formatter));
+        }
+
+        long[] homeBookings = new long[labels.size()];
+        long[] experienceBookings = new long[labels.size()];
+        BigDecimal[] homeRevenue = new BigDecimal[labels.size()];
+        BigDecimal[] experienceRevenue = new BigDecimal[labels.size()];
+        Arrays.fill(homeRevenue, BigDecimal.ZERO);
+        Arrays.fill(experienceRevenue, BigDecimal.ZERO);
+
+        // Fold the host's daily rows into the requested buckets
+        for (DailyMetric metric : dailyMetricService.getDailyMetrics(hostId, startDate, endDate)) {
+            int bucket = PeriodBucketUtils.getBucket(startDate, unit, metric.getMetricDate());
+            homeBookings[bucket] += metric.getHomeBookings();
+            experienceBookings[bucket] += metric.getExperienceBookings();
+            homeRevenue[bucket] = homeRevenue[bucket].add(metric.getHomeRevenue());
+            experienceRevenue[bucket] = experienceRevenue[bucket].add(metric.getExperienceRevenue());
+        }
+
         List<HostRevenuePeriodResponse.DataPoint> homeBookingGrowth = new ArrayList<>();
         List<HostRevenuePeriodResponse.DataPoint> experienceBookingGrowth = new ArrayList<>();
         List<HostRevenuePeriodResponse.RevenueDataPoint> homeRevenueGrowth = new ArrayList<>();
         List<HostRevenuePeriodResponse.RevenueDataPoint> experienceRevenueGrowth = new ArrayList<>();
 
-        DateTimeFormatter formatter = getFormatterForPeriod(period);
+        for (int bucket = 0; bucket < labels.size(); bucket++) {
+            String label = labels.get(bucket);
 
-        LocalDate current = startDate;
-        while (!current.isAfter(endDate)) {
-            LocalDate next = getNextDate(current, period);
-            if (next.isAfter(endDate.plusDays(1))) {
-                next = endDate.plusDays(1);
-            }
-
-            LocalDateTime periodStart = current.atStartOfDay();
-            LocalDateTime periodEnd = next.atStartOfDay();
-            String label = current.format(formatter);
-
-            // Home bookings for this period
-            Long homeBookings = homeBookingRepository.countHomeBookingsByHostIdBetween(hostId, periodStart, periodEnd);
             homeBookingGrowth.add(HostRevenuePeriodResponse.DataPoint.builder()
                     .label(label)
-                    .value(homeBookings)
+                    .value(homeBookings[bucket])
                     .build());
 
-            // Experience bookings for this period
-            Long experienceBookings = experienceBookingRepository.countExperienceBookingsByHostIdBetween(hostId, periodStart, periodEnd);
             experienceBookingGrowth.add(HostRevenuePeriodResponse.DataPoint.builder()
                     .label(label)
-                    .value(experienceBookings)
+                    .value(experienceBookings[bucket])
                     .build());
 
-            // Home revenue for this period
-            BigDecimal homeRevenue = homeBookingRepository.sumHomeRevenueByHostIdBetween(hostId, periodStart, periodEnd);
             homeRevenueGrowth.add(HostRevenuePeriodResponse.RevenueDataPoint.builder()
                     .label(label)
-                    .value(homeRevenue)
+                    .value(homeRevenue[bucket])
                     .build());
 
-            // Experience revenue for this period
-            BigDecimal experienceRevenue = experienceBookingRepository.sumExperienceRevenueByHostIdBetween(hostId, periodStart, periodEnd);
             experienceRevenueGrowth.add(HostRevenuePeriodResponse.RevenueDataPoint.builder()
                     .label(label)
-                    .value(experienceRevenue)
+                    .value(experienceRevenue[bucket])
                     .build());
-
-            current = next;
         }
 
         return HostRevenuePeriodResponse.builder()
@@ -136,13 +145,4 @@ public class HostRevenueServiceImpl implements IHostRevenueService {
             default -> DateTimeFormatter.ofPattern("MM/dd");
         };
     }
-
-    private LocalDate getNextDate(LocalDate current, String period) {
-        return switch (period.toUpperCase()) {
-            case "DAY" -> current.plusDays(1);
-            case "MONTH" -> current.plusMonths(1);
-            case "YEAR" -> current.plusYears(1);
-            default -> current.plusDays(1);
-        };
-    }
 }
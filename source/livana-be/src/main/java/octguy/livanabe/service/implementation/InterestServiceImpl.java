@@ -7,14 +7,13 @@ import octguy.livanabe.dto.response.UserInterestsResponse;
 import octguy.livanabe.entity.Interest;
 import octguy.livanabe.entity.User;
 import octguy.livanabe.entity.UserInterest;
+import octguy.livanabe.exception.UserNotFoundException;
 import octguy.livanabe.repository.InterestRepository;
 import octguy.livanabe.repository.UserRepository;
 import octguy.livanabe.service.IInterestService;
+import octguy.livanabe.service.IReferenceCatalogService;
 import octguy.livanabe.utils.SecurityUtils;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,33 +31,23 @@ public class InterestServiceImpl implements IInterestService {
 
     private final UserRepository userRepository;
 
-    public InterestServiceImpl(InterestRepository interestRepository, UserRepository userRepository) {
+    private final IReferenceCatalogService referenceCatalogService;
+
+    public InterestServiceImpl(InterestRepository interestRepository, UserRepository userRepository,
+                               IReferenceCatalogService referenceCatalogService) {
         this.userRepository = userRepository;
         this.interestRepository = interestRepository;
+        this.referenceCatalogService = referenceCatalogService;
     }
 
     @Override
     public Page<InterestResponse> findAll(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").ascending());
-        return interestRepository.findAll(pageable)
-                .map(interest -> InterestResponse.builder()
-                        .id(interest.getId())
-                        .key(interest.getKey())
-                        .name(interest.getName())
-                        .icon(interest.getIcon())
-                        .build());
+        return referenceCatalogService.getCatalog().getInterests().page(page, size);
     }
 
     @Override
     public List<InterestResponse> findAll() {
-        return interestRepository.findAll().stream()
-                        .map(interest -> InterestResponse.builder()
-                                .id(interest.getId())
-                                .key(interest.getKey())
-                                .name(interest.getName())
-                                .icon(interest.getIcon())
-                                .build())
-                                .toList();
+        return referenceCatalogService.getCatalog().getInterests().getItems();
     }
 
     @Override
@@ -71,6 +60,7 @@ public class InterestServiceImpl implements IInterestService {
         interest.setIcon(request.getIcon());
 
         interestRepository.save(interest);
+        referenceCatalogService.invalidate();
 
         return InterestResponse.builder().
                 id(interest.getId()).
@@ -93,6 +83,7 @@ public class InterestServiceImpl implements IInterestService {
         interest.setIcon(icon);
         interest.setUpdatedAt(LocalDateTime.now());
         interestRepository.save(interest);
+        referenceCatalogService.invalidate();
         
         return InterestResponse.builder()
                 .id(interest.getId())
@@ -110,6 +101,7 @@ public class InterestServiceImpl implements IInterestService {
             Interest interest = opt.get();
             interest.setDeletedAt(LocalDateTime.now());
             interestRepository.save(interest);
+            referenceCatalogService.invalidate();
         }
     }
 
@@ -117,6 +109,7 @@ public class InterestServiceImpl implements IInterestService {
     @Transactional
     public void hardDelete(UUID id) {
         interestRepository.hardDeleteById(id);
+        referenceCatalogService.invalidate();
     }
 
     @Override
@@ -126,19 +119,21 @@ public class InterestServiceImpl implements IInterestService {
         LocalDateTime now = LocalDateTime.now();
         interests.forEach(interest -> interest.setDeletedAt(now));
         interestRepository.saveAll(interests);
+        referenceCatalogService.invalidate();
     }
 
     @Override
     @Transactional
     public void hardDeleteAll() {
         interestRepository.hardDeleteAll();
+        referenceCatalogService.invalidate();
     }
 
     @Override
     @Transactional
     public UserInterestsResponse setUserInterests(SetInterestRequest request) {
         List<Interest> interests = interestRepository.findAllById(request.getInterestIds());
-        User user = SecurityUtils.getCurrentUser();
+        User user = loadCurrentUserWithInterests();
         user.setInterests(new HashSet<>(interests));
         userRepository.save(user);
 
@@ -158,7 +153,7 @@ public class InterestServiceImpl implements IInterestService {
 
     @Override
     public UserInterestsResponse getUserInterests() {
-        User user = SecurityUtils.getCurrentUser();
+        User user = loadCurrentUserWithInterests();
 
         List<Interest> interests = user.getUserInterests().stream()
                 .map(UserInterest::getInterest)
@@ -178,6 +173,14 @@ public class InterestServiceImpl implements IInterestService {
                 .build();
     }
 
+    // The authenticated principal only carries the user's id, username, roles and enabled flag, so the user and
+    // its interests are loaded here
+    private User loadCurrentUserWithInterests() {
+        String username = SecurityUtils.getCurrentPrincipal().getUsername();
+        return userRepository.findByUsernameWithRolesAndInterests(username)
+                .orElseThrow(() -> new UserNotFoundException("User with username " + username + " not found"));
+    }
+
     private String convertNameToKey(String input) {
         if (input == null || input.isEmpty()) {
             return null;
@@ -0,0 +1,111 @@
+package octguy.livanabe.service.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import octguy.livanabe.config.RabbitMQConfig;
+import octguy.livanabe.dto.dto.ListingChangeMessage;
+import octguy.livanabe.service.IHomeFeatureIndexService;
+import octguy.livanabe.service.IListingChangeService;
+import octguy.livanabe.service.IListingRankingService;
+import octguy.livanabe.service.IListingSearchIndexService;
+import octguy.livanabe.service.IRecommendationService;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Keeps the in-memory listing indexes, recommendations and rankings of every node in step with listing writes:
+ * the writing node refreshes the listing after commit and broadcasts its id on the listing change exchange, the
+ * other nodes refresh it when the message arrives. Each index also rebuilds periodically to recover broadcasts
+ * lost in between.
+ */
+@Service
+@Slf4j
+public class ListingChangeServiceImpl implements IListingChangeService {
+
+    private final IHomeFeatureIndexService homeFeatureIndexService;
+    private final IListingSearchIndexService listingSearchIndexService;
+    private final IRecommendationService recommendationService;
+    private final IListingRankingService listingRankingService;
+    private final RabbitTemplate rabbitTemplate;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public ListingChangeServiceImpl(IHomeFeatureIndexService homeFeatureIndexService,
+                                    IListingSearchIndexService listingSearchIndexService,
+                                    IRecommendationService recommendationService,
+                                    IListingRankingService listingRankingService,
+                                    RabbitTemplate rabbitTemplate) {
+        this.homeFeatureIndexService = homeFeatureIndexService;
+        this.listingSearchIndexService = listingSearchIndexService;
+        this.recommendationService = recommendationService;
+        this.listingRankingService = listingRankingService;
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    @Override
+    public void onListingChanged(UUID listingId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshAndNotifyPeers(listingId);
+                }
+            });
+        } else {
+            refreshAndNotifyPeers(listingId);
+        }
+    }
+
+    @Override
+    public void onPeerChange(ListingChangeMessage message) {
+        if (!nodeId.equals(message.getOriginNodeId())) {
+            refresh(message.getListingId());
+        }
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private void refreshAndNotifyPeers(UUID listingId) {
+        refresh(listingId);
+
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.LISTING_CHANGE_EXCHANGE, "",
+                    ListingChangeMessage.builder().originNodeId(nodeId).listingId(listingId).build());
+        } catch (AmqpException e) {
+            log.warn("Could not broadcast listing change, other nodes catch up on their next rebuild: {}", e.getMessage());
+        }
+    }
+
+    // The write is already committed, so a failed refresh is only logged; the next rebuild corrects the listing
+    private void refresh(UUID listingId) {
+        try {
+            homeFeatureIndexService.refresh(listingId);
+        } catch (RuntimeException e) {
+            log.error("Refreshing listing {} in the home feature index failed", listingId, e);
+        }
+        try {
+            listingSearchIndexService.refresh(listingId);
+        } catch (RuntimeException e) {
+            log.error("Refreshing listing {} in the listing search index failed", listingId, e);
+        }
+        try {
+            recommendationService.refresh(listingId);
+        } catch (RuntimeException e) {
+            log.error("Refreshing listing {} in the recommendations failed", listingId, e);
+        }
+        try {
+            listingRankingService.refresh(listingId);
+        } catch (RuntimeException e) {
+            log.error("Refreshing listing {} in the rankings failed", listingId, e);
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package octguy.livanabe.service.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import octguy.livanabe.config.StartupTasks;
+import octguy.livanabe.dto.dto.ListingRankingRowDto;
+import octguy.livanabe.dto.dto.RecommendationCardRowDto;
+import octguy.livanabe.dto.response.RankedListingResponse;
+import octguy.livanabe.exception.BadRequestException;
+import octguy.livanabe.repository.BaseListingRepository;
+import octguy.livanabe.service.IListingRankingService;
+import octguy.livanabe.utils.ListingRatingUtils;
+import octguy.livanabe.utils.ListingSnapshotUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+/**
+ * Serves the popular and trending rails from a snapshot that every node rebuilds periodically and swaps in whole.
+ * <p>
+ * The build streams the decayed engagement of every live listing once and keeps, per rail and listing type, the
+ * best listings overall and around every area cell: the cell itself and its eight neighbours, so a point near a
+ * cell border still sees the listings just across it. The entries are finished responses, so a request picks one
+ * or two ready lists and copies at most {@code limit} of them without touching the database. Listing writes
+ * between builds drop deleted or unavailable listings from the lists and replace the display fields of the others.
+ */
+@Service
+@Slf4j
+public class ListingRankingServiceImpl implements IListingRankingService {
+
+    // Listings kept per list, the largest limit a request may ask for
+    private static final int TOP_N = 50;
+
+    private static final Comparator<Scored> WORST_FIRST =
+            ListingSnapshotUtils.worstFirst(Scored::score, scored -> scored.listing().id());
+
+    private final BaseListingRepository baseListingRepository;
+    private final StartupTasks startupTasks;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.ranking.trending-half-life-days:3}")
+    private double trendingHalfLifeDays;
+
+    @Value("${app.ranking.popular-half-life-days:90}")
+    private double popularHalfLifeDays;
+
+    private final Object rebuildLock = new Object();
+    private final Object changeLock = new Object();
+
+    // Null until the first build; replaced under changeLock
+    private volatile Snapshot snapshot;
+    // Listings written while a build was streaming, refreshed again once its snapshot is in; guarded by changeLock
+    private Set<UUID> changedDuringRebuild;
+
+    public ListingRankingServiceImpl(BaseListingRepository baseListingRepository,
+                                     StartupTasks startupTasks,
+                                     PlatformTransactionManager transactionManager) {
+        this.baseListingRepository = baseListingRepository;
+        this.startupTasks = startupTasks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public List<RankedListingResponse> getPopular(Double latitude, Double longitude, String type, int limit) {
+        return serve(snapshot, Snapshot::popular, latitude, longitude, type, limit);
+    }
+
+    @Override
+    public List<RankedListingResponse> getTrending(Double latitude, Double longitude, String type, int limit) {
+        return serve(snapshot, Snapshot::trending, latitude, longitude, type, limit);
+    }
+
+    @Override
+    public void rebuild() {
+        // The scheduled and startup builds may overlap; one at a time keeps the newest snapshot last
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+            synchronized (changeLock) {
+                changedDuringRebuild = new HashSet<>();
+            }
+
+            Snapshot next;
+            try {
+                // Read-only, so the ranking rows stream with the repository's fetch size
+                next = transactionTemplate.execute(status -> build());
+            } catch (RuntimeException e) {
+                synchronized (changeLock) {
+                    changedDuringRebuild = null;
+                }
+                throw e;
+            }
+
+            Set<UUID> written;
+            synchronized (changeLock) {
+                snapshot = next;
+                written = changedDuringRebuild;
+                changedDuringRebuild = null;
+            }
+
+            // The stream may have read these listings as they were before the write
+            written.forEach(this::refresh);
+            log.info("Listing rankings rebuilt: {} areas in {} ms",
+                    next.popular.homesByCell.size() + next.popular.experiencesByCell.size(),
+                    System.currentTimeMillis() - start);
+        }
+    }
+
+    @Override
+    public void refresh(UUID listingId) {
+        // A listing that left the ranked set has no card, which drops it from every list
+        RecommendationCardRowDto card = baseListingRepository.isRecommendable(listingId)
+                ? ListingSnapshotUtils.loadCards(baseListingRepository, List.of(listingId)).get(listingId)
+                : null;
+
+        Snapshot current;
+        synchronized (changeLock) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(listingId);
+            }
+            current = snapshot;
+        }
+        if (current != null) {
+            current.update(listingId, card);
+        }
+    }
+
+    // Built in the background; the rankings are empty until the first snapshot is published
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        startupTasks.run("listing ranking build", this::rebuild);
+    }
+
+    @Scheduled(fixedDelayString = "${app.ranking.rebuild-interval-ms:900000}",
+            initialDelayString = "${app.ranking.rebuild-interval-ms:900000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private List<RankedListingResponse> serve(Snapshot current, Function<Snapshot, Rail> railOf,
+                                              Double latitude, Double longitude, String type, int limit) {
+        if (limit < 1 || limit > TOP_N) {
+            throw new BadRequestException("Limit must be between 1 and " + TOP_N);
+        }
+        if ((latitude == null) != (longitude == null)) {
+            throw new BadRequestException("Latitude and longitude must be given together");
+        }
+        if (latitude != null && (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180)) {
+            throw new BadRequestException("Coordinates must satisfy -90 <= latitude <= 90 and -180 <= longitude <= 180");
+        }
+        Boolean home = parseType(type);
+        if (current == null) {
+            return List.of();
+        }
+
+        Rail rail = railOf.apply(current);
+        RankedList homes = rail.homes;
+        RankedList experiences = rail.experiences;
+        if (latitude != null) {
+            // A rail covers the cell of the point and its eight neighbours
+            long cell = ListingSnapshotUtils.cellOf(latitude, longitude);
+            homes = rail.homesByCell.getOrDefault(cell, RankedList.EMPTY);
+            experiences = rail.experiencesByCell.getOrDefault(cell, RankedList.EMPTY);
+        }
+        // One type: the other list is left out of the merge
+        if (Boolean.TRUE.equals(home)) {
+            experiences = RankedList.EMPTY;
+        } else if (Boolean.FALSE.equals(home)) {
+            homes = RankedList.EMPTY;
+        }
+
+        // Merge the two lists on the unrounded scores, in the order of the build
+        List<RankedListingResponse> merged = new ArrayList<>(limit);
+        int h = 0;
+        int e = 0;
+        while (merged.size() < limit && (h < homes.size() || e < experiences.size())) {
+            RankedListingResponse next;
+            if (e == experiences.size() || (h < homes.size() && homes.ranksBefore(h, experiences, e))) {
+                next = homes.listings()[h++];
+            } else {
+                next = experiences.listings()[e++];
+            }
+            next = current.written(next);
+            if (next != null) {
+                merged.add(next);
+            }
+        }
+        return merged;
+    }
+
+    private Snapshot build() {
+        TopListings popularHomes = new TopListings(Listing::popularity);
+        TopListings popularExperiences = new TopListings(Listing::popularity);
+        TopListings trendingHomes = new TopListings(Listing::recent);
+        TopListings trendingExperiences = new TopListings(Listing::recent);
+        try (Stream<ListingRankingRowDto> rows =
+                     baseListingRepository.streamRankingRows(trendingHalfLifeDays, popularHalfLifeDays)) {
+            rows.forEach(row -> {
+                Listing listing = Listing.of(row);
+                (listing.home() ? popularHomes : popularExperiences).offer(listing);
+                (listing.home() ? trendingHomes : trendingExperiences).offer(listing);
+            });
+        }
+
+        List<TopListings> all = List.of(popularHomes, popularExperiences, trendingHomes, trendingExperiences);
+        all.forEach(TopListings::spread);
+
+        Set<UUID> ids = new HashSet<>();
+        all.forEach(top -> top.collectIds(ids));
+        Map<UUID, RecommendationCardRowDto> cards =
+                ListingSnapshotUtils.loadCards(baseListingRepository, new ArrayList<>(ids));
+
+        return new Snapshot(
+                new Rail(popularHomes.toList(cards), popularExperiences.toList(cards),
+                        popularHomes.toCells(cards), popularExperiences.toCells(cards)),
+                new Rail(trendingHomes.toList(cards), trendingExperiences.toList(cards),
+                        trendingHomes.toCells(cards), trendingExperiences.toCells(cards)),
+                ids, new ConcurrentHashMap<>());
+    }
+
+    private Boolean parseType(String type) {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        return switch (type.trim().toUpperCase()) {
+            case "HOME" -> true;
+            case "EXPERIENCE" -> false;
+            default -> throw new BadRequestException("Type must be HOME or EXPERIENCE");
+        };
+    }
+
+    private static RankedListingResponse toResponse(Scored scored, RecommendationCardRowDto card) {
+        Listing listing = scored.listing();
+        RankedListingResponse.RankedListingResponseBuilder response = RankedListingResponse.builder()
+                .listingId(listing.id())
+                .listingType(listing.home() ? "HOME" : "EXPERIENCE")
+                .latitude(listing.latitude())
+                .longitude(listing.longitude())
+                .averageRating(ListingRatingUtils.averageRating(listing.ratingSum(), listing.ratingCount()))
+                .ratingCount(listing.ratingCount())
+                .score(Math.round(scored.score() * 10000.0) / 10000.0);
+        if (card != null) {
+            response.title(card.getTitle())
+                    .address(card.getAddress())
+                    .price(card.getPrice())
+                    .thumbnailUrl(card.getThumbnailUrl());
+        }
+        return response.build();
+    }
+
+    private static RankedListingResponse withCard(RankedListingResponse response, RecommendationCardRowDto card) {
+        return RankedListingResponse.builder()
+                .listingId(response.getListingId())
+                .listingType(response.getListingType())
+                .title(card.getTitle())
+                .address(card.getAddress())
+                .price(card.getPrice())
+                .latitude(response.getLatitude())
+                .longitude(response.getLongitude())
+                .thumbnailUrl(card.getThumbnailUrl())
+                .averageRating(response.getAverageRating())
+                .ratingCount(response.getRatingCount())
+                .score(response.getScore())
+                .build();
+    }
+
+    private record Listing(UUID id, boolean home, double latitude, double longitude, int ratingCount,
+                           int ratingSum, double recent, double popularity) {
+
+        // Popularity scales the overall engagement by the rating pulled towards the prior, 0 at one star
+        static Listing of(ListingRankingRowDto row) {
+            double rating = ListingRatingUtils.priorAdjustedRating(row.getRatingSum(), row.getRatingCount());
+            return new Listing(row.getId(), row.getHome(), row.getLatitude(), row.getLongitude(),
+                    row.getRatingCount(), row.getRatingSum(), row.getRecent(), row.getOverall() * (rating - 1) / 4);
+        }
+    }
+
+    private record Scored(Listing listing, double score) {
+    }
+
+    // Best listings of one rail and listing type: overall, per cell, then per cell with its neighbours
+    private static final class TopListings {
+        private final ToDoubleFunction<Listing> score;
+        private final PriorityQueue<Scored> all = new PriorityQueue<>(WORST_FIRST);
+        private final Map<Long, PriorityQueue<Scored>> cells = new HashMap<>();
+        private Map<Long, PriorityQueue<Scored>> areas;
+        // One response per listing, shared by every list it appears in
+        private final Map<UUID, RankedListingResponse> responses = new HashMap<>();
+
+        TopListings(ToDoubleFunction<Listing> score) {
+            this.score = score;
+        }
+
+        // Listings whose engagement has decayed to nothing, or is negative from poor reviews, are not ranked
+        void offer(Listing listing) {
+            double value = score.applyAsDouble(listing);
+            if (value <= 0) {
+                return;
+            }
+            Scored scored = new Scored(listing, value);
+            ListingSnapshotUtils.offer(all, scored, TOP_N);
+            ListingSnapshotUtils.offer(cells.computeIfAbsent(
+                    ListingSnapshotUtils.cellOf(listing.latitude(), listing.longitude()),
+                    cell -> new PriorityQueue<>(WORST_FIRST)), scored, TOP_N);
+        }
+
+        // The best of a cell and its neighbours are among the best of each of them, so merging those is enough
+        void spread() {
+            areas = new HashMap<>(cells.size() * 4);
+            cells.forEach((cell, heap) -> {
+                long latCell = ListingSnapshotUtils.latCellOf(cell);
+                long lonCell = ListingSnapshotUtils.lonCellOf(cell);
+                for (long dLat = -1; dLat <= 1; dLat++) {
+                    for (long dLon = -1; dLon <= 1; dLon++) {
+                        PriorityQueue<Scored> area = areas.computeIfAbsent(
+                                ListingSnapshotUtils.cellOf(latCell + dLat, lonCell + dLon),
+                                key -> new PriorityQueue<>(WORST_FIRST));
+                        heap.forEach(scored -> ListingSnapshotUtils.offer(area, scored, TOP_N));
+                    }
+                }
+            });
+        }
+
+        void collectIds(Set<UUID> ids) {
+            all.forEach(scored -> ids.add(scored.listing().id()));
+            areas.values().forEach(area -> area.forEach(scored -> ids.add(scored.listing().id())));
+        }
+
+        RankedList toList(Map<UUID, RecommendationCardRowDto> cards) {
+            return toList(all, cards);
+        }
+
+        Map<Long, RankedList> toCells(Map<UUID, RecommendationCardRowDto> cards) {
+            Map<Long, RankedList> byCell = new HashMap<>(areas.size() * 2);
+            areas.forEach((cell, area) -> byCell.put(cell, toList(area, cards)));
+            return byCell;
+        }
+
+        private RankedList toList(PriorityQueue<Scored> heap, Map<UUID, RecommendationCardRowDto> cards) {
+            List<Scored> best = new ArrayList<>(heap);
+            best.sort(WORST_FIRST.reversed());
+            RankedListingResponse[] listings = new RankedListingResponse[best.size()];
+            double[] scores = new double[best.size()];
+            for (int i = 0; i < listings.length; i++) {
+                Scored scored = best.get(i);
+                listings[i] = responses.computeIfAbsent(scored.listing().id(),
+                        id -> toResponse(scored, cards.get(id)));
+                scores[i] = scored.score();
+            }
+            return new RankedList(listings, scores);
+        }
+    }
+
+    // written maps the listings written since the build to their current card, or to nothing once removed
+    private record Snapshot(Rail popular, Rail trending, Set<UUID> listingIds,
+                            Map<UUID, Optional<RecommendationCardRowDto>> written) {
+
+        // Listings outside every list are left to the next build
+        void update(UUID listingId, RecommendationCardRowDto card) {
+            if (listingIds.contains(listingId)) {
+                written.put(listingId, Optional.ofNullable(card));
+            }
+        }
+
+        // The response as of the last write to its listing, null once the listing was removed
+        RankedListingResponse written(RankedListingResponse response) {
+            Optional<RecommendationCardRowDto> card = written.get(response.getListingId());
+            if (card == null) {
+                return response;
+            }
+            return card.map(current -> withCard(response, current)).orElse(null);
+        }
+    }
+
+    // Ranked listings of one rail, best first, everywhere and around each area cell
+    private record Rail(RankedList homes, RankedList experiences, Map<Long, RankedList> homesByCell,
+                        Map<Long, RankedList> experiencesByCell) {
+    }
+
+    // Finished responses best first, with the scores they were ranked by; responses carry them rounded
+    private record RankedList(RankedListingResponse[] listings, double[] scores) {
+
+        static final RankedList EMPTY = new RankedList(new RankedListingResponse[0], new double[0]);
+
+        int size() {
+            return listings.length;
+        }
+
+        boolean ranksBefore(int index, RankedList other, int otherIndex) {
+            if (scores[index] != other.scores[otherIndex]) {
+                return scores[index] > other.scores[otherIndex];
+            }
+            return listings[index].getListingId().compareTo(other.listings[otherIndex].getListingId()) < 0;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package octguy.livanabe.service.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import octguy.livanabe.repository.BaseListingRepository;
+import octguy.livanabe.service.IListingRatingService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Maintains the review aggregates stored on {@code base_listing}: each review write adjusts them with one atomic
+ * update in the review's transaction, and the resync recounts the listings that drifted, e.g. from reviews written
+ * outside the review service.
+ */
+@Service
+@Slf4j
+public class ListingRatingServiceImpl implements IListingRatingService {
+
+    private static final int RECOUNT_BATCH_SIZE = 1000;
+
+    private final BaseListingRepository baseListingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ListingRatingServiceImpl(BaseListingRepository baseListingRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.baseListingRepository = baseListingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRatingChange(UUID listingId, Integer removedRating, Integer addedRating) {
+        if (!Objects.equals(removedRating, addedRating)) {
+            baseListingRepository.applyRatingChange(listingId, addedRating, removedRating);
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "0 45 4 * * *") // runs every day at 04:45
+    public void resync() {
+        // Drift is rare, so one read-only query finds it and only the drifted listings are locked and recounted.
+        // The recount runs after the lock, so it sees every review whose write already adjusted the listing.
+        List<UUID> drifted = baseListingRepository.findIdsWithRatingDrift();
+        int corrected = 0;
+        for (int from = 0; from < drifted.size(); from += RECOUNT_BATCH_SIZE) {
+            List<UUID> batch = drifted.subList(from, Math.min(from + RECOUNT_BATCH_SIZE, drifted.size()));
+            Integer updated = transactionTemplate.execute(status -> {
+                baseListingRepository.lockForRatingRecount(batch);
+                return baseListingRepository.recountRatings(batch);
+            });
+            corrected += updated != null ? updated : 0;
+        }
+        if (corrected > 0) {
+            log.info("Resynced review aggregates of {} listings", corrected);
+        }
+    }
+}
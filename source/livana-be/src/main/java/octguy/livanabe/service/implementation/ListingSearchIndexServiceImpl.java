@@ -0,0 +1,568 @@
+package octguy.livanabe.service.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import octguy.livanabe.config.StartupTasks;
+import octguy.livanabe.dto.dto.ListingDistanceDto;
+import octguy.livanabe.dto.dto.ListingMapCellDto;
+import octguy.livanabe.dto.dto.ListingMapPinDto;
+import octguy.livanabe.dto.dto.ListingMapQuery;
+import octguy.livanabe.dto.dto.ListingSearchRowDto;
+import octguy.livanabe.repository.BaseListingRepository;
+import octguy.livanabe.search.ListingColumns;
+import octguy.livanabe.search.ListingIndexQuery;
+import octguy.livanabe.search.ListingScanKernel;
+import octguy.livanabe.service.IListingSearchIndexService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory columnar index answering nearest-listing searches without touching the database.
+ * <p>
+ * Homes and experiences each have a main {@link ListingColumns} segment, sorted along a Morton curve so blocks
+ * outside the search box are skipped, and a small unsorted delta segment receiving the listings written since
+ * the last build. A search runs the {@link ListingScanKernel} over the remaining blocks, computes the exact
+ * distance of the surviving rows only, keeps the best rows in a bounded heap and returns (distance, id) pairs;
+ * the caller hydrates the final page. Listing writes remove the old row and append the new one to the delta;
+ * the periodic rebuild folds the delta back into a sorted main segment. Map searches run the same scan over
+ * a viewport and return the rows themselves or their counts per grid cell.
+ */
+@Service
+@Slf4j
+public class ListingSearchIndexServiceImpl implements IListingSearchIndexService {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    // Widens the chord prefilter far beyond its rounding error; the exact distance has the last word
+    private static final double CHORD_SLACK = 1e-9;
+    private static final double CHORD_SLACK_MIN = 1e-18;
+
+    // Nearest first, ties by id in the unsigned byte order Postgres sorts uuids in
+    private static final Comparator<Hit> NEAREST_FIRST = Comparator.comparingDouble(Hit::distanceKm)
+            .thenComparing(Hit::id, ListingSearchIndexServiceImpl::compareIds);
+
+    private final BaseListingRepository baseListingRepository;
+    private final StartupTasks startupTasks;
+    private final TransactionTemplate transactionTemplate;
+    private final ListingScanKernel kernel = ListingScanKernel.create();
+
+    @Value("${app.listing-index.search.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+
+    // Null until the first build; guarded by lock
+    private Index index;
+    // Listings refreshed while a rebuild was reading, replayed on the rebuilt index; guarded by lock
+    private Set<UUID> changedDuringRebuild;
+
+    public ListingSearchIndexServiceImpl(BaseListingRepository baseListingRepository,
+                                         StartupTasks startupTasks,
+                                         PlatformTransactionManager transactionManager) {
+        this.baseListingRepository = baseListingRepository;
+        this.startupTasks = startupTasks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public boolean isReady() {
+        if (!enabled) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return index != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ListingDistanceDto> findNearest(ListingIndexQuery query) {
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                throw new IllegalStateException("Listing search index is not built");
+            }
+            Segments segments = query.isHome() ? index.homes : index.experiences;
+
+            int group = -1;
+            if (query.getGroupId() != null) {
+                Integer ordinal = segments.groups.get(query.getGroupId());
+                if (ordinal == null) {
+                    // No listing of this type or category
+                    return List.of();
+                }
+                group = ordinal;
+            }
+
+            double lat = Math.toRadians(query.getLatitude());
+            double lon = Math.toRadians(query.getLongitude());
+            double[] bbox = query.getBoundingBox();
+            double minChord2 = query.getCursorDistance() != null
+                    ? chord2(query.getCursorDistance()) * (1 - CHORD_SLACK) - CHORD_SLACK_MIN
+                    : Double.NEGATIVE_INFINITY;
+            ListingScanKernel.Bounds bounds = new ListingScanKernel.Bounds(
+                    bbox[0], bbox[1], bbox[2], bbox[3],
+                    Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat),
+                    minChord2, widen(chord2(query.getRadiusKm())),
+                    toMinorUnits(query.getMinPrice(), RoundingMode.CEILING, Long.MIN_VALUE),
+                    toMinorUnits(query.getMaxPrice(), RoundingMode.FLOOR, Long.MAX_VALUE),
+                    query.getMinCapacity() != null ? query.getMinCapacity() : Integer.MIN_VALUE,
+                    group);
+
+            // Worst kept hit on top, so a better one replaces it; an unbounded query only grows the heap
+            int capacity = (int) Math.min(query.getLimit() + 1L, ListingColumns.BLOCK_SIZE);
+            PriorityQueue<Hit> best = new PriorityQueue<>(capacity, NEAREST_FIRST.reversed());
+            int[] rows = new int[ListingColumns.BLOCK_SIZE];
+            for (ListingColumns columns : List.of(segments.main, segments.delta)) {
+                for (int block = 0; block < columns.blockCount(); block++) {
+                    if (!columns.blockIntersects(block, bbox[0], bbox[1], bbox[2], bbox[3])) {
+                        continue;
+                    }
+                    int from = block * ListingColumns.BLOCK_SIZE;
+                    int to = Math.min(from + ListingColumns.BLOCK_SIZE, columns.size());
+                    int n = kernel.scan(columns, from, to, bounds, rows);
+                    for (int i = 0; i < n; i++) {
+                        offer(best, columns, rows[i], query);
+                    }
+                    // Once the heap is full only rows nearer than its worst hit can enter
+                    if (best.size() == query.getLimit()) {
+                        bounds = withMaxChord2(bounds, widen(chord2(best.peek().distanceKm())));
+                    }
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(NEAREST_FIRST);
+            return List.copyOf(hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ListingMapPinDto> findMapPins(ListingMapQuery query, int limit) {
+        lock.readLock().lock();
+        try {
+            List<ListingMapPinDto> pins = new ArrayList<>();
+            scanViewport(query, (columns, row) -> {
+                pins.add(new Pin(columns.idAt(row), columns.latitudes()[row], columns.longitudes()[row],
+                        BigDecimal.valueOf(columns.prices()[row], 2)));
+                return pins.size() < limit;
+            });
+            return pins;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ListingMapCellDto> countMapCells(ListingMapQuery query) {
+        lock.readLock().lock();
+        try {
+            // The viewport spans a bounded number of cells, keyed by their latitude and longitude cell indexes
+            Map<Long, Cell> cells = new HashMap<>();
+            double cellSize = query.getCellSize();
+            scanViewport(query, (columns, row) -> {
+                double latitude = columns.latitudes()[row];
+                double longitude = columns.longitudes()[row];
+                long latCell = (long) Math.floor(latitude / cellSize);
+                long lonCell = (long) Math.floor(longitude / cellSize);
+                cells.computeIfAbsent(latCell << 32 | (lonCell & 0xFFFFFFFFL), key -> new Cell(latCell, lonCell))
+                        .add(latitude, longitude, columns.prices()[row]);
+                return true;
+            });
+            return List.copyOf(cells.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Replace the row of one listing with what the database holds now; a deleted or unavailable listing has none
+    @Override
+    public void refresh(UUID listingId) {
+        if (!enabled) {
+            return;
+        }
+        Optional<ListingSearchRowDto> row = baseListingRepository.findSearchRowById(listingId);
+
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(listingId);
+            }
+            if (index == null) {
+                return;
+            }
+            index.homes.remove(listingId);
+            index.experiences.remove(listingId);
+            row.ifPresent(r -> index.segmentsOf(r).appendDelta(r));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        // Serialized so two rebuilds never race on the swap
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = new HashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Index next = new Index();
+            try {
+                // Streamed in a read-only transaction so the driver fetches the rows in batches
+                transactionTemplate.executeWithoutResult(status -> {
+                    try (Stream<ListingSearchRowDto> rows = baseListingRepository.streamAllSearchRows()) {
+                        rows.forEach(row -> next.segmentsOf(row).appendDelta(row));
+                    }
+                });
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    changedDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            next.homes.sortDeltaIntoMain();
+            next.experiences.sortDeltaIntoMain();
+
+            Set<UUID> changed;
+            lock.writeLock().lock();
+            try {
+                index = next;
+                changed = changedDuringRebuild;
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            // The rebuild may have read these listings before their change committed
+            changed.forEach(this::refresh);
+            log.info("Listing search index rebuilt: {} homes and {} experiences in {} ms",
+                    next.homes.main.size(), next.experiences.main.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    // Built in the background; isReady() stays false, so searches go to SQL until it is published
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            startupTasks.run("listing search index build", this::rebuild);
+        }
+    }
+
+    // Compacts the delta segments and recovers changes lost while the broker was unreachable
+    @Scheduled(fixedDelayString = "${app.listing-index.rebuild-interval-ms:900000}",
+            initialDelayString = "${app.listing-index.rebuild-interval-ms:900000}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    // Passes every row matching the map query to the visitor until it returns false; caller holds the read lock
+    private void scanViewport(ListingMapQuery query, RowVisitor visitor) {
+        if (index == null) {
+            throw new IllegalStateException("Listing search index is not built");
+        }
+        Segments segments = query.isHome() ? index.homes : index.experiences;
+
+        int group = -1;
+        if (query.getGroupId() != null) {
+            Integer ordinal = segments.groups.get(query.getGroupId());
+            if (ordinal == null) {
+                return;
+            }
+            group = ordinal;
+        }
+
+        // No distance condition: every point of the unit sphere is at chord 1 from its center
+        double[] bbox = query.getBoundingBox();
+        ListingScanKernel.Bounds bounds = new ListingScanKernel.Bounds(
+                bbox[0], bbox[1], bbox[2], bbox[3],
+                0, 0, 0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                toMinorUnits(query.getMinPrice(), RoundingMode.CEILING, Long.MIN_VALUE),
+                toMinorUnits(query.getMaxPrice(), RoundingMode.FLOOR, Long.MAX_VALUE),
+                query.getMinCapacity() != null ? query.getMinCapacity() : Integer.MIN_VALUE,
+                group);
+
+        int[] rows = new int[ListingColumns.BLOCK_SIZE];
+        for (ListingColumns columns : List.of(segments.main, segments.delta)) {
+            for (int block = 0; block < columns.blockCount(); block++) {
+                if (!columns.blockIntersects(block, bbox[0], bbox[1], bbox[2], bbox[3])) {
+                    continue;
+                }
+                int from = block * ListingColumns.BLOCK_SIZE;
+                int to = Math.min(from + ListingColumns.BLOCK_SIZE, columns.size());
+                int n = kernel.scan(columns, from, to, bounds, rows);
+                for (int i = 0; i < n; i++) {
+                    if (query.getListingFilter() != null && !query.getListingFilter().test(columns.idAt(rows[i]))) {
+                        continue;
+                    }
+                    if (!visitor.visit(columns, rows[i])) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void offer(PriorityQueue<Hit> best, ListingColumns columns, int row, ListingIndexQuery query) {
+        double distanceKm = distanceKm(query.getLatitude(), query.getLongitude(),
+                columns.latitudes()[row], columns.longitudes()[row]);
+        if (distanceKm > query.getRadiusKm()) {
+            return;
+        }
+        Hit hit = new Hit(columns.idAt(row), distanceKm);
+        if (query.getCursorDistance() != null && NEAREST_FIRST.compare(hit,
+                new Hit(query.getCursorId(), query.getCursorDistance())) <= 0) {
+            return;
+        }
+        if (best.size() == query.getLimit() && NEAREST_FIRST.compare(hit, best.peek()) >= 0) {
+            return;
+        }
+        if (query.getListingFilter() != null && !query.getListingFilter().test(hit.id())) {
+            return;
+        }
+        best.add(hit);
+        if (best.size() > query.getLimit()) {
+            best.poll();
+        }
+    }
+
+    // Same expression as the SQL queries, so a cursor from either path resumes at the same place
+    private static double distanceKm(double lat, double lon, double rowLat, double rowLon) {
+        double a = Math.pow(Math.sin(Math.toRadians(rowLat - lat) / 2), 2)
+                + Math.cos(Math.toRadians(lat)) * Math.cos(Math.toRadians(rowLat))
+                * Math.pow(Math.sin(Math.toRadians(rowLon - lon) / 2), 2);
+        return EARTH_RADIUS_KM * 2 * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    // Squared straight-line distance through the unit sphere between two points distanceKm apart on its surface
+    private static double chord2(double distanceKm) {
+        double chord = 2 * Math.sin(Math.min(distanceKm / (2 * EARTH_RADIUS_KM), Math.PI / 2));
+        return chord * chord;
+    }
+
+    private static double widen(double chord2) {
+        return chord2 * (1 + CHORD_SLACK) + CHORD_SLACK_MIN;
+    }
+
+    private static ListingScanKernel.Bounds withMaxChord2(ListingScanKernel.Bounds b, double maxChord2) {
+        return new ListingScanKernel.Bounds(b.minLat(), b.maxLat(), b.minLon(), b.maxLon(),
+                b.cx(), b.cy(), b.cz(), b.minChord2(), Math.min(b.maxChord2(), maxChord2),
+                b.minPrice(), b.maxPrice(), b.minCapacity(), b.group());
+    }
+
+    // Prices are stored in cents; a bound with more decimals is rounded inwards
+    private static long toMinorUnits(BigDecimal price, RoundingMode rounding, long unbounded) {
+        return price != null ? price.movePointRight(2).setScale(0, rounding).longValue() : unbounded;
+    }
+
+    private static int compareIds(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    // Interleaves 15-bit latitude and longitude cells into a 30-bit Z-order key
+    private static long mortonKey(double latitude, double longitude) {
+        long y = (long) ((latitude + 90) / 180 * 32767);
+        long x = (long) ((longitude + 180) / 360 * 32767);
+        return spread(x) | (spread(y) << 1);
+    }
+
+    private static long spread(long v) {
+        v = (v | (v << 8)) & 0x00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0FL;
+        v = (v | (v << 2)) & 0x33333333L;
+        v = (v | (v << 1)) & 0x55555555L;
+        return v;
+    }
+
+    private record Hit(UUID id, double distanceKm) implements ListingDistanceDto {
+
+        @Override
+        public UUID getId() {
+            return id;
+        }
+
+        @Override
+        public Double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+
+    private record Pin(UUID id, double latitude, double longitude, BigDecimal price) implements ListingMapPinDto {
+
+        @Override
+        public UUID getId() {
+            return id;
+        }
+
+        @Override
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        @Override
+        public Double getLongitude() {
+            return longitude;
+        }
+
+        @Override
+        public BigDecimal getPrice() {
+            return price;
+        }
+    }
+
+    private static final class Cell implements ListingMapCellDto {
+
+        private final long latCell;
+        private final long lonCell;
+        private long count;
+        private double latitudeSum;
+        private double longitudeSum;
+        private long minPrice = Long.MAX_VALUE;
+
+        Cell(long latCell, long lonCell) {
+            this.latCell = latCell;
+            this.lonCell = lonCell;
+        }
+
+        void add(double latitude, double longitude, long priceMinor) {
+            count++;
+            latitudeSum += latitude;
+            longitudeSum += longitude;
+            minPrice = Math.min(minPrice, priceMinor);
+        }
+
+        @Override
+        public Long getLatCell() {
+            return latCell;
+        }
+
+        @Override
+        public Long getLonCell() {
+            return lonCell;
+        }
+
+        @Override
+        public Long getListingCount() {
+            return count;
+        }
+
+        @Override
+        public Double getLatitude() {
+            return latitudeSum / count;
+        }
+
+        @Override
+        public Double getLongitude() {
+            return longitudeSum / count;
+        }
+
+        @Override
+        public BigDecimal getMinPrice() {
+            return BigDecimal.valueOf(minPrice, 2);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowVisitor {
+
+        // Returns false to stop the scan
+        boolean visit(ListingColumns columns, int row);
+    }
+
+    private static final class Index {
+
+        private final Segments homes = new Segments();
+        private final Segments experiences = new Segments();
+
+        Segments segmentsOf(ListingSearchRowDto row) {
+            return row.getHome() ? homes : experiences;
+        }
+    }
+
+    private static final class Segments {
+
+        private ListingColumns main = new ListingColumns(0);
+        private ListingColumns delta = new ListingColumns(0);
+        // Dense ordinal of each property type or category
+        private final Map<UUID, Integer> groups = new HashMap<>();
+
+        void appendDelta(ListingSearchRowDto row) {
+            int group = row.getGroupId() != null
+                    ? groups.computeIfAbsent(row.getGroupId(), id -> groups.size())
+                    : ListingColumns.NO_GROUP;
+            delta.append(row.getId(), row.getLatitude(), row.getLongitude(), row.getPriceMinor(),
+                    row.getCapacity(), group);
+        }
+
+        // Writes are rare next to searches, so rows are found by scanning ids rather than through a map
+        void remove(UUID listingId) {
+            main.remove(listingId);
+            delta.remove(listingId);
+        }
+
+        // Replaces main with its live rows and the delta rows, in Morton order
+        void sortDeltaIntoMain() {
+            List<ListingColumns> sources = List.of(main, delta);
+            long[] keys = new long[main.size() + delta.size()];
+            int n = 0;
+            for (int s = 0; s < sources.size(); s++) {
+                ListingColumns source = sources.get(s);
+                for (int row = 0; row < source.size(); row++) {
+                    if (!Double.isNaN(source.latitudes()[row])) {
+                        // Key in the high bits, segment and row in the low 32 bits
+                        keys[n++] = mortonKey(source.latitudes()[row], source.longitudes()[row]) << 32
+                                | (long) s << 31 | row;
+                    }
+                }
+            }
+            Arrays.sort(keys, 0, n);
+
+            ListingColumns sorted = new ListingColumns(n);
+            for (int i = 0; i < n; i++) {
+                ListingColumns source = sources.get((int) (keys[i] >>> 31) & 1);
+                int row = (int) (keys[i] & Integer.MAX_VALUE);
+                sorted.append(source.idAt(row), source.latitudes()[row], source.longitudes()[row],
+                        source.prices()[row], source.capacities()[row], source.groups()[row]);
+            }
+            main = sorted;
+            delta = new ListingColumns(0);
+        }
+    }
+}
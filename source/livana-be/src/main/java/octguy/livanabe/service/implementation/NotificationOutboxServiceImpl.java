@@ -0,0 +1,160 @@
+package octguy.livanabe.service.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import octguy.livanabe.config.RabbitMQConfig;
+import octguy.livanabe.dto.response.NotificationMessage;
+import octguy.livanabe.entity.NotificationOutbox;
+import octguy.livanabe.repository.NotificationOutboxRepository;
+import octguy.livanabe.service.INotificationOutboxService;
+import octguy.livanabe.utils.OutboxUtils;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationOutboxServiceImpl implements INotificationOutboxService {
+
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.notification.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.notification.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    @Value("${app.notification.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.notification.outbox.backoff-base-ms:1000}")
+    private long backoffBaseMs;
+
+    @Value("${app.notification.outbox.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    // How long a batch being published stays invisible to other relays; must exceed the confirm timeout
+    @Value("${app.notification.outbox.lease-ms:60000}")
+    private long leaseMs;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(NotificationMessage notification) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(notification);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize notification " + notification.getId(), e);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        NotificationOutbox row = NotificationOutbox.builder()
+                .recipientId(notification.getRecipientId())
+                .payload(payload)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+        notificationOutboxRepository.save(row);
+    }
+
+    @Override
+    public int relayPending() {
+        // The rows are leased in a short transaction, so no connection is held while waiting for confirms
+        List<NotificationOutbox> batch = transactionTemplate.execute(status -> leaseDueBatch());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        return publish(batch);
+    }
+
+    @Scheduled(fixedDelayString = "${app.notification.outbox.relay-interval-ms:500}")
+    public void relay() {
+        // Drain the backlog, one lease per batch
+        int published;
+        do {
+            published = relayPending();
+        } while (published == batchSize);
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private List<NotificationOutbox> leaseDueBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        return OutboxUtils.lease(notificationOutboxRepository.lockDueBatch(now, batchSize), now, leaseMs);
+    }
+
+    private int publish(List<NotificationOutbox> batch) {
+        List<UUID> ids = new ArrayList<>();
+        List<UUID> unreadableIds = new ArrayList<>();
+        List<NotificationMessage> messages = new ArrayList<>();
+        for (NotificationOutbox row : batch) {
+            try {
+                messages.add(objectMapper.readValue(row.getPayload(), NotificationMessage.class));
+                ids.add(row.getId());
+            } catch (JsonProcessingException e) {
+                // Retrying cannot fix a broken payload, drop it whether or not the batch goes through
+                log.error("Dropping unreadable outbox notification {}", row.getId(), e);
+                unreadableIds.add(row.getId());
+            }
+        }
+
+        try {
+            // One channel for the whole batch, then a single wait for all publisher confirms
+            rabbitTemplate.invoke(operations -> {
+                for (NotificationMessage message : messages) {
+                    operations.convertAndSend(
+                            RabbitMQConfig.NOTIFICATION_EXCHANGE,
+                            RabbitMQConfig.NOTIFICATION_ROUTING_KEY,
+                            message
+                    );
+                }
+                operations.waitForConfirmsOrDie(confirmTimeoutMs);
+                return null;
+            });
+        } catch (AmqpException e) {
+            transactionTemplate.executeWithoutResult(status -> {
+                notificationOutboxRepository.deleteByIdIn(unreadableIds);
+                recordFailure(ids, e);
+            });
+            return 0;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationOutboxRepository.deleteByIdIn(ids);
+            notificationOutboxRepository.deleteByIdIn(unreadableIds);
+        });
+        log.debug("Published {} outbox notifications", messages.size());
+        return batch.size();
+    }
+
+    private void recordFailure(List<UUID> ids, Exception error) {
+        LocalDateTime now = LocalDateTime.now();
+        int retried = 0;
+        for (NotificationOutbox row : notificationOutboxRepository.findAllById(ids)) {
+            if (OutboxUtils.scheduleRetry(row, error, now, maxAttempts, backoffBaseMs, backoffMaxMs)) {
+                retried++;
+                continue;
+            }
+            log.error("Giving up on notification {} for {} after {} attempts: {}",
+                    row.getId(), row.getRecipientId(), maxAttempts, error.getMessage());
+            notificationOutboxRepository.delete(row);
+        }
+        log.warn("Publishing {} outbox notifications failed, {} will be retried: {}", ids.size(), retried, error.getMessage());
+    }
+}
@@ -2,7 +2,6 @@ package octguy.livanabe.service.implementation;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import octguy.livanabe.config.RabbitMQConfig;
 import octguy.livanabe.dto.response.NotificationMessage;
 import octguy.livanabe.dto.response.NotificationResponse;
 import octguy.livanabe.entity.Notification;
@@ -11,9 +10,9 @@ import octguy.livanabe.enums.NotificationType;
 import octguy.livanabe.exception.ResourceNotFoundException;
 import octguy.livanabe.repository.NotificationRepository;
 import octguy.livanabe.repository.UserRepository;
+import octguy.livanabe.service.INotificationOutboxService;
 import octguy.livanabe.service.INotificationService;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import octguy.livanabe.service.IRealtimeDeliveryService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,19 +25,18 @@ import java.util.stream.Collectors;
 @Slf4j
 public class NotificationServiceImpl implements INotificationService {
 
-    private final RabbitTemplate rabbitTemplate;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final INotificationOutboxService notificationOutboxService;
+    private final IRealtimeDeliveryService realtimeDeliveryService;
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
 
     @Override
     @Transactional
     public void sendBookingNotificationToHost(UUID hostId, NotificationMessage notification) {
-        log.info("Saving and sending booking notification for host: {}", hostId);
-        
-        // Persist notification to database
-        User recipient = userRepository.findById(hostId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        log.info("Saving booking notification for host: {}", hostId);
+
+        // Persist notification to database, the recipient is only needed as a foreign key
+        User recipient = userRepository.getReferenceById(hostId);
         
         Notification entity = Notification.builder()
                 .recipient(recipient)
@@ -51,19 +49,16 @@ public class NotificationServiceImpl implements INotificationService {
         
         Notification saved = notificationRepository.save(entity);
         notification.setId(saved.getId());
-        
-        // Send to RabbitMQ for WebSocket delivery
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.NOTIFICATION_EXCHANGE,
-                RabbitMQConfig.NOTIFICATION_ROUTING_KEY,
-                notification
-        );
+
+        // Queue for RabbitMQ in the same transaction, the outbox relay publishes it after commit
+        notificationOutboxService.enqueue(notification);
     }
 
     @Override
     public void pushNotificationToUser(UUID userId, NotificationMessage notification) {
         log.info("Pushing notification via WebSocket to user: {}", userId);
-        messagingTemplate.convertAndSend(
+        realtimeDeliveryService.sendToUser(
+                userId,
                 "/topic/notifications/" + userId.toString(),
                 notification
         );
@@ -4,10 +4,8 @@ import octguy.livanabe.dto.response.PropertyTypeResponse;
 import octguy.livanabe.entity.PropertyType;
 import octguy.livanabe.repository.PropertyTypeRepository;
 import octguy.livanabe.service.IPropertyTypeService;
+import octguy.livanabe.service.IReferenceCatalogService;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,22 +19,21 @@ public class PropertyTypeServiceImpl implements IPropertyTypeService {
 
     private final PropertyTypeRepository propertyTypeRepository;
 
-    public PropertyTypeServiceImpl(PropertyTypeRepository propertyTypeRepository) {
+    private final IReferenceCatalogService referenceCatalogService;
+
+    public PropertyTypeServiceImpl(PropertyTypeRepository propertyTypeRepository, IReferenceCatalogService referenceCatalogService) {
         this.propertyTypeRepository = propertyTypeRepository;
+        this.referenceCatalogService = referenceCatalogService;
     }
 
     @Override
     public Page<PropertyTypeResponse> findAll(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").ascending());
-        return propertyTypeRepository.findAll(pageable)
-                .map(this::toResponse);
+        return referenceCatalogService.getCatalog().getPropertyTypes().page(page, size);
     }
 
     @Override
     public List<PropertyTypeResponse> findAll() {
-        return propertyTypeRepository.findAll().stream()
-                .map(this::toResponse)
-                .toList();
+        return referenceCatalogService.getCatalog().getPropertyTypes().getItems();
     }
 
     @Override
@@ -47,6 +44,7 @@ public class PropertyTypeServiceImpl implements IPropertyTypeService {
         propertyType.setIcon(icon);
         propertyType.setUpdatedAt(LocalDateTime.now());
         propertyTypeRepository.save(propertyType);
+        referenceCatalogService.invalidate();
 
         return toResponse(propertyType);
     }
@@ -61,6 +59,7 @@ public class PropertyTypeServiceImpl implements IPropertyTypeService {
         updatedPropertyType.setName(name);
         updatedPropertyType.setIcon(icon);
         propertyTypeRepository.save(updatedPropertyType);
+        referenceCatalogService.invalidate();
 
         return toResponse(updatedPropertyType);
     }
@@ -73,6 +72,7 @@ public class PropertyTypeServiceImpl implements IPropertyTypeService {
             PropertyType entity = propertyType.get();
             entity.setDeletedAt(LocalDateTime.now());
             propertyTypeRepository.save(entity);
+            referenceCatalogService.invalidate();
         }
     }
 
@@ -80,6 +80,7 @@ public class PropertyTypeServiceImpl implements IPropertyTypeService {
     @Transactional
     public void hardDelete(UUID id) {
         propertyTypeRepository.hardDeleteById(id);
+        referenceCatalogService.invalidate();
     }
 
     @Override
@@ -89,12 +90,14 @@ public class PropertyTypeServiceImpl implements IPropertyTypeService {
         LocalDateTime now = LocalDateTime.now();
         propertyTypes.forEach(propertyType -> propertyType.setDeletedAt(now));
         propertyTypeRepository.saveAll(propertyTypes);
+        referenceCatalogService.invalidate();
     }
 
     @Override
     @Transactional
     public void hardDeleteAll() {
         propertyTypeRepository.hardDeleteAll();
+        referenceCatalogService.invalidate();
     }
 
     private PropertyTypeResponse toResponse(PropertyType propertyType) {
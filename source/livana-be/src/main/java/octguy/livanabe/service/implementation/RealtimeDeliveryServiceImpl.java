@@ -0,0 +1,166 @@
+package octguy.livanabe.service.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import octguy.livanabe.config.RabbitMQConfig;
+import octguy.livanabe.dto.dto.RealtimeDeliveryMessage;
+import octguy.livanabe.repository.WebSocketPresenceRepository;
+import octguy.livanabe.service.IRealtimeDeliveryService;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+@Slf4j
+public class RealtimeDeliveryServiceImpl implements IRealtimeDeliveryService {
+
+    // Per-user destinations: /topic/chat/{userId}, /topic/chat/{userId}/unread, /topic/notifications/{userId}
+    private static final Pattern USER_DESTINATION = Pattern.compile(
+            "^/topic/(?:chat|notifications)/([0-9a-fA-F-]{36})(?:/.*)?$");
+
+    // Presence rows not refreshed for this long belong to a node that is gone
+    private static final long PRESENCE_TTL_SECONDS = 120;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final WebSocketPresenceRepository webSocketPresenceRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean routed;
+    private final String nodeId;
+
+    public RealtimeDeliveryServiceImpl(SimpMessagingTemplate messagingTemplate,
+                                       RabbitTemplate rabbitTemplate,
+                                       WebSocketPresenceRepository webSocketPresenceRepository,
+                                       ObjectMapper objectMapper,
+                                       @Value("${app.websocket.delivery:local}") String deliveryMode,
+                                       @Value("${app.websocket.node-id:}") String nodeId) {
+        this.messagingTemplate = messagingTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+        this.webSocketPresenceRepository = webSocketPresenceRepository;
+        this.objectMapper = objectMapper;
+        this.routed = "routed".equalsIgnoreCase(deliveryMode);
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void sendToUser(UUID userId, String destination, Object payload) {
+        if (!routed) {
+            messagingTemplate.convertAndSend(destination, payload);
+            return;
+        }
+
+        List<String> nodeIds = webSocketPresenceRepository.findNodeIdsByUserId(
+                userId, LocalDateTime.now().minusSeconds(PRESENCE_TTL_SECONDS));
+        if (nodeIds.isEmpty()) {
+            log.debug("No session for user {}, skipping {}", userId, destination);
+            return;
+        }
+
+        RealtimeDeliveryMessage message = null;
+        for (String target : nodeIds) {
+            if (target.equals(nodeId)) {
+                messagingTemplate.convertAndSend(destination, payload);
+                continue;
+            }
+            if (message == null) {
+                message = toDeliveryMessage(destination, payload);
+            }
+            rabbitTemplate.convertAndSend(RabbitMQConfig.REALTIME_EXCHANGE, target, message);
+        }
+    }
+
+    @Override
+    public void deliverLocally(RealtimeDeliveryMessage message) {
+        try {
+            messagingTemplate.convertAndSend(message.getDestination(), objectMapper.readTree(message.getPayload()));
+        } catch (JsonProcessingException e) {
+            log.error("Dropping unreadable realtime message for {}", message.getDestination(), e);
+        }
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // ==================== Presence tracking (routed mode only) ====================
+
+    @Transactional
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        if (!routed) {
+            return;
+        }
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination == null) {
+            return;
+        }
+
+        Matcher matcher = USER_DESTINATION.matcher(destination);
+        if (matcher.matches()) {
+            webSocketPresenceRepository.register(UUID.fromString(matcher.group(1)), nodeId,
+                    accessor.getSessionId(), LocalDateTime.now());
+        }
+    }
+
+    @Transactional
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        if (routed) {
+            webSocketPresenceRepository.deleteBySessionId(event.getSessionId());
+        }
+    }
+
+    // A node restarting with a fixed id must not keep the sessions it had before
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void clearOwnPresence() {
+        if (routed) {
+            log.info("Realtime delivery in routed mode, node id {}", nodeId);
+            webSocketPresenceRepository.deleteByNodeId(nodeId);
+        }
+    }
+
+    @Transactional
+    @Scheduled(fixedDelay = 30_000) // runs every 30 seconds
+    public void refreshPresence() {
+        if (!routed) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        webSocketPresenceRepository.refreshNode(nodeId, now);
+        webSocketPresenceRepository.deleteStale(now.minusSeconds(PRESENCE_TTL_SECONDS));
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private RealtimeDeliveryMessage toDeliveryMessage(String destination, Object payload) {
+        try {
+            return RealtimeDeliveryMessage.builder()
+                    .destination(destination)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize realtime message for " + destination, e);
+        }
+    }
+}
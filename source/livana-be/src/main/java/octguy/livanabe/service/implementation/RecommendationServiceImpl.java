@@ -0,0 +1,607 @@
+package octguy.livanabe.service.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import octguy.livanabe.config.StartupTasks;
+import octguy.livanabe.dto.dto.InterestCandidateRowDto;
+import octguy.livanabe.dto.dto.RecommendationCardRowDto;
+import octguy.livanabe.dto.dto.RecommendationStatsRowDto;
+import octguy.livanabe.dto.dto.UserEngagementRowDto;
+import octguy.livanabe.dto.response.RecommendedListingResponse;
+import octguy.livanabe.exception.BadRequestException;
+import octguy.livanabe.repository.BaseListingRepository;
+import octguy.livanabe.repository.UserInterestRepository;
+import octguy.livanabe.service.IRecommendationService;
+import octguy.livanabe.utils.ListingRatingUtils;
+import octguy.livanabe.utils.ListingSnapshotUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Recommends listings from a snapshot that every node rebuilds periodically and swaps in whole.
+ * <p>
+ * The build precomputes candidate lists per listing type: per interest, the listings most engaged with by users
+ * holding it; per area cell, the best listings inside it; and the best listings overall. It also keeps, for every
+ * user with bookings or reviews, the cells and groups they engaged with most and the listings they already know,
+ * and the display fields of every candidate. A request reads the user's interests, merges the lists of those
+ * interests and of the user's cells, scores each candidate and pages through the ranking in memory. Besides the
+ * interests, a request only reads the listings the user booked since the build. Listing writes tombstone the
+ * cards of deleted or unavailable listings until the next build.
+ */
+@Service
+@Slf4j
+public class RecommendationServiceImpl implements IRecommendationService {
+
+    private static final int PER_INTEREST = 200;
+    private static final int PER_CELL = 50;
+    private static final int POPULAR = 200;
+    private static final int USER_CELLS = 5;
+    private static final int USER_GROUPS = 5;
+    private static final int MAX_PAGE_SIZE = 50;
+    // Bookings still committing when a build starts are missing from it, so requests look back this much further
+    private static final Duration COMMIT_MARGIN = Duration.ofMinutes(1);
+
+    // Decayed engagement at which popularity reaches 63% of its maximum
+    private static final double ENGAGEMENT_SCALE = 10.0;
+
+    // Weights of the score components, each of them in [0, 1]
+    private static final double INTEREST_WEIGHT = 0.5;
+    private static final double AREA_WEIGHT = 0.25;
+    private static final double GROUP_WEIGHT = 0.15;
+    private static final double QUALITY_WEIGHT = 0.1;
+
+    private static final Comparator<ListingStats> WORST_FIRST =
+            ListingSnapshotUtils.worstFirst(ListingStats::quality, ListingStats::id);
+
+    private static final Comparator<Ranked> BEST_FIRST = Comparator.comparingDouble(Ranked::score).reversed()
+            .thenComparingInt(Ranked::card);
+
+    private final BaseListingRepository baseListingRepository;
+    private final UserInterestRepository userInterestRepository;
+    private final StartupTasks startupTasks;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.recommendation.half-life-days:90}")
+    private double halfLifeDays;
+
+    private final Object rebuildLock = new Object();
+    private final Object changeLock = new Object();
+
+    // Null until the first build; swapped under changeLock
+    private volatile Snapshot snapshot;
+    // Listings refreshed while a rebuild was reading, replayed on its snapshot; guarded by changeLock
+    private Set<UUID> changedDuringRebuild;
+
+    public RecommendationServiceImpl(BaseListingRepository baseListingRepository,
+                                     UserInterestRepository userInterestRepository,
+                                     StartupTasks startupTasks,
+                                     PlatformTransactionManager transactionManager) {
+        this.baseListingRepository = baseListingRepository;
+        this.userInterestRepository = userInterestRepository;
+        this.startupTasks = startupTasks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public Page<RecommendedListingResponse> recommend(UUID userId, String type, int page, int size) {
+        if (page < 0) {
+            throw new BadRequestException("Page must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Boolean home = parseType(type);
+        Pageable pageable = PageRequest.of(page, size);
+
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Page.empty(pageable);
+        }
+
+        // Interests are read live, so a change applies to the next request
+        List<UUID> interests = userInterestRepository.findInterestIdsByUserId(userId);
+        History history = current.histories.get(userId);
+        Set<Integer> bookedSinceBuild = current.cardsOf(
+                baseListingRepository.findListingIdsBookedSince(userId, current.builtFrom()));
+
+        // Card -> (interest match, area match); the popular lists fill in for users without either
+        Map<Integer, double[]> matches = new HashMap<>();
+        for (Candidates candidates : current.candidatesOf(home)) {
+            for (UUID interest : interests) {
+                CandidateList list = candidates.byInterest.get(interest);
+                if (list != null) {
+                    for (int i = 0; i < list.cards.length; i++) {
+                        matches.computeIfAbsent(list.cards[i], card -> new double[2])[0] +=
+                                list.scores[i] / interests.size();
+                    }
+                }
+            }
+            if (history != null) {
+                for (int c = 0; c < history.cells.length; c++) {
+                    CandidateList list = candidates.byCell.get(history.cells[c]);
+                    if (list != null) {
+                        for (int i = 0; i < list.cards.length; i++) {
+                            matches.computeIfAbsent(list.cards[i], card -> new double[2])[1] +=
+                                    history.cellWeights[c] * list.scores[i];
+                        }
+                    }
+                }
+            }
+            for (int card : candidates.popular.cards) {
+                matches.computeIfAbsent(card, key -> new double[2]);
+            }
+        }
+
+        Cards cards = current.cards;
+        List<Ranked> ranked = new ArrayList<>(matches.size());
+        matches.forEach((card, match) -> {
+            // Neither removed listings, the user's own, nor those they already booked or reviewed
+            if (current.removed().contains(card) || userId.equals(cards.hostIds[card])
+                    || (history != null && history.hasEngaged(card)) || bookedSinceBuild.contains(card)) {
+                return;
+            }
+            double interest = INTEREST_WEIGHT * match[0];
+            double area = AREA_WEIGHT * match[1];
+            double group = history != null ? GROUP_WEIGHT * history.groupAffinity(cards.groups[card]) : 0;
+            double quality = QUALITY_WEIGHT * cards.qualities[card];
+            ranked.add(new Ranked(card, interest + area + group + quality, reason(interest, area, group, quality)));
+        });
+        ranked.sort(BEST_FIRST);
+
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + size, ranked.size());
+        List<RecommendedListingResponse> content = ranked.subList(from, to).stream()
+                .map(r -> toResponse(cards, r))
+                .toList();
+        return new PageImpl<>(content, pageable, ranked.size());
+    }
+
+    @Override
+    public void rebuild() {
+        // Serialized so a slow build that started earlier can never replace a newer snapshot
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+            LocalDateTime builtFrom = LocalDateTime.now().minus(COMMIT_MARGIN);
+            synchronized (changeLock) {
+                changedDuringRebuild = new HashSet<>();
+            }
+
+            Snapshot next;
+            try {
+                // Streamed in a read-only transaction so the driver fetches the rows in batches
+                next = transactionTemplate.execute(status -> build(builtFrom));
+            } catch (RuntimeException e) {
+                synchronized (changeLock) {
+                    changedDuringRebuild = null;
+                }
+                throw e;
+            }
+
+            Set<UUID> changed;
+            synchronized (changeLock) {
+                snapshot = next;
+                changed = changedDuringRebuild;
+                changedDuringRebuild = null;
+            }
+
+            // The build may have read these listings before their change committed
+            changed.forEach(this::refresh);
+            log.info("Recommendations rebuilt: {} candidate listings, {} user histories in {} ms",
+                    next.cards.ids.length, next.histories.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    @Override
+    public void refresh(UUID listingId) {
+        boolean recommendable = baseListingRepository.isRecommendable(listingId);
+
+        Snapshot current;
+        synchronized (changeLock) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(listingId);
+            }
+            current = snapshot;
+        }
+        if (current != null) {
+            current.setRecommendable(listingId, recommendable);
+        }
+    }
+
+    // Built in the background; recommend() serves empty pages until the first snapshot is published
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        startupTasks.run("recommendation build", this::rebuild);
+    }
+
+    @Scheduled(fixedDelayString = "${app.recommendation.rebuild-interval-ms:3600000}",
+            initialDelayString = "${app.recommendation.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private Snapshot build(LocalDateTime builtFrom) {
+        // Interest candidates first, so the pass over the listings keeps the stats of those it meets
+        List<InterestCandidateRowDto> interestRows =
+                userInterestRepository.findInterestCandidates(halfLifeDays, PER_INTEREST);
+        Set<UUID> interestListingIds = interestRows.stream()
+                .map(InterestCandidateRowDto::getListingId)
+                .collect(Collectors.toSet());
+
+        // One pass over every live listing keeps the best of each cell and overall in bounded heaps
+        TopListings topHomes = new TopListings();
+        TopListings topExperiences = new TopListings();
+        Map<UUID, ListingStats> interestListings = new HashMap<>();
+        try (Stream<RecommendationStatsRowDto> rows = baseListingRepository.streamRecommendationStats(halfLifeDays)) {
+            rows.forEach(row -> {
+                ListingStats stats = ListingStats.of(row);
+                (stats.home() ? topHomes : topExperiences).offer(stats);
+                if (interestListingIds.contains(stats.id())) {
+                    interestListings.put(stats.id(), stats);
+                }
+            });
+        }
+
+        CardsBuilder cards = new CardsBuilder();
+        Candidates homes = topHomes.toCandidates(cards);
+        Candidates experiences = topExperiences.toCandidates(cards);
+
+        // A listing that became unavailable between the two queries is left out
+        Map<UUID, ListBuilder> homeInterests = new HashMap<>();
+        Map<UUID, ListBuilder> experienceInterests = new HashMap<>();
+        for (InterestCandidateRowDto row : interestRows) {
+            ListingStats stats = interestListings.get(row.getListingId());
+            if (stats != null) {
+                (stats.home() ? homeInterests : experienceInterests)
+                        .computeIfAbsent(row.getInterestId(), id -> new ListBuilder())
+                        .add(cards.add(stats), row.getScore());
+            }
+        }
+        homeInterests.forEach((interest, list) -> homes.byInterest.put(interest, list.normalized()));
+        experienceInterests.forEach((interest, list) -> experiences.byInterest.put(interest, list.normalized()));
+
+        Cards built = cards.build(baseListingRepository);
+        return new Snapshot(built, homes, experiences, buildHistories(cards), cards.indexes, builtFrom,
+                ConcurrentHashMap.newKeySet());
+    }
+
+    private Map<UUID, History> buildHistories(CardsBuilder cards) {
+        Map<UUID, HistoryBuilder> builders = new HashMap<>();
+        try (Stream<UserEngagementRowDto> rows = baseListingRepository.streamUserEngagements(halfLifeDays)) {
+            rows.forEach(row -> builders.computeIfAbsent(row.getUserId(), id -> new HistoryBuilder())
+                    .add(ListingSnapshotUtils.cellOf(row.getLatitude(), row.getLongitude()),
+                            cards.groupOrdinal(row.getGroupId()), cards.indexOf(row.getListingId()), row.getWeight()));
+        }
+        Map<UUID, History> histories = new HashMap<>(builders.size() * 2);
+        builders.forEach((userId, builder) -> histories.put(userId, builder.build()));
+        return histories;
+    }
+
+    private Boolean parseType(String type) {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        return switch (type.trim().toUpperCase()) {
+            case "HOME" -> true;
+            case "EXPERIENCE" -> false;
+            default -> throw new BadRequestException("Type must be HOME or EXPERIENCE");
+        };
+    }
+
+    private static String reason(double interest, double area, double group, double quality) {
+        double best = Math.max(Math.max(interest, area), Math.max(group, quality));
+        if (best == interest) {
+            return "INTEREST";
+        }
+        if (best == area) {
+            return "NEARBY";
+        }
+        return best == group ? "SIMILAR" : "POPULAR";
+    }
+
+    private static RecommendedListingResponse toResponse(Cards cards, Ranked ranked) {
+        int card = ranked.card();
+        return RecommendedListingResponse.builder()
+                .listingId(cards.ids[card])
+                .listingType(cards.homes[card] ? "HOME" : "EXPERIENCE")
+                .title(cards.titles[card])
+                .address(cards.addresses[card])
+                .price(cards.prices[card])
+                .latitude(cards.latitudes[card])
+                .longitude(cards.longitudes[card])
+                .thumbnailUrl(cards.thumbnailUrls[card])
+                .averageRating(ListingRatingUtils.averageRating(cards.ratingSums[card], cards.ratingCounts[card]))
+                .ratingCount(cards.ratingCounts[card])
+                .score(Math.round(ranked.score() * 10000.0) / 10000.0)
+                .reason(ranked.reason())
+                .build();
+    }
+
+    private record Ranked(int card, double score, String reason) {
+    }
+
+    private record ListingStats(UUID id, boolean home, double latitude, double longitude, UUID groupId,
+                                UUID hostId, int ratingCount, int ratingSum, double quality) {
+
+        // Quality in [0, 1]: half the rating pulled towards the prior, half the decayed engagement
+        static ListingStats of(RecommendationStatsRowDto row) {
+            double rating = ListingRatingUtils.priorAdjustedRating(row.getRatingSum(), row.getRatingCount());
+            double popularity = 1 - Math.exp(-Math.max(row.getEngagement(), 0) / ENGAGEMENT_SCALE);
+            double quality = 0.5 * (rating - 1) / 4 + 0.5 * popularity;
+            return new ListingStats(row.getId(), row.getHome(), row.getLatitude(), row.getLongitude(),
+                    row.getGroupId(), row.getHostId(), row.getRatingCount(), row.getRatingSum(), quality);
+        }
+    }
+
+    // Best listings of each cell and overall, for one listing type
+    private static final class TopListings {
+        private final Map<Long, PriorityQueue<ListingStats>> cells = new HashMap<>();
+        private final PriorityQueue<ListingStats> popular = new PriorityQueue<>(WORST_FIRST);
+
+        void offer(ListingStats stats) {
+            ListingSnapshotUtils.offer(cells.computeIfAbsent(
+                    ListingSnapshotUtils.cellOf(stats.latitude(), stats.longitude()),
+                    cell -> new PriorityQueue<>(WORST_FIRST)), stats, PER_CELL);
+            ListingSnapshotUtils.offer(popular, stats, POPULAR);
+        }
+
+        Candidates toCandidates(CardsBuilder cards) {
+            Map<Long, CandidateList> byCell = new HashMap<>(cells.size() * 2);
+            cells.forEach((cell, heap) -> byCell.put(cell, toList(heap, cards)));
+            return new Candidates(new HashMap<>(), byCell, toList(popular, cards));
+        }
+
+        private static CandidateList toList(PriorityQueue<ListingStats> heap, CardsBuilder cards) {
+            List<ListingStats> best = new ArrayList<>(heap);
+            best.sort(WORST_FIRST.reversed());
+            int[] cardIndexes = new int[best.size()];
+            float[] scores = new float[best.size()];
+            for (int i = 0; i < best.size(); i++) {
+                cardIndexes[i] = cards.add(best.get(i));
+                scores[i] = (float) best.get(i).quality();
+            }
+            return new CandidateList(cardIndexes, scores);
+        }
+    }
+
+    // Interest candidates of one interest, scaled so the best scores 1
+    private static final class ListBuilder {
+        private final List<Integer> cards = new ArrayList<>();
+        private final List<Double> scores = new ArrayList<>();
+
+        void add(int card, double score) {
+            cards.add(card);
+            scores.add(score);
+        }
+
+        CandidateList normalized() {
+            double max = scores.stream().mapToDouble(Double::doubleValue).max().orElse(1);
+            int[] cardIndexes = new int[cards.size()];
+            float[] normalized = new float[cards.size()];
+            for (int i = 0; i < cards.size(); i++) {
+                cardIndexes[i] = cards.get(i);
+                normalized[i] = (float) (scores.get(i) / max);
+            }
+            return new CandidateList(cardIndexes, normalized);
+        }
+    }
+
+    private static final class CardsBuilder {
+        private final Map<UUID, Integer> indexes = new HashMap<>();
+        private final List<ListingStats> stats = new ArrayList<>();
+        private final Map<UUID, Integer> groupOrdinals = new HashMap<>();
+
+        int add(ListingStats listing) {
+            return indexes.computeIfAbsent(listing.id(), id -> {
+                stats.add(listing);
+                return stats.size() - 1;
+            });
+        }
+
+        Integer indexOf(UUID listingId) {
+            return indexes.get(listingId);
+        }
+
+        int groupOrdinal(UUID groupId) {
+            return groupId == null ? -1 : groupOrdinals.computeIfAbsent(groupId, id -> groupOrdinals.size());
+        }
+
+        Cards build(BaseListingRepository baseListingRepository) {
+            Map<UUID, RecommendationCardRowDto> details = ListingSnapshotUtils.loadCards(baseListingRepository,
+                    stats.stream().map(ListingStats::id).toList());
+
+            int n = stats.size();
+            Cards cards = new Cards(n);
+            for (int i = 0; i < n; i++) {
+                ListingStats listing = stats.get(i);
+                RecommendationCardRowDto detail = details.get(listing.id());
+                cards.ids[i] = listing.id();
+                cards.homes[i] = listing.home();
+                cards.latitudes[i] = listing.latitude();
+                cards.longitudes[i] = listing.longitude();
+                cards.groups[i] = groupOrdinal(listing.groupId());
+                cards.hostIds[i] = listing.hostId();
+                cards.ratingCounts[i] = listing.ratingCount();
+                cards.ratingSums[i] = listing.ratingSum();
+                cards.qualities[i] = (float) listing.quality();
+                if (detail != null) {
+                    cards.titles[i] = detail.getTitle();
+                    cards.addresses[i] = detail.getAddress();
+                    cards.prices[i] = detail.getPrice();
+                    cards.thumbnailUrls[i] = detail.getThumbnailUrl();
+                }
+            }
+            return cards;
+        }
+    }
+
+    private static final class HistoryBuilder {
+        private final Map<Long, Double> cellWeights = new HashMap<>();
+        private final Map<Integer, Double> groupWeights = new HashMap<>();
+        private final List<Integer> engaged = new ArrayList<>();
+
+        // Poor reviews only count against the listing itself, not against its area or group
+        void add(long cell, int group, Integer card, double weight) {
+            if (weight > 0) {
+                cellWeights.merge(cell, weight, Double::sum);
+                if (group >= 0) {
+                    groupWeights.merge(group, weight, Double::sum);
+                }
+            }
+            if (card != null) {
+                engaged.add(card);
+            }
+        }
+
+        // The heaviest cells share a weight of 1; the heaviest group has affinity 1
+        History build() {
+            List<Map.Entry<Long, Double>> topCells = top(cellWeights, USER_CELLS);
+            double cellTotal = topCells.stream().mapToDouble(Map.Entry::getValue).sum();
+            long[] cells = new long[topCells.size()];
+            float[] weights = new float[topCells.size()];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = topCells.get(i).getKey();
+                weights[i] = (float) (topCells.get(i).getValue() / cellTotal);
+            }
+
+            List<Map.Entry<Integer, Double>> topGroups = top(groupWeights, USER_GROUPS);
+            int[] groups = new int[topGroups.size()];
+            float[] affinities = new float[topGroups.size()];
+            for (int i = 0; i < groups.length; i++) {
+                groups[i] = topGroups.get(i).getKey();
+                affinities[i] = (float) (topGroups.get(i).getValue() / topGroups.get(0).getValue());
+            }
+
+            int[] engagedCards = engaged.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+            return new History(cells, weights, groups, affinities, engagedCards);
+        }
+
+        private static <K> List<Map.Entry<K, Double>> top(Map<K, Double> weights, int limit) {
+            return weights.entrySet().stream()
+                    .sorted(Map.Entry.<K, Double>comparingByValue().reversed())
+                    .limit(limit)
+                    .toList();
+        }
+    }
+
+    // removed holds the cards tombstoned since the build, it is the only part that changes after publication
+    private record Snapshot(Cards cards, Candidates homes, Candidates experiences, Map<UUID, History> histories,
+                            Map<UUID, Integer> cardIndexes, LocalDateTime builtFrom, Set<Integer> removed) {
+
+        List<Candidates> candidatesOf(Boolean home) {
+            if (home == null) {
+                return List.of(homes, experiences);
+            }
+            return List.of(home ? homes : experiences);
+        }
+
+        // Listings outside the snapshot have no card and wait for the next build
+        void setRecommendable(UUID listingId, boolean recommendable) {
+            Integer card = cardIndexes.get(listingId);
+            if (card == null) {
+                return;
+            }
+            if (recommendable) {
+                removed.remove(card);
+            } else {
+                removed.add(card);
+            }
+        }
+
+        Set<Integer> cardsOf(List<UUID> listingIds) {
+            Set<Integer> result = new HashSet<>();
+            for (UUID listingId : listingIds) {
+                Integer card = cardIndexes.get(listingId);
+                if (card != null) {
+                    result.add(card);
+                }
+            }
+            return result;
+        }
+    }
+
+    // Candidate lists of one listing type; scores in [0, 1], best first
+    private record Candidates(Map<UUID, CandidateList> byInterest, Map<Long, CandidateList> byCell,
+                              CandidateList popular) {
+    }
+
+    private record CandidateList(int[] cards, float[] scores) {
+    }
+
+    // Every candidate listing, column by column, addressed by its card index
+    private static final class Cards {
+        final UUID[] ids;
+        final boolean[] homes;
+        final String[] titles;
+        final String[] addresses;
+        final BigDecimal[] prices;
+        final double[] latitudes;
+        final double[] longitudes;
+        final String[] thumbnailUrls;
+        final int[] groups;
+        final UUID[] hostIds;
+        final int[] ratingCounts;
+        final int[] ratingSums;
+        final float[] qualities;
+
+        Cards(int size) {
+            ids = new UUID[size];
+            homes = new boolean[size];
+            titles = new String[size];
+            addresses = new String[size];
+            prices = new BigDecimal[size];
+            latitudes = new double[size];
+            longitudes = new double[size];
+            thumbnailUrls = new String[size];
+            groups = new int[size];
+            hostIds = new UUID[size];
+            ratingCounts = new int[size];
+            ratingSums = new int[size];
+            qualities = new float[size];
+        }
+    }
+
+    private record History(long[] cells, float[] cellWeights, int[] groups, float[] groupAffinities,
+                           int[] engagedCards) {
+
+        boolean hasEngaged(int card) {
+            return Arrays.binarySearch(engagedCards, card) >= 0;
+        }
+
+        float groupAffinity(int group) {
+            for (int i = 0; i < groups.length; i++) {
+                if (groups[i] == group) {
+                    return groupAffinities[i];
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package octguy.livanabe.service.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import octguy.livanabe.config.RabbitMQConfig;
+import octguy.livanabe.config.StartupTasks;
+import octguy.livanabe.dto.dto.CatalogInvalidationMessage;
+import octguy.livanabe.dto.dto.CatalogSection;
+import octguy.livanabe.dto.dto.ReferenceCatalog;
+import octguy.livanabe.dto.response.AmenityResponse;
+import octguy.livanabe.dto.response.ExperienceCategoryResponse;
+import octguy.livanabe.dto.response.FacilityResponse;
+import octguy.livanabe.dto.response.InterestResponse;
+import octguy.livanabe.dto.response.PropertyTypeResponse;
+import octguy.livanabe.repository.AmenityRepository;
+import octguy.livanabe.repository.ExperienceCategoryRepository;
+import octguy.livanabe.repository.FacilityRepository;
+import octguy.livanabe.repository.InterestRepository;
+import octguy.livanabe.repository.PropertyTypeRepository;
+import octguy.livanabe.service.IReferenceCatalogService;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Slf4j
+public class ReferenceCatalogServiceImpl implements IReferenceCatalogService {
+
+    private static final Sort CREATION_ORDER = Sort.by("createdAt", "id");
+
+    private final AmenityRepository amenityRepository;
+    private final FacilityRepository facilityRepository;
+    private final PropertyTypeRepository propertyTypeRepository;
+    private final ExperienceCategoryRepository experienceCategoryRepository;
+    private final InterestRepository interestRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final StartupTasks startupTasks;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong versions = new AtomicLong();
+    private final Object reloadLock = new Object();
+
+    private volatile ReferenceCatalog catalog;
+
+    public ReferenceCatalogServiceImpl(AmenityRepository amenityRepository,
+                                       FacilityRepository facilityRepository,
+                                       PropertyTypeRepository propertyTypeRepository,
+                                       ExperienceCategoryRepository experienceCategoryRepository,
+                                       InterestRepository interestRepository,
+                                       RabbitTemplate rabbitTemplate,
+                                       StartupTasks startupTasks) {
+        this.amenityRepository = amenityRepository;
+        this.facilityRepository = facilityRepository;
+        this.propertyTypeRepository = propertyTypeRepository;
+        this.experienceCategoryRepository = experienceCategoryRepository;
+        this.interestRepository = interestRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.startupTasks = startupTasks;
+    }
+
+    @Override
+    public ReferenceCatalog getCatalog() {
+        ReferenceCatalog current = catalog;
+        if (current == null) {
+            reload();
+            current = catalog;
+        }
+        return current;
+    }
+
+    @Override
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reloadAndNotifyPeers();
+                }
+            });
+        } else {
+            reloadAndNotifyPeers();
+        }
+    }
+
+    @Override
+    public void reload() {
+        // Serialized so a slow load that started earlier can never replace a newer snapshot
+        synchronized (reloadLock) {
+            ReferenceCatalog next = ReferenceCatalog.builder()
+                    .version(versions.incrementAndGet())
+                    .amenities(loadAmenities())
+                    .facilities(loadFacilities())
+                    .propertyTypes(loadPropertyTypes())
+                    .experienceCategories(loadExperienceCategories())
+                    .interests(loadInterests())
+                    .build();
+            catalog = next;
+            log.debug("Reference catalog reloaded, version {}", next.getVersion());
+        }
+    }
+
+    @Override
+    public void onPeerInvalidation(CatalogInvalidationMessage message) {
+        if (!nodeId.equals(message.getOriginNodeId())) {
+            reload();
+        }
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // Loaded in the background; getCatalog() loads it itself if a request arrives first
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        startupTasks.run("reference catalog load", this::reload);
+    }
+
+    // Safety net for invalidations lost while the broker was unreachable
+    @Scheduled(fixedDelayString = "${app.catalog.refresh-interval-ms:300000}",
+            initialDelayString = "${app.catalog.refresh-interval-ms:300000}")
+    public void refresh() {
+        reload();
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private void reloadAndNotifyPeers() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // The write is already committed; drop the stale snapshot so the next read loads it again
+            log.error("Reloading the reference catalog failed", e);
+            catalog = null;
+        }
+
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.CATALOG_EXCHANGE, "",
+                    CatalogInvalidationMessage.builder().originNodeId(nodeId).build());
+        } catch (AmqpException e) {
+            log.warn("Could not broadcast catalog invalidation, other nodes refresh on their schedule: {}", e.getMessage());
+        }
+    }
+
+    private CatalogSection<AmenityResponse> loadAmenities() {
+        List<AmenityResponse> items = amenityRepository.findAll(CREATION_ORDER).stream()
+                .map(amenity -> AmenityResponse.builder()
+                        .id(amenity.getId())
+                        .name(amenity.getName())
+                        .icon(amenity.getIcon())
+                        .build())
+                .toList();
+        return new CatalogSection<>(items, AmenityResponse::getId,
+                item -> item.getId() + "|" + item.getName() + "|" + item.getIcon());
+    }
+
+    private CatalogSection<FacilityResponse> loadFacilities() {
+        List<FacilityResponse> items = facilityRepository.findAll(CREATION_ORDER).stream()
+                .map(facility -> FacilityResponse.builder()
+                        .id(facility.getId())
+                        .name(facility.getName())
+                        .icon(facility.getIcon())
+                        .build())
+                .toList();
+        return new CatalogSection<>(items, FacilityResponse::getId,
+                item -> item.getId() + "|" + item.getName() + "|" + item.getIcon());
+    }
+
+    private CatalogSection<PropertyTypeResponse> loadPropertyTypes() {
+        List<PropertyTypeResponse> items = propertyTypeRepository.findAll(CREATION_ORDER).stream()
+                .map(propertyType -> PropertyTypeResponse.builder()
+                        .id(propertyType.getId())
+                        .name(propertyType.getName())
+                        .icon(propertyType.getIcon())
+                        .build())
+                .toList();
+        return new CatalogSection<>(items, PropertyTypeResponse::getId,
+                item -> item.getId() + "|" + item.getName() + "|" + item.getIcon());
+    }
+
+    private CatalogSection<ExperienceCategoryResponse> loadExperienceCategories() {
+        List<ExperienceCategoryResponse> items = experienceCategoryRepository.findAll(CREATION_ORDER).stream()
+                .map(category -> ExperienceCategoryResponse.builder()
+                        .id(category.getId())
+                        .name(category.getName())
+                        .icon(category.getIcon())
+                        .build())
+                .toList();
+        return new CatalogSection<>(items, ExperienceCategoryResponse::getId,
+                item -> item.getId() + "|" + item.getName() + "|" + item.getIcon());
+    }
+
+    private CatalogSection<InterestResponse> loadInterests() {
+        List<InterestResponse> items = interestRepository.findAll(CREATION_ORDER).stream()
+                .map(interest -> InterestResponse.builder()
+                        .id(interest.getId())
+                        .key(interest.getKey())
+                        .name(interest.getName())
+                        .icon(interest.getIcon())
+                        .build())
+                .toList();
+        return new CatalogSection<>(items, InterestResponse::getId,
+                item -> item.getId() + "|" + item.getKey() + "|" + item.getName() + "|" + item.getIcon());
+    }
+}
@@ -2,15 +2,18 @@ package octguy.livanabe.service.implementation;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import octguy.livanabe.dto.dto.ListingRatingDto;
 import octguy.livanabe.dto.request.CreateReviewRequest;
 import octguy.livanabe.dto.response.ListingRatingSummary;
 import octguy.livanabe.dto.response.NotificationMessage;
+import octguy.livanabe.dto.response.ReviewPage;
 import octguy.livanabe.dto.response.ReviewResponse;
 import octguy.livanabe.entity.BaseListing;
 import octguy.livanabe.entity.Review;
 import octguy.livanabe.entity.User;
 import octguy.livanabe.entity.UserProfile;
 import octguy.livanabe.enums.NotificationType;
+import octguy.livanabe.enums.ReviewSort;
 import octguy.livanabe.enums.ReviewType;
 import octguy.livanabe.exception.BadRequestException;
 import octguy.livanabe.exception.ResourceNotFoundException;
@@ -18,17 +21,27 @@ import octguy.livanabe.repository.BaseListingRepository;
 import octguy.livanabe.repository.ReviewRepository;
 import octguy.livanabe.repository.UserProfileRepository;
 import octguy.livanabe.repository.UserRepository;
+import octguy.livanabe.service.IListingRatingService;
 import octguy.livanabe.service.INotificationService;
 import octguy.livanabe.service.IReviewService;
+import octguy.livanabe.utils.CursorUtils;
+import octguy.livanabe.utils.ListingRatingUtils;
 import octguy.livanabe.utils.SecurityUtils;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,16 +49,20 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ReviewServiceImpl implements IReviewService {
 
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 50;
+
     private final ReviewRepository reviewRepository;
     private final BaseListingRepository baseListingRepository;
     private final UserRepository userRepository;
     private final UserProfileRepository userProfileRepository;
     private final INotificationService notificationService;
+    private final IListingRatingService listingRatingService;
 
     @Override
     @Transactional
     public ReviewResponse createReview(CreateReviewRequest request) {
-        UUID reviewerId = SecurityUtils.getCurrentUser().getId();
+        UUID reviewerId = SecurityUtils.getCurrentUserId();
         
         // Check if user has already reviewed this listing
         if (reviewRepository.existsByListingIdAndReviewerId(request.getListingId(), reviewerId)) {
@@ -72,6 +89,7 @@ public class ReviewServiceImpl implements IReviewService {
                 .build();
         
         Review savedReview = reviewRepository.save(review);
+        listingRatingService.recordRatingChange(listing.getId(), null, savedReview.getRating());
         
         // Send notification to host
         sendReviewNotificationToHost(listing, reviewer, savedReview);
@@ -82,49 +100,113 @@ public class ReviewServiceImpl implements IReviewService {
     @Override
     public ListingRatingSummary getListingReviews(UUID listingId) {
         List<Review> reviews = reviewRepository.findByListingIdOrderByCreatedAtDesc(listingId);
-        Double averageRating = reviewRepository.getAverageRatingByListingId(listingId);
-        Long totalReviews = reviewRepository.countByListingId(listingId);
+        
+        // Aggregates are stored on the listing row
+        ListingRatingDto rating = baseListingRepository.findRatingById(listingId)
+                .map(ListingRatingUtils::toRating)
+                .orElse(null);
         
         return ListingRatingSummary.builder()
-                .averageRating(averageRating != null ? Math.round(averageRating * 10.0) / 10.0 : 0.0)
-                .totalReviews(totalReviews != null ? totalReviews : 0L)
-                .reviews(reviews.stream().map(this::convertToResponse).collect(Collectors.toList()))
+                .averageRating(rating != null && rating.getAverage() != null ? rating.getAverage() : 0.0)
+                .totalReviews(rating != null ? (long) rating.getCount() : 0L)
+                .ratingHistogram(rating != null ? rating.getHistogram() : List.of(0, 0, 0, 0, 0))
+                .reviews(convertToResponses(reviews))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReviewPage getListingReviewPage(UUID listingId, String sort, String cursor, Integer limit) {
+        ReviewSort reviewSort = parseSort(sort);
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        
+        // Resume after the sort key of the last review of the previous page: (created_at, id), preceded by the
+        // rating when sorting by rating
+        Integer cursorRating = null;
+        LocalDateTime cursorCreatedAt = null;
+        UUID cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorUtils.decode(cursor, reviewSort == ReviewSort.NEWEST ? 2 : 3);
+            try {
+                int offset = parts.length - 2;
+                if (offset == 1) {
+                    cursorRating = Integer.parseInt(parts[0]);
+                }
+                cursorCreatedAt = LocalDateTime.parse(parts[offset]);
+                cursorId = UUID.fromString(parts[offset + 1]);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            if (cursorRating != null && (cursorRating < 1 || cursorRating > 5)) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+        
+        // Fetch one extra review to detect a next page
+        List<Review> rows = reviewSort == ReviewSort.NEWEST
+                ? reviewRepository.findNewestPage(listingId, cursorCreatedAt, cursorId, pageSize + 1)
+                : findRatingSortedPage(listingId, reviewSort == ReviewSort.HIGHEST,
+                        cursorRating, cursorCreatedAt, cursorId, pageSize + 1);
+        
+        boolean hasNext = rows.size() > pageSize;
+        List<Review> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Review last = page.get(page.size() - 1);
+            nextCursor = reviewSort == ReviewSort.NEWEST
+                    ? CursorUtils.encode(last.getCreatedAt(), last.getId())
+                    : CursorUtils.encode(last.getRating(), last.getCreatedAt(), last.getId());
+        }
+        
+        return ReviewPage.builder()
+                .reviews(convertToResponses(page))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
                 .build();
     }
 
+    @Override
+    public ListingRatingDto getListingRating(UUID listingId) {
+        return baseListingRepository.findRatingById(listingId)
+                .map(ListingRatingUtils::toRating)
+                .orElseThrow(() -> new ResourceNotFoundException("Listing not found"));
+    }
+
     @Override
     public List<ReviewResponse> getReviewsByReviewer(UUID reviewerId) {
-        return reviewRepository.findByReviewerIdOrderByCreatedAtDesc(reviewerId)
-                .stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(reviewRepository.findByReviewerIdOrderByCreatedAtDesc(reviewerId));
     }
 
     @Override
     @Transactional
     public ReviewResponse updateReview(UUID reviewId, CreateReviewRequest request) {
-        UUID currentUserId = SecurityUtils.getCurrentUser().getId();
+        UUID currentUserId = SecurityUtils.getCurrentUserId();
         
-        Review review = reviewRepository.findById(reviewId)
+        Review review = reviewRepository.findByIdForUpdate(reviewId)
                 .orElseThrow(() -> new ResourceNotFoundException("Review not found"));
         
         if (!review.getReviewer().getId().equals(currentUserId)) {
             throw new BadRequestException("You can only update your own review");
         }
         
+        Integer previousRating = review.getRating();
         review.setRating(request.getRating());
         review.setComment(request.getComment());
         
         Review savedReview = reviewRepository.save(review);
+        listingRatingService.recordRatingChange(review.getListing().getId(), previousRating, savedReview.getRating());
         return convertToResponse(savedReview);
     }
 
     @Override
     @Transactional
     public void deleteReview(UUID reviewId) {
-        UUID currentUserId = SecurityUtils.getCurrentUser().getId();
+        UUID currentUserId = SecurityUtils.getCurrentUserId();
         
-        Review review = reviewRepository.findById(reviewId)
+        Review review = reviewRepository.findByIdForUpdate(reviewId)
                 .orElseThrow(() -> new ResourceNotFoundException("Review not found"));
         
         if (!review.getReviewer().getId().equals(currentUserId)) {
@@ -132,6 +214,7 @@ public class ReviewServiceImpl implements IReviewService {
         }
         
         reviewRepository.delete(review);
+        listingRatingService.recordRatingChange(review.getListing().getId(), review.getRating(), null);
     }
 
     @Override
@@ -144,7 +227,7 @@ public class ReviewServiceImpl implements IReviewService {
     public Page<ReviewResponse> getAllReviewsPaginated(Pageable pageable) {
         log.info("Fetching all reviews paginated");
         Page<Review> reviews = reviewRepository.findAll(pageable);
-        return reviews.map(this::convertToResponse);
+        return new PageImpl<>(convertToResponses(reviews.getContent()), pageable, reviews.getTotalElements());
     }
     
     @Override
@@ -152,10 +235,11 @@ public class ReviewServiceImpl implements IReviewService {
     public void adminDeleteReview(UUID reviewId) {
         log.info("Admin deleting review with id {}", reviewId);
         
-        Review review = reviewRepository.findById(reviewId)
+        Review review = reviewRepository.findByIdForUpdate(reviewId)
                 .orElseThrow(() -> new ResourceNotFoundException("Review not found"));
         
         reviewRepository.delete(review);
+        listingRatingService.recordRatingChange(review.getListing().getId(), review.getRating(), null);
         log.info("Successfully deleted review with id {}", reviewId);
     }
 
@@ -178,9 +262,53 @@ public class ReviewServiceImpl implements IReviewService {
         notificationService.sendBookingNotificationToHost(listing.getHost().getId(), notification);
     }
 
+    // Reviews of one rating come newest first, so the page walks the ratings in sort order, one keyset range of
+    // the (listing, rating, created_at, id) index each, until it is full: at most five short index scans
+    private List<Review> findRatingSortedPage(UUID listingId, boolean highestFirst, Integer cursorRating,
+                                              LocalDateTime cursorCreatedAt, UUID cursorId, int limit) {
+        List<Review> rows = new ArrayList<>(limit);
+        int step = highestFirst ? -1 : 1;
+        int rating = cursorRating != null ? cursorRating : (highestFirst ? 5 : 1);
+        for (; rating >= 1 && rating <= 5 && rows.size() < limit; rating += step) {
+            rows.addAll(reviewRepository.findNewestPageWithRating(listingId, rating,
+                    cursorCreatedAt, cursorId, limit - rows.size()));
+            // The cursor only bounds the rating it was taken in
+            cursorCreatedAt = null;
+            cursorId = null;
+        }
+        return rows;
+    }
+
+    private ReviewSort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return ReviewSort.NEWEST;
+        }
+        try {
+            return ReviewSort.valueOf(sort.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Sort must be one of NEWEST, HIGHEST or LOWEST");
+        }
+    }
+
+    // Reviewer profiles of all the reviews are read in one query
+    private List<ReviewResponse> convertToResponses(List<Review> reviews) {
+        Set<UUID> reviewerIds = reviews.stream()
+                .map(review -> review.getReviewer().getId())
+                .collect(Collectors.toSet());
+        Map<UUID, UserProfile> profileMap = reviewerIds.isEmpty()
+                ? Collections.emptyMap()
+                : userProfileRepository.findByUserIdIn(reviewerIds).stream()
+                        .collect(Collectors.toMap(p -> p.getUser().getId(), Function.identity(), (a, b) -> a));
+        return reviews.stream()
+                .map(review -> convertToResponse(review, profileMap.get(review.getReviewer().getId())))
+                .collect(Collectors.toList());
+    }
+
     private ReviewResponse convertToResponse(Review review) {
-        UserProfile reviewerProfile = userProfileRepository.findByUserId(review.getReviewer().getId()).orElse(null);
-        
+        return convertToResponse(review, userProfileRepository.findByUserId(review.getReviewer().getId()).orElse(null));
+    }
+
+    private ReviewResponse convertToResponse(Review review, UserProfile reviewerProfile) {
         return ReviewResponse.builder()
                 .id(review.getId())
                 .listingId(review.getListing().getId())
@@ -1,33 +1,154 @@
 package octguy.livanabe.service.implementation;
 
+import lombok.extern.slf4j.Slf4j;
+import octguy.livanabe.config.RabbitMQConfig;
+import octguy.livanabe.dto.dto.PrincipalEvictionMessage;
 import octguy.livanabe.entity.AuthCredential;
 import octguy.livanabe.entity.CustomUserDetails;
 import octguy.livanabe.entity.User;
 import octguy.livanabe.exception.UserNotFoundException;
 import octguy.livanabe.repository.AuthCredentialRepository;
 import octguy.livanabe.repository.UserRepository;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
+@Slf4j
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final AuthCredentialRepository authCredentialRepository;
+    private final RabbitTemplate rabbitTemplate;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.security.principal-cache.ttl-seconds:60}")
+    private long principalTtlSeconds;
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private int principalCacheMaxSize;
 
-    public UserDetailsServiceImpl(UserRepository userRepository, AuthCredentialRepository authCredentialRepository) {
+    // JWT principals by username; entries are immutable snapshots (id, username, roles, enabled) shared between requests
+    private final Map<String, CachedPrincipal> principalCache = new ConcurrentHashMap<>();
+
+    // Bumped by every eviction; a load only caches its result if no eviction happened since it started,
+    // so a load that read the user before the change cannot put the old state back
+    private final AtomicLong evictionVersion = new AtomicLong();
+
+    public UserDetailsServiceImpl(UserRepository userRepository,
+                                  AuthCredentialRepository authCredentialRepository,
+                                  RabbitTemplate rabbitTemplate) {
         this.authCredentialRepository = authCredentialRepository;
         this.userRepository = userRepository;
+        this.rabbitTemplate = rabbitTemplate;
     }
 
+    // Used by the authentication manager on login, needs the password hash
     @Override
     public UserDetails loadUserByUsername(String username) {
-        User user = userRepository.findByUsernameWithRolesAndInterests(username) // fetch roles eagerly
+        User user = userRepository.findByUsernameWithRoles(username) // fetch roles eagerly
                 .orElseThrow(() -> new UserNotFoundException("User with username " + username + " not found"));
 
         AuthCredential authCredential = authCredentialRepository.findByUser(user)
                 .orElseThrow(() -> new UserNotFoundException("Credentials for user with username " + username + " not found"));
         return new CustomUserDetails(user, authCredential.getPassword());
     }
-}
\ No newline at end of file
+
+    /**
+     * Principal for a request authenticated by a JWT. The token already proves the credentials,
+     * so no password is loaded, and the result is cached for a short TTL.
+     * @return empty if the user does not exist
+     */
+    public Optional<CustomUserDetails> loadPrincipal(String username) {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = principalCache.get(username);
+        if (cached != null && cached.expiresAt() > now) {
+            return Optional.of(cached.principal());
+        }
+
+        long version = evictionVersion.get();
+        Optional<CustomUserDetails> principal = userRepository.findByUsernameWithRoles(username)
+                .map(user -> new CustomUserDetails(user, null));
+
+        principal.ifPresentOrElse(
+                p -> cachePrincipal(username, p, version, now),
+                () -> principalCache.remove(username));
+        return principal;
+    }
+
+    /**
+     * Drop the cached principal of a user on every node after a change to its roles, status or enabled flag.
+     * Inside a transaction the entry is dropped after commit, so a concurrent request cannot cache the old state again.
+     */
+    public void evictPrincipal(UUID userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAndNotifyPeers(userId);
+                }
+            });
+        } else {
+            evictAndNotifyPeers(userId);
+        }
+    }
+
+    public void onPeerEviction(PrincipalEvictionMessage message) {
+        if (!nodeId.equals(message.getOriginNodeId())) {
+            removePrincipal(message.getUserId());
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private void evictAndNotifyPeers(UUID userId) {
+        removePrincipal(userId);
+
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.PRINCIPAL_EXCHANGE, "",
+                    PrincipalEvictionMessage.builder().originNodeId(nodeId).userId(userId).build());
+        } catch (AmqpException e) {
+            log.warn("Could not broadcast principal eviction of user {}, other nodes drop it once it expires: {}",
+                    userId, e.getMessage());
+        }
+    }
+
+    private void removePrincipal(UUID userId) {
+        // Bump first: a load finishing between the bump and the removal sees the new version and does not cache
+        evictionVersion.incrementAndGet();
+        principalCache.values().removeIf(cached -> cached.principal().getId().equals(userId));
+    }
+
+    private void cachePrincipal(String username, CustomUserDetails principal, long version, long now) {
+        if (principalCache.size() >= principalCacheMaxSize) {
+            principalCache.values().removeIf(cached -> cached.expiresAt() <= now);
+            if (principalCache.size() >= principalCacheMaxSize) {
+                principalCache.clear();
+            }
+        }
+
+        // Checked under the entry's lock, so an eviction either sees this entry or this load sees its version
+        principalCache.compute(username, (key, current) -> evictionVersion.get() == version
+                ? new CachedPrincipal(principal, now + principalTtlSeconds * 1000)
+                : current);
+    }
+
+    private record CachedPrincipal(CustomUserDetails principal, long expiresAt) {
+    }
+}
@@ -9,6 +9,7 @@ import octguy.livanabe.entity.User;
 import octguy.livanabe.entity.UserProfile;
 import octguy.livanabe.exception.UserNotFoundException;
 import octguy.livanabe.repository.UserProfileRepository;
+import octguy.livanabe.repository.UserRepository;
 import octguy.livanabe.service.ICloudinaryService;
 import octguy.livanabe.service.IUserProfileService;
 import octguy.livanabe.utils.SecurityUtils;
@@ -27,17 +28,21 @@ public class UserProfileServiceImpl implements IUserProfileService {
 
     private final UserProfileRepository userProfileRepository;
 
+    private final UserRepository userRepository;
+
     private final ICloudinaryService cloudinaryService;
 
     public UserProfileServiceImpl(UserProfileRepository userProfileRepository,
+                                  UserRepository userRepository,
                                   ICloudinaryService cloudinaryService) {
         this.cloudinaryService = cloudinaryService;
         this.userProfileRepository = userProfileRepository;
+        this.userRepository = userRepository;
     }
 
     @Override
     public UserProfileResponse getMe() {
-        User currentUser = SecurityUtils.getCurrentUser();
+        User currentUser = loadCurrentUserWithRoles();
         Optional<UserProfile> opt = userProfileRepository.findByUserId(currentUser.getId());
 
         if (opt.isEmpty()) {
@@ -81,7 +86,7 @@ public class UserProfileServiceImpl implements IUserProfileService {
     @Override
     @Transactional
     public UserProfileResponse update(UpdateUserProfileRequest updatedProfile) {
-        User currentUser = SecurityUtils.getCurrentUser();
+        User currentUser = loadCurrentUserWithRoles();
         UUID id = currentUser.getId();
 
         Optional<UserProfile> existing = userProfileRepository.findByUserId(id);
@@ -125,7 +130,7 @@ public class UserProfileServiceImpl implements IUserProfileService {
     @Override
     @Transactional
     public UserProfileResponse uploadAvatar(MultipartFile file) {
-        User currentUser = SecurityUtils.getCurrentUser();
+        User currentUser = loadCurrentUserWithRoles();
         Optional<UserProfile> existing = userProfileRepository.findByUserId(currentUser.getId());
         if (existing.isEmpty()) {
             throw new UserNotFoundException("User not found when updating profile with user id: " + currentUser.getId());
@@ -166,8 +171,7 @@ public class UserProfileServiceImpl implements IUserProfileService {
     @Override
     @Transactional
     public void deleteAvatar() {
-        User currentUser = SecurityUtils.getCurrentUser();
-        UUID id = currentUser.getId();
+        UUID id = SecurityUtils.getCurrentUserId();
         Optional<UserProfile> existing = userProfileRepository.findByUserId(id);
         if (existing.isEmpty()) {
             throw new UserNotFoundException("User not found when updating profile with user id: " + id);
@@ -194,4 +198,11 @@ public class UserProfileServiceImpl implements IUserProfileService {
             userProfileRepository.save(current);
         }
     }
+
+    // The authenticated principal only carries id, username, roles and enabled flag, so the user is loaded here
+    private User loadCurrentUserWithRoles() {
+        UUID id = SecurityUtils.getCurrentUserId();
+        return userRepository.findByIdWithRoles(id)
+                .orElseThrow(() -> new UserNotFoundException("User with id " + id + " not found"));
+    }
 }
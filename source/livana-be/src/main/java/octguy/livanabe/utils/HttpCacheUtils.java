@@ -0,0 +1,31 @@
+package octguy.livanabe.utils;
+
+import octguy.livanabe.entity.ApiResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+public final class HttpCacheUtils {
+
+    // Clients reuse catalog responses for a minute, then revalidate with If-None-Match
+    private static final CacheControl CATALOG_CACHE_CONTROL = CacheControl.maxAge(Duration.ofSeconds(60))
+            .cachePublic()
+            .mustRevalidate();
+
+    private HttpCacheUtils() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * 200 response for reference data with its catalog ETag.
+     * Spring answers a GET whose If-None-Match matches the ETag with 304 and no body.
+     */
+    public static <T> ResponseEntity<ApiResponse<T>> catalogResponse(String etag, String message, T data) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CATALOG_CACHE_CONTROL)
+                .body(new ApiResponse<>(HttpStatus.OK, message, data, null));
+    }
+}
@@ -0,0 +1,145 @@
+package octguy.livanabe.utils;
+
+import octguy.livanabe.dto.dto.CatalogSection;
+import octguy.livanabe.dto.dto.ListingFacetCountDto;
+import octguy.livanabe.dto.dto.ReferenceCatalog;
+import octguy.livanabe.dto.response.AmenityResponse;
+import octguy.livanabe.dto.response.ExperienceCategoryResponse;
+import octguy.livanabe.dto.response.FacilityResponse;
+import octguy.livanabe.dto.response.ListingFacetsResponse;
+import octguy.livanabe.dto.response.PropertyTypeResponse;
+import octguy.livanabe.search.ListingFeatureCounts;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Utility class turning the rows of a facet query into a {@link ListingFacetsResponse}.
+ * Names and icons come from the reference catalog, so no extra query is needed.
+ */
+public final class ListingFacetUtils {
+
+    private static final String PRICE = "PRICE";
+    private static final String GROUP = "GROUP";
+    private static final String LISTINGS = "LISTINGS";
+
+    // Must match ListingFacetQueries.PRICE_BUCKETS
+    private static final int PRICE_BUCKETS = 10;
+
+    private ListingFacetUtils() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Ids of the candidate listings of a home facet query, to count the amenities and facilities over
+     */
+    public static List<UUID> candidateIds(List<ListingFacetCountDto> rows) {
+        return rows.stream()
+                .filter(row -> LISTINGS.equals(row.getFacet()) && row.getListingIds() != null)
+                .findFirst()
+                .map(row -> List.of(row.getListingIds()))
+                .orElse(List.of());
+    }
+
+    public static ListingFacetsResponse toHomeFacets(List<ListingFacetCountDto> rows, ListingFeatureCounts features,
+                                                     ReferenceCatalog catalog) {
+        CatalogSection<PropertyTypeResponse> propertyTypes = catalog.getPropertyTypes();
+        CatalogSection<AmenityResponse> amenities = catalog.getAmenities();
+        CatalogSection<FacilityResponse> facilities = catalog.getFacilities();
+        return ListingFacetsResponse.builder()
+                .totalCount(totalCount(rows))
+                .priceHistogram(priceHistogram(rows))
+                .propertyTypes(values(rows, GROUP, id -> propertyTypes.find(id)
+                        .map(type -> facetValue(id, type.getName(), type.getIcon()))))
+                .amenities(values(features.amenities(), id -> amenities.find(id)
+                        .map(amenity -> facetValue(id, amenity.getName(), amenity.getIcon()))))
+                .facilities(values(features.facilities(), id -> facilities.find(id)
+                        .map(facility -> facetValue(id, facility.getName(), facility.getIcon()))))
+                .build();
+    }
+
+    public static ListingFacetsResponse toExperienceFacets(List<ListingFacetCountDto> rows, ReferenceCatalog catalog) {
+        CatalogSection<ExperienceCategoryResponse> categories = catalog.getExperienceCategories();
+        return ListingFacetsResponse.builder()
+                .totalCount(totalCount(rows))
+                .priceHistogram(priceHistogram(rows))
+                .experienceCategories(values(rows, GROUP, id -> categories.find(id)
+                        .map(category -> facetValue(id, category.getName(), category.getIcon()))))
+                .build();
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    // Every candidate falls in exactly one price bucket
+    private static long totalCount(List<ListingFacetCountDto> rows) {
+        return rows.stream()
+                .filter(row -> PRICE.equals(row.getFacet()))
+                .mapToLong(ListingFacetCountDto::getValueCount)
+                .sum();
+    }
+
+    private static List<ListingFacetsResponse.PriceBucket> priceHistogram(List<ListingFacetCountDto> rows) {
+        return rows.stream()
+                .filter(row -> PRICE.equals(row.getFacet()))
+                .sorted(Comparator.comparingInt(row -> Integer.parseInt(row.getValueKey())))
+                .map(row -> {
+                    int bucket = Integer.parseInt(row.getValueKey());
+                    BigDecimal lo = row.getLowerBound();
+                    BigDecimal hi = row.getUpperBound();
+                    BigDecimal width = hi.subtract(lo).divide(BigDecimal.valueOf(PRICE_BUCKETS), 2, RoundingMode.HALF_UP);
+                    return ListingFacetsResponse.PriceBucket.builder()
+                            .minPrice(lo.add(width.multiply(BigDecimal.valueOf(bucket - 1))))
+                            .maxPrice(bucket == PRICE_BUCKETS || width.signum() == 0
+                                    ? hi
+                                    : lo.add(width.multiply(BigDecimal.valueOf(bucket))))
+                            .count(row.getValueCount())
+                            .build();
+                })
+                .toList();
+    }
+
+    // Values missing from the catalog (deleted since) are dropped; most frequent first
+    private static List<ListingFacetsResponse.FacetValue> values(
+            List<ListingFacetCountDto> rows, String facet,
+            Function<UUID, Optional<ListingFacetsResponse.FacetValue>> lookup) {
+        return rows.stream()
+                .filter(row -> facet.equals(row.getFacet()) && row.getValueKey() != null)
+                .flatMap(row -> lookup.apply(UUID.fromString(row.getValueKey()))
+                        .map(value -> {
+                            value.setCount(row.getValueCount());
+                            return value;
+                        })
+                        .stream())
+                .sorted(Comparator.comparing(ListingFacetsResponse.FacetValue::getCount).reversed()
+                        .thenComparing(ListingFacetsResponse.FacetValue::getName))
+                .toList();
+    }
+
+    private static List<ListingFacetsResponse.FacetValue> values(
+            Map<UUID, Long> counts, Function<UUID, Optional<ListingFacetsResponse.FacetValue>> lookup) {
+        return counts.entrySet().stream()
+                .flatMap(count -> lookup.apply(count.getKey())
+                        .map(value -> {
+                            value.setCount(count.getValue());
+                            return value;
+                        })
+                        .stream())
+                .sorted(Comparator.comparing(ListingFacetsResponse.FacetValue::getCount).reversed()
+                        .thenComparing(ListingFacetsResponse.FacetValue::getName))
+                .toList();
+    }
+
+    private static ListingFacetsResponse.FacetValue facetValue(UUID id, String name, String icon) {
+        return ListingFacetsResponse.FacetValue.builder()
+                .id(id)
+                .name(name)
+                .icon(icon)
+                .build();
+    }
+}
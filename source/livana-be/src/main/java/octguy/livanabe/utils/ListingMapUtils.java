@@ -0,0 +1,107 @@
+package octguy.livanabe.utils;
+
+import octguy.livanabe.dto.dto.ListingMapCellDto;
+import octguy.livanabe.dto.dto.ListingMapPinDto;
+import octguy.livanabe.dto.request.MapSearchRequest;
+import octguy.livanabe.dto.response.ListingMapResponse;
+import octguy.livanabe.exception.BadRequestException;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Utility class for the map viewport search: checks the viewport, picks the clustering grid for a zoom level and
+ * turns pin or grid cell rows into a {@link ListingMapResponse}.
+ * <p>
+ * Grid cells are squares of {@code 360 / 2^(zoom + 2)} degrees, about a quarter of a 256 pixel map tile, aligned on
+ * multiples of their side. A viewport much larger than the screen at that zoom gets coarser cells, so the number of
+ * clusters stays bounded whatever the client sends.
+ */
+public final class ListingMapUtils {
+
+    public static final int MAX_ZOOM = 22;
+    // Cells per tile side is 2^CELLS_PER_TILE_SHIFT
+    private static final int CELLS_PER_TILE_SHIFT = 2;
+    private static final int MAX_CELLS_PER_AXIS = 32;
+
+    private ListingMapUtils() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Check the viewport and zoom level of a map search.
+     *
+     * @throws BadRequestException if the viewport is missing, out of range or crosses the antimeridian
+     */
+    public static void validate(MapSearchRequest request) {
+        if (request.getMinLat() == null || request.getMaxLat() == null
+                || request.getMinLon() == null || request.getMaxLon() == null || request.getZoom() == null) {
+            throw new BadRequestException("Viewport bounds and zoom are required");
+        }
+        if (request.getMinLat() < -90 || request.getMaxLat() > 90 || request.getMinLat() > request.getMaxLat()) {
+            throw new BadRequestException("Latitude bounds must satisfy -90 <= minLat <= maxLat <= 90");
+        }
+        if (request.getMinLon() < -180 || request.getMaxLon() > 180 || request.getMinLon() > request.getMaxLon()) {
+            throw new BadRequestException("Longitude bounds must satisfy -180 <= minLon <= maxLon <= 180; "
+                    + "split a viewport crossing the antimeridian in two");
+        }
+        if (request.getZoom() < 0 || request.getZoom() > MAX_ZOOM) {
+            throw new BadRequestException("Zoom must be between 0 and " + MAX_ZOOM);
+        }
+    }
+
+    /**
+     * @return Viewport as [minLat, maxLat, minLon, maxLon]
+     */
+    public static double[] boundingBox(MapSearchRequest request) {
+        return new double[] {request.getMinLat(), request.getMaxLat(), request.getMinLon(), request.getMaxLon()};
+    }
+
+    /**
+     * Side in degrees of the grid cells for the zoom level, doubled until the viewport spans at most
+     * {@value #MAX_CELLS_PER_AXIS} cells per axis. Always a power of two fraction of 360, so exact in a double.
+     */
+    public static double cellSize(MapSearchRequest request) {
+        double cellSize = 360.0 / (1L << (request.getZoom() + CELLS_PER_TILE_SHIFT));
+        double span = Math.max(request.getMaxLat() - request.getMinLat(), request.getMaxLon() - request.getMinLon());
+        while (span / cellSize > MAX_CELLS_PER_AXIS && cellSize < 360) {
+            cellSize *= 2;
+        }
+        return cellSize;
+    }
+
+    public static ListingMapResponse toPinResponse(List<ListingMapPinDto> pins, double cellSize) {
+        return ListingMapResponse.builder()
+                .totalCount((long) pins.size())
+                .cellSize(cellSize)
+                .clusters(List.of())
+                .pins(pins.stream()
+                        .map(pin -> ListingMapResponse.Pin.builder()
+                                .listingId(pin.getId())
+                                .latitude(pin.getLatitude())
+                                .longitude(pin.getLongitude())
+                                .price(pin.getPrice())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    // Cells in grid order, south to north then west to east, whichever path computed them
+    public static ListingMapResponse toClusterResponse(List<ListingMapCellDto> cells, double cellSize) {
+        return ListingMapResponse.builder()
+                .totalCount(cells.stream().mapToLong(ListingMapCellDto::getListingCount).sum())
+                .cellSize(cellSize)
+                .clusters(cells.stream()
+                        .sorted(Comparator.comparing(ListingMapCellDto::getLatCell)
+                                .thenComparing(ListingMapCellDto::getLonCell))
+                        .map(cell -> ListingMapResponse.Cluster.builder()
+                                .latitude(cell.getLatitude())
+                                .longitude(cell.getLongitude())
+                                .count(cell.getListingCount())
+                                .minPrice(cell.getMinPrice())
+                                .build())
+                        .toList())
+                .pins(List.of())
+                .build();
+    }
+}
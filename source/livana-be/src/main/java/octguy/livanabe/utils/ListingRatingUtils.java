@@ -0,0 +1,60 @@
+package octguy.livanabe.utils;
+
+import octguy.livanabe.dto.dto.ListingRatingDto;
+import octguy.livanabe.dto.dto.ListingRatingRowDto;
+import octguy.livanabe.entity.BaseListing;
+
+import java.util.List;
+
+/**
+ * Utility class reading the review aggregates stored on a listing row, so no review query is needed
+ */
+public final class ListingRatingUtils {
+
+    // A listing starts as if it had 5 reviews of 3.5 stars, so a single 5-star review does not rank it first
+    private static final double PRIOR_RATING = 3.5;
+    private static final int PRIOR_REVIEWS = 5;
+
+    private ListingRatingUtils() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    public static ListingRatingDto toRating(BaseListing listing) {
+        return ListingRatingDto.builder()
+                .average(averageRating(listing))
+                .count(listing.getRatingCount())
+                .histogram(List.of(listing.getRatingCount1(), listing.getRatingCount2(), listing.getRatingCount3(),
+                        listing.getRatingCount4(), listing.getRatingCount5()))
+                .build();
+    }
+
+    public static ListingRatingDto toRating(ListingRatingRowDto row) {
+        return ListingRatingDto.builder()
+                .average(averageRating(row.getRatingSum(), row.getRatingCount()))
+                .count(row.getRatingCount())
+                .histogram(List.of(row.getRatingCount1(), row.getRatingCount2(), row.getRatingCount3(),
+                        row.getRatingCount4(), row.getRatingCount5()))
+                .build();
+    }
+
+    /**
+     * @return Mean star rating rounded to one decimal, null without reviews
+     */
+    public static Double averageRating(BaseListing listing) {
+        return averageRating(listing.getRatingSum(), listing.getRatingCount());
+    }
+
+    public static Double averageRating(int ratingSum, int ratingCount) {
+        if (ratingCount == 0) {
+            return null;
+        }
+        return Math.round(ratingSum * 10.0 / ratingCount) / 10.0;
+    }
+
+    /**
+     * @return Mean star rating pulled towards the prior, for ranking listings with few reviews against the rest
+     */
+    public static double priorAdjustedRating(int ratingSum, int ratingCount) {
+        return (ratingSum + PRIOR_RATING * PRIOR_REVIEWS) / (ratingCount + PRIOR_REVIEWS);
+    }
+}
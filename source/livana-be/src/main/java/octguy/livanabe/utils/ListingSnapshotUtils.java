@@ -0,0 +1,77 @@
+package octguy.livanabe.utils;
+
+import octguy.livanabe.dto.dto.RecommendationCardRowDto;
+import octguy.livanabe.repository.BaseListingRepository;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Utility class shared by the recommendation and ranking snapshots: area cells, bounded top lists and the display
+ * fields of the listings they keep
+ */
+public final class ListingSnapshotUtils {
+
+    // Area cells of half a degree, about 55 km north to south
+    private static final double CELL_DEGREES = 0.5;
+    private static final int CARD_BATCH_SIZE = 1000;
+
+    private ListingSnapshotUtils() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * @return Area cell of a point, its latitude cell in the high 32 bits and its longitude cell in the low ones
+     */
+    public static long cellOf(double latitude, double longitude) {
+        return cellOf((long) Math.floor(latitude / CELL_DEGREES), (long) Math.floor(longitude / CELL_DEGREES));
+    }
+
+    public static long cellOf(long latCell, long lonCell) {
+        return (latCell << 32) | (lonCell & 0xffffffffL);
+    }
+
+    public static long latCellOf(long cell) {
+        return cell >> 32;
+    }
+
+    public static long lonCellOf(long cell) {
+        return (int) cell;
+    }
+
+    /**
+     * Worst first, so a bounded heap drops the worst entry; ties by id keep builds deterministic
+     */
+    public static <T> Comparator<T> worstFirst(ToDoubleFunction<T> score, Function<T, UUID> id) {
+        return Comparator.comparingDouble(score).thenComparing(id, Comparator.reverseOrder());
+    }
+
+    /**
+     * Add an entry to a heap ordered by {@link #worstFirst}, dropping the worst once it holds more than limit
+     */
+    public static <T> void offer(PriorityQueue<T> heap, T entry, int limit) {
+        heap.add(entry);
+        if (heap.size() > limit) {
+            heap.poll();
+        }
+    }
+
+    /**
+     * Display fields of the given listings by id, read in batches; deleted listings are still returned
+     */
+    public static Map<UUID, RecommendationCardRowDto> loadCards(BaseListingRepository baseListingRepository,
+                                                                List<UUID> ids) {
+        Map<UUID, RecommendationCardRowDto> cards = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += CARD_BATCH_SIZE) {
+            baseListingRepository.findRecommendationCards(ids.subList(from, Math.min(from + CARD_BATCH_SIZE, ids.size())))
+                    .forEach(row -> cards.put(row.getId(), row));
+        }
+        return cards;
+    }
+}
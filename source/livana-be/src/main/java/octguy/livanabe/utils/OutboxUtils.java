@@ -0,0 +1,54 @@
+package octguy.livanabe.utils;
+
+import octguy.livanabe.entity.OutboxEntry;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Utility class for the lease and retry bookkeeping of the outbox dispatchers.
+ * <p>
+ * A row is due once its next attempt time has passed. A dispatcher that picks up a row pushes that time past a lease,
+ * so other dispatchers skip it while it is in flight, and after a failure pushes it out with exponential backoff.
+ */
+public final class OutboxUtils {
+
+    private OutboxUtils() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Hide freshly locked rows from other dispatchers until the lease runs out
+     */
+    public static <T extends OutboxEntry> List<T> lease(List<T> rows, LocalDateTime now, long leaseMs) {
+        LocalDateTime leaseUntil = now.plus(leaseMs, ChronoUnit.MILLIS);
+        rows.forEach(row -> row.setNextAttemptAt(leaseUntil));
+        return rows;
+    }
+
+    /**
+     * Delay before the next attempt after a given number of failed ones: base, 2 x base, 4 x base ... capped
+     */
+    public static long backoffMs(int attempts, long baseMs, long maxMs) {
+        return Math.min(maxMs, baseMs << Math.min(attempts - 1, 20));
+    }
+
+    /**
+     * Count a failed attempt on the row and schedule the next one with backoff.
+     *
+     * @return false when the row has used up its attempts; it is left untouched and the caller drops it
+     */
+    public static boolean scheduleRetry(OutboxEntry row, Exception error, LocalDateTime now,
+                                        int maxAttempts, long backoffBaseMs, long backoffMaxMs) {
+        int attempts = row.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            return false;
+        }
+
+        row.setAttempts(attempts);
+        row.setLastError(error.getMessage());
+        row.setNextAttemptAt(now.plus(backoffMs(attempts, backoffBaseMs, backoffMaxMs), ChronoUnit.MILLIS));
+        return true;
+    }
+}
@@ -0,0 +1,44 @@
+package octguy.livanabe.utils;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Utility class for the period buckets of the dashboard and host statistics.
+ * <p>
+ * Bucket i covers [startDate + i units, startDate + (i + 1) units). Adding months or years clamps to the end of a
+ * shorter month (January 31st plus one month is February 28th or 29th) exactly like PostgreSQL interval arithmetic,
+ * so the buckets computed in SQL by PeriodBucketQueries match the ones labelled here.
+ */
+public class PeriodBucketUtils {
+
+    /**
+     * Unit of a DAY, MONTH or YEAR period; anything else counts as DAY
+     */
+    public static ChronoUnit getUnit(String period) {
+        return switch (period.toUpperCase()) {
+            case "MONTH" -> ChronoUnit.MONTHS;
+            case "YEAR" -> ChronoUnit.YEARS;
+            default -> ChronoUnit.DAYS;
+        };
+    }
+
+    /**
+     * First day of a bucket
+     */
+    public static LocalDate getBucketStart(LocalDate startDate, ChronoUnit unit, int bucket) {
+        return startDate.plus(bucket, unit);
+    }
+
+    /**
+     * Bucket a day falls into: the last one starting on or before it
+     */
+    public static int getBucket(LocalDate startDate, ChronoUnit unit, LocalDate date) {
+        // between() stops one short when a clamped start (February 28th from January 31st) is already reached
+        int bucket = (int) unit.between(startDate, date);
+        while (!getBucketStart(startDate, unit, bucket + 1).isAfter(date)) {
+            bucket++;
+        }
+        return bucket;
+    }
+}
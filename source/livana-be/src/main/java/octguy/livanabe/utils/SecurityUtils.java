@@ -1,19 +1,24 @@
 package octguy.livanabe.utils;
 
 import octguy.livanabe.entity.CustomUserDetails;
-import octguy.livanabe.entity.User;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.util.UUID;
+
 public final class SecurityUtils {
 
     private SecurityUtils() {
         throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
     }
 
-    public static User getCurrentUser() {
+    // Id, username, roles and enabled flag of the authenticated user; load the User by id when the entity is needed
+    public static CustomUserDetails getCurrentPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        CustomUserDetails customUserDetails = (CustomUserDetails) authentication.getPrincipal();
-        return customUserDetails.getUser();
+        return (CustomUserDetails) authentication.getPrincipal();
+    }
+
+    public static UUID getCurrentUserId() {
+        return getCurrentPrincipal().getId();
     }
 }
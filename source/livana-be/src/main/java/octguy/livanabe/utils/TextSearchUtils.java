@@ -0,0 +1,50 @@
+package octguy.livanabe.utils;
+
+import octguy.livanabe.exception.BadRequestException;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Utility class for building keyword search queries
+ */
+public class TextSearchUtils {
+
+    private static final int MAX_TERMS = 10;
+
+    /**
+     * Normalize raw user input: composed Unicode (input methods may send decomposed diacritics),
+     * lower case and single spaces. Diacritics themselves are folded in the database.
+     */
+    public static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        return Normalizer.normalize(query, Normalizer.Form.NFC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+
+    /**
+     * Build a tsquery matching every term as a prefix, so results show up while the last word is still being typed.
+     * Only letters, combining marks and digits are kept, so the result is always valid tsquery syntax.
+     *
+     * @param normalizedQuery Output of {@link #normalize(String)}
+     * @return e.g. {@code nha:* & ha:* & noi:*}
+     * @throws BadRequestException if the query contains no searchable term
+     */
+    public static String toPrefixQuery(String normalizedQuery) {
+        String tsQuery = Arrays.stream(normalizedQuery.split("[^\\p{L}\\p{M}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_TERMS)
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+        if (tsQuery.isEmpty()) {
+            throw new BadRequestException("Search query must contain letters or digits");
+        }
+        return tsQuery;
+    }
+}
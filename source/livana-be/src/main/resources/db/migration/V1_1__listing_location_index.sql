@@ -0,0 +1,5 @@
+-- Nearest-listing search narrows candidates with a latitude/longitude bounding box before sorting by distance.
+-- Every script up to V2 uses IF NOT EXISTS: a database created by ddl-auto from a later build already has them.
+
+create index if not exists idx_base_listing_lat_lon
+    on base_listing (latitude, longitude);
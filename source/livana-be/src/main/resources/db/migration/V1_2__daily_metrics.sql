@@ -0,0 +1,16 @@
+-- Daily rollup of the dashboard counters, one row per scope (the platform or a host) and day.
+
+create table if not exists daily_metrics (
+    experience_revenue numeric(14,2) not null,
+    home_revenue numeric(14,2) not null,
+    metric_date date not null,
+    experience_bookings bigint not null,
+    home_bookings bigint not null,
+    new_experience_listings bigint not null,
+    new_home_listings bigint not null,
+    new_users bigint not null,
+    id uuid not null,
+    scope_id uuid not null,
+    primary key (id),
+    constraint uk_daily_metrics_scope_date unique (scope_id, metric_date)
+);
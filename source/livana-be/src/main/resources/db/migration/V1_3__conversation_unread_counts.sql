@@ -0,0 +1,17 @@
+-- Unread counters per participant, kept on the conversation instead of counting unread messages per request.
+
+alter table conversation
+    add column if not exists user1_unread_count integer default 0 not null,
+    add column if not exists user2_unread_count integer default 0 not null;
+
+update conversation c
+set user1_unread_count = counts.user1_unread,
+    user2_unread_count = counts.user2_unread
+from (select cv.id,
+             count(m.id) filter (where m.sender_id <> cv.user1_id) as user1_unread,
+             count(m.id) filter (where m.sender_id <> cv.user2_id) as user2_unread
+      from conversation cv
+      left join message m on m.conversation_id = cv.id and m.is_read = false and m.deleted_at is null
+      group by cv.id) counts
+where c.id = counts.id
+  and (c.user1_unread_count <> counts.user1_unread or c.user2_unread_count <> counts.user2_unread);
@@ -0,0 +1,4 @@
+-- Chat history is paged by (created_at, id) within a conversation.
+
+create index if not exists idx_message_conversation_created_id
+    on message (conversation_id, created_at, id);
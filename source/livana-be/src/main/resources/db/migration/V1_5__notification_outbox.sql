@@ -0,0 +1,13 @@
+-- Notifications written in the same transaction as the change they report, published to the broker afterwards.
+
+create table if not exists notification_outbox (
+    attempts integer not null,
+    created_at timestamp(6) not null,
+    id uuid not null,
+    recipient_id uuid not null,
+    payload text not null,
+    primary key (id)
+);
+
+create index if not exists idx_notification_outbox_created_at
+    on notification_outbox (created_at);
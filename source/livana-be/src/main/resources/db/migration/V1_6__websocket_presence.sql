@@ -0,0 +1,17 @@
+-- WebSocket sessions per node, so a message for a user is routed to the nodes holding their sessions.
+
+create table if not exists websocket_presence (
+    refreshed_at timestamp(6) not null,
+    id uuid not null,
+    user_id uuid not null,
+    node_id varchar(100) not null,
+    session_id varchar(100) not null,
+    primary key (id),
+    constraint uk_websocket_presence_session_user unique (session_id, user_id)
+);
+
+create index if not exists idx_websocket_presence_user_id
+    on websocket_presence (user_id);
+
+create index if not exists idx_websocket_presence_node_id
+    on websocket_presence (node_id);
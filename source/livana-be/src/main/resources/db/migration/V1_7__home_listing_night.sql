@@ -0,0 +1,14 @@
+-- One row per booked night of a home; the unique key rejects a second booking of the same night.
+-- Nights of bookings made before this table existed are filled in by the availability resync.
+
+create table if not exists home_listing_night (
+    night date not null,
+    booking_id uuid not null,
+    home_listing_id uuid not null,
+    id uuid not null,
+    primary key (id),
+    constraint uk_home_listing_night_listing_night unique (home_listing_id, night)
+);
+
+create index if not exists idx_home_listing_night_booking
+    on home_listing_night (booking_id);
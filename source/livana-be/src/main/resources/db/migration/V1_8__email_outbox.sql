@@ -0,0 +1,16 @@
+-- Emails queued in the transaction of the action that sends them and delivered by the sender pool.
+
+create table if not exists email_outbox (
+    attempts integer not null,
+    created_at timestamp(6) not null,
+    next_attempt_at timestamp(6) not null,
+    id uuid not null,
+    body text not null,
+    last_error text,
+    recipient varchar(255) not null,
+    subject varchar(255) not null,
+    primary key (id)
+);
+
+create index if not exists idx_email_outbox_next_attempt_at
+    on email_outbox (next_attempt_at);
@@ -0,0 +1,489 @@
+-- Baseline schema, equivalent to what ddl-auto produced from the entities before migrations were introduced.
+-- Databases that already have this schema are baselined at version 1 and skip this script.
+
+create table amenity (
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    name varchar(100) not null,
+    icon varchar(255),
+    primary key (id)
+);
+
+create table auth_credential (
+    verfication_code varchar(6),
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    last_password_change_at timestamp(6),
+    updated_at timestamp(6),
+    verification_expiration timestamp(6),
+    id uuid not null,
+    user_id uuid not null unique,
+    password varchar(200) not null,
+    primary key (id)
+);
+
+create table base_listing (
+    base_price numeric(10,2) not null,
+    capacity integer not null,
+    is_available boolean not null,
+    latitude float(53) not null,
+    longitude float(53) not null,
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    updated_at timestamp(6),
+    host_id uuid not null,
+    id uuid not null,
+    title varchar(200) not null,
+    address varchar(300) not null,
+    description varchar(1000) not null,
+    primary key (id)
+);
+
+create table booking (
+    is_paid boolean,
+    total_price numeric(10,2) not null,
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    updated_at timestamp(6),
+    host_id uuid not null,
+    id uuid not null,
+    status varchar(255) not null check (status in ('PENDING','CONFIRMED','CANCELLED')),
+    primary key (id)
+);
+
+create table conversation (
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    last_message_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    user1_id uuid not null,
+    user2_id uuid not null,
+    last_message_content varchar(500),
+    primary key (id),
+    unique (user1_id, user2_id)
+);
+
+create table experience_booking (
+    quantity integer,
+    id uuid not null,
+    session_id uuid not null,
+    primary key (id)
+);
+
+create table experience_category (
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    icon varchar(255),
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+create table experience_listing (
+    experience_category_id uuid not null,
+    id uuid not null,
+    primary key (id)
+);
+
+create table experience_session (
+    booked_participants integer not null,
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    end_time timestamp(6) not null,
+    start_time timestamp(6) not null,
+    updated_at timestamp(6),
+    experience_listing_id uuid not null,
+    id uuid not null,
+    session_status varchar(255) not null check (session_status in ('ACTIVE','FULL','CANCELLED')),
+    primary key (id)
+);
+
+create table facility (
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    name varchar(100) not null,
+    icon varchar(255),
+    primary key (id)
+);
+
+create table home_amenity (
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    updated_at timestamp(6),
+    amenity_id uuid,
+    id uuid not null,
+    listing_id uuid,
+    description varchar(255),
+    primary key (id)
+);
+
+create table home_booking (
+    guests integer not null,
+    check_in_time timestamp(6) not null,
+    check_out_time timestamp(6) not null,
+    home_listing_id uuid not null,
+    id uuid not null,
+    primary key (id)
+);
+
+create table home_facility (
+    quantity integer not null,
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    updated_at timestamp(6),
+    facility_id uuid,
+    id uuid not null,
+    listing_id uuid,
+    primary key (id)
+);
+
+create table home_listing (
+    id uuid not null,
+    property_type_id uuid not null,
+    primary key (id)
+);
+
+create table interest (
+    icon text not null,
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    key varchar(50) not null unique,
+    name varchar(100) not null,
+    primary key (id)
+);
+
+create table listing_image (
+    image_order integer not null,
+    is_thumbnail boolean not null,
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    listing_id uuid,
+    image_public_id varchar(255) not null,
+    image_url varchar(255) not null,
+    primary key (id)
+);
+
+create table message (
+    is_read boolean not null,
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    file_size bigint,
+    updated_at timestamp(6),
+    conversation_id uuid not null,
+    id uuid not null,
+    sender_id uuid not null,
+    file_type varchar(100),
+    file_url varchar(500),
+    content varchar(2000),
+    file_name varchar(255),
+    message_type varchar(255) not null check (message_type in ('TEXT','IMAGE','FILE')),
+    primary key (id)
+);
+
+create table notification (
+    is_read boolean not null,
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    recipient_id uuid not null,
+    reference_id uuid,
+    title varchar(200) not null,
+    message varchar(500) not null,
+    type varchar(255) not null check (type in ('BOOKING_HOME','BOOKING_EXPERIENCE','BOOKING_CONFIRMED','BOOKING_CANCELLED','NEW_REVIEW','SYSTEM')),
+    primary key (id)
+);
+
+create table password_reset_token (
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    expiration timestamp(6) not null,
+    updated_at timestamp(6),
+    id uuid not null,
+    user_id uuid not null unique,
+    token varchar(200) not null,
+    primary key (id)
+);
+
+create table payment (
+    amount numeric(15,2) not null,
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    payment_time timestamp(6),
+    updated_at timestamp(6),
+    booking_id uuid not null,
+    id uuid not null,
+    user_id uuid not null,
+    bank_code varchar(255),
+    card_type varchar(255),
+    order_info varchar(255),
+    payment_method varchar(255) not null check (payment_method in ('VNPAY','CASH')),
+    response_code varchar(255),
+    status varchar(255) not null check (status in ('PENDING','SUCCESS','FAILED','REFUNDED')),
+    transaction_id varchar(255),
+    vnpay_transaction_no varchar(255),
+    primary key (id)
+);
+
+create table property_type (
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    icon varchar(255),
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+create table refresh_token (
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    expiration timestamp(6) not null,
+    updated_at timestamp(6),
+    id uuid not null,
+    user_id uuid not null unique,
+    token varchar(200) not null,
+    primary key (id)
+);
+
+create table review (
+    rating integer not null,
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    listing_id uuid not null,
+    reviewer_id uuid not null,
+    comment varchar(1000),
+    review_type varchar(255) not null check (review_type in ('HOME_LISTING','EXPERIENCE_LISTING')),
+    primary key (id)
+);
+
+create table "role" (
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    name varchar(50) not null unique check (name in ('ROLE_ADMIN','ROLE_USER','ROLE_MODERATOR')),
+    primary key (id)
+);
+
+create table role_user (
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    updated_at timestamp(6),
+    role_id uuid not null,
+    user_id uuid not null,
+    primary key (role_id, user_id)
+);
+
+create table "user" (
+    enabled boolean not null,
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    last_login_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    email varchar(50) not null unique,
+    username varchar(50) not null unique,
+    status varchar(255) not null check (status in ('ACTIVE','INACTIVE','BANNED','PENDING_VERIFICATION')),
+    primary key (id)
+);
+
+create table user_interest (
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    updated_at timestamp(6),
+    interest_id uuid not null,
+    user_id uuid not null,
+    primary key (interest_id, user_id)
+);
+
+create table user_profile (
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    updated_at timestamp(6),
+    phone_number varchar(15),
+    id uuid not null,
+    user_id uuid not null unique,
+    display_name varchar(100) not null,
+    avatar_public_id varchar(200),
+    avatar_url varchar(200),
+    bio varchar(500),
+    primary key (id)
+);
+
+alter table if exists auth_credential
+    add constraint FKc4o50iig537ctjr7b2e9tj5rh
+    foreign key (user_id)
+    references "user";
+
+alter table if exists base_listing
+    add constraint FKoywb7ohpefk6iyvdblchusj3p
+    foreign key (host_id)
+    references "user";
+
+alter table if exists booking
+    add constraint FK58jtaj5a3t78sfdgk2xrykrw2
+    foreign key (host_id)
+    references "user";
+
+alter table if exists conversation
+    add constraint FKt6t55a0iyshthcrs8nsihl9b
+    foreign key (user1_id)
+    references "user";
+
+alter table if exists conversation
+    add constraint FKer70n6hu07nnqn6yjwli2nf12
+    foreign key (user2_id)
+    references "user";
+
+alter table if exists experience_booking
+    add constraint FK1ge9yqkvwgmuxxc4vwex2xilk
+    foreign key (session_id)
+    references experience_session;
+
+alter table if exists experience_booking
+    add constraint FKsr46luki8vrrg8iravd9navkk
+    foreign key (id)
+    references booking;
+
+alter table if exists experience_listing
+    add constraint FKluos94is4xgmycfxrai4hek7q
+    foreign key (experience_category_id)
+    references experience_category;
+
+alter table if exists experience_listing
+    add constraint FKihhv2yqb8xagfj6761uoxhvtn
+    foreign key (id)
+    references base_listing;
+
+alter table if exists experience_session
+    add constraint FKrlg5psr24wbaxv0gwf4q964y5
+    foreign key (experience_listing_id)
+    references experience_listing;
+
+alter table if exists home_amenity
+    add constraint FKhiqohighp2a834i5ffmytw7tb
+    foreign key (amenity_id)
+    references amenity;
+
+alter table if exists home_amenity
+    add constraint FKdxrigje0bhwqoo3u2ixhq7s2v
+    foreign key (listing_id)
+    references home_listing;
+
+alter table if exists home_booking
+    add constraint FK6onbfbqmq3ua0nqoax3573y1g
+    foreign key (home_listing_id)
+    references home_listing;
+
+alter table if exists home_booking
+    add constraint FK42tuscy85ujx4aqj5jky57l72
+    foreign key (id)
+    references booking;
+
+alter table if exists home_facility
+    add constraint FKj97ri34dld46opm5qv33r4ljk
+    foreign key (facility_id)
+    references facility;
+
+alter table if exists home_facility
+    add constraint FKp73pael1r8je2jyju4uq5m3pj
+    foreign key (listing_id)
+    references home_listing;
+
+alter table if exists home_listing
+    add constraint FK9ky9gwosg20dk2uviw1qvs5la
+    foreign key (property_type_id)
+    references property_type;
+
+alter table if exists home_listing
+    add constraint FKqki3nejkx69wsg32yu6vsynrj
+    foreign key (id)
+    references base_listing;
+
+alter table if exists listing_image
+    add constraint FKp3dfmgxl9akh4aap7514lyk0o
+    foreign key (listing_id)
+    references base_listing;
+
+alter table if exists message
+    add constraint FK6yskk3hxw5sklwgi25y6d5u1l
+    foreign key (conversation_id)
+    references conversation;
+
+alter table if exists message
+    add constraint FK49xxdqy6p6kxedwvpjyuvnkf
+    foreign key (sender_id)
+    references "user";
+
+alter table if exists notification
+    add constraint FKsv355x4lp3kcj16rp7u4eju20
+    foreign key (recipient_id)
+    references "user";
+
+alter table if exists password_reset_token
+    add constraint FKopijiiwpt01x008euhjywip27
+    foreign key (user_id)
+    references "user";
+
+alter table if exists payment
+    add constraint FKqewrl4xrv9eiad6eab3aoja65
+    foreign key (booking_id)
+    references booking;
+
+alter table if exists payment
+    add constraint FKcp0yo0h2iv9p04x3ydel5ymjs
+    foreign key (user_id)
+    references "user";
+
+alter table if exists refresh_token
+    add constraint FK172n6374f2cgiei2vtvjw2fak
+    foreign key (user_id)
+    references "user";
+
+alter table if exists review
+    add constraint FKt0bd0rccni002t5kvdu30qfyx
+    foreign key (listing_id)
+    references base_listing;
+
+alter table if exists review
+    add constraint FK8l40hgqc1woa2m6xjap0r30jp
+    foreign key (reviewer_id)
+    references "user";
+
+alter table if exists role_user
+    add constraint FKd21l9rawh9ncub4mf8a3aka6v
+    foreign key (role_id)
+    references "role";
+
+alter table if exists role_user
+    add constraint FKpjv2s6x8v8qul80rrtjxj31bs
+    foreign key (user_id)
+    references "user";
+
+alter table if exists user_interest
+    add constraint FKb2c20k2dqknrm5t337typ3s1b
+    foreign key (interest_id)
+    references interest;
+
+alter table if exists user_interest
+    add constraint FKjavxua3565xa4gtonnf9nai51
+    foreign key (user_id)
+    references "user";
+
+alter table if exists user_profile
+    add constraint FKqcd5nmg7d7ement27tt9sf3bi
+    foreign key (user_id)
+    references "user";
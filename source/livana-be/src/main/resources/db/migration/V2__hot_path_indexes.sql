@@ -0,0 +1,81 @@
+-- Indexes for the lookups on the request paths that previously fell back to sequential scans.
+-- Tables whose entity carries @SQLRestriction("deleted_at IS NULL") get partial indexes with the same
+-- predicate: every entity query includes it, and soft-deleted rows stay out of the index.
+
+-- Listings and bookings
+create index if not exists idx_base_listing_host
+    on base_listing (host_id) where deleted_at is null;
+
+create index if not exists idx_base_listing_created_at
+    on base_listing (created_at) where deleted_at is null;
+
+create index if not exists idx_home_listing_property_type
+    on home_listing (property_type_id);
+
+create index if not exists idx_experience_listing_category
+    on experience_listing (experience_category_id);
+
+-- booking.host_id holds the customer who made the booking
+create index if not exists idx_booking_customer
+    on booking (host_id) where deleted_at is null;
+
+create index if not exists idx_booking_created_at
+    on booking (created_at) where deleted_at is null;
+
+create index if not exists idx_home_booking_listing_check_in
+    on home_booking (home_listing_id, check_in_time);
+
+create index if not exists idx_experience_session_listing_start
+    on experience_session (experience_listing_id, start_time) where deleted_at is null;
+
+create index if not exists idx_experience_booking_session
+    on experience_booking (session_id);
+
+-- Listing details
+create index if not exists idx_listing_image_listing_order
+    on listing_image (listing_id, image_order) where deleted_at is null;
+
+create index if not exists idx_home_amenity_listing
+    on home_amenity (listing_id) where deleted_at is null;
+
+create index if not exists idx_home_facility_listing
+    on home_facility (listing_id) where deleted_at is null;
+
+create index if not exists idx_review_listing_created_at
+    on review (listing_id, created_at) where deleted_at is null;
+
+create index if not exists idx_review_reviewer
+    on review (reviewer_id) where deleted_at is null;
+
+-- Users
+create index if not exists idx_user_created_at
+    on "user" (created_at) where deleted_at is null;
+
+create index if not exists idx_role_user_user
+    on role_user (user_id);
+
+create index if not exists idx_user_interest_user
+    on user_interest (user_id);
+
+create index if not exists idx_refresh_token_token
+    on refresh_token (token) where deleted_at is null;
+
+create index if not exists idx_password_reset_token_token
+    on password_reset_token (token) where deleted_at is null;
+
+-- Messaging and notifications; unique (user1_id, user2_id) already serves the user1 side
+create index if not exists idx_conversation_user2
+    on conversation (user2_id) where deleted_at is null;
+
+create index if not exists idx_notification_recipient_read_created_at
+    on notification (recipient_id, is_read, created_at) where deleted_at is null;
+
+-- Payments
+create index if not exists idx_payment_booking
+    on payment (booking_id) where deleted_at is null;
+
+create index if not exists idx_payment_user
+    on payment (user_id) where deleted_at is null;
+
+create index if not exists idx_payment_transaction
+    on payment (transaction_id) where deleted_at is null;
@@ -0,0 +1,34 @@
+-- Keyword search over listing title, address and description.
+-- Text is folded with unaccent (Vietnamese diacritics and đ become plain ASCII) and tokenized with the
+-- 'simple' configuration, which has no stemming or stop words that would fit Vietnamese.
+
+create extension if not exists unaccent;
+create extension if not exists pg_trgm;
+
+-- unaccent() is only STABLE because its dictionary could be changed; pinning the dictionary makes it
+-- usable in generated columns and index expressions
+create or replace function immutable_unaccent(text)
+    returns text
+    language sql
+    immutable
+    parallel safe
+    strict
+as $$
+select public.unaccent('public.unaccent'::regdictionary, $1)
+$$;
+
+-- Maintained by Postgres on every insert and update, so the index never drifts from the listing
+alter table base_listing
+    add column if not exists search_vector tsvector
+        generated always as (
+            setweight(to_tsvector('simple', immutable_unaccent(coalesce(title, ''))), 'A') ||
+            setweight(to_tsvector('simple', immutable_unaccent(coalesce(address, ''))), 'B') ||
+            setweight(to_tsvector('simple', immutable_unaccent(coalesce(description, ''))), 'C')
+        ) stored;
+
+create index if not exists idx_base_listing_search_vector
+    on base_listing using gin (search_vector) where deleted_at is null;
+
+-- Typo-tolerant matching on the title
+create index if not exists idx_base_listing_title_trgm
+    on base_listing using gin (immutable_unaccent(lower(title)) gin_trgm_ops) where deleted_at is null;
@@ -0,0 +1,33 @@
+-- Review aggregates kept on the listing row, so listing responses carry ratings without touching review.
+-- The review service adjusts them in the transaction that writes a review; a daily resync corrects drift.
+-- The average is rating_sum / rating_count, kept exact by storing the sum.
+
+alter table base_listing
+    add column if not exists rating_count integer not null default 0,
+    add column if not exists rating_sum integer not null default 0,
+    add column if not exists rating_count_1 integer not null default 0,
+    add column if not exists rating_count_2 integer not null default 0,
+    add column if not exists rating_count_3 integer not null default 0,
+    add column if not exists rating_count_4 integer not null default 0,
+    add column if not exists rating_count_5 integer not null default 0;
+
+update base_listing b
+set rating_count = r.total_count,
+    rating_sum = r.total_sum,
+    rating_count_1 = r.count_1,
+    rating_count_2 = r.count_2,
+    rating_count_3 = r.count_3,
+    rating_count_4 = r.count_4,
+    rating_count_5 = r.count_5
+from (select listing_id,
+             count(*) as total_count,
+             sum(rating) as total_sum,
+             count(*) filter (where rating = 1) as count_1,
+             count(*) filter (where rating = 2) as count_2,
+             count(*) filter (where rating = 3) as count_3,
+             count(*) filter (where rating = 4) as count_4,
+             count(*) filter (where rating = 5) as count_5
+      from review
+      where deleted_at is null
+      group by listing_id) r
+where b.id = r.listing_id;
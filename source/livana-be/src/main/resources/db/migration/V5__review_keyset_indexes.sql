@@ -0,0 +1,12 @@
+-- Keyset pages of the reviews of a listing. Newest first walks (created_at, id) backwards; highest and lowest
+-- rated walk one star rating at a time, newest first within it. The id column breaks ties between reviews
+-- written in the same instant, so a page resumes exactly after the last review of the previous one.
+
+create index if not exists idx_review_listing_created_at_id
+    on review (listing_id, created_at, id) where deleted_at is null;
+
+create index if not exists idx_review_listing_rating_created_at_id
+    on review (listing_id, rating, created_at, id) where deleted_at is null;
+
+-- Superseded by idx_review_listing_created_at_id
+drop index if exists idx_review_listing_created_at;
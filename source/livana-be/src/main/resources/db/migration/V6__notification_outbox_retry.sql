@@ -0,0 +1,15 @@
+-- Notification outbox retries: a row is leased while its batch is in flight and pushed back with exponential
+-- backoff after a failed publish, so the relay picks rows by next_attempt_at instead of created_at.
+
+alter table notification_outbox add column if not exists next_attempt_at timestamp(6);
+alter table notification_outbox add column if not exists last_error text;
+
+update notification_outbox set next_attempt_at = created_at where next_attempt_at is null;
+
+alter table notification_outbox alter column next_attempt_at set not null;
+
+create index if not exists idx_notification_outbox_next_attempt_at
+    on notification_outbox (next_attempt_at);
+
+-- Superseded by idx_notification_outbox_next_attempt_at
+drop index if exists idx_notification_outbox_created_at;
@@ -1,10 +1,11 @@
 package octguy.livanabe;
 
+import octguy.livanabe.support.PostgresIntegrationTest;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
 @SpringBootTest
-class LivanaBeApplicationTests {
+class LivanaBeApplicationTests extends PostgresIntegrationTest {
 
 	@Test
 	void contextLoads() {
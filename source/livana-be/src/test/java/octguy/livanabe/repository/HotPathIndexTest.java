@@ -0,0 +1,250 @@
+package octguy.livanabe.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import octguy.livanabe.support.PostgresIntegrationTest;
+import octguy.livanabe.support.RecordingStatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the indexes behind the hot read paths. Every statement the listed repository methods issue is planned
+ * generically over the analyzed demo data with sequential scans and hash or merge joins disabled; a table still read
+ * by a Seq Scan, or by an index scan without an index condition (a full index walk), has no index for that lookup.
+ * The keyword and title similarity searches must in addition be driven by their GIN index.
+ */
+@SpringBootTest(properties = {
+        "app.seed.enabled=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "octguy.livanabe.support.RecordingStatementInspector"
+})
+class HotPathIndexTest extends PostgresIntegrationTest {
+
+    private static final Pattern PARAMETER = Pattern.compile("\\?");
+    private static final String SEARCH_TERM_CALL = "immutable_unaccent(";
+    private static final int FILLER_ROWS = 20_000;
+    private static final String FILLER_LISTINGS = "INSERT INTO base_listing (id, host_id, title, address, " +
+            "description, base_price, capacity, is_available, latitude, longitude, created_at) " +
+            "SELECT gen_random_uuid(), (SELECT host_id FROM base_listing LIMIT 1), 'Filler ' || i, 'Filler street', " +
+            "'Filler description', 100, 2, true, 0, 0, now() FROM generate_series(1, ?) i";
+    private static final Set<String> TEXT_INDEXES = Set.of("idx_base_listing_search_vector", "idx_base_listing_title_trgm");
+
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private HomeListingRepository homeListingRepository;
+    @Autowired private ExperienceListingRepository experienceListingRepository;
+    @Autowired private ExperienceSessionRepository experienceSessionRepository;
+    @Autowired private HomeBookingRepository homeBookingRepository;
+    @Autowired private ExperienceBookingRepository experienceBookingRepository;
+    @Autowired private HomeListingNightRepository homeListingNightRepository;
+    @Autowired private ListingImageRepository listingImageRepository;
+    @Autowired private HomeAmenityRepository homeAmenityRepository;
+    @Autowired private HomeFacilityRepository homeFacilityRepository;
+    @Autowired private ReviewRepository reviewRepository;
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private ConversationRepository conversationRepository;
+    @Autowired private MessageRepository messageRepository;
+    @Autowired private UserInterestRepository userInterestRepository;
+    @Autowired private RefreshTokenRepository refreshTokenRepository;
+    @Autowired private PasswordResetTokenRepository passwordResetTokenRepository;
+    @Autowired private PaymentRepository paymentRepository;
+
+    @Test
+    void hotPathsDoNotScanWholeTables() {
+        UUID id = UUID.randomUUID();
+        Set<UUID> ids = Set.of(id, UUID.randomUUID());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = LocalDate.now();
+
+        Map<String, Runnable> calls = new LinkedHashMap<>();
+        calls.put("user by username", () -> userRepository.findByUsernameWithRoles("guest"));
+        calls.put("user by id with roles", () -> userRepository.findByIdWithRoles(id));
+        calls.put("users per bucket", () -> userRepository.countUsersCreatedPerBucket("DAY", now.minusDays(7), now));
+        calls.put("home listings by host", () -> homeListingRepository.findByHostIdWithHostAndPropertyType(id));
+        calls.put("experience listings by host", () -> experienceListingRepository.findByHostIdWithHostAndCategory(id));
+        calls.put("sessions by listing", () -> experienceSessionRepository.findByExperienceListingIdOrderByStartTimeAsc(id));
+        calls.put("home bookings by customer", () -> homeBookingRepository.findByCustomerId(id));
+        calls.put("home bookings by listing", () -> homeBookingRepository.findByHomeListingId(id));
+        calls.put("experience bookings by customer", () -> experienceBookingRepository.findByCustomerId(id));
+        calls.put("experience bookings by session", () -> experienceBookingRepository.findBySessionId(id));
+        calls.put("booked nights", () -> homeListingNightRepository.findBookedNights(id, today, today.plusDays(7)));
+        calls.put("images by listings", () -> listingImageRepository.findByListingIdInOrderByImageOrderAsc(ids));
+        calls.put("amenities by listings", () -> homeAmenityRepository.findByListingIdIn(ids));
+        calls.put("facilities by listings", () -> homeFacilityRepository.findByListingIdIn(ids));
+        calls.put("review page", () -> reviewRepository.findNewestPage(id, now, id, 20));
+        calls.put("reviews by reviewer", () -> reviewRepository.findByReviewerIdOrderByCreatedAtDesc(id));
+        calls.put("unread notifications", () -> notificationRepository.findByRecipientIdAndIsReadFalseOrderByCreatedAtDesc(id));
+        calls.put("unread notification count", () -> notificationRepository.countUnreadByRecipientId(id));
+        calls.put("inbox page", () -> conversationRepository.findInboxPage(id, PageRequest.of(0, 20)));
+        calls.put("inbox page after cursor", () -> conversationRepository.findInboxPageAfter(id, now, id, PageRequest.of(0, 20)));
+        calls.put("conversation between users", () -> conversationRepository.findByUserIds(id, UUID.randomUUID()));
+        calls.put("messages before cursor", () -> messageRepository.findBeforeCursor(id, now, id, PageRequest.of(0, 50)));
+        calls.put("messages after cursor", () -> messageRepository.findAfterCursor(id, now, id, PageRequest.of(0, 50)));
+        calls.put("interests of user", () -> userInterestRepository.findInterestIdsByUserId(id));
+        calls.put("refresh token", () -> refreshTokenRepository.findByToken("token"));
+        calls.put("password reset token", () -> passwordResetTokenRepository.findByToken("token"));
+        calls.put("payments by booking", () -> paymentRepository.findByBookingId(id));
+        calls.put("payments by user", () -> paymentRepository.findByUserId(id));
+        calls.put("payment by transaction", () -> paymentRepository.findByTransactionId("transaction"));
+
+        // Planner statistics for the seeded rows, otherwise every path over the empty-looking tables costs the same
+        jdbcTemplate.execute("ANALYZE");
+
+        List<String> fullScans = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            // Local to this transaction, so no other test sees the planner settings
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            // Nested loops only, so each joined table has to be reached through an index on the join key rather
+            // than hashed whole, which the planner would rightly prefer for the few seeded rows
+            jdbcTemplate.execute("SET LOCAL enable_hashjoin = off");
+            jdbcTemplate.execute("SET LOCAL enable_mergejoin = off");
+            jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+            calls.forEach((name, call) -> {
+                List<String> statements = RecordingStatementInspector.record(call);
+                assertThat(statements).as(name).isNotEmpty();
+                for (String sql : statements) {
+                    JsonNode plan = explain(sql, null);
+                    List<String> scans = new ArrayList<>();
+                    collectFullScans(plan.path(0).path("Plan"), scans);
+                    if (!scans.isEmpty()) {
+                        fullScans.add(name + " " + scans + ":\n" + sql + "\n" + plan.toPrettyString());
+                    }
+                }
+            });
+            status.setRollbackOnly();
+        });
+
+        assertThat(fullScans).as("statements that read a whole table").isEmpty();
+    }
+
+    @Test
+    void textSearchesUseTheTextIndexes() {
+        // A generic plan knows nothing of the search term, so these are planned for a real one
+        Map<String, Runnable> calls = new LinkedHashMap<>();
+        calls.put("home text search", () -> homeListingRepository.searchByText(
+                "villa:*", null, null, null, null, null, null, null, null, 20));
+        calls.put("home text facets", () -> homeListingRepository.countFacetsByText(
+                "villa:*", null, null, null, null, null, null));
+        calls.put("home title similarity", () -> homeListingRepository.searchByTitleSimilarity(
+                "villa", null, null, null, null, null, null, null, null, 20));
+        calls.put("home title similarity facets", () -> homeListingRepository.countFacetsByTitleSimilarity(
+                "villa", null, null, null, null, null, null));
+        calls.put("experience text search", () -> experienceListingRepository.searchByText(
+                "cooking:*", null, null, null, null, null, null, 20));
+        calls.put("experience text facets", () -> experienceListingRepository.countFacetsByText(
+                "cooking:*", null, null, null, null));
+        calls.put("experience title similarity", () -> experienceListingRepository.searchByTitleSimilarity(
+                "cooking", null, null, null, null, null, null, 20));
+        calls.put("experience title similarity facets", () -> experienceListingRepository.countFacetsByTitleSimilarity(
+                "cooking", null, null, null, null));
+
+        List<String> misses = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            // The few seeded listings fit in a page or two, which any index walks more cheaply than a GIN lookup;
+            // unrelated listings, rolled back with the transaction, give the tables a realistic size
+            jdbcTemplate.update(FILLER_LISTINGS, FILLER_ROWS);
+            jdbcTemplate.update("INSERT INTO home_listing (id, property_type_id) " +
+                    "SELECT b.id, (SELECT property_type_id FROM home_listing LIMIT 1) FROM base_listing b " +
+                    "WHERE b.title LIKE 'Filler %' AND right(b.title, 1) IN ('0', '2', '4', '6', '8')");
+            jdbcTemplate.update("INSERT INTO experience_listing (id, experience_category_id) " +
+                    "SELECT b.id, (SELECT experience_category_id FROM experience_listing LIMIT 1) FROM base_listing b " +
+                    "WHERE b.title LIKE 'Filler %' AND right(b.title, 1) IN ('1', '3', '5', '7', '9')");
+            // Freshly inserted rows wait in the GIN pending lists until a vacuum, which the planner charges for
+            jdbcTemplate.queryForList("SELECT gin_clean_pending_list(CAST(index_name AS regclass)) " +
+                    "FROM unnest(CAST(ARRAY['idx_base_listing_search_vector', 'idx_base_listing_title_trgm'] " +
+                    "AS text[])) index_name");
+            jdbcTemplate.execute("ANALYZE base_listing, home_listing, experience_listing");
+
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            jdbcTemplate.execute("SET LOCAL enable_hashjoin = off");
+            jdbcTemplate.execute("SET LOCAL enable_mergejoin = off");
+            jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_custom_plan");
+            calls.forEach((name, call) -> {
+                List<String> statements = RecordingStatementInspector.record(call);
+                assertThat(statements).as(name).isNotEmpty();
+                for (String sql : statements) {
+                    String term = name.startsWith("home") ? "villa" : "cooking";
+                    JsonNode plan = explain(sql, sql.contains("to_tsquery") ? term + ":*" : term);
+                    List<String> scans = new ArrayList<>();
+                    collectFullScans(plan.path(0).path("Plan"), scans);
+                    List<String> indexes = new ArrayList<>();
+                    collectIndexes(plan.path(0).path("Plan"), indexes);
+                    if (!scans.isEmpty() || Collections.disjoint(indexes, TEXT_INDEXES)) {
+                        misses.add(name + " " + scans + " " + indexes + ":\n" + sql + "\n" + plan.toPrettyString());
+                    }
+                }
+            });
+            status.setRollbackOnly();
+        });
+
+        assertThat(misses).as("text searches not driven by a text index").isEmpty();
+    }
+
+    // The statement is prepared server-side with $1, $2, ... where JDBC has ? and executed under EXPLAIN. Every
+    // argument is NULL, which does not matter for a forced generic plan, except the search term passed to
+    // immutable_unaccent when one is given
+    private JsonNode explain(String sql, String searchTerm) {
+        Matcher matcher = PARAMETER.matcher(sql);
+        StringBuilder numbered = new StringBuilder();
+        List<String> arguments = new ArrayList<>();
+        while (matcher.find()) {
+            boolean term = searchTerm != null && sql.startsWith(SEARCH_TERM_CALL, matcher.start() - SEARCH_TERM_CALL.length());
+            arguments.add(term ? "'" + searchTerm + "'" : "NULL");
+            matcher.appendReplacement(numbered, Matcher.quoteReplacement("$" + arguments.size()));
+        }
+        matcher.appendTail(numbered);
+
+        jdbcTemplate.execute("PREPARE hot_path AS " + numbered);
+        try {
+            String argumentList = arguments.isEmpty() ? "" : "(" + String.join(", ", arguments) + ")";
+            String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) EXECUTE hot_path" + argumentList, String.class);
+            return objectMapper.readTree(plan);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable plan for " + sql, e);
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE hot_path");
+        }
+    }
+
+    private static void collectIndexes(JsonNode node, List<String> indexes) {
+        if (node.has("Index Name")) {
+            indexes.add(node.path("Index Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectIndexes(child, indexes);
+        }
+    }
+
+    private static void collectFullScans(JsonNode node, List<String> scans) {
+        String type = node.path("Node Type").asText();
+        boolean walksIndex = type.equals("Index Scan") || type.equals("Index Only Scan") || type.equals("Bitmap Index Scan");
+        if (type.equals("Seq Scan") || walksIndex && !node.has("Index Cond")) {
+            scans.add(type + " on " + node.path(walksIndex ? "Index Name" : "Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectFullScans(child, scans);
+        }
+    }
+}
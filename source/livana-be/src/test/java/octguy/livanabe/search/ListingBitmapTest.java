@@ -0,0 +1,180 @@
+package octguy.livanabe.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks ListingBitmap against java.util.BitSet as the reference set, with most operations landing around the
+ * 4096-value limit where a container switches between its array and bitmap form.
+ */
+class ListingBitmapTest {
+
+    private static final int ARRAY_MAX = 4096;
+
+    @Test
+    void containerSwitchesFormAtTheArrayLimitAndBack() {
+        ListingBitmap bitmap = new ListingBitmap();
+        BitSet reference = new BitSet();
+
+        // Every other value, so the container can neither be a full range nor a run
+        for (int i = 0; i <= ARRAY_MAX; i++) {
+            bitmap.add(i * 2);
+            reference.set(i * 2);
+            assertSameSet(bitmap, reference);
+        }
+        for (int i = ARRAY_MAX; i >= 0; i--) {
+            bitmap.remove(i * 2);
+            reference.clear(i * 2);
+            assertSameSet(bitmap, reference);
+        }
+        assertThat(bitmap.isEmpty()).isTrue();
+    }
+
+    @Test
+    void addingOrRemovingTwiceChangesNothing() {
+        ListingBitmap bitmap = new ListingBitmap();
+        BitSet reference = new BitSet();
+        for (int i = 0; i < ARRAY_MAX + 10; i++) {
+            bitmap.add(i);
+            bitmap.add(i);
+            reference.set(i);
+        }
+        assertSameSet(bitmap, reference);
+
+        for (int i = 0; i < 20; i++) {
+            bitmap.remove(i);
+            bitmap.remove(i);
+            bitmap.remove(i + (1 << 20)); // key that was never added
+            reference.clear(i);
+        }
+        assertSameSet(bitmap, reference);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 4, 5, 6, 7, 8})
+    void randomOperationsMatchBitSet(long seed) {
+        Random random = new Random(seed);
+        ListingBitmap bitmap = new ListingBitmap();
+        BitSet reference = new BitSet();
+
+        // Three keys, values clustered so each container crosses the array limit in both directions
+        int range = 3 << 16;
+        for (int step = 0; step < 60_000; step++) {
+            int ordinal = random.nextInt(range);
+            if (random.nextInt(100) < (step < 30_000 ? 70 : 30)) {
+                bitmap.add(ordinal);
+                reference.set(ordinal);
+            } else {
+                bitmap.remove(ordinal);
+                reference.clear(ordinal);
+            }
+            if (step % 5_000 == 0) {
+                assertSameSet(bitmap, reference);
+            }
+        }
+        assertSameSet(bitmap, reference);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 100, ARRAY_MAX - 1, ARRAY_MAX, ARRAY_MAX + 1, 20_000, 65_536})
+    void intersectionMatchesBitSet(int sizeOfLeft) {
+        Random random = new Random(sizeOfLeft);
+        BitSet left = new BitSet();
+        BitSet right = new BitSet();
+        int range = 2 << 16;
+        while (left.cardinality() < Math.min(sizeOfLeft, range)) {
+            left.set(random.nextInt(range));
+        }
+        for (int sizeOfRight : new int[]{0, 1, ARRAY_MAX, ARRAY_MAX + 1, 40_000, range}) {
+            right.clear();
+            while (right.cardinality() < sizeOfRight) {
+                right.set(random.nextInt(range));
+            }
+            ListingBitmap a = toBitmap(left);
+            ListingBitmap b = toBitmap(right);
+
+            BitSet expected = (BitSet) left.clone();
+            expected.and(right);
+            assertSameSet(a.and(b), expected);
+            assertSameSet(b.and(a), expected);
+            assertThat(a.andCardinality(b)).isEqualTo(expected.cardinality());
+            assertThat(b.andCardinality(a)).isEqualTo(expected.cardinality());
+            // The operands are left untouched
+            assertSameSet(a, left);
+            assertSameSet(b, right);
+        }
+    }
+
+    @Test
+    void intersectionOfDenseHalvesDropsBackToArrays() {
+        BitSet left = new BitSet();
+        BitSet right = new BitSet();
+        left.set(0, 10_000);
+        right.set(10_000 - ARRAY_MAX, 20_000);
+
+        BitSet expected = (BitSet) left.clone();
+        expected.and(right);
+        ListingBitmap result = toBitmap(left).and(toBitmap(right));
+        assertSameSet(result, expected);
+
+        // The result is still editable across the limit
+        result.add(20_001);
+        expected.set(20_001);
+        result.remove(10_000 - ARRAY_MAX);
+        expected.clear(10_000 - ARRAY_MAX);
+        assertSameSet(result, expected);
+    }
+
+    @Test
+    void copyIsIndependentOfTheOriginal() {
+        BitSet reference = new BitSet();
+        reference.set(0, ARRAY_MAX + 1);
+        reference.set(1 << 16);
+        ListingBitmap original = toBitmap(reference);
+        ListingBitmap copy = original.copy();
+
+        copy.remove(0);
+        copy.remove(1 << 16);
+        copy.add(5 << 16);
+
+        assertSameSet(original, reference);
+        BitSet copied = (BitSet) reference.clone();
+        copied.clear(0);
+        copied.clear(1 << 16);
+        copied.set(5 << 16);
+        assertSameSet(copy, copied);
+    }
+
+    private static ListingBitmap toBitmap(BitSet set) {
+        ListingBitmap bitmap = new ListingBitmap();
+        set.stream().forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static void assertSameSet(ListingBitmap bitmap, BitSet reference) {
+        assertThat(bitmap.cardinality()).isEqualTo(reference.cardinality());
+        assertThat(bitmap.isEmpty()).isEqualTo(reference.isEmpty());
+
+        BitSet visited = new BitSet();
+        int[] previous = {-1};
+        boolean[] ascending = {true};
+        bitmap.forEach(ordinal -> {
+            ascending[0] &= ordinal > previous[0];
+            previous[0] = ordinal;
+            visited.set(ordinal);
+        });
+        assertThat(ascending[0]).as("ordinals visited in ascending order").isTrue();
+        assertThat(visited).isEqualTo(reference);
+
+        // Probe members and their neighbours
+        assertThat(reference.stream().limit(2_000)
+                .allMatch(ordinal -> bitmap.contains(ordinal) && bitmap.contains(ordinal + 1) == reference.get(ordinal + 1)))
+                .isTrue();
+    }
+}
@@ -0,0 +1,90 @@
+package octguy.livanabe.search;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that the vector kernel keeps exactly the rows the scalar one keeps, on random columns with removed (NaN)
+ * rows, filter values landing on the bounds, and scan ranges that end in tail rows shorter than a vector.
+ */
+class ListingScanKernelTest {
+
+    private static final int ROWS = 3 * ListingColumns.BLOCK_SIZE + 37;
+    private static final int GROUPS = 4;
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 4, 5})
+    void vectorKernelKeepsTheRowsOfTheScalarOne(long seed) {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+                "needs --add-modules jdk.incubator.vector");
+        ListingScanKernel scalar = new ScalarListingScanKernel();
+        ListingScanKernel vector = new VectorListingScanKernel();
+
+        Random random = new Random(seed);
+        ListingColumns columns = randomColumns(random);
+        int[] expected = new int[ROWS];
+        int[] actual = new int[ROWS];
+        int kept = 0;
+        for (int query = 0; query < 200; query++) {
+            ListingScanKernel.Bounds bounds = randomBounds(random);
+            // Whole blocks, like the search index scans them, and ranges with unaligned ends
+            int from = query % 2 == 0 ? 0 : random.nextInt(ROWS);
+            int to = query % 2 == 0 ? ROWS : from + random.nextInt(ROWS - from + 1);
+
+            int n = scalar.scan(columns, from, to, bounds, expected);
+            int m = vector.scan(columns, from, to, bounds, actual);
+            assertThat(Arrays.copyOf(actual, m))
+                    .as("rows [%d, %d) with %s", from, to, bounds)
+                    .containsExactly(Arrays.copyOf(expected, n));
+            kept += n;
+        }
+        assertThat(kept).isPositive();
+    }
+
+    private static ListingColumns randomColumns(Random random) {
+        ListingColumns columns = new ListingColumns(ROWS);
+        UUID[] ids = new UUID[ROWS];
+        for (int row = 0; row < ROWS; row++) {
+            ids[row] = new UUID(random.nextLong(), random.nextLong());
+            // Coarse prices and capacities, so the filters often compare equal values
+            columns.append(ids[row],
+                    10 + 2 * random.nextDouble(),
+                    106 + 2 * random.nextDouble(),
+                    100_00L * random.nextInt(20),
+                    1 + random.nextInt(8),
+                    random.nextInt(10) == 0 ? ListingColumns.NO_GROUP : random.nextInt(GROUPS));
+        }
+        // Removed rows keep their slot with a NaN latitude, including some in the tail
+        for (int i = 0; i < ROWS / 20; i++) {
+            columns.remove(ids[random.nextInt(ROWS)]);
+        }
+        columns.remove(ids[ROWS - 1]);
+        return columns;
+    }
+
+    private static ListingScanKernel.Bounds randomBounds(Random random) {
+        double centerLat = 10 + 2 * random.nextDouble();
+        double centerLon = 106 + 2 * random.nextDouble();
+        double halfSide = 0.05 + random.nextDouble();
+        double lat = Math.toRadians(centerLat);
+        double lon = Math.toRadians(centerLon);
+        double maxChord2 = random.nextDouble() * 4e-4;
+        double minChord2 = random.nextBoolean() ? Double.NEGATIVE_INFINITY : maxChord2 * random.nextDouble();
+        boolean priced = random.nextBoolean();
+        return new ListingScanKernel.Bounds(
+                centerLat - halfSide, centerLat + halfSide, centerLon - halfSide, centerLon + halfSide,
+                Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat),
+                minChord2, maxChord2,
+                priced ? 100_00L * random.nextInt(10) : Long.MIN_VALUE,
+                priced ? 100_00L * (10 + random.nextInt(10)) : Long.MAX_VALUE,
+                random.nextBoolean() ? 1 + random.nextInt(8) : Integer.MIN_VALUE,
+                random.nextBoolean() ? -1 : random.nextInt(GROUPS));
+    }
+}
@@ -0,0 +1,156 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.dto.request.CreateExperienceBookingRequest;
+import octguy.livanabe.dto.request.CreateHomeBookingRequest;
+import octguy.livanabe.dto.request.CreateHomeListingRequest;
+import octguy.livanabe.dto.request.RegisterRequest;
+import octguy.livanabe.service.implementation.UserDetailsServiceImpl;
+import octguy.livanabe.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the write paths that increment the daily metrics (users created and deleted, listings created and deleted,
+ * bookings created, confirmed and cancelled), then checks that the incremented rows are exactly what a rebuild from
+ * the source tables produces.
+ */
+@SpringBootTest(properties = "app.seed.enabled=true")
+class DailyMetricRollupTest extends PostgresIntegrationTest {
+
+    // Rows left at zero by the increments are not written by a rebuild, so both sides skip them
+    private static final String METRIC_ROWS = "SELECT scope_id, metric_date, new_users, new_home_listings, " +
+            "new_experience_listings, home_bookings, experience_bookings, home_revenue, experience_revenue " +
+            "FROM daily_metrics WHERE new_users <> 0 OR new_home_listings <> 0 OR new_experience_listings <> 0 " +
+            "OR home_bookings <> 0 OR experience_bookings <> 0 OR home_revenue <> 0 OR experience_revenue <> 0 " +
+            "ORDER BY scope_id, metric_date";
+
+    @Autowired private IDailyMetricService dailyMetricService;
+    @Autowired private IAuthService authService;
+    @Autowired private IAdminUserService adminUserService;
+    @Autowired private IHomeListingService homeListingService;
+    @Autowired private IHomeBookingService homeBookingService;
+    @Autowired private IExperienceBookingService experienceBookingService;
+    @Autowired private UserDetailsServiceImpl userDetailsService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void incrementsMatchARebuild() {
+        dailyMetricService.rebuild(null, null);
+
+        // Users: one created and kept, one created and deleted
+        UUID keptUserId = createUser("rollup-kept");
+        UUID deletedUserId = createUser("rollup-deleted");
+        adminUserService.deleteUser(deletedUserId);
+
+        // Home listing created by a seeded host, booked, and finally deleted with its bookings
+        Map<String, Object> host = jdbcTemplate.queryForMap(
+                "SELECT u.id, u.username FROM \"user\" u JOIN base_listing l ON l.host_id = u.id " +
+                "WHERE l.deleted_at IS NULL ORDER BY u.id LIMIT 1");
+        UUID hostId = (UUID) host.get("id");
+        UUID newListingId = createHomeListing((String) host.get("username"));
+
+        LocalDate stay = LocalDate.now().plusYears(6);
+        UUID confirmed = bookHome(newListingId, keptUserId, stay);
+        UUID cancelled = bookHome(newListingId, keptUserId, stay.plusDays(10));
+        homeBookingService.confirmBooking(confirmed, hostId);
+        homeBookingService.confirmBooking(cancelled, hostId);
+        homeBookingService.cancelBooking(cancelled, keptUserId);
+
+        // Bookings on a seeded listing, which stay in the counters; the last one, as the booking concurrency test
+        // counts every future stay of the first
+        Map<String, Object> seededHome = jdbcTemplate.queryForMap(
+                "SELECT l.id, l.host_id FROM base_listing l JOIN home_listing h ON h.id = l.id " +
+                "WHERE l.deleted_at IS NULL AND l.host_id <> ? ORDER BY l.id DESC LIMIT 1", hostId);
+        UUID seededConfirmed = bookHome((UUID) seededHome.get("id"), keptUserId, stay.plusDays(20));
+        UUID seededPending = bookHome((UUID) seededHome.get("id"), keptUserId, stay.plusDays(30));
+        UUID seededCancelled = bookHome((UUID) seededHome.get("id"), keptUserId, stay.plusDays(40));
+        homeBookingService.confirmBooking(seededConfirmed, (UUID) seededHome.get("host_id"));
+        homeBookingService.cancelBooking(seededCancelled, keptUserId);
+        assertThat(seededPending).isNotNull();
+
+        Map<String, Object> session = jdbcTemplate.queryForMap(
+                "SELECT s.id, b.host_id FROM experience_session s " +
+                "JOIN base_listing b ON b.id = s.experience_listing_id " +
+                "WHERE s.session_status = 'ACTIVE' AND s.deleted_at IS NULL AND b.deleted_at IS NULL " +
+                "ORDER BY s.id LIMIT 1");
+        UUID experienceConfirmed = bookExperience((UUID) session.get("id"), keptUserId);
+        UUID experienceCancelled = bookExperience((UUID) session.get("id"), keptUserId);
+        experienceBookingService.confirmBooking(experienceConfirmed, (UUID) session.get("host_id"));
+        experienceBookingService.confirmBooking(experienceCancelled, (UUID) session.get("host_id"));
+        experienceBookingService.cancelBooking(experienceCancelled, keptUserId);
+
+        homeListingService.deleteHomeListing(newListingId);
+
+        List<Map<String, Object>> incremented = jdbcTemplate.queryForList(METRIC_ROWS);
+        dailyMetricService.rebuild(null, null);
+        List<Map<String, Object>> rebuilt = jdbcTemplate.queryForList(METRIC_ROWS);
+
+        assertThat(incremented).isNotEmpty();
+        assertThat(incremented).containsExactlyElementsOf(rebuilt);
+    }
+
+    private UUID createUser(String username) {
+        RegisterRequest request = new RegisterRequest();
+        request.setFirstName("Rollup");
+        request.setLastName("Test");
+        request.setEmail(username + "@example.com");
+        request.setUsername(username);
+        request.setPassword("Password123!");
+        authService.createAdmin(request);
+        return jdbcTemplate.queryForObject("SELECT id FROM \"user\" WHERE username = ?", UUID.class, username);
+    }
+
+    private UUID createHomeListing(String hostUsername) {
+        // Listings are created by the authenticated host
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                userDetailsService.loadPrincipal(hostUsername).orElseThrow(), null, List.of()));
+
+        CreateHomeListingRequest request = new CreateHomeListingRequest();
+        request.setTitle("Rollup test home");
+        request.setDescription("Home created by the daily metrics test");
+        request.setPrice(BigDecimal.valueOf(120));
+        request.setCapacity(2);
+        request.setAddress("1 Test Street");
+        request.setLatitude(10.77);
+        request.setLongitude(106.70);
+        request.setPropertyTypeId(jdbcTemplate.queryForObject(
+                "SELECT property_type_id FROM home_listing LIMIT 1", UUID.class));
+        request.setFacilityRequests(List.of());
+        request.setAmenityIds(List.of());
+        return homeListingService.createHomeListing(request).getListingId();
+    }
+
+    private UUID bookHome(UUID listingId, UUID customerId, LocalDate checkIn) {
+        CreateHomeBookingRequest request = new CreateHomeBookingRequest();
+        request.setHomeListingId(listingId);
+        request.setCheckInTime(checkIn.atTime(14, 0));
+        request.setCheckOutTime(checkIn.plusDays(2).atTime(11, 0));
+        request.setGuests(1);
+        return homeBookingService.createBooking(request, customerId).getId();
+    }
+
+    private UUID bookExperience(UUID sessionId, UUID customerId) {
+        CreateExperienceBookingRequest request = new CreateExperienceBookingRequest();
+        request.setSessionId(sessionId);
+        request.setQuantity(1);
+        return experienceBookingService.createBooking(request, customerId).getId();
+    }
+}
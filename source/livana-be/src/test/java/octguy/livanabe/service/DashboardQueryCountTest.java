@@ -0,0 +1,62 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.dto.response.ComparisonStatsResponse;
+import octguy.livanabe.dto.response.PeriodStatsResponse;
+import octguy.livanabe.support.PostgresIntegrationTest;
+import octguy.livanabe.support.RecordingStatementInspector;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the grouped period statistics: each metric is one statement whatever the number of day buckets, and the
+ * buckets still add up to the rows created in the range.
+ */
+@SpringBootTest(properties = {
+        "app.seed.enabled=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "octguy.livanabe.support.RecordingStatementInspector"
+})
+class DashboardQueryCountTest extends PostgresIntegrationTest {
+
+    // Users, home and experience listings, home and experience bookings, home and experience revenue
+    private static final int PERIOD_METRICS = 7;
+    // The same without users
+    private static final int COMPARISON_METRICS = 6;
+
+    @Autowired private IDashboardService dashboardService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @ValueSource(ints = {30, 365})
+    void oneStatementPerMetricForADayRange(int days) {
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(days - 1);
+
+        List<PeriodStatsResponse> period = new ArrayList<>();
+        List<String> periodStatements = RecordingStatementInspector.record(() ->
+                period.add(dashboardService.getPeriodStats("DAY", startDate, endDate)));
+        List<ComparisonStatsResponse> comparison = new ArrayList<>();
+        List<String> comparisonStatements = RecordingStatementInspector.record(() ->
+                comparison.add(dashboardService.getComparisonStats("DAY", startDate, endDate)));
+
+        assertThat(periodStatements).hasSize(PERIOD_METRICS);
+        assertThat(comparisonStatements).hasSize(COMPARISON_METRICS);
+
+        List<PeriodStatsResponse.DataPoint> userGrowth = period.get(0).getUserGrowth();
+        assertThat(userGrowth).hasSize(days);
+        assertThat(comparison.get(0).getBookingComparison()).hasSize(days);
+        long newUsers = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"user\" WHERE deleted_at IS NULL AND created_at >= ? AND created_at < ?",
+                Long.class, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+        assertThat(userGrowth.stream().mapToLong(PeriodStatsResponse.DataPoint::getValue).sum()).isEqualTo(newUsers);
+    }
+}
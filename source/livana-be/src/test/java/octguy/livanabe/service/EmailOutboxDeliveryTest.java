@@ -0,0 +1,160 @@
+package octguy.livanabe.service;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import jakarta.mail.BodyPart;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import jakarta.mail.internet.MimeMessage;
+import octguy.livanabe.dto.request.ForgotPasswordRequest;
+import octguy.livanabe.dto.request.RegisterRequest;
+import octguy.livanabe.enums.EmailTemplate;
+import octguy.livanabe.repository.EmailOutboxRepository;
+import octguy.livanabe.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sends the auth emails through the outbox to a local SMTP server (GreenMail). Queued emails must arrive rendered
+ * and leave the outbox; while the server is down they must stay queued with their failed attempts counted, and go
+ * out once it is back.
+ */
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "app.email.smtp-timeout-ms=2000",
+        "app.email.outbox.poll-interval-ms=100",
+        "app.email.outbox.backoff-base-ms=200",
+        "app.email.outbox.backoff-max-ms=500"
+})
+class EmailOutboxDeliveryTest extends PostgresIntegrationTest {
+
+    private static final int SMTP_PORT = freePort();
+    private static final Duration TIMEOUT = Duration.ofSeconds(15);
+
+    @Autowired private IAuthService authService;
+    @Autowired private EmailOutboxRepository emailOutboxRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private GreenMail mailServer;
+
+    @DynamicPropertySource
+    static void smtp(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.port", () -> SMTP_PORT);
+    }
+
+    @AfterEach
+    void stopMailServer() {
+        if (mailServer != null) {
+            mailServer.stop();
+        }
+    }
+
+    @Test
+    void queuedEmailsReachTheMailServer() throws Exception {
+        startMailServer();
+
+        authService.register(registerRequest("outbox-mail"));
+        ForgotPasswordRequest forgotPassword = new ForgotPasswordRequest();
+        forgotPassword.setEmail("outbox-mail@example.com");
+        authService.requestPasswordReset(forgotPassword);
+
+        assertThat(mailServer.waitForIncomingEmail(TIMEOUT.toMillis(), 2)).isTrue();
+        Map<String, MimeMessage> bySubject = Map.of(
+                mailServer.getReceivedMessages()[0].getSubject(), mailServer.getReceivedMessages()[0],
+                mailServer.getReceivedMessages()[1].getSubject(), mailServer.getReceivedMessages()[1]);
+
+        String code = jdbcTemplate.queryForObject(
+                "SELECT c.verfication_code FROM auth_credential c JOIN \"user\" u ON u.id = c.user_id " +
+                "WHERE u.username = 'outbox-mail'", String.class);
+        String token = jdbcTemplate.queryForObject(
+                "SELECT t.token FROM password_reset_token t JOIN \"user\" u ON u.id = t.user_id " +
+                "WHERE u.username = 'outbox-mail'", String.class);
+        MimeMessage verification = bySubject.get(EmailTemplate.VERIFICATION.getSubject());
+        MimeMessage reset = bySubject.get(EmailTemplate.PASSWORD_RESET.getSubject());
+        assertThat(verification.getAllRecipients()[0]).hasToString("outbox-mail@example.com");
+        assertThat(html(verification)).contains(code).doesNotContain("{{");
+        assertThat(html(reset)).contains("/reset-password?token=" + token).doesNotContain("{{");
+
+        assertThat(await(() -> emailOutboxRepository.count() == 0)).as("sent emails leave the outbox").isTrue();
+    }
+
+    @Test
+    void emailsWaitForTheMailServerToComeBack() throws Exception {
+        authService.register(registerRequest("outbox-retry"));
+
+        assertThat(await(() -> emailOutboxRepository.findAll().stream()
+                .anyMatch(email -> email.getAttempts() >= 2 && email.getLastError() != null)))
+                .as("failed sends are counted and retried").isTrue();
+
+        startMailServer();
+        assertThat(mailServer.waitForIncomingEmail(TIMEOUT.toMillis(), 1)).isTrue();
+        assertThat(mailServer.getReceivedMessages()[0].getAllRecipients()[0]).hasToString("outbox-retry@example.com");
+        assertThat(await(() -> emailOutboxRepository.count() == 0)).as("sent emails leave the outbox").isTrue();
+    }
+
+    private void startMailServer() {
+        mailServer = new GreenMail(new ServerSetup(SMTP_PORT, "localhost", ServerSetup.PROTOCOL_SMTP));
+        // Same account as the SUPPORT_EMAIL / APP_PASSWORD the base class sets
+        mailServer.setUser("support@example.com", "support@example.com", "test");
+        mailServer.start();
+    }
+
+    private static RegisterRequest registerRequest(String username) {
+        RegisterRequest request = new RegisterRequest();
+        request.setFirstName("Outbox");
+        request.setLastName("Test");
+        request.setEmail(username + "@example.com");
+        request.setUsername(username);
+        request.setPassword("Password123!");
+        return request;
+    }
+
+    // Decoded HTML part of a (possibly multipart) message
+    private static String html(Part part) throws Exception {
+        if (part.isMimeType("text/html")) {
+            return (String) part.getContent();
+        }
+        if (part.getContent() instanceof Multipart multipart) {
+            for (int i = 0; i < multipart.getCount(); i++) {
+                BodyPart bodyPart = multipart.getBodyPart(i);
+                String html = html(bodyPart);
+                if (html != null) {
+                    return html;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.dto.request.CreateExperienceBookingRequest;
+import octguy.livanabe.exception.BadRequestException;
+import octguy.livanabe.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Books one experience session from many threads at once, then cancels every new booking in parallel. The
+ * conditional seat updates must keep booked_participants within the capacity and equal to the seats held by the
+ * active bookings, and the session must be FULL exactly when no seat is left.
+ */
+@SpringBootTest(properties = "app.seed.enabled=true")
+class ExperienceSeatConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 32;
+    private static final int REQUESTS = 1000;
+
+    @Autowired private IExperienceBookingService experienceBookingService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void parallelBookingsNeverOversellASession() throws Exception {
+        Map<String, Object> session = jdbcTemplate.queryForMap(
+                "SELECT s.id, b.capacity, b.host_id FROM experience_session s " +
+                "JOIN base_listing b ON b.id = s.experience_listing_id " +
+                "WHERE s.session_status = 'ACTIVE' AND s.deleted_at IS NULL AND b.deleted_at IS NULL " +
+                "ORDER BY s.id LIMIT 1");
+        UUID sessionId = (UUID) session.get("id");
+        int capacity = ((Number) session.get("capacity")).intValue();
+        List<UUID> customers = jdbcTemplate.queryForList(
+                "SELECT id FROM \"user\" WHERE id <> ? AND deleted_at IS NULL ORDER BY id", UUID.class, session.get("host_id"));
+
+        AtomicInteger rejected = new AtomicInteger();
+        List<Reservation> reservations = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> requests = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                UUID customerId = customers.get(i % customers.size());
+                int quantity = 1 + i % 3;
+
+                requests.add(pool.submit(() -> {
+                    start.await();
+                    CreateExperienceBookingRequest request = new CreateExperienceBookingRequest();
+                    request.setSessionId(sessionId);
+                    request.setQuantity(quantity);
+                    try {
+                        UUID bookingId = experienceBookingService.createBooking(request, customerId).getId();
+                        reservations.add(new Reservation(bookingId, customerId));
+                    } catch (BadRequestException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            awaitAll(requests); // rethrows anything other than a rejected booking
+
+            assertThat(reservations).isNotEmpty();
+            assertThat(rejected.get()).isPositive();
+            assertSeatsMatchBookings(sessionId, capacity);
+
+            // Release every new booking through the cancel path, again all at once
+            List<Future<?>> cancellations = new ArrayList<>();
+            for (Reservation reservation : reservations) {
+                cancellations.add(pool.submit(() ->
+                        experienceBookingService.cancelBooking(reservation.bookingId(), reservation.customerId())));
+            }
+            awaitAll(cancellations);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertSeatsMatchBookings(sessionId, capacity);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT session_status FROM experience_session WHERE id = ?", String.class, sessionId))
+                .isEqualTo("ACTIVE");
+    }
+
+    private void assertSeatsMatchBookings(UUID sessionId, int capacity) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT booked_participants, session_status FROM experience_session WHERE id = ?", sessionId);
+        int bookedParticipants = ((Number) row.get("booked_participants")).intValue();
+        Integer heldSeats = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(e.quantity), 0) FROM experience_booking e JOIN booking b ON b.id = e.id " +
+                "WHERE e.session_id = ? AND b.status <> 'CANCELLED' AND b.deleted_at IS NULL",
+                Integer.class, sessionId);
+
+        assertThat(bookedParticipants).isLessThanOrEqualTo(capacity);
+        assertThat(bookedParticipants).isEqualTo(heldSeats);
+        assertThat(row.get("session_status")).isEqualTo(bookedParticipants == capacity ? "FULL" : "ACTIVE");
+    }
+
+    private static void awaitAll(List<Future<?>> futures) throws Exception {
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private record Reservation(UUID bookingId, UUID customerId) {
+    }
+}
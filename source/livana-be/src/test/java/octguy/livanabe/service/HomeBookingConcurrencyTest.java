@@ -0,0 +1,127 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.dto.request.CreateHomeBookingRequest;
+import octguy.livanabe.exception.BadRequestException;
+import octguy.livanabe.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Books one home from many threads at once with random, mostly overlapping stays. The night rows must keep the
+ * committed bookings apart: no two active bookings share a night, and the listing has exactly one night row per
+ * booked night.
+ */
+@SpringBootTest(properties = "app.seed.enabled=true")
+class HomeBookingConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final int REQUESTS = 200;
+    private static final int WINDOW_DAYS = 60;
+
+    @Autowired private IHomeBookingService homeBookingService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void parallelBookingsNeverShareANight() throws Exception {
+        Map<String, Object> listing = jdbcTemplate.queryForMap(
+                "SELECT l.id, l.host_id FROM base_listing l JOIN home_listing h ON h.id = l.id " +
+                "WHERE l.deleted_at IS NULL ORDER BY l.id LIMIT 1");
+        UUID listingId = (UUID) listing.get("id");
+        List<UUID> customers = jdbcTemplate.queryForList(
+                "SELECT id FROM \"user\" WHERE id <> ? AND deleted_at IS NULL ORDER BY id", UUID.class, listing.get("host_id"));
+
+        // Far enough ahead that no seeded booking overlaps the window
+        LocalDate windowStart = LocalDate.now().plusYears(5);
+        Random random = new Random(42);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            LocalDate checkIn = windowStart.plusDays(random.nextInt(WINDOW_DAYS));
+            LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+            UUID customerId = customers.get(i % customers.size());
+
+            requests.add(pool.submit(() -> {
+                start.await();
+                CreateHomeBookingRequest request = new CreateHomeBookingRequest();
+                request.setHomeListingId(listingId);
+                request.setCheckInTime(checkIn.atTime(14, 0));
+                request.setCheckOutTime(checkOut.atTime(11, 0));
+                request.setGuests(1);
+                try {
+                    homeBookingService.createBooking(request, customerId);
+                    booked.incrementAndGet();
+                } catch (BadRequestException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        try {
+            for (Future<?> request : requests) {
+                request.get(); // rethrows anything other than a rejected stay
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(booked.get()).isPositive();
+        assertThat(rejected.get()).isPositive();
+
+        List<Stay> stays = jdbcTemplate.query(
+                "SELECT CAST(hb.check_in_time AS date) AS check_in, CAST(hb.check_out_time AS date) AS check_out " +
+                "FROM booking b JOIN home_booking hb ON hb.id = b.id " +
+                "WHERE hb.home_listing_id = ? AND b.status <> 'CANCELLED' AND b.deleted_at IS NULL " +
+                "AND hb.check_in_time >= ?",
+                (rs, rowNum) -> new Stay(rs.getDate("check_in").toLocalDate(), rs.getDate("check_out").toLocalDate()),
+                listingId, windowStart.atStartOfDay());
+
+        assertThat(stays).hasSize(booked.get());
+        for (int i = 0; i < stays.size(); i++) {
+            for (int j = i + 1; j < stays.size(); j++) {
+                assertThat(stays.get(i).overlaps(stays.get(j)))
+                        .as("%s overlaps %s", stays.get(i), stays.get(j))
+                        .isFalse();
+            }
+        }
+
+        long bookedNights = stays.stream().mapToLong(Stay::nights).sum();
+        Long nightRows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM home_listing_night WHERE home_listing_id = ? AND night >= ?",
+                Long.class, listingId, windowStart);
+        assertThat(nightRows).isEqualTo(bookedNights);
+    }
+
+    private record Stay(LocalDate checkIn, LocalDate checkOut) {
+
+        boolean overlaps(Stay other) {
+            return checkIn.isBefore(other.checkOut) && other.checkIn.isBefore(checkOut);
+        }
+
+        long nights() {
+            return ChronoUnit.DAYS.between(checkIn, checkOut);
+        }
+    }
+}
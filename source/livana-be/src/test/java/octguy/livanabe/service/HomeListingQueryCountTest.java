@@ -0,0 +1,47 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.dto.response.HomeListingResponse;
+import octguy.livanabe.support.PostgresIntegrationTest;
+import octguy.livanabe.support.RecordingStatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the batched hydration of the home listing page: the images, amenities, facilities and host profiles of a
+ * page are loaded with one statement each, so a page of 50 listings issues as many statements as a page of 5.
+ */
+@SpringBootTest(properties = {
+        "app.seed.enabled=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "octguy.livanabe.support.RecordingStatementInspector"
+})
+class HomeListingQueryCountTest extends PostgresIntegrationTest {
+
+    @Autowired private IHomeListingService homeListingService;
+
+    @Test
+    void pageSizeDoesNotChangeTheStatementCount() {
+        // Warm up, so lazily loaded caches do not count against the first page
+        homeListingService.getAllHomeListingsPaginated(PageRequest.of(0, 5, Sort.by("id")));
+
+        List<Page<HomeListingResponse>> pages = new ArrayList<>();
+        List<String> small = RecordingStatementInspector.record(() ->
+                pages.add(homeListingService.getAllHomeListingsPaginated(PageRequest.of(0, 5, Sort.by("id")))));
+        List<String> large = RecordingStatementInspector.record(() ->
+                pages.add(homeListingService.getAllHomeListingsPaginated(PageRequest.of(0, 50, Sort.by("id")))));
+
+        assertThat(pages.get(0).getContent()).hasSize(5);
+        assertThat(pages.get(1).getContent()).hasSize(50);
+        assertThat(small).isNotEmpty();
+        assertThat(large).hasSameSizeAs(small);
+    }
+}
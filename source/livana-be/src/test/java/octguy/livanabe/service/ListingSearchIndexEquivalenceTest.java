@@ -0,0 +1,155 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.dto.dto.ListingDistanceDto;
+import octguy.livanabe.repository.ExperienceListingRepository;
+import octguy.livanabe.repository.HomeListingRepository;
+import octguy.livanabe.search.ListingIndexQuery;
+import octguy.livanabe.support.PostgresIntegrationTest;
+import octguy.livanabe.utils.GeoUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Answers random nearest-listing searches from the in-memory search index and from the database query it stands in
+ * for, over the seeded listings. Both must return the same listings in the same order, page by page when resumed
+ * from the same (distance, id) cursor, and in full when unbounded.
+ */
+@SpringBootTest(properties = "app.seed.enabled=true")
+class ListingSearchIndexEquivalenceTest extends PostgresIntegrationTest {
+
+    private static final int SEARCHES = 150;
+    private static final int PAGE_SIZE = 7;
+
+    @Autowired private IListingSearchIndexService listingSearchIndexService;
+    @Autowired private HomeListingRepository homeListingRepository;
+    @Autowired private ExperienceListingRepository experienceListingRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private List<Map<String, Object>> listings;
+    private List<UUID> propertyTypeIds;
+    private List<UUID> categoryIds;
+
+    @BeforeEach
+    void buildIndex() {
+        listingSearchIndexService.rebuild();
+        listings = jdbcTemplate.queryForList("SELECT latitude, longitude FROM base_listing WHERE deleted_at IS NULL");
+        propertyTypeIds = jdbcTemplate.queryForList("SELECT DISTINCT property_type_id FROM home_listing", UUID.class);
+        categoryIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT experience_category_id FROM experience_listing", UUID.class);
+    }
+
+    @Test
+    void indexPagesMatchTheDatabasePages() {
+        Random random = new Random(7);
+        int nonEmpty = 0;
+        for (int i = 0; i < SEARCHES; i++) {
+            Search search = randomSearch(random, i % 2 == 0);
+
+            List<ListingDistanceDto> all = new ArrayList<>();
+            Double cursorDistance = null;
+            UUID cursorId = null;
+            while (true) {
+                List<ListingDistanceDto> fromIndex = fromIndex(search, cursorDistance, cursorId, PAGE_SIZE + 1);
+                List<ListingDistanceDto> fromDatabase = fromDatabase(search, cursorDistance, cursorId, PAGE_SIZE + 1);
+                assertSameRows(fromIndex, fromDatabase, search);
+
+                List<ListingDistanceDto> page = fromIndex.subList(0, Math.min(PAGE_SIZE, fromIndex.size()));
+                all.addAll(page);
+                if (fromIndex.size() <= PAGE_SIZE) {
+                    break;
+                }
+                cursorDistance = page.get(PAGE_SIZE - 1).getDistanceKm();
+                cursorId = page.get(PAGE_SIZE - 1).getId();
+            }
+
+            // The unbounded form returns every page at once
+            assertSameRows(fromIndex(search, null, null, Integer.MAX_VALUE), all, search);
+            assertSameRows(fromDatabase(search, null, null, null), all, search);
+            nonEmpty += all.isEmpty() ? 0 : 1;
+        }
+        // Most searches are centered on a listing, so the comparison is not between empty results
+        assertThat(nonEmpty).isGreaterThan(SEARCHES / 2);
+    }
+
+    private Search randomSearch(Random random, boolean home) {
+        Map<String, Object> center = listings.get(random.nextInt(listings.size()));
+        double latitude = ((Number) center.get("latitude")).doubleValue();
+        double longitude = ((Number) center.get("longitude")).doubleValue();
+        if (random.nextInt(4) == 0) {
+            latitude += random.nextGaussian();
+            longitude += random.nextGaussian();
+        }
+        double radiusKm = new double[]{2, 20, 200, 2000}[random.nextInt(4)];
+        BigDecimal minPrice = random.nextInt(3) == 0 ? BigDecimal.valueOf(random.nextInt(100)) : null;
+        BigDecimal maxPrice = random.nextInt(3) == 0 ? BigDecimal.valueOf(50 + random.nextInt(300)) : null;
+        Integer minCapacity = random.nextInt(3) == 0 ? 1 + random.nextInt(6) : null;
+        List<UUID> groups = home ? propertyTypeIds : categoryIds;
+        UUID groupId = random.nextInt(3) == 0 ? groups.get(random.nextInt(groups.size())) : null;
+        return new Search(home, latitude, longitude, radiusKm, minPrice, maxPrice, minCapacity, groupId);
+    }
+
+    private List<ListingDistanceDto> fromIndex(Search search, Double cursorDistance, UUID cursorId, int limit) {
+        return listingSearchIndexService.findNearest(ListingIndexQuery.builder()
+                .home(search.home())
+                .latitude(search.latitude())
+                .longitude(search.longitude())
+                .radiusKm(search.radiusKm())
+                .boundingBox(search.boundingBox())
+                .minPrice(search.minPrice())
+                .maxPrice(search.maxPrice())
+                .minCapacity(search.minCapacity())
+                .groupId(search.groupId())
+                .cursorDistance(cursorDistance)
+                .cursorId(cursorId)
+                .limit(limit)
+                .build());
+    }
+
+    private List<ListingDistanceDto> fromDatabase(Search search, Double cursorDistance, UUID cursorId, Integer limit) {
+        double[] bbox = search.boundingBox();
+        if (search.home()) {
+            return homeListingRepository.findNearestWithFilters(
+                    search.latitude(), search.longitude(), search.radiusKm(),
+                    bbox[0], bbox[1], bbox[2], bbox[3],
+                    search.minPrice(), search.maxPrice(), search.minCapacity(), search.groupId(),
+                    null, null, null,
+                    cursorDistance, cursorId, limit);
+        }
+        return experienceListingRepository.findNearestWithFilters(
+                search.latitude(), search.longitude(), search.radiusKm(),
+                bbox[0], bbox[1], bbox[2], bbox[3],
+                search.minPrice(), search.maxPrice(), search.minCapacity(), search.groupId(),
+                cursorDistance, cursorId, limit);
+    }
+
+    private static void assertSameRows(List<ListingDistanceDto> actual, List<ListingDistanceDto> expected,
+                                       Search search) {
+        assertThat(actual.stream().map(ListingDistanceDto::getId).toList())
+                .as("%s", search)
+                .containsExactlyElementsOf(expected.stream().map(ListingDistanceDto::getId).toList());
+        for (int i = 0; i < actual.size(); i++) {
+            assertThat(actual.get(i).getDistanceKm()).isCloseTo(expected.get(i).getDistanceKm(), within(1e-9));
+        }
+    }
+
+    private record Search(boolean home, double latitude, double longitude, double radiusKm,
+                          BigDecimal minPrice, BigDecimal maxPrice, Integer minCapacity, UUID groupId) {
+
+        double[] boundingBox() {
+            return GeoUtils.getBoundingBox(latitude, longitude, radiusKm);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package octguy.livanabe.service;
+
+import octguy.livanabe.LivanaBeApplication;
+import octguy.livanabe.dto.request.SendMessageRequest;
+import octguy.livanabe.repository.WebSocketPresenceRepository;
+import octguy.livanabe.service.implementation.UserDetailsServiceImpl;
+import octguy.livanabe.support.EmbeddedAmqpBroker;
+import octguy.livanabe.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two backend instances in routed delivery mode against one database and one AMQP broker, with STOMP clients
+ * split between them. Chat messages sent through either node must reach every recipient exactly once, whichever
+ * node holds the recipient's session, and presence must follow the sessions.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.seed.enabled=true",
+        "app.websocket.delivery=routed",
+        "app.websocket.node-id=node-a"
+})
+class RealtimeDeliveryMultiNodeTest extends PostgresIntegrationTest {
+
+    private static final int RECEIVERS = 20;
+    private static final int MESSAGES_PER_RECEIVER = 25;
+    private static final Duration DELIVERY_TIMEOUT = Duration.ofSeconds(30);
+
+    @Autowired private IChatService chatService;
+    @Autowired private UserDetailsServiceImpl userDetailsService;
+    @Autowired private WebSocketPresenceRepository webSocketPresenceRepository;
+    @Autowired private RabbitListenerEndpointRegistry rabbitListenerEndpointRegistry;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @LocalServerPort private int port;
+
+    private ConfigurableApplicationContext nodeB;
+
+    @DynamicPropertySource
+    static void broker(DynamicPropertyRegistry registry) {
+        registry.add("spring.rabbitmq.port", EmbeddedAmqpBroker::port);
+    }
+
+    @AfterEach
+    void stopNodeB() {
+        SecurityContextHolder.clearContext();
+        if (nodeB != null) {
+            nodeB.close();
+        }
+    }
+
+    @Test
+    void messagesReachTheNodeHoldingTheSession() throws Exception {
+        // The base class keeps listeners stopped; routed delivery needs this node's queue consumed
+        rabbitListenerEndpointRegistry.start();
+        nodeB = startNodeB();
+        int portB = Integer.parseInt(nodeB.getEnvironment().getRequiredProperty("local.server.port"));
+
+        List<Map<String, Object>> users = jdbcTemplate.queryForList(
+                "SELECT id, username FROM \"user\" WHERE deleted_at IS NULL ORDER BY id LIMIT ?", RECEIVERS + 2);
+        String sender = (String) users.get(0).get("username");
+        List<UUID> receivers = users.subList(1, RECEIVERS + 1).stream().map(user -> (UUID) user.get("id")).toList();
+        UUID offline = (UUID) users.get(RECEIVERS + 1).get("id");
+
+        // The first half of the receivers connects to node A, the second half to node B
+        WebSocketStompClient client = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        Map<UUID, AtomicInteger> received = new ConcurrentHashMap<>();
+        List<StompSession> sessions = new ArrayList<>();
+        for (int i = 0; i < receivers.size(); i++) {
+            UUID receiver = receivers.get(i);
+            int nodePort = i < receivers.size() / 2 ? port : portB;
+            StompSession session = client.connectAsync("http://localhost:" + nodePort + "/ws",
+                    new StompSessionHandlerAdapter() {}).get(10, TimeUnit.SECONDS);
+            session.subscribe("/topic/chat/" + receiver, new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return Map.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    received.computeIfAbsent(receiver, id -> new AtomicInteger()).incrementAndGet();
+                }
+            });
+            sessions.add(session);
+        }
+        assertThat(await(() -> webSocketPresenceRepository.count() == RECEIVERS))
+                .as("every subscription is registered").isTrue();
+
+        // Alternate the sending node, so both nodes route to local and remote sessions
+        IChatService chatServiceB = nodeB.getBean(IChatService.class);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                userDetailsService.loadPrincipal(sender).orElseThrow(), null, List.of()));
+        for (int round = 0; round < MESSAGES_PER_RECEIVER; round++) {
+            for (UUID receiver : receivers) {
+                SendMessageRequest request = new SendMessageRequest();
+                request.setReceiverId(receiver);
+                request.setContent("Message " + round);
+                request.setMessageType("TEXT");
+                (round % 2 == 0 ? chatService : chatServiceB).sendMessage(request);
+            }
+        }
+
+        int expected = RECEIVERS * MESSAGES_PER_RECEIVER;
+        await(() -> received.values().stream().mapToInt(AtomicInteger::get).sum() >= expected);
+        for (UUID receiver : receivers) {
+            assertThat(received.get(receiver)).as("messages for %s", receiver).hasValue(MESSAGES_PER_RECEIVER);
+        }
+        assertThat(webSocketPresenceRepository.findNodeIdsByUserId(offline, LocalDateTime.now().minusMinutes(2)))
+                .isEmpty();
+
+        sessions.forEach(StompSession::disconnect);
+        assertThat(await(() -> webSocketPresenceRepository.count() == 0))
+                .as("presence is removed on disconnect").isTrue();
+    }
+
+    // Second instance on the same database and broker, with its own node id and a random port
+    private static ConfigurableApplicationContext startNodeB() {
+        Map<String, String> properties = PostgresIntegrationTest.applicationProperties();
+        properties.put("spring.rabbitmq.port", String.valueOf(EmbeddedAmqpBroker.port()));
+        properties.put("spring.rabbitmq.listener.simple.auto-startup", "true");
+        properties.put("spring.rabbitmq.listener.direct.auto-startup", "true");
+        properties.put("app.websocket.delivery", "routed");
+        properties.put("app.websocket.node-id", "node-b");
+        properties.put("server.port", "0");
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(LivanaBeApplication.class).run(args);
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + DELIVERY_TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
+    }
+}
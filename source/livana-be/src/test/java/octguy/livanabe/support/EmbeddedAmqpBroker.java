@@ -0,0 +1,77 @@
+package octguy.livanabe.support;
+
+import org.apache.qpid.server.SystemLauncher;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * In-memory AMQP 0-9-1 broker (Apache Qpid) standing in for RabbitMQ in tests that need messages to really travel
+ * between nodes. One broker is started per test JVM, on a free port, with the default guest/guest account.
+ */
+public final class EmbeddedAmqpBroker {
+
+    private static final String CONFIG = """
+            {
+              "name": "broker",
+              "modelVersion": "9.0",
+              "authenticationproviders": [{
+                "name": "plain", "type": "Plain", "secureOnlyMechanisms": [],
+                "users": [{"name": "guest", "password": "guest", "type": "managed"}]
+              }],
+              "ports": [{
+                "name": "AMQP", "port": "%d", "authenticationProvider": "plain", "protocols": ["AMQP_0_9_1"],
+                "virtualhostaliases": [
+                  {"name": "nameAlias", "type": "nameAlias"},
+                  {"name": "defaultAlias", "type": "defaultAlias"}
+                ]
+              }],
+              "virtualhostnodes": [{
+                "name": "default", "type": "Memory", "defaultVirtualHostNode": "true",
+                "virtualHostInitialConfiguration": "{\\"type\\": \\"Memory\\"}"
+              }]
+            }""";
+
+    private static int port;
+
+    private EmbeddedAmqpBroker() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    // Port of the broker, starting it on first use
+    public static synchronized int port() {
+        if (port == 0) {
+            try {
+                port = start();
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not start the embedded AMQP broker", e);
+            }
+        }
+        return port;
+    }
+
+    private static int start() throws Exception {
+        int freePort = freePort();
+        Path config = Files.createTempFile("amqp-broker", ".json");
+        Files.writeString(config, CONFIG.formatted(freePort));
+        System.setProperty("qpid.work_dir", Files.createTempDirectory("amqp-broker").toString());
+
+        new SystemLauncher().startup(Map.of(
+                "type", "Memory",
+                "initialConfigurationLocation", config.toUri().toString(),
+                "startupLoggedToSystemOut", false));
+        return freePort;
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package octguy.livanabe.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Base class for Spring Boot tests against a real PostgreSQL. One embedded server is started per test JVM and
+ * migrated by Flyway on context start; every secret the application needs gets a dummy value, the RabbitMQ
+ * listeners stay stopped so no broker is needed, and the email outbox is polled only hourly.
+ */
+public abstract class PostgresIntegrationTest {
+
+    private static final EmbeddedPostgres POSTGRES;
+
+    static {
+        try {
+            POSTGRES = EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        applicationProperties().forEach((name, value) -> registry.add(name, () -> value));
+    }
+
+    /**
+     * Properties pointing an application context at the embedded server, for tests that start further contexts
+     * (other nodes) themselves.
+     */
+    public static Map<String, String> applicationProperties() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", POSTGRES.getJdbcUrl("postgres", "postgres"));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "postgres");
+        properties.put("spring.jwt.secret-key", "dGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQ=");
+        properties.put("spring.jwt.secret-key-expiration", "3600000");
+        properties.put("spring.refresh-token.expiration", "3600000");
+        properties.put("spring.reset-password-token.expiration", "3600000");
+        properties.put("spring.verification-code.expiration", "3600000");
+        properties.put("SUPPORT_EMAIL", "support@example.com");
+        properties.put("APP_PASSWORD", "test");
+        properties.put("CLOUDINARY_CLOUD_NAME", "test");
+        properties.put("CLOUDINARY_API_KEY", "test");
+        properties.put("CLOUDINARY_API_SECRET", "test");
+        properties.put("CLOUDINARY_FOLDER", "test");
+        properties.put("VNPAY_TMN_CODE", "test");
+        properties.put("VNPAY_HASH_SECRET", "test");
+        properties.put("VNPAY_PAY_URL", "http://localhost/pay");
+        properties.put("VNPAY_RETURN_URL", "http://localhost/return");
+        properties.put("FRONTEND_URL", "http://localhost:3000");
+        properties.put("spring.rabbitmq.listener.simple.auto-startup", "false");
+        properties.put("spring.rabbitmq.listener.direct.auto-startup", "false");
+        // Cached contexts share the database, so only a test that sets app.email.outbox.poll-interval-ms itself
+        // should be sending the queued emails
+        properties.put("EMAIL_OUTBOX_POLL_INTERVAL_MS", "3600000");
+        return properties;
+    }
+}
@@ -0,0 +1,31 @@
+package octguy.livanabe.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hibernate statement inspector that remembers the SQL issued by the current thread, so a test can look at the
+ * statements a repository method really sends. Enable it with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> RECORDED = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        RECORDED.get().add(sql);
+        return sql;
+    }
+
+    // Runs the action and returns the statements it issued on this thread
+    public static List<String> record(Runnable action) {
+        RECORDED.get().clear();
+        action.run();
+        List<String> statements = List.copyOf(RECORDED.get());
+        RECORDED.get().clear();
+        return statements;
+    }
+}